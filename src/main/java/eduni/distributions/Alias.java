@@ -0,0 +1,99 @@
+package eduni.distributions;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A random number generator based on an arbitrary discrete distribution,
+ * sampled with Walker's alias method (Vose's construction).
+ * <p>
+ * Given the weights of the outcomes <code>0..n-1</code> (e.g. a drink mix or
+ * routing probabilities), the constructor builds a probability and an alias
+ * table in O(n). A sample picks a column and either keeps it or takes its
+ * alias, so it costs O(1) regardless of the number of outcomes.
+ * @version 1.0
+ */
+
+public class Alias extends Generator implements DiscreteGenerator {
+    private double[] probability;
+    private int[] alias;
+
+    /**
+     * the seed is automatically provided by the <code>SeedGenerator</code>
+     * @param weights The non-negative relative weights of the outcomes
+     */
+    public Alias(double[] weights) {
+	super();
+	set(weights);
+    }
+
+    /**
+     * The constructor with which a specific seed is set for the random
+     * number generator
+     * @param weights The non-negative relative weights of the outcomes
+     * @param seed The initial seed for the generator, two instances with
+     *             the same seed will generate the same sequence of numbers
+     */
+    public Alias(double[] weights, long seed) {
+	super(seed);
+	set(weights);
+    }
+
+    private void set(double[] weights) {
+	if (weights == null || weights.length == 0)
+	    throw new ParameterException("Alias: At least one weight is required.");
+	int n = weights.length;
+	double total = 0.0;
+	for (double w : weights) {
+	    if (!(w >= 0.0) || Double.isInfinite(w))
+		throw new ParameterException("Alias: The weights must be finite and non-negative.");
+	    total += w;
+	}
+	if (total <= 0.0)
+	    throw new ParameterException("Alias: The weights must not all be 0.");
+
+	probability = new double[n];
+	alias = new int[n];
+	double[] scaled = new double[n];
+	Deque<Integer> small = new ArrayDeque<Integer>(), large = new ArrayDeque<Integer>();
+	for (int i=0; i<n; i++) {
+	    scaled[i] = weights[i] * n / total;
+	    if (scaled[i] < 1.0) small.push(i);
+	    else large.push(i);
+	}
+	while (!small.isEmpty() && !large.isEmpty()) {
+	    int s = small.pop(), l = large.pop();
+	    probability[s] = scaled[s];
+	    alias[s] = l;
+	    scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+	    if (scaled[l] < 1.0) small.push(l);
+	    else large.push(l);
+	}
+	// what is left is 1 up to rounding errors
+	while (!large.isEmpty()) {
+	    int l = large.pop();
+	    probability[l] = 1.0;
+	    alias[l] = l;
+	}
+	while (!small.isEmpty()) {
+	    int s = small.pop();
+	    probability[s] = 1.0;
+	    alias[s] = s;
+	}
+    }
+
+    /**
+     * Generate a new random number.
+     * @return The index of the next outcome, between 0 and the number of weights - 1
+     */
+    public long sample() {
+	double u = distrib.source.sample() * probability.length;
+	int column = (int)u;
+	if (column >= probability.length)
+	    column = probability.length - 1;
+	return (u - column < probability[column]) ? column : alias[column];
+    }
+
+    /** @return the number of outcomes */
+    public int size() { return probability.length; }
+}
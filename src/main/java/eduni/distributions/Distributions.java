@@ -254,5 +254,202 @@ public class Distributions {
     public double weibull(double scale, double shape) {
 	return scale * Math.pow(Math.log(source.sample()), 1/shape);
     }
+
+    // constant expected time variants
+    // The methods above loop once per trial, success or degree of freedom.
+    // The variants below use rejection algorithms whose expected cost does
+    // not grow with the parameters.
+
+    /** computes a poisson distribution using Hoermann's transformed rejection
+     * with squeeze (PTRS, 1993) when mean&ge;10 and the multiplication method otherwise
+     * @return a poisson distributed value with the given mean
+     */
+    public long fastPoisson(double mean) {
+	if (mean < 10.0)
+	    return poisson(mean);
+
+	double slam = Math.sqrt(mean), loglam = Math.log(mean);
+	double b = 0.931 + 2.53*slam;
+	double a = -0.059 + 0.02483*b;
+	double invalpha = 1.1239 + 1.1328/(b-3.4);
+	double vr = 0.9277 - 3.6224/(b-2.0);
+	while (true) {
+	    double u = source.sample() - 0.5, v = source.sample();
+	    double us = 0.5 - Math.abs(u);
+	    long k = (long)Math.floor((2.0*a/us + b)*u + mean + 0.43);
+	    if ((us >= 0.07) && (v <= vr))
+		return k;
+	    if ((k < 0) || ((us < 0.013) && (v > us)))
+		continue;
+	    if (Math.log(v) + Math.log(invalpha) - Math.log(a/(us*us) + b)
+		<= -mean + k*loglam - logFactorial(k))
+		return k;
+	}
+    }
+
+    /** computes a binomial distribution using Kachitvichyanukul and Schmeiser's
+     * BTPE algorithm (1988) when trials*min(prob,1-prob)&ge;30 and inversion otherwise
+     * @return the number of successes among trials
+     */
+    public long fastBinomial(double prob, int trials) {
+	double p = Math.min(prob, 1.0-prob);
+	long y = (trials*p < 30.0) ? binomialInversion(p, trials) : binomialBtpe(p, trials);
+	return (prob > 0.5) ? trials - y : y;
+    }
+
+    private long binomialInversion(double p, int n) {
+	double q = 1.0-p;
+	double qn = Math.exp(n*Math.log(q));
+	double np = n*p;
+	double bound = Math.min(n, np + 10.0*Math.sqrt(np*q + 1.0));
+	long x = 0L;
+	double px = qn, u = source.sample();
+	while (u > px) {
+	    x++;
+	    if (x > bound) {
+		x = 0L;
+		px = qn;
+		u = source.sample();
+	    } else {
+		u -= px;
+		px = ((n-x+1)*p*px)/(x*q);
+	    }
+	}
+	return x;
+    }
+
+    private long binomialBtpe(double r, int n) {
+	double q = 1.0-r;
+	double fm = n*r + r;
+	long m = (long)Math.floor(fm);
+	double nrq = n*r*q;
+	double p1 = Math.floor(2.195*Math.sqrt(nrq) - 4.6*q) + 0.5;
+	double xm = m + 0.5, xl = xm - p1, xr = xm + p1;
+	double c = 0.134 + 20.5/(15.3 + m);
+	double a = (fm - xl)/(fm - xl*r);
+	double laml = a*(1.0 + a/2.0);
+	a = (xr - fm)/(xr*q);
+	double lamr = a*(1.0 + a/2.0);
+	double p2 = p1*(1.0 + 2.0*c), p3 = p2 + c/laml, p4 = p3 + c/lamr;
+
+	while (true) {
+	    double u = source.sample()*p4, v = source.sample();
+	    long y;
+	    if (u <= p1)
+		return (long)Math.floor(xm - p1*v + u);
+	    if (u <= p2) {
+		double x = xl + (u-p1)/c;
+		v = v*c + 1.0 - Math.abs(m - x + 0.5)/p1;
+		if (v > 1.0)
+		    continue;
+		y = (long)Math.floor(x);
+	    } else if (u <= p3) {
+		y = (long)Math.floor(xl + Math.log(v)/laml);
+		if (y < 0)
+		    continue;
+		v = v*(u-p2)*laml;
+	    } else {
+		y = (long)Math.floor(xr - Math.log(v)/lamr);
+		if (y > n)
+		    continue;
+		v = v*(u-p3)*lamr;
+	    }
+
+	    long k = Math.abs(y - m);
+	    if ((k <= 20) || (k >= nrq/2.0 - 1.0)) {
+		// explicit evaluation of f(y)/f(m)
+		double s = r/q, aa = s*(n+1), f = 1.0;
+		if (m < y)
+		    for (long i=m+1; i<=y; i++) f *= (aa/i - s);
+		else if (m > y)
+		    for (long i=y+1; i<=m; i++) f /= (aa/i - s);
+		if (v <= f)
+		    return y;
+		continue;
+	    }
+
+	    // squeezing using upper and lower bounds on log(f(y))
+	    double rho = (k/nrq)*((k*(k/3.0 + 0.625) + 0.1666666666666)/nrq + 0.5);
+	    double t = -k*k/(2.0*nrq);
+	    double logv = Math.log(v);
+	    if (logv < t - rho)
+		return y;
+	    if (logv > t + rho)
+		continue;
+
+	    double x1 = y+1, f1 = m+1, z = n+1-m, w = n-y+1;
+	    double bound = xm*Math.log(f1/x1)
+		+ (n-m+0.5)*Math.log(z/w)
+		+ (y-m)*Math.log(w*r/(x1*q))
+		+ stirlingCorrection(f1) + stirlingCorrection(z)
+		+ stirlingCorrection(x1) + stirlingCorrection(w);
+	    if (logv <= bound)
+		return y;
+	}
+    }
+
+    private static double stirlingCorrection(double x) {
+	double x2 = x*x;
+	return (13860.0 - (462.0 - (132.0 - (99.0 - 140.0/x2)/x2)/x2)/x2)/x/166320.0;
+    }
+
+    /** computes a Pascal's distribution as a gamma-mixed poisson distribution
+     * @return successes + fastPoisson(fastGamma((1-prob)/prob, successes))
+     */
+    public long fastPascal(double prob, int successes) {
+	return successes + fastPoisson(fastGamma((1.0-prob)/prob, successes));
+    }
+
+    /** computes a gamma distribution using Marsaglia and Tsang's method (2000);
+     * shapes below 1 are boosted with <i>sample</i>^(1/shape)
+     */
+    public double fastGamma(double scale, double shape) {
+	if (shape < 1.0)
+	    return fastGamma(scale, shape + 1.0) * power(shape);
+
+	double d = shape - 1.0/3.0, c = 1.0/Math.sqrt(9.0*d);
+	while (true) {
+	    double x, v;
+	    do {
+		x = normal2(0.0, 1.0);
+		v = 1.0 + c*x;
+	    } while (v <= 0.0);
+	    v = v*v*v;
+	    double u = source.sample();
+	    if (u < 1.0 - 0.0331*x*x*x*x)
+		return scale*d*v;
+	    if (Math.log(u) < 0.5*x*x + d*(1.0 - v + Math.log(v)))
+		return scale*d*v;
+	}
+    }
+
+    /** computes an Erlang's distribution
+     * @return fastGamma(scale, shape)
+     */
+    public double fastErlang(double scale, double shape) {
+	return fastGamma(scale, shape);
+    }
+
+    /** computes a chisquare distribution
+     * @return fastGamma(2, deg_freedom/2)
+     */
+    public double fastChisquare(long deg_freedom) {
+	return fastGamma(2.0, deg_freedom/2.0);
+    }
+
+    private static final double[] LOG_FACTORIALS = {
+	0.0, 0.0, 0.6931471805599453, 1.791759469228055, 3.1780538303479458,
+	4.787491742782046, 6.579251212010101, 8.525161361065415,
+	10.60460290274525, 12.801827480081469
+    };
+
+    /** log(k!) from a table for small k and Stirling's series otherwise */
+    static double logFactorial(long k) {
+	if (k < LOG_FACTORIALS.length)
+	    return LOG_FACTORIALS[(int)k];
+	double x = k, x2 = x*x;
+	return (x + 0.5)*Math.log(x) - x + 0.5*Math.log(2.0*Math.PI)
+	    + (1.0/12.0 - (1.0/360.0 - 1.0/(1260.0*x2))/x2)/x;
+    }
 }
 
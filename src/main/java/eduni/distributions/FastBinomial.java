@@ -0,0 +1,47 @@
+package eduni.distributions;
+
+/** A random number generator based on the binomial distribution.
+  * Uses <code>Distributions.fastBinomial</code>, whose expected cost does not grow
+  * with the parameters, instead of the per-trial loop of <code>Binomial</code>.
+  * @version 1.0
+  */
+
+public class FastBinomial extends Generator implements DiscreteGenerator {
+    private double prob;
+    private int trials;
+    /**
+     * the seed is automatically provided by the <code>SeedGenerator</code>
+     */
+    public FastBinomial(double prob, int trials) {
+        super();
+        set(prob, trials);
+    }
+
+    /**
+     * The constructor with which a specific seed is set for the random
+     * number generator
+     * @param seed The initial seed for the generator, two instances with
+     *             the same seed will generate the same sequence of numbers
+     */
+    public FastBinomial(double prob, int trials, long seed) {
+        super(seed);
+        set(prob, trials);
+    }
+
+    private void set(double prob, int trials) {
+        if (prob<=0 || prob>1)
+            throw new ParameterException("FastBinomial: The probability of success must be between 0 and 1.");
+        if (trials<=0)
+            throw new ParameterException("FastBinomial: The number of trials must be a positive integer.");
+        this.prob = prob;
+        this.trials = trials;
+    }
+
+    /**
+     * Generate a new random number.
+     * @return The next random number in the sequence
+     */
+    public long sample() { 
+         return distrib.fastBinomial(prob, trials);
+    }
+}
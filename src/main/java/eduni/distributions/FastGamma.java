@@ -0,0 +1,45 @@
+package eduni.distributions;
+
+/** A random number generator based on the gamma distribution.
+  * Uses <code>Distributions.fastGamma</code>, whose expected cost does not grow
+  * with the parameters, instead of the per-trial loop of <code>Gamma</code>.
+  * An Erlang distribution is the special case of an integer shape.
+  * @version 1.0
+  */
+
+public class FastGamma extends Generator implements ContinuousGenerator {
+    private double scale, shape;
+    /**
+     * the seed is automatically provided by the <code>SeedGenerator</code>
+     */
+    public FastGamma(double scale, double shape) {
+        super();
+        set(scale, shape);
+    }
+
+    /**
+     * The constructor with which a specific seed is set for the random
+     * number generator
+     * @param seed The initial seed for the generator, two instances with
+     *             the same seed will generate the same sequence of numbers
+     */
+    public FastGamma(double scale, double shape, long seed) {
+        super(seed);
+        set(scale, shape);
+    }
+
+    private void set(double scale, double shape) {
+        if ((scale<=0) || (shape<=0))
+            throw new ParameterException("FastGamma: The scale and shape parameters must be greater than 0.");
+        this.scale = scale;
+        this.shape = shape;
+    }
+
+    /**
+     * Generate a new random number.
+     * @return The next random number in the sequence
+     */
+    public double sample() { 
+         return distrib.fastGamma(scale, shape);
+    }
+}
@@ -0,0 +1,47 @@
+package eduni.distributions;
+
+/** A random number generator based on the pascal distribution.
+  * Uses <code>Distributions.fastPascal</code>, whose expected cost does not grow
+  * with the parameters, instead of the per-trial loop of <code>Pascal</code>.
+  * @version 1.0
+  */
+
+public class FastPascal extends Generator implements DiscreteGenerator {
+    private double prob;
+    private int successes;
+    /**
+     * the seed is automatically provided by the <code>SeedGenerator</code>
+     */
+    public FastPascal(double prob, int successes) {
+        super();
+        set(prob, successes);
+    }
+
+    /**
+     * The constructor with which a specific seed is set for the random
+     * number generator
+     * @param seed The initial seed for the generator, two instances with
+     *             the same seed will generate the same sequence of numbers
+     */
+    public FastPascal(double prob, int successes, long seed) {
+        super(seed);
+        set(prob, successes);
+    }
+
+    private void set(double prob, int successes) {
+        if (prob<=0 || prob>=1)
+            throw new ParameterException("FastPascal: The probability of success must be between 0 and 1.");
+        if (successes<=0)
+            throw new ParameterException("FastPascal: The number of successes must be a positive integer.");
+        this.prob = prob;
+        this.successes = successes;
+    }
+
+    /**
+     * Generate a new random number.
+     * @return The next random number in the sequence
+     */
+    public long sample() { 
+         return distrib.fastPascal(prob, successes);
+    }
+}
@@ -0,0 +1,43 @@
+package eduni.distributions;
+
+/** A random number generator based on the poisson distribution.
+  * Uses <code>Distributions.fastPoisson</code>, whose expected cost does not grow
+  * with the parameters, instead of the per-trial loop of <code>Poisson</code>.
+  * @version 1.0
+  */
+
+public class FastPoisson extends Generator implements DiscreteGenerator {
+    private double mean;
+    /**
+     * the seed is automatically provided by the <code>SeedGenerator</code>
+     */
+    public FastPoisson(double mean) {
+        super();
+        set(mean);
+    }
+
+    /**
+     * The constructor with which a specific seed is set for the random
+     * number generator
+     * @param seed The initial seed for the generator, two instances with
+     *             the same seed will generate the same sequence of numbers
+     */
+    public FastPoisson(double mean, long seed) {
+        super(seed);
+        set(mean);
+    }
+
+    private void set(double mean) {
+        if (mean<=0)
+            throw new ParameterException("FastPoisson: The mean must be greater than 0.");
+        this.mean = mean;
+    }
+
+    /**
+     * Generate a new random number.
+     * @return The next random number in the sequence
+     */
+    public long sample() { 
+         return distrib.fastPoisson(mean);
+    }
+}
@@ -39,6 +39,30 @@ public class RandomGenerator implements ContinuousGenerator {
 	return seed = (a * seed) % m;
     }
     
+    /**
+     * Returns the multiplier that advances the sequence by <code>steps</code>
+     * numbers at once: <code>(jump(steps)*Y[0]) mod m</code> equals the
+     * number <code>steps</code> calls of <code>nextLong()</code> end at.
+     * @param steps number of numbers to skip
+     * @return the multiplier for <code>skip(long)</code>
+     */
+    static long jump(long steps) {
+	long result = 1;
+	long power = 742938285;
+	for (long n = steps; n > 0; n >>= 1) {
+	    if ((n & 1) != 0) result = (result * power) % 2147483647;
+	    power = (power * power) % 2147483647;
+	}
+	return result;
+    }
+
+    /**
+     * Advances the sequence in one step by as many numbers as the
+     * multiplier returned by <code>jump(long)</code> stands for.
+     * @param multiplier a multiplier returned by <code>jump(long)</code>
+     */
+    void skip(long multiplier) { seed = (multiplier * seed) % m; }
+
     // ----- implements Seedable { -----
     public void setSeed(long seed) { this.seed = seed; }
     public long getSeed() { return seed; }
@@ -6,6 +6,7 @@ package eduni.distributions;
 public class SeedGenerator implements DiscreteGenerator {
     private static long root = 4851L; // The root seed
     private int spacing;
+    private long jump; // skips spacing numbers of the source at once
     private boolean not_sampled = true; // to use the assigned seed (id Costas)
     private RandomGenerator source;
 
@@ -13,6 +14,7 @@ public class SeedGenerator implements DiscreteGenerator {
     public SeedGenerator (long seed, int spacing) { 
 	source = new RandomGenerator(seed);
 	this.spacing = spacing;
+	this.jump = RandomGenerator.jump(spacing);
     }
 
     // ----- implements Seedable { -----
@@ -25,7 +27,7 @@ public class SeedGenerator implements DiscreteGenerator {
     public long sample() {
 	if (not_sampled) not_sampled = false;
 	else
-	    for (int i=0; i<spacing; i++) source.nextLong();
+	    source.skip(jump); // same as spacing calls of source.nextLong()
 	return getSeed();
     }
 
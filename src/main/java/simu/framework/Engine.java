@@ -1,30 +1,73 @@
 package simu.framework;
 
+import simulation.logic.SimulationListener;
+import simulation.logic.Simulator;
+import simulation.model.Customer;
+import simulation.model.Event;
+import simulation.model.ServicePoint;
+import simulation.statistics.LiveStatisticsPublisher;
+import simulation.statistics.SimulationStatistics;
+import simulation.statistics.StatisticsCollector;
 import simulation.ui.IControllerMtoV;
-import simu.model.ServicePoint;
 
-public abstract class Engine extends Thread implements IEngine { // NEW DEFINITIONS
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * GUI front-end over the simulation core in simulation.logic. The engine
+ * steps a Simulator one event time at a time, sleeping between steps to
+ * pace the animation, and reports customer movements to the controller.
+ * Lanes are numbered by the simulator's service point order.
+ *
+ * Runs as a task on a shared executor instead of owning a thread. Pause and
+ * step go through an atomic state; while running, the check before each
+ * step is a single volatile read, and the engine parks only while paused.
+ * The simulator is created on the thread running the task, which gives it
+ * its own clock, so several engines can run side by side.
+ */
+public abstract class Engine implements IEngine, Runnable { // NEW DEFINITIONS
+	private static final int CREATED = 0;
+	private static final int RUNNING = 1;
+	private static final int PAUSED = 2;
+	private static final int STEP = 3; // paused, with one step granted
+	private static final int FINISHED = 4;
+
+	// Java 17 has no virtual threads; idle pool threads are reused by the next run
+	private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable task) {
+			Thread thread = new Thread(task, "engine-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
 	private double simulationTime = 0; // time when the simulation will be stopped
-	private long delay = 0;
-	private Clock clock; // in order to simplify the code (clock.getClock() instead
-							// Clock.getInstance().getClock())
+	private volatile long delay = 0;
 
-	protected EventList eventList;
-	protected ServicePoint[] servicePoints;
 	protected IControllerMtoV controller; // NEW
-	private final Object pauseLock = new Object();
-	private boolean paused = false;
-	private boolean stepMode = false;
-	private boolean stepRequested = false;
+	protected final LiveStatisticsPublisher liveStatistics = new LiveStatisticsPublisher();
+	private final AtomicInteger state = new AtomicInteger(CREATED);
+	private volatile Thread runner;
+	private volatile boolean suspended; // parked at the pause point, between two steps
 
 	public Engine(IControllerMtoV controller) { // NEW
 		this.controller = controller; // NEW
-		clock = Clock.getInstance();
-		eventList = new EventList();
-		/*
-		 * Service Points are created in simu.model-package's class who is inheriting
-		 * the Engine class
-		 */
+	}
+
+	@Override
+	public Future<?> start() {
+		if (!state.compareAndSet(CREATED, RUNNING)) {
+			throw new IllegalStateException("The engine has already been started.");
+		}
+		return EXECUTOR.submit(this);
 	}
 
 	@Override
@@ -44,62 +87,96 @@ public abstract class Engine extends Thread implements IEngine { // NEW DEFINITI
 
 	@Override
 	public void run() {
-		initialization(); // creating, e.g., the first event
-
-		while (simulate()) {
-			waitIfPaused();
-			delay(); // NEW
-			clock.setTime(currentTime());
-			runBEvents();
-			tryCEvents();
+		runner = Thread.currentThread();
+		try {
+			simulate();
+		} catch (RuntimeException | Error e) {
+			e.printStackTrace();
+			controller.showFailure(e); // the run will not report results
+			throw e;
+		} finally {
+			state.set(FINISHED);
+			runner = null;
 		}
-
-		results();
 	}
 
-	private void waitIfPaused() {
-		synchronized (pauseLock) {
-			while ((paused || stepMode) && !stepRequested) {
-				try {
-					pauseLock.wait();
-				} catch (InterruptedException e) {
-					Thread.currentThread().interrupt();
-					return;
+	private void simulate() {
+		Simulator simulator = createSimulator();
+		List<ServicePoint> lanes = simulator.getServicePoints();
+		simulator.addListener(new SimulationListener() {
+			@Override
+			public void onArrival(Event event) {
+				int lane = lanes.indexOf(event.getTarget());
+				for (Customer customer : event.getCustomers()) {
+					controller.visualiseCustomer(customer, lane);
 				}
 			}
-			if (stepRequested) {
-				stepRequested = false;
+
+			@Override
+			public void onRouting(Customer customer, ServicePoint from, ServicePoint to) {
+				if (to != null) {
+					controller.visualiseCustomer(customer, lanes.indexOf(to));
+				}
 			}
-		}
-	}
 
-	private void runBEvents() {
-		while (eventList.getNextTime() == clock.getTime()) {
-			runEvent(eventList.remove());
-		}
-	}
+			@Override
+			public void onExit(Customer customer, ServicePoint from) {
+				controller.removeCustomer(customer);
+			}
 
-	private void tryCEvents() { // define protected, if you want to overwrite
-		for (ServicePoint p : servicePoints) {
-			if (!p.isReserved() && p.isOnQueue()) {
-				p.beginService();
+			@Override
+			public void onBalk(Customer customer, ServicePoint servicePoint) {
+				controller.removeCustomer(customer);
 			}
-		}
-	}
 
-	private double currentTime() {
-		return eventList.getNextTime();
+			@Override
+			public void onRenege(Customer customer, ServicePoint servicePoint) {
+				controller.removeCustomer(customer);
+			}
+		});
+		StatisticsCollector collector = simulator.getStatisticsCollector();
+		collector.setLivePublisher(liveStatistics);
+		simulator.initialize();
+
+		do {
+			waitIfPaused();
+			delay(); // NEW
+		} while (simulator.step(simulationTime));
+
+		collector.publishLive(simulator.getTime());
+		results(simulator.getStatistics());
 	}
 
-	private boolean simulate() {
-		Trace.out(Trace.Level.INFO, "Time is: " + clock.getTime());
-		return clock.getTime() < simulationTime;
+	private void waitIfPaused() {
+		if (state.get() == RUNNING) { // the only cost while running
+			return;
+		}
+		suspended = true;
+		try {
+			while (true) {
+				int current = state.get();
+				if (current == RUNNING || current == STEP && state.compareAndSet(STEP, PAUSED)) {
+					return;
+				}
+				if (current == PAUSED) {
+					LockSupport.park(this);
+					if (Thread.interrupted()) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+			}
+		} finally {
+			suspended = false;
+		}
 	}
 
 	private void delay() { // NEW
-		Trace.out(Trace.Level.INFO, "Delay " + delay);
+		if (delay <= 0) {
+			return;
+		}
 		try {
-			sleep(delay);
+			Thread.sleep(delay);
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
@@ -107,44 +184,60 @@ public abstract class Engine extends Thread implements IEngine { // NEW DEFINITI
 
 	@Override
 	public void pauseSimulation() {
-		synchronized (pauseLock) {
-			paused = true;
-			pauseLock.notifyAll();
-		}
+		state.compareAndSet(RUNNING, PAUSED);
 	}
 
 	@Override
 	public void resumeSimulation() {
-		synchronized (pauseLock) {
-			paused = false;
-			stepMode = false;
-			stepRequested = false;
-			pauseLock.notifyAll();
+		if (transition(RUNNING)) {
+			LockSupport.unpark(runner);
 		}
 	}
 
 	@Override
 	public void stepOnce() {
-		synchronized (pauseLock) {
-			paused = true;
-			stepMode = true;
-			stepRequested = true;
-			pauseLock.notifyAll();
+		if (transition(STEP)) {
+			LockSupport.unpark(runner);
+		}
+	}
+
+	// Moves a started, unfinished engine to the target state
+	private boolean transition(int target) {
+		while (true) {
+			int current = state.get();
+			if (current == CREATED || current == FINISHED) {
+				return false;
+			}
+			if (state.compareAndSet(current, target)) {
+				return true;
+			}
 		}
 	}
 
+	@Override
+	public LiveStatisticsPublisher getLiveStatistics() {
+		return liveStatistics;
+	}
+
 	@Override
 	public boolean isPaused() {
-		synchronized (pauseLock) {
-			return paused || stepMode;
-		}
+		int current = state.get();
+		return current == PAUSED || current == STEP;
+	}
+
+	@Override
+	public boolean isSuspended() {
+		return suspended;
 	}
 
-	protected abstract void initialization(); // Defined in simu.model-package's class who is inheriting the Engine
-												// class
+	@Override
+	public boolean isFinished() {
+		return state.get() == FINISHED;
+	}
 
-	protected abstract void runEvent(Event t); // Defined in simu.model-package's class who is inheriting the Engine
-												// class
+	protected abstract Simulator createSimulator(); // Defined in simu.model-package's class who is inheriting the Engine
+													// class; called on the engine's thread
 
-	protected abstract void results(); // Defined in simu.model-package's class who is inheriting the Engine class
-}
\ No newline at end of file
+	protected abstract void results(SimulationStatistics statistics); // Defined in simu.model-package's class who is
+																		// inheriting the Engine class
+}
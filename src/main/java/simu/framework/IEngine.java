@@ -1,7 +1,13 @@
 package simu.framework;
 
+import simulation.statistics.LiveStatisticsPublisher;
+
+import java.util.concurrent.Future;
+
 /* Controller uses this interface */
 public interface IEngine { // NEW
+	Future<?> start();
+
 	void setSimulationTime(double time);
 
 	void setDelay(long time);
@@ -15,4 +21,14 @@ public interface IEngine { // NEW
 	void stepOnce();
 
 	boolean isPaused();
+
+	/*
+	 * True once a paused engine has finished the step in progress and waits
+	 * to be resumed or stepped; the model does not change until then.
+	 */
+	boolean isSuspended();
+
+	boolean isFinished();
+
+	LiveStatisticsPublisher getLiveStatistics();
 }
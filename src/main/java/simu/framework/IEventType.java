@@ -1,3 +0,0 @@
-package simu.framework;
-
-public interface IEventType {}
@@ -1,109 +1,61 @@
 package simu.model;
 
-import eduni.distributions.Negexp;
-import eduni.distributions.Normal;
-import simulation.model.Customer;
+import simulation.config.SimulationParameters;
+import simulation.logic.Simulator;
+import simulation.logic.SimulatorMain;
+import simulation.statistics.ServicePointStatistics;
+import simulation.statistics.SimulationStatistics;
 import simulation.ui.IControllerMtoV;
-import simu.framework.ArrivalProcess;
-import simu.framework.Clock;
 import simu.framework.Engine;
-import simu.framework.Event;
 import simu.framework.Trace;
 
 public class MyEngine extends Engine {
-    private static final String INSTORE = "INSTORE";
-    private static final String MOBILE = "MOBILE";
-
-    private ArrivalProcess instoreArrival;
-    private ArrivalProcess mobileArrival;
+    private final SimulationParameters parameters;
+    private final Long seed;
 
     public MyEngine(IControllerMtoV controller) {
-        super(controller);
-
-        servicePoints = new ServicePoint[4];
-
-        // 4 service points
-        servicePoints[0] = new ServicePoint(new Normal(3, 1), eventList, EventType.DEP_CASHIER);
-        servicePoints[1] = new ServicePoint(new Normal(5, 2), eventList, EventType.DEP_BARISTA1);
-        servicePoints[2] = new ServicePoint(new Normal(4, 1.5), eventList, EventType.DEP_BARISTA2);
-        servicePoints[3] = new ServicePoint(new Normal(2, 1), eventList, EventType.DEP_PICKUP);
+        this(controller, SimulatorMain.loadParameters());
+    }
 
-        // Arrival processes
-        instoreArrival = new ArrivalProcess(new Negexp(10, 2), eventList, EventType.ARRIVAL_INSTORE);
-        mobileArrival = new ArrivalProcess(new Negexp(12, 3), eventList, EventType.ARRIVAL_MOBILE);
+    public MyEngine(IControllerMtoV controller, SimulationParameters parameters) {
+        super(controller);
+        this.parameters = parameters;
+        this.seed = null;
     }
 
-    @Override
-    protected void initialization() {
-        instoreArrival.generateNext();
-        mobileArrival.generateNext();
+    /**
+     * Creates an engine whose run is reproduced by a batch
+     * {@link Simulator} with the same parameters and seed.
+     *
+     * @param controller receives the run's progress
+     * @param parameters model parameters
+     * @param seed       seed of every random stream
+     */
+    public MyEngine(IControllerMtoV controller, SimulationParameters parameters, long seed) {
+        super(controller);
+        this.parameters = parameters;
+        this.seed = seed;
     }
 
     @Override
-    protected void runEvent(Event t) {
-        Customer c;
-
-        switch ((EventType) t.getType()) {
-            case ARRIVAL_INSTORE:
-                c = new Customer(INSTORE, Clock.getInstance().getTime());
-                servicePoints[0].addQueue(c);
-                instoreArrival.generateNext();
-                controller.visualiseCustomer(c, 0); // Cashier
-                break;
-
-            case ARRIVAL_MOBILE:
-                c = new Customer(MOBILE, Clock.getInstance().getTime());
-                servicePoints[1].addQueue(c); // skips cashier
-                mobileArrival.generateNext();
-                controller.visualiseCustomer(c, 1); // Barista1
-                break;
-
-            case DEP_CASHIER:
-                c = servicePoints[0].removeQueue();
-                servicePoints[1].addQueue(c);
-                controller.visualiseCustomer(c, 1); // Barista1
-                break;
-
-            case DEP_BARISTA1:
-                c = servicePoints[1].removeQueue();
-                if (INSTORE.equals(c.getType())) {
-                    servicePoints[2].addQueue(c);
-                    controller.visualiseCustomer(c, 2); // Barista2
-                } else {
-                    servicePoints[3].addQueue(c);
-                    controller.visualiseCustomer(c, 3); // Pickup
-                }
-                break;
-
-            case DEP_BARISTA2:
-                c = servicePoints[2].removeQueue();
-                servicePoints[3].addQueue(c);
-                controller.visualiseCustomer(c, 3); // Pickup
-                break;
-
-            case DEP_PICKUP:
-                c = servicePoints[3].removeQueue();
-                controller.removeCustomer(c);
-                break;
+    protected Simulator createSimulator() {
+        Simulator simulator = new Simulator(parameters, false);
+        if (seed != null) {
+            simulator.setSeed(seed);
         }
+        return simulator;
     }
 
     @Override
-    protected void results() {
-        double currentTime = Clock.getInstance().getTime();
-        reportServicePointStats(currentTime);
-        controller.showEndTime(currentTime);
-    }
-
-    private void reportServicePointStats(double currentTime) {
-        for (ServicePoint servicePoint : servicePoints) {
-            servicePoint.finalizeBusyTime(currentTime);
+    protected void results(SimulationStatistics statistics) {
+        for (ServicePointStatistics servicePoint : statistics.getServicePointStatistics()) {
             Trace.out(Trace.Level.INFO,
                     String.format("%s -> A=%d, C=%d, B=%.2f",
-                            servicePoint.getEventType(),
+                            servicePoint.getServicePointName(),
                             servicePoint.getArrivals(),
                             servicePoint.getCompletions(),
-                            servicePoint.getBusyTime()));
+                            servicePoint.getTotalServiceTime()));
         }
+        controller.showResults(statistics);
     }
 }
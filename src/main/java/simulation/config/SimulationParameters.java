@@ -1,5 +1,11 @@
 package simulation.config;
 
+import simulation.model.BatchPolicy;
+import simulation.model.QueueDiscipline;
+import simulation.random.RateSchedule;
+
+import java.util.function.Supplier;
+
 /**
  * Immutable container for all configurable parameters of the simulation model.
  * <p>
@@ -23,6 +29,20 @@ public final class SimulationParameters {
     private final double shelfServiceMax;
     private final double deliveryServiceTime;
     private final double simulationDuration;
+    private final String baristaServiceSamples;
+    private final RateSchedule instoreArrivalSchedule;
+    private final RateSchedule mobileArrivalSchedule;
+    private final double instoreBatchMean;
+    private final double mobileBatchMean;
+    private final int cashierServers;
+    private final int baristaServers;
+    private final int instoreBalkThreshold;
+    private final int mobileBalkThreshold;
+    private final double instorePatienceMean;
+    private final double mobilePatienceMean;
+    private final Supplier<QueueDiscipline> baristaQueueDiscipline;
+    private final BatchPolicy baristaBatchPolicy;
+    private final String drinkMix;
 
     private SimulationParameters(Builder builder) {
         this.instoreArrivalMean = builder.instoreArrivalMean;
@@ -34,6 +54,20 @@ public final class SimulationParameters {
         this.shelfServiceMax = builder.shelfServiceMax;
         this.deliveryServiceTime = builder.deliveryServiceTime;
         this.simulationDuration = builder.simulationDuration;
+        this.baristaServiceSamples = builder.baristaServiceSamples;
+        this.instoreArrivalSchedule = builder.instoreArrivalSchedule;
+        this.mobileArrivalSchedule = builder.mobileArrivalSchedule;
+        this.instoreBatchMean = builder.instoreBatchMean;
+        this.mobileBatchMean = builder.mobileBatchMean;
+        this.cashierServers = builder.cashierServers;
+        this.baristaServers = builder.baristaServers;
+        this.instoreBalkThreshold = builder.instoreBalkThreshold;
+        this.mobileBalkThreshold = builder.mobileBalkThreshold;
+        this.instorePatienceMean = builder.instorePatienceMean;
+        this.mobilePatienceMean = builder.mobilePatienceMean;
+        this.baristaQueueDiscipline = builder.baristaQueueDiscipline;
+        this.baristaBatchPolicy = builder.baristaBatchPolicy;
+        this.drinkMix = builder.drinkMix;
     }
 
     public static Builder builder() {
@@ -80,6 +114,140 @@ public final class SimulationParameters {
         return simulationDuration;
     }
 
+    /**
+     * Returns the path of a file with recorded barista service times, or
+     * {@code null} when the normal distribution is used instead.
+     *
+     * @return sample file path or {@code null}
+     */
+    public String getBaristaServiceSamples() {
+        return baristaServiceSamples;
+    }
+
+    /**
+     * Returns the time-of-day arrival rate of in-store customers, or
+     * {@code null} when arrivals are stationary with
+     * {@link #getInstoreArrivalMean()}.
+     *
+     * @return in-store arrival schedule or {@code null}
+     */
+    public RateSchedule getInstoreArrivalSchedule() {
+        return instoreArrivalSchedule;
+    }
+
+    /**
+     * Returns the time-of-day arrival rate of mobile orders, or {@code null}
+     * when arrivals are stationary with {@link #getMobileArrivalMean()}.
+     *
+     * @return mobile arrival schedule or {@code null}
+     */
+    public RateSchedule getMobileArrivalSchedule() {
+        return mobileArrivalSchedule;
+    }
+
+    /**
+     * Returns the mean size of in-store customer groups; 1 means customers
+     * arrive alone.
+     *
+     * @return mean group size, at least 1
+     */
+    public double getInstoreBatchMean() {
+        return instoreBatchMean;
+    }
+
+    /**
+     * Returns the mean number of mobile orders placed together; 1 means
+     * orders arrive one at a time.
+     *
+     * @return mean group size, at least 1
+     */
+    public double getMobileBatchMean() {
+        return mobileBatchMean;
+    }
+
+    public int getCashierServers() {
+        return cashierServers;
+    }
+
+    public int getBaristaServers() {
+        return baristaServers;
+    }
+
+    /**
+     * Returns the queue length at which arriving in-store customers balk,
+     * i.e. leave without joining the cashier queue; {@link Integer#MAX_VALUE}
+     * means they always join.
+     *
+     * @return waiting customers that make an in-store customer balk
+     */
+    public int getInstoreBalkThreshold() {
+        return instoreBalkThreshold;
+    }
+
+    /**
+     * Returns the queue length at which new mobile orders are refused at the
+     * barista; {@link Integer#MAX_VALUE} means every order is accepted.
+     *
+     * @return waiting orders that make a mobile order balk
+     */
+    public int getMobileBalkThreshold() {
+        return mobileBalkThreshold;
+    }
+
+    /**
+     * Returns the mean of the exponentially distributed time an in-store
+     * customer waits in the cashier queue before reneging; infinite means
+     * customers never give up.
+     *
+     * @return mean patience of in-store customers
+     */
+    public double getInstorePatienceMean() {
+        return instorePatienceMean;
+    }
+
+    /**
+     * Returns the mean of the exponentially distributed time a mobile order
+     * waits for a barista before it is cancelled; infinite means orders are
+     * never cancelled.
+     *
+     * @return mean patience of mobile customers
+     */
+    public double getMobilePatienceMean() {
+        return mobilePatienceMean;
+    }
+
+    /**
+     * Returns the factory of the barista's queue discipline, e.g. mobile
+     * orders first or shortest drink first, or {@code null} for first come,
+     * first served. Every simulator gets its own discipline from it.
+     *
+     * @return discipline factory or {@code null}
+     */
+    public Supplier<QueueDiscipline> getBaristaQueueDiscipline() {
+        return baristaQueueDiscipline;
+    }
+
+    /**
+     * Returns how baristas make several compatible drinks at once, or
+     * {@code null} when they make one drink at a time.
+     *
+     * @return batch policy or {@code null}
+     */
+    public BatchPolicy getBaristaBatchPolicy() {
+        return baristaBatchPolicy;
+    }
+
+    /**
+     * Returns the path of a {@code name;weight} file from which every
+     * arriving customer's drink is drawn, or {@code null} when customers
+     * have no drink.
+     *
+     * @return drink mix file path or {@code null}
+     */
+    public String getDrinkMix() {
+        return drinkMix;
+    }
+
     public static final class Builder {
         private double instoreArrivalMean = 4.0;
         private double mobileArrivalMean = 6.0;
@@ -90,6 +258,20 @@ public final class SimulationParameters {
         private double shelfServiceMax = 2.5;
         private double deliveryServiceTime = 4.0;
         private double simulationDuration = 60.0;
+        private String baristaServiceSamples;
+        private RateSchedule instoreArrivalSchedule;
+        private RateSchedule mobileArrivalSchedule;
+        private double instoreBatchMean = 1.0;
+        private double mobileBatchMean = 1.0;
+        private int cashierServers = 1;
+        private int baristaServers = 1;
+        private int instoreBalkThreshold = Integer.MAX_VALUE;
+        private int mobileBalkThreshold = Integer.MAX_VALUE;
+        private double instorePatienceMean = Double.POSITIVE_INFINITY;
+        private double mobilePatienceMean = Double.POSITIVE_INFINITY;
+        private Supplier<QueueDiscipline> baristaQueueDiscipline;
+        private BatchPolicy baristaBatchPolicy;
+        private String drinkMix;
 
         public Builder instoreArrivalMean(double value) {
             this.instoreArrivalMean = value;
@@ -136,6 +318,76 @@ public final class SimulationParameters {
             return this;
         }
 
+        public Builder baristaServiceSamples(String path) {
+            this.baristaServiceSamples = (path == null || path.isBlank()) ? null : path;
+            return this;
+        }
+
+        public Builder instoreArrivalSchedule(RateSchedule schedule) {
+            this.instoreArrivalSchedule = schedule;
+            return this;
+        }
+
+        public Builder mobileArrivalSchedule(RateSchedule schedule) {
+            this.mobileArrivalSchedule = schedule;
+            return this;
+        }
+
+        public Builder instoreBatchMean(double value) {
+            this.instoreBatchMean = value;
+            return this;
+        }
+
+        public Builder mobileBatchMean(double value) {
+            this.mobileBatchMean = value;
+            return this;
+        }
+
+        public Builder cashierServers(int value) {
+            this.cashierServers = value;
+            return this;
+        }
+
+        public Builder baristaServers(int value) {
+            this.baristaServers = value;
+            return this;
+        }
+
+        public Builder instoreBalkThreshold(int value) {
+            this.instoreBalkThreshold = value;
+            return this;
+        }
+
+        public Builder mobileBalkThreshold(int value) {
+            this.mobileBalkThreshold = value;
+            return this;
+        }
+
+        public Builder instorePatienceMean(double value) {
+            this.instorePatienceMean = value;
+            return this;
+        }
+
+        public Builder mobilePatienceMean(double value) {
+            this.mobilePatienceMean = value;
+            return this;
+        }
+
+        public Builder baristaQueueDiscipline(Supplier<QueueDiscipline> factory) {
+            this.baristaQueueDiscipline = factory;
+            return this;
+        }
+
+        public Builder baristaBatchPolicy(BatchPolicy policy) {
+            this.baristaBatchPolicy = policy;
+            return this;
+        }
+
+        public Builder drinkMix(String path) {
+            this.drinkMix = (path == null || path.isBlank()) ? null : path;
+            return this;
+        }
+
         public SimulationParameters build() {
             if (shelfServiceMax <= shelfServiceMin) {
                 throw new IllegalArgumentException("Shelf service max must exceed min.");
@@ -149,6 +401,18 @@ public final class SimulationParameters {
             if (baristaServiceVariance <= 0) {
                 throw new IllegalArgumentException("Barista variance must be positive.");
             }
+            if (instoreBatchMean < 1 || mobileBatchMean < 1) {
+                throw new IllegalArgumentException("Batch means must be at least 1.");
+            }
+            if (cashierServers < 1 || baristaServers < 1) {
+                throw new IllegalArgumentException("Server counts must be at least 1.");
+            }
+            if (instoreBalkThreshold < 1 || mobileBalkThreshold < 1) {
+                throw new IllegalArgumentException("Balk thresholds must be at least 1.");
+            }
+            if (!(instorePatienceMean > 0) || !(mobilePatienceMean > 0)) {
+                throw new IllegalArgumentException("Patience means must be positive.");
+            }
             if (simulationDuration <= 0) {
                 throw new IllegalArgumentException("Simulation duration must be positive.");
             }
@@ -0,0 +1,102 @@
+package simulation.data;
+
+import simulation.logic.SimulatorState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and reads {@link SimulatorState} checkpoints.
+ * <p>
+ * Encoding and writing happen on a single background thread, so a long run
+ * only pauses for the in-memory capture of its state. Every checkpoint is
+ * written to a temporary file next to the target and then moved over it, so
+ * a crash while writing leaves the previous checkpoint intact. Checkpoints
+ * submitted to one store are written in submission order.
+ * </p>
+ */
+public class CheckpointStore implements AutoCloseable {
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "checkpoint-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Writes a checkpoint in the background.
+     *
+     * @param state captured simulator state
+     * @param path  target file; replaced if it exists
+     * @return completes when the file is in place, or exceptionally with an
+     *         {@link UncheckedIOException} if writing fails
+     */
+    public CompletableFuture<Path> saveAsync(SimulatorState state, Path path) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                save(state, path);
+                return path;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, writer);
+    }
+
+    /**
+     * Writes a checkpoint on the calling thread.
+     *
+     * @param state captured simulator state
+     * @param path  target file; replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(SimulatorState state, Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            state.writeTo(out);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a checkpoint written by this class.
+     *
+     * @param path checkpoint file
+     * @return the state, ready for {@link simulation.logic.Simulator#restore(SimulatorState)}
+     * @throws IOException if the file cannot be read or is not a checkpoint
+     */
+    public static SimulatorState load(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            return SimulatorState.readFrom(in);
+        }
+    }
+
+    /**
+     * Waits for pending checkpoints to be written and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            while (!writer.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting; a checkpoint is never abandoned half-written
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package simulation.data;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads files written by {@link ColumnarResultsWriter}.
+ * <p>
+ * The file is memory-mapped, and only the header and block index are decoded
+ * when it is opened. Reading a column visits that column's chunk in every
+ * block and nothing else, so scanning one metric of a large sweep touches a
+ * small fraction of the file. Files up to 2 GB are supported.
+ * </p>
+ * <p>
+ * Instances may be shared between threads once opened.
+ * </p>
+ */
+public class ColumnarResultsReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final String description;
+    private final List<ResultColumn> columns;
+    private final int[] blockRows;
+    private final int[][] chunkOffsets;
+    private final int rowCount;
+
+    /**
+     * Opens a results file.
+     *
+     * @param path the file
+     * @throws IOException if the file cannot be read or is not a results file
+     */
+    public ColumnarResultsReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Results file larger than 2 GB: " + path);
+            }
+            this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int trailer = (int) size - Long.BYTES - Integer.BYTES;
+            if (size < 2 * Integer.BYTES || data.getInt(0) != ColumnarResultsWriter.MAGIC
+                    || trailer < 0 || data.getInt(trailer + Long.BYTES) != ColumnarResultsWriter.MAGIC) {
+                throw new IOException("Not a complete columnar results file: " + path);
+            }
+            ByteBuffer header = data.duplicate();
+            header.position(Integer.BYTES);
+            int version = header.getInt();
+            if (version != ColumnarResultsWriter.VERSION) {
+                throw new IOException("Unsupported results file version " + version + ".");
+            }
+            this.description = getString(header);
+            List<ResultColumn> schema = new ArrayList<>();
+            int columnCount = header.getInt();
+            for (int c = 0; c < columnCount; c++) {
+                String name = getString(header);
+                schema.add(new ResultColumn(name, ResultColumn.Type.values()[header.get()]));
+            }
+            this.columns = List.copyOf(schema);
+
+            ByteBuffer footer = data.duplicate();
+            footer.position((int) data.getLong(trailer));
+            int blocks = footer.getInt();
+            this.blockRows = new int[blocks];
+            this.chunkOffsets = new int[blocks][columnCount];
+            long rows = 0;
+            for (int b = 0; b < blocks; b++) {
+                blockRows[b] = footer.getInt();
+                rows += blockRows[b];
+                for (int c = 0; c < columnCount; c++) {
+                    chunkOffsets[b][c] = (int) footer.getLong();
+                    footer.getInt(); // chunk length, implied by the encoding
+                }
+            }
+            this.rowCount = (int) rows;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            channel.close();
+            throw new IOException("Corrupt columnar results file: " + path, e);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the free-text description stored by the writer.
+     *
+     * @return the description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    public List<ResultColumn> getColumns() {
+        return columns;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getBlockCount() {
+        return blockRows.length;
+    }
+
+    /**
+     * Reads every value of a {@code LONG} column.
+     *
+     * @param name column name
+     * @return values in row order
+     * @throws IllegalArgumentException if there is no such column or it has another type
+     */
+    public long[] readLongs(String name) {
+        int column = columnIndex(name, ResultColumn.Type.LONG);
+        long[] values = new long[rowCount];
+        int row = 0;
+        for (int b = 0; b < blockRows.length; b++) {
+            ByteBuffer chunk = chunk(b, column, ColumnarResultsWriter.DELTA);
+            long value = chunk.getLong();
+            long step = chunk.getLong();
+            int width = chunk.get();
+            values[row++] = value;
+            for (int i = 1; i < blockRows[b]; i++) {
+                long offset = switch (width) {
+                    case 0 -> 0;
+                    case 1 -> Byte.toUnsignedLong(chunk.get());
+                    case 2 -> Short.toUnsignedLong(chunk.getShort());
+                    case 4 -> Integer.toUnsignedLong(chunk.getInt());
+                    default -> chunk.getLong();
+                };
+                value += step + offset;
+                values[row++] = value;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads every value of a {@code DOUBLE} column.
+     *
+     * @param name column name
+     * @return values in row order
+     * @throws IllegalArgumentException if there is no such column or it has another type
+     */
+    public double[] readDoubles(String name) {
+        int column = columnIndex(name, ResultColumn.Type.DOUBLE);
+        double[] values = new double[rowCount];
+        int row = 0;
+        for (int b = 0; b < blockRows.length; b++) {
+            chunk(b, column, ColumnarResultsWriter.RAW).asDoubleBuffer().get(values, row, blockRows[b]);
+            row += blockRows[b];
+        }
+        return values;
+    }
+
+    /**
+     * Reads every value of a {@code STRING} column.
+     *
+     * @param name column name
+     * @return values in row order
+     * @throws IllegalArgumentException if there is no such column or it has another type
+     */
+    public String[] readStrings(String name) {
+        int column = columnIndex(name, ResultColumn.Type.STRING);
+        String[] values = new String[rowCount];
+        int row = 0;
+        for (int b = 0; b < blockRows.length; b++) {
+            ByteBuffer chunk = chunk(b, column, ColumnarResultsWriter.DICTIONARY);
+            String[] dictionary = new String[chunk.getInt()];
+            for (int d = 0; d < dictionary.length; d++) {
+                dictionary[d] = getString(chunk);
+            }
+            int width = chunk.get();
+            for (int i = 0; i < blockRows[b]; i++) {
+                int code = switch (width) {
+                    case 1 -> Byte.toUnsignedInt(chunk.get());
+                    case 2 -> Short.toUnsignedInt(chunk.getShort());
+                    default -> chunk.getInt();
+                };
+                values[row++] = dictionary[code];
+            }
+        }
+        return values;
+    }
+
+    private ByteBuffer chunk(int block, int column, byte encoding) {
+        ByteBuffer chunk = data.duplicate();
+        chunk.position(chunkOffsets[block][column]);
+        if (chunk.get() != encoding) {
+            throw new IllegalStateException("Unexpected encoding in column '" + columns.get(column).name() + "'");
+        }
+        return chunk;
+    }
+
+    private int columnIndex(String name, ResultColumn.Type type) {
+        for (int c = 0; c < columns.size(); c++) {
+            if (columns.get(c).name().equals(name)) {
+                if (columns.get(c).type() != type) {
+                    throw new IllegalArgumentException("Column '" + name + "' holds "
+                            + columns.get(c).type() + " values.");
+                }
+                return c;
+            }
+        }
+        throw new IllegalArgumentException("No column '" + name + "'");
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
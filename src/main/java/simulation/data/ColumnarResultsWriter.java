@@ -0,0 +1,352 @@
+package simulation.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes experiment results in a compact columnar binary format.
+ * <p>
+ * Rows are collected into blocks of a fixed number of rows. When a block is
+ * full, each column is written as one contiguous chunk:
+ * <ul>
+ *     <li>{@code LONG} columns are delta encoded: the first value and the
+ *     smallest difference between neighbouring values, then for every
+ *     further row its difference minus that smallest one, in the narrowest
+ *     fixed width (0, 1, 2, 4 or 8 bytes) that holds them all. Run numbers
+ *     and other counters need no bytes per row at all.</li>
+ *     <li>{@code DOUBLE} columns are stored as raw 8-byte values.</li>
+ *     <li>{@code STRING} columns are dictionary encoded: the distinct values
+ *     of the block, then one fixed-width code per row.</li>
+ * </ul>
+ * The file starts with a schema header and ends with a block index giving
+ * the offset and length of every chunk, so {@link ColumnarResultsReader} can
+ * scan one column without touching the others. All output goes through one
+ * buffer to a {@link FileChannel}.
+ * </p>
+ * <p>
+ * Set every column of a row with the typed setters, then call
+ * {@link #endRow()}. The file is only complete after {@link #close()}.
+ * Instances are not thread-safe.
+ * </p>
+ */
+public class ColumnarResultsWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x43524553; // "CRES"
+    static final int VERSION = 1;
+    static final byte RAW = 0;
+    static final byte DELTA = 1;
+    static final byte DICTIONARY = 2;
+
+    private static final int DEFAULT_BLOCK_ROWS = 8192;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+    private final List<ResultColumn> columns;
+    private final int blockRows;
+    private final long[][] longs;
+    private final double[][] doubles;
+    private final String[][] strings;
+    private final boolean[] set;
+    private final List<long[]> index = new ArrayList<>();
+    private int rows;
+    private long position;
+    private boolean closed;
+
+    /**
+     * Creates a writer with the default block size.
+     *
+     * @param path        output file; replaced if it exists
+     * @param description free text stored in the header, e.g. the experiment setup
+     * @param columns     the schema
+     * @throws IOException if the file cannot be created
+     */
+    public ColumnarResultsWriter(Path path, String description, List<ResultColumn> columns) throws IOException {
+        this(path, description, columns, DEFAULT_BLOCK_ROWS);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param path        output file; replaced if it exists
+     * @param description free text stored in the header, e.g. the experiment setup
+     * @param columns     the schema
+     * @param blockRows   rows per block
+     * @throws IOException              if the file cannot be created
+     * @throws IllegalArgumentException if the schema is empty or has duplicate names
+     */
+    public ColumnarResultsWriter(Path path, String description, List<ResultColumn> columns, int blockRows)
+            throws IOException {
+        if (columns.isEmpty() || blockRows < 1) {
+            throw new IllegalArgumentException("Need at least one column and one row per block.");
+        }
+        Set<String> names = new HashSet<>();
+        for (ResultColumn column : columns) {
+            if (!names.add(column.name())) {
+                throw new IllegalArgumentException("Duplicate column '" + column.name() + "'");
+            }
+        }
+        this.columns = List.copyOf(columns);
+        this.blockRows = blockRows;
+        this.longs = new long[columns.size()][];
+        this.doubles = new double[columns.size()][];
+        this.strings = new String[columns.size()][];
+        for (int c = 0; c < columns.size(); c++) {
+            switch (columns.get(c).type()) {
+                case LONG -> longs[c] = new long[blockRows];
+                case DOUBLE -> doubles[c] = new double[blockRows];
+                case STRING -> strings[c] = new String[blockRows];
+            }
+        }
+        this.set = new boolean[columns.size()];
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeHeader(description == null ? "" : description);
+    }
+
+    public List<ResultColumn> getColumns() {
+        return columns;
+    }
+
+    public void setLong(int column, long value) {
+        checkType(column, ResultColumn.Type.LONG);
+        longs[column][rows] = value;
+        set[column] = true;
+    }
+
+    public void setDouble(int column, double value) {
+        checkType(column, ResultColumn.Type.DOUBLE);
+        doubles[column][rows] = value;
+        set[column] = true;
+    }
+
+    public void setString(int column, String value) {
+        checkType(column, ResultColumn.Type.STRING);
+        if (value == null) {
+            throw new IllegalArgumentException("String values must not be null.");
+        }
+        strings[column][rows] = value;
+        set[column] = true;
+    }
+
+    /**
+     * Completes the current row; a full block is written out.
+     *
+     * @throws IOException           if writing fails
+     * @throws IllegalStateException if a column of the row was not set
+     */
+    public void endRow() throws IOException {
+        for (int c = 0; c < set.length; c++) {
+            if (!set[c]) {
+                throw new IllegalStateException("Column '" + columns.get(c).name() + "' was not set.");
+            }
+        }
+        Arrays.fill(set, false);
+        rows++;
+        if (rows == blockRows) {
+            writeBlock();
+        }
+    }
+
+    private void checkType(int column, ResultColumn.Type type) {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed.");
+        }
+        if (columns.get(column).type() != type) {
+            throw new IllegalArgumentException("Column '" + columns.get(column).name() + "' holds "
+                    + columns.get(column).type() + " values.");
+        }
+    }
+
+    private void writeHeader(String description) throws IOException {
+        putInt(MAGIC);
+        putInt(VERSION);
+        putString(description);
+        putInt(columns.size());
+        for (ResultColumn column : columns) {
+            putString(column.name());
+            putByte((byte) column.type().ordinal());
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        long[] entry = new long[1 + 2 * columns.size()];
+        entry[0] = rows;
+        for (int c = 0; c < columns.size(); c++) {
+            long start = position;
+            switch (columns.get(c).type()) {
+                case LONG -> writeDelta(longs[c]);
+                case DOUBLE -> writeRaw(doubles[c]);
+                case STRING -> writeDictionary(strings[c]);
+            }
+            entry[1 + 2 * c] = start;
+            entry[2 + 2 * c] = position - start;
+        }
+        index.add(entry);
+        rows = 0;
+    }
+
+    private void writeDelta(long[] values) throws IOException {
+        long step = Long.MAX_VALUE;
+        for (int i = 1; i < rows; i++) {
+            step = Math.min(step, values[i] - values[i - 1]);
+        }
+        // offsets from the smallest step are non-negative, compared unsigned in case they wrap
+        long widest = 0;
+        for (int i = 1; i < rows; i++) {
+            long offset = values[i] - values[i - 1] - step;
+            if (Long.compareUnsigned(offset, widest) > 0) {
+                widest = offset;
+            }
+        }
+        int width = widest == 0 ? 0
+                : Long.compareUnsigned(widest, 0xFFL) <= 0 ? 1
+                : Long.compareUnsigned(widest, 0xFFFFL) <= 0 ? 2
+                : Long.compareUnsigned(widest, 0xFFFFFFFFL) <= 0 ? 4 : 8;
+        putByte(DELTA);
+        putLong(values[0]);
+        putLong(rows > 1 ? step : 0);
+        putByte((byte) width);
+        for (int i = 1; i < rows && width > 0; i++) {
+            long offset = values[i] - values[i - 1] - step;
+            ensure(width);
+            switch (width) {
+                case 1 -> buffer.put((byte) offset);
+                case 2 -> buffer.putShort((short) offset);
+                case 4 -> buffer.putInt((int) offset);
+                default -> buffer.putLong(offset);
+            }
+            position += width;
+        }
+    }
+
+    private void writeRaw(double[] values) throws IOException {
+        putByte(RAW);
+        for (int i = 0; i < rows; i++) {
+            ensure(Double.BYTES);
+            buffer.putDouble(values[i]);
+            position += Double.BYTES;
+        }
+    }
+
+    private void writeDictionary(String[] values) throws IOException {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] rowCodes = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            rowCodes[i] = codes.computeIfAbsent(values[i], value -> {
+                dictionary.add(value);
+                return dictionary.size() - 1;
+            });
+        }
+        int width = dictionary.size() <= 0x100 ? 1 : dictionary.size() <= 0x10000 ? 2 : 4;
+        putByte(DICTIONARY);
+        putInt(dictionary.size());
+        for (String value : dictionary) {
+            putString(value);
+        }
+        putByte((byte) width);
+        for (int code : rowCodes) {
+            ensure(width);
+            switch (width) {
+                case 1 -> buffer.put((byte) code);
+                case 2 -> buffer.putShort((short) code);
+                default -> buffer.putInt(code);
+            }
+            position += width;
+        }
+    }
+
+    private void putByte(byte value) throws IOException {
+        ensure(1);
+        buffer.put(value);
+        position++;
+    }
+
+    private void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+        position += Integer.BYTES;
+    }
+
+    private void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+        position += Long.BYTES;
+    }
+
+    private void putString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensure(1);
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+        position += bytes.length;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the last partial block and the block index, and closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (rows > 0) {
+                writeBlock();
+            }
+            long footer = position;
+            putInt(index.size());
+            for (long[] entry : index) {
+                putInt((int) entry[0]);
+                for (int c = 0; c < columns.size(); c++) {
+                    putLong(entry[1 + 2 * c]);
+                    putInt((int) entry[2 + 2 * c]);
+                }
+            }
+            putLong(footer);
+            putInt(MAGIC);
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -1,6 +1,17 @@
 package simulation.data;
 
+import eduni.distributions.Empirical;
+import eduni.distributions.ParameterException;
 import simulation.config.SimulationParameters;
+import simulation.model.BatchPolicy;
+import simulation.model.Customer;
+import simulation.model.DeficitRoundRobinQueue;
+import simulation.model.FifoQueue;
+import simulation.model.PriorityClassQueue;
+import simulation.model.QueueDiscipline;
+import simulation.model.ShortestProcessingTimeQueue;
+import simulation.random.CategoricalGenerator;
+import simulation.random.RateSchedule;
 import simulation.statistics.ServicePointStatistics;
 import simulation.statistics.SimulationStatistics;
 
@@ -10,14 +21,21 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 /**
  * Utility class for reading simulation configuration and writing simulation results.
  * <p>
  * This class provides methods to:
  * <ul>
  *     <li>Load {@link SimulationParameters} from a properties file.</li>
+ *     <li>Load empirical and alias-table distributions from data files.</li>
  *     <li>Write {@link SimulationStatistics} to a CSV file in a structured format.</li>
  * </ul>
  * <p>
@@ -42,6 +60,15 @@ public class FileManager {
      *     <li>shelf.service.max</li>
      *     <li>delivery.service.time</li>
      *     <li>simulation.duration</li>
+     *     <li>cashier.servers</li>
+     *     <li>barista.servers</li>
+     *     <li>instore.balk.threshold, mobile.balk.threshold</li>
+     *     <li>instore.patience.mean, mobile.patience.mean</li>
+     *     <li>barista.queue.discipline with barista.queue.priority,
+     *     barista.queue.weights and barista.queue.quantum</li>
+     *     <li>barista.batch.max with barista.batch.min, barista.batch.timeout
+     *     and barista.batch.compatibility</li>
+     *     <li>drink.mix</li>
      * </ul>
      *
      * @param path path to the properties file
@@ -49,10 +76,32 @@ public class FileManager {
      * @throws IOException if the file cannot be read
      */
     public static SimulationParameters loadParameters(Path path) throws IOException {
+        return parametersFromProperties(loadProperties(path));
+    }
+    /**
+     * Reads a properties file.
+     *
+     * @param path path to the properties file
+     * @return the loaded properties
+     * @throws IOException if the file cannot be read
+     */
+    public static Properties loadProperties(Path path) throws IOException {
         Properties props = new Properties();
         try (InputStream in = Files.newInputStream(path)) {
             props.load(in);
         }
+        return props;
+    }
+    /**
+     * Builds simulation parameters from already loaded properties, using the
+     * keys listed in {@link #loadParameters(Path)}. Missing keys keep their
+     * default values.
+     *
+     * @param props the properties
+     * @return the parameters
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    public static SimulationParameters parametersFromProperties(Properties props) {
         SimulationParameters.Builder builder = SimulationParameters.builder();
         if (props.containsKey("instore.arrival.mean")) {
             builder.instoreArrivalMean(Double.parseDouble(props.getProperty("instore.arrival.mean")));
@@ -81,8 +130,247 @@ public class FileManager {
         if (props.containsKey("simulation.duration")) {
             builder.simulationDuration(Double.parseDouble(props.getProperty("simulation.duration")));
         }
+        if (props.containsKey("barista.service.samples")) {
+            builder.baristaServiceSamples(props.getProperty("barista.service.samples").trim());
+        }
+        if (props.containsKey("drink.mix")) {
+            builder.drinkMix(props.getProperty("drink.mix").trim());
+        }
+        if (props.containsKey("instore.arrival.batch.mean")) {
+            builder.instoreBatchMean(Double.parseDouble(props.getProperty("instore.arrival.batch.mean")));
+        }
+        if (props.containsKey("mobile.arrival.batch.mean")) {
+            builder.mobileBatchMean(Double.parseDouble(props.getProperty("mobile.arrival.batch.mean")));
+        }
+        if (props.containsKey("cashier.servers")) {
+            builder.cashierServers(Integer.parseInt(props.getProperty("cashier.servers").trim()));
+        }
+        if (props.containsKey("barista.servers")) {
+            builder.baristaServers(Integer.parseInt(props.getProperty("barista.servers").trim()));
+        }
+        if (props.containsKey("instore.balk.threshold")) {
+            builder.instoreBalkThreshold(Integer.parseInt(props.getProperty("instore.balk.threshold").trim()));
+        }
+        if (props.containsKey("mobile.balk.threshold")) {
+            builder.mobileBalkThreshold(Integer.parseInt(props.getProperty("mobile.balk.threshold").trim()));
+        }
+        if (props.containsKey("instore.patience.mean")) {
+            builder.instorePatienceMean(Double.parseDouble(props.getProperty("instore.patience.mean")));
+        }
+        if (props.containsKey("mobile.patience.mean")) {
+            builder.mobilePatienceMean(Double.parseDouble(props.getProperty("mobile.patience.mean")));
+        }
+        if (props.containsKey("barista.queue.discipline")) {
+            builder.baristaQueueDiscipline(parseQueueDiscipline(props.getProperty("barista.queue.discipline"),
+                    props.getProperty("barista.queue.priority"),
+                    props.getProperty("barista.queue.weights"),
+                    props.getProperty("barista.queue.quantum")));
+        }
+        if (props.containsKey("barista.batch.max")) {
+            builder.baristaBatchPolicy(parseBatchPolicy(props.getProperty("barista.batch.min"),
+                    props.getProperty("barista.batch.max"),
+                    props.getProperty("barista.batch.timeout"),
+                    props.getProperty("barista.batch.compatibility")));
+        }
+        if (props.containsKey("instore.arrival.rates")) {
+            builder.instoreArrivalSchedule(parseRateSchedule(props.getProperty("instore.arrival.rates"),
+                    props.getProperty("instore.arrival.rates.interpolation"),
+                    props.getProperty("instore.arrival.rates.period")));
+        }
+        if (props.containsKey("mobile.arrival.rates")) {
+            builder.mobileArrivalSchedule(parseRateSchedule(props.getProperty("mobile.arrival.rates"),
+                    props.getProperty("mobile.arrival.rates.interpolation"),
+                    props.getProperty("mobile.arrival.rates.period")));
+        }
         return builder.build();
     }
+    /**
+     * Parses a time-of-day arrival rate schedule.
+     * <p>
+     * The breakpoints are given as comma-separated {@code time:rate} pairs,
+     * for example {@code 0:1.25, 120:0.25}, with rates in customers per
+     * minute. The interpolation is {@code step} (default) or {@code linear};
+     * an optional period makes the schedule repeat.
+     * </p>
+     *
+     * @param rates         comma-separated {@code time:rate} pairs
+     * @param interpolation {@code step}, {@code linear} or {@code null}
+     * @param period        cycle length or {@code null}
+     * @return the parsed schedule
+     * @throws IllegalArgumentException if the schedule is malformed
+     */
+    public static RateSchedule parseRateSchedule(String rates, String interpolation, String period) {
+        String[] pairs = rates.split(",");
+        double[] times = new double[pairs.length];
+        double[] values = new double[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            String[] parts = pairs[i].split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Rate schedule entry must be time:rate, got '" + pairs[i] + "'");
+            }
+            times[i] = Double.parseDouble(parts[0].trim());
+            values[i] = Double.parseDouble(parts[1].trim());
+        }
+        boolean linear = interpolation != null && interpolation.trim().equalsIgnoreCase("linear");
+        RateSchedule schedule = linear
+                ? RateSchedule.piecewiseLinear(times, values)
+                : RateSchedule.piecewiseConstant(times, values);
+        if (period != null && !period.isBlank()) {
+            schedule = schedule.periodic(Double.parseDouble(period.trim()));
+        }
+        return schedule;
+    }
+    /**
+     * Parses a queue discipline.
+     * <p>
+     * The discipline is {@code fifo}, {@code priority} (customer types in
+     * the order given by {@code priority}, e.g. {@code MOBILE, INSTORE}),
+     * {@code spt} (shortest service time first) or {@code drr} (deficit
+     * round-robin with comma-separated {@code type:weight} pairs, e.g.
+     * {@code INSTORE:1, MOBILE:2}, and an optional quantum of server time
+     * per unit of weight, 1.0 by default).
+     * </p>
+     *
+     * @param discipline {@code fifo}, {@code priority}, {@code spt} or {@code drr}
+     * @param priority   customer types, highest priority first, or {@code null} for mobile orders first
+     * @param weights    {@code type:weight} pairs, or {@code null} for equal weights
+     * @param quantum    round-robin quantum or {@code null}
+     * @return a factory creating a new discipline for each simulator
+     * @throws IllegalArgumentException if the discipline is unknown or malformed
+     */
+    public static Supplier<QueueDiscipline> parseQueueDiscipline(String discipline, String priority,
+            String weights, String quantum) {
+        Supplier<QueueDiscipline> factory = switch (discipline.trim().toLowerCase(Locale.ROOT)) {
+            case "fifo" -> FifoQueue::new;
+            case "spt" -> ShortestProcessingTimeQueue::new;
+            case "priority" -> {
+                List<String> classes = new ArrayList<>();
+                for (String type : (priority == null ? "MOBILE, INSTORE" : priority).split(",")) {
+                    classes.add(type.trim());
+                }
+                yield () -> new PriorityClassQueue(classes);
+            }
+            case "drr" -> {
+                Map<String, Double> shares = new LinkedHashMap<>();
+                for (String pair : (weights == null ? "INSTORE:1, MOBILE:1" : weights).split(",")) {
+                    String[] parts = pair.split(":");
+                    if (parts.length != 2) {
+                        throw new IllegalArgumentException("Queue weight must be type:weight, got '" + pair + "'");
+                    }
+                    shares.put(parts[0].trim(), Double.parseDouble(parts[1].trim()));
+                }
+                double unit = quantum == null || quantum.isBlank() ? 1.0 : Double.parseDouble(quantum.trim());
+                yield () -> new DeficitRoundRobinQueue(shares, unit);
+            }
+            default -> throw new IllegalArgumentException("Unknown queue discipline '" + discipline + "'");
+        };
+        // an invalid configuration fails while loading, not when the simulator is created
+        factory.get();
+        return factory;
+    }
+    /**
+     * Parses a batch service policy.
+     * <p>
+     * Up to {@code max} compatible customers are served together. Service
+     * starts with {@code min} of them (1 by default), or with fewer once the
+     * idle server has waited {@code timeout} (forever by default).
+     * Compatibility is {@code type} (default, customers of the same type),
+     * {@code drink} (customers who ordered the same drink, see
+     * {@code drink.mix}) or {@code any}.
+     * </p>
+     *
+     * @param min           smallest batch that starts at once, or {@code null}
+     * @param max           largest batch
+     * @param timeout       batch forming timeout, or {@code null}
+     * @param compatibility {@code type}, {@code drink}, {@code any} or {@code null}
+     * @return the parsed policy
+     * @throws IllegalArgumentException if the policy is malformed
+     */
+    public static BatchPolicy parseBatchPolicy(String min, String max, String timeout, String compatibility) {
+        int minSize = min == null || min.isBlank() ? 1 : Integer.parseInt(min.trim());
+        int maxSize = Integer.parseInt(max.trim());
+        double formingTimeout = timeout == null || timeout.isBlank()
+                ? Double.POSITIVE_INFINITY : Double.parseDouble(timeout.trim());
+        String key = compatibility == null ? "type" : compatibility.trim().toLowerCase(Locale.ROOT);
+        return switch (key) {
+            case "type" -> new BatchPolicy(minSize, maxSize, formingTimeout);
+            case "drink" -> new BatchPolicy(minSize, maxSize, formingTimeout, Customer::getDrink);
+            case "any" -> new BatchPolicy(minSize, maxSize, formingTimeout, customer -> Boolean.TRUE);
+            default -> throw new IllegalArgumentException("Unknown batch compatibility '" + compatibility + "'");
+        };
+    }
+
+    /**
+     * Builds an empirical distribution from a file of recorded observations.
+     * <p>
+     * The file contains one number per line; blank lines and lines starting
+     * with {@code #} are ignored.
+     * </p>
+     *
+     * @param path path to the sample file, e.g. {@code config/barista-service-samples.txt}
+     * @return an {@link Empirical} generator fitted to the samples
+     * @throws IOException if the file cannot be read, holds no samples or contains an invalid number
+     */
+    public static Empirical loadEmpirical(Path path) throws IOException {
+        List<String> lines = readDataLines(path);
+        if (lines.isEmpty()) {
+            throw new IOException("No samples in " + path);
+        }
+        double[] samples = new double[lines.size()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = parseNumber(path, lines.get(i));
+        }
+        return new Empirical(samples);
+    }
+    /**
+     * Builds an alias-table distribution from a file of weighted outcomes.
+     * <p>
+     * Each line has the form {@code name;weight}; the sampled index refers to
+     * the order of the lines. Blank lines and lines starting with {@code #}
+     * are ignored.
+     * </p>
+     *
+     * @param path path to the weights file, e.g. {@code config/drink-mix.csv}
+     * @return a generator over the named outcomes, sampled with an alias table
+     * @throws IOException if the file cannot be read, holds no outcomes or contains an invalid line
+     */
+    public static CategoricalGenerator loadAlias(Path path) throws IOException {
+        List<String> lines = readDataLines(path);
+        if (lines.isEmpty()) {
+            throw new IOException("No outcomes in " + path);
+        }
+        List<String> names = new ArrayList<>(lines.size());
+        double[] weights = new double[lines.size()];
+        for (int i = 0; i < weights.length; i++) {
+            String line = lines.get(i);
+            int separator = line.lastIndexOf(';');
+            if (separator <= 0) {
+                throw new IOException("Expected name;weight but got '" + line + "' in " + path);
+            }
+            names.add(line.substring(0, separator).trim());
+            weights[i] = parseNumber(path, line.substring(separator + 1));
+        }
+        try {
+            return new CategoricalGenerator(names, weights);
+        } catch (ParameterException e) {
+            throw new IOException("Invalid weights in " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static List<String> readDataLines(Path path) throws IOException {
+        return Files.readAllLines(path, StandardCharsets.UTF_8).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .collect(Collectors.toList());
+    }
+
+    private static double parseNumber(Path path, String text) throws IOException {
+        try {
+            return Double.parseDouble(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number '" + text + "' in " + path, e);
+        }
+    }
     /**
      * Writes simulation statistics to a CSV file.
      * <p>
@@ -118,6 +406,9 @@ public class FileManager {
             writeSummaryLine(writer, "Average service time", statistics.getAverageServiceTimePerCustomer());
             writeSummaryLine(writer, "Throughput", statistics.getThroughput());
             writeSummaryLine(writer, "Average number in system", statistics.getAverageNumberInSystem());
+            writeSummaryLine(writer, "Balked", statistics.getTotalBalked());
+            writeSummaryLine(writer, "Reneged", statistics.getTotalReneged());
+            writeSummaryLine(writer, "Abandonment rate", statistics.getAbandonmentRate());
             writer.newLine();
             writer.write("# Service Point Statistics");
             writer.newLine();
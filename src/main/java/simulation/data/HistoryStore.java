@@ -0,0 +1,286 @@
+package simulation.data;
+
+import simulation.ui.SimulationSummary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only binary store of simulation history entries.
+ * <p>
+ * Every entry is one fixed-size record in the data file, so entry {@code i}
+ * is found by arithmetic and the newest entries are the last bytes of the
+ * file. A sidecar index file holds the timestamp of every
+ * {@value #INDEX_INTERVAL}th record; a time-range query binary searches that
+ * small file and then maps only the records in range. Reads map just the
+ * region they return.
+ * </p>
+ * <p>
+ * Timestamps never decrease: an entry stamped earlier than its predecessor,
+ * e.g. after the system clock was set back, takes the predecessor's
+ * timestamp. A record cut short by a crash is ignored, and a missing or
+ * stale index is rebuilt from the data file when the store is opened.
+ * </p>
+ * <p>
+ * The store is derived from another file, the CSV history. The header
+ * records the size and modification time that file had when the store was
+ * last brought up to date, so a caller can tell when it must be rebuilt.
+ * </p>
+ */
+final class HistoryStore {
+
+    static final int INDEX_INTERVAL = 64;
+
+    private static final int MAGIC = 0x43534832; // "CSH2"
+    // magic, record size, source file size, source modification time
+    private static final int HEADER_SIZE = 24;
+    // timestamp (epoch seconds), simulation time, customers, average wait, padding
+    private static final int RECORD_SIZE = 32;
+
+    private final Path dataFile;
+    private final Path indexFile;
+    private long count;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private long sourceSize = -1;
+    private long sourceModified = -1;
+
+    /**
+     * Opens the store, creating both files if needed.
+     *
+     * @param dataFile  the record file
+     * @param indexFile the sidecar timestamp index
+     * @throws IOException if the files cannot be opened or the data file is foreign or outdated
+     */
+    HistoryStore(Path dataFile, Path indexFile) throws IOException {
+        this.dataFile = dataFile;
+        this.indexFile = indexFile;
+        Path parent = dataFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(RECORD_SIZE)
+                        .putLong(sourceSize).putLong(sourceModified).flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                channel.read(header, 0);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != RECORD_SIZE) {
+                    throw new IOException("Not a history store: " + dataFile);
+                }
+                sourceSize = header.getLong(8);
+                sourceModified = header.getLong(16);
+            }
+            count = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+            // drop a record cut short by a crash
+            channel.truncate(HEADER_SIZE + count * RECORD_SIZE);
+            if (count > 0) {
+                lastTimestamp = readTimestamp(channel, count - 1);
+            }
+            repairIndex(channel);
+        }
+    }
+
+    long size() {
+        return count;
+    }
+
+    /**
+     * Tells whether the store is up to date with its source file.
+     *
+     * @param size     current size of the source file, 0 if it is missing
+     * @param modified current modification time of the source file in milliseconds, 0 if it is missing
+     * @return true if the store was last brought up to date with exactly this file
+     */
+    boolean isDerivedFrom(long size, long modified) {
+        return size == sourceSize && modified == sourceModified;
+    }
+
+    /**
+     * Records that the store is up to date with its source file.
+     *
+     * @param size     size of the source file
+     * @param modified modification time of the source file in milliseconds
+     * @throws IOException if writing fails
+     */
+    void markDerivedFrom(long size, long modified) throws IOException {
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(2 * Long.BYTES).putLong(size).putLong(modified).flip(), 8);
+        }
+        sourceSize = size;
+        sourceModified = modified;
+    }
+
+    /**
+     * Removes all entries.
+     *
+     * @throws IOException if the files cannot be truncated
+     */
+    void clear() throws IOException {
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.WRITE);
+                FileChannel index = FileChannel.open(indexFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE)) {
+            channel.truncate(HEADER_SIZE);
+            index.truncate(0);
+        }
+        count = 0;
+        lastTimestamp = Long.MIN_VALUE;
+    }
+
+    /**
+     * Appends an entry.
+     *
+     * @param timestamp when the run finished
+     * @param summary   the run summary
+     * @throws IOException if writing fails
+     */
+    void append(LocalDateTime timestamp, SimulationSummary summary) throws IOException {
+        long seconds = Math.max(timestamp.toEpochSecond(ZoneOffset.UTC), lastTimestamp);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE)
+                .putLong(seconds)
+                .putDouble(summary.simulationTime())
+                .putInt(summary.totalCustomersServed())
+                .putDouble(summary.averageWaitingTime());
+        record.clear();
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.WRITE)) {
+            channel.write(record, HEADER_SIZE + count * RECORD_SIZE);
+        }
+        if (count % INDEX_INTERVAL == 0) {
+            try (FileChannel index = FileChannel.open(indexFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                index.write(ByteBuffer.allocate(Long.BYTES).putLong(0, seconds), count / INDEX_INTERVAL * Long.BYTES);
+            }
+        }
+        count++;
+        lastTimestamp = seconds;
+    }
+
+    /**
+     * Reads the newest entries.
+     *
+     * @param limit maximum number of entries
+     * @return up to {@code limit} entries, oldest first
+     * @throws IOException if reading fails
+     */
+    List<SimulationHistoryRepository.SimulationHistoryEntry> readLatest(int limit) throws IOException {
+        long first = Math.max(0, count - Math.max(0, limit));
+        return read(first, count);
+    }
+
+    /**
+     * Reads the entries stamped in {@code [from, to)}.
+     *
+     * @param from first timestamp included
+     * @param to   first timestamp excluded
+     * @return matching entries, oldest first
+     * @throws IOException if reading fails
+     */
+    List<SimulationHistoryRepository.SimulationHistoryEntry> readRange(LocalDateTime from, LocalDateTime to)
+            throws IOException {
+        long start = from.toEpochSecond(ZoneOffset.UTC);
+        long end = to.toEpochSecond(ZoneOffset.UTC);
+        if (count == 0 || start >= end) {
+            return List.of();
+        }
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            long first = lowerBound(channel, start);
+            // timestamps are sorted, so the range ends at the first record at or after 'to'
+            return read(channel, first, search(channel, first, count, end));
+        }
+    }
+
+    // First record with timestamp >= seconds; the index narrows the search to one interval
+    private long lowerBound(FileChannel channel, long seconds) throws IOException {
+        long low;
+        long high;
+        try (FileChannel index = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long entries = index.size() / Long.BYTES;
+            MappedByteBuffer keys = index.map(FileChannel.MapMode.READ_ONLY, 0, entries * Long.BYTES);
+            long lowEntry = 0;
+            long highEntry = entries;
+            while (lowEntry < highEntry) {
+                long middle = (lowEntry + highEntry) >>> 1;
+                if (keys.getLong((int) (middle * Long.BYTES)) < seconds) {
+                    lowEntry = middle + 1;
+                } else {
+                    highEntry = middle;
+                }
+            }
+            // records of the interval before lowEntry may still match
+            low = Math.max(0, (lowEntry - 1) * INDEX_INTERVAL);
+            high = Math.min(count, lowEntry * INDEX_INTERVAL);
+        }
+        return search(channel, low, high, seconds);
+    }
+
+    // First record in [low, high) with timestamp >= seconds, or high
+    private static long search(FileChannel channel, long low, long high, long seconds) throws IOException {
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (readTimestamp(channel, middle) < seconds) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private List<SimulationHistoryRepository.SimulationHistoryEntry> read(long first, long end) throws IOException {
+        if (first >= end) {
+            return List.of();
+        }
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            return read(channel, first, end);
+        }
+    }
+
+    private static List<SimulationHistoryRepository.SimulationHistoryEntry> read(FileChannel channel, long first,
+            long end) throws IOException {
+        if (first >= end) {
+            return List.of();
+        }
+        MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY,
+                HEADER_SIZE + first * RECORD_SIZE, (end - first) * RECORD_SIZE);
+        List<SimulationHistoryRepository.SimulationHistoryEntry> entries = new ArrayList<>((int) (end - first));
+        for (int offset = 0; offset < records.capacity(); offset += RECORD_SIZE) {
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(records.getLong(offset), 0, ZoneOffset.UTC);
+            SimulationSummary summary = new SimulationSummary(records.getDouble(offset + 8),
+                    records.getInt(offset + 16), records.getDouble(offset + 20));
+            entries.add(new SimulationHistoryRepository.SimulationHistoryEntry(timestamp, summary));
+        }
+        return entries;
+    }
+
+    private static long readTimestamp(FileChannel channel, long record) throws IOException {
+        ByteBuffer timestamp = ByteBuffer.allocate(Long.BYTES);
+        channel.read(timestamp, HEADER_SIZE + record * RECORD_SIZE);
+        return timestamp.getLong(0);
+    }
+
+    // Makes the index hold exactly one timestamp per started interval of records
+    private void repairIndex(FileChannel data) throws IOException {
+        long entries = (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+        try (FileChannel index = FileChannel.open(indexFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long valid = Math.min(index.size() / Long.BYTES, entries);
+            index.truncate(valid * Long.BYTES);
+            for (long entry = valid; entry < entries; entry++) {
+                long timestamp = readTimestamp(data, entry * INDEX_INTERVAL);
+                index.write(ByteBuffer.allocate(Long.BYTES).putLong(0, timestamp), entry * Long.BYTES);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package simulation.data;
+
+/**
+ * Name and type of one column of a columnar results file.
+ *
+ * @param name column name, unique within the file
+ * @param type value type
+ * @see ColumnarResultsWriter
+ */
+public record ResultColumn(String name, Type type) {
+
+    /**
+     * Value types of a column and how each is stored.
+     */
+    public enum Type {
+        /** Whole numbers, delta encoded with the narrowest fixed width per block. */
+        LONG,
+        /** Floating-point numbers, stored as raw 8-byte values. */
+        DOUBLE,
+        /** Text, dictionary encoded per block. */
+        STRING
+    }
+
+    public ResultColumn {
+        if (name == null || name.isEmpty() || type == null) {
+            throw new IllegalArgumentException("A column needs a name and a type.");
+        }
+    }
+
+    public static ResultColumn longColumn(String name) {
+        return new ResultColumn(name, Type.LONG);
+    }
+
+    public static ResultColumn doubleColumn(String name) {
+        return new ResultColumn(name, Type.DOUBLE);
+    }
+
+    public static ResultColumn stringColumn(String name) {
+        return new ResultColumn(name, Type.STRING);
+    }
+}
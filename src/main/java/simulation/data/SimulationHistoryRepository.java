@@ -30,14 +30,43 @@ import java.util.stream.Collectors;
  * Provides methods to append a new summary to the history and to read all
  * past summaries.
  * </p>
+ * <p>
+ * Every entry is also kept in a {@link HistoryStore} next to the CSV file,
+ * with fixed-size binary records and a timestamp index. The paged reads
+ * {@link #readLatest(int)} and {@link #readRange(LocalDateTime, LocalDateTime)}
+ * use that store and only touch the entries they return, so their cost does
+ * not grow with the history. The CSV file stays the only source of truth:
+ * whenever it has changed behind the repository's back, e.g. it was edited
+ * or deleted, the store is rebuilt from it before the next read.
+ * </p>
  */
 public class SimulationHistoryRepository {
 
     private static final Path HISTORY_FILE = Path.of("output", "simulation-history.csv");
     private static final DateTimeFormatter TIMESTAMP_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withLocale(Locale.US);
+
+    private final Path historyFile;
+    private HistoryStore store;
+
+    /**
+     * Creates a repository for {@code output/simulation-history.csv}.
+     */
+    public SimulationHistoryRepository() {
+        this(HISTORY_FILE);
+    }
+
     /**
-     * Appends a simulation summary to the history CSV file.
+     * Creates a repository for the given CSV file; the binary store uses the
+     * same name with the extensions {@code .bin} and {@code .idx}.
+     *
+     * @param historyFile path of the CSV history file
+     */
+    public SimulationHistoryRepository(Path historyFile) {
+        this.historyFile = historyFile;
+    }
+    /**
+     * Appends a simulation summary to the history CSV file and the binary store.
      * <p>
      * If the history file does not exist, it will be created along with the parent
      * directories, and a header row will be added.
@@ -45,26 +74,85 @@ public class SimulationHistoryRepository {
      * @param summary the simulation summary to append
      * @throws IOException if an I/O error occurs while writing
      */
-    public void append(SimulationSummary summary) throws IOException {
-        Path parent = HISTORY_FILE.toAbsolutePath().getParent();
+    public synchronized void append(SimulationSummary summary) throws IOException {
+        // bring the store up to date first, so its import of the CSV file cannot include this entry
+        HistoryStore history = store();
+        Path parent = historyFile.toAbsolutePath().getParent();
         if (parent != null) {
             Files.createDirectories(parent);
         }
-        boolean writeHeader = Files.notExists(HISTORY_FILE);
-        try (BufferedWriter writer = Files.newBufferedWriter(HISTORY_FILE, StandardCharsets.UTF_8,
+        boolean writeHeader = Files.notExists(historyFile);
+        try (BufferedWriter writer = Files.newBufferedWriter(historyFile, StandardCharsets.UTF_8,
                 StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
             if (writeHeader) {
                 writer.write("timestamp;simulationTime;totalCustomers;averageWaiting");
                 writer.newLine();
             }
-            LocalDateTime now = LocalDateTime.now();
-            writer.write(String.format(Locale.US, "%s;%.3f;%d;%.3f",
-                    now.format(TIMESTAMP_FORMAT),
+            String line = String.format(Locale.US, "%s;%.3f;%d;%.3f",
+                    LocalDateTime.now().format(TIMESTAMP_FORMAT),
                     summary.simulationTime(),
                     summary.totalCustomersServed(),
-                    summary.averageWaitingTime()));
+                    summary.averageWaitingTime());
+            writer.write(line);
             writer.newLine();
+            writer.flush();
+            // store the rounded values of the CSV row, so both reads return the same entry
+            SimulationHistoryEntry entry = parseLine(line);
+            history.append(entry.timestamp(), entry.summary());
+        }
+        history.markDerivedFrom(Files.size(historyFile), Files.getLastModifiedTime(historyFile).toMillis());
+    }
+    /**
+     * Reads the most recent history entries.
+     *
+     * @param limit maximum number of entries
+     * @return up to {@code limit} entries, oldest first
+     * @throws IOException if an I/O error occurs while reading
+     */
+    public synchronized List<SimulationHistoryEntry> readLatest(int limit) throws IOException {
+        return store().readLatest(limit);
+    }
+    /**
+     * Reads the history entries of a time range.
+     *
+     * @param from first time included
+     * @param to   first time excluded
+     * @return the entries in range, oldest first
+     * @throws IOException if an I/O error occurs while reading
+     */
+    public synchronized List<SimulationHistoryEntry> readRange(LocalDateTime from, LocalDateTime to)
+            throws IOException {
+        return store().readRange(from, to);
+    }
+
+    // Opens the binary store and rebuilds it if the CSV file changed since it was last updated
+    private HistoryStore store() throws IOException {
+        String name = historyFile.getFileName().toString().replaceFirst("\\.csv$", "");
+        Path dataFile = historyFile.resolveSibling(name + ".bin");
+        Path indexFile = historyFile.resolveSibling(name + ".idx");
+        if (store == null) {
+            try {
+                store = new HistoryStore(dataFile, indexFile);
+            } catch (IOException e) {
+                // the store is derived data, so one in an old format is simply replaced
+                Files.deleteIfExists(dataFile);
+                Files.deleteIfExists(indexFile);
+                store = new HistoryStore(dataFile, indexFile);
+            }
+        }
+        boolean exists = Files.exists(historyFile);
+        long size = exists ? Files.size(historyFile) : 0;
+        long modified = exists ? Files.getLastModifiedTime(historyFile).toMillis() : 0;
+        if (!store.isDerivedFrom(size, modified)) {
+            store.clear();
+            for (SimulationHistoryEntry entry : readAll()) {
+                if (!entry.isEmpty()) {
+                    store.append(entry.timestamp(), entry.summary());
+                }
+            }
+            store.markDerivedFrom(size, modified);
         }
+        return store;
     }
     /**
      * Reads all simulation history entries from the CSV file.
@@ -74,10 +162,10 @@ public class SimulationHistoryRepository {
      * @throws IOException if an I/O error occurs while reading
      */
     public List<SimulationHistoryEntry> readAll() throws IOException {
-        if (Files.notExists(HISTORY_FILE)) {
+        if (Files.notExists(historyFile)) {
             return List.of();
         }
-        List<String> lines = Files.readAllLines(HISTORY_FILE, StandardCharsets.UTF_8);
+        List<String> lines = Files.readAllLines(historyFile, StandardCharsets.UTF_8);
         return lines.stream()
                 .skip(1) // header
                 .map(String::trim)
@@ -0,0 +1,25 @@
+package simulation.experiment;
+
+import java.util.List;
+
+/**
+ * Strategy that chooses the parameter combinations of an experiment.
+ */
+public interface ExperimentDesign {
+
+    /**
+     * Returns the design points.
+     *
+     * @param factors the varied parameters
+     * @return one row per point, holding the value of each factor in order
+     */
+    double[][] points(List<Factor> factors);
+
+    /**
+     * Returns a short description that identifies the design and its
+     * settings, used to check that a resumed sweep is the same experiment.
+     *
+     * @return description such as {@code sobol(points=64)}
+     */
+    String describe();
+}
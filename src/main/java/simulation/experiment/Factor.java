@@ -0,0 +1,98 @@
+package simulation.experiment;
+
+import java.util.Locale;
+
+/**
+ * One parameter varied by an experiment.
+ * <p>
+ * The key is the property name used in {@code config/simulator.properties},
+ * e.g. {@code cashier.service.mean} or {@code barista.servers}. A factor spans
+ * the closed range {@code [min, max]}; full-factorial designs use
+ * {@code levels} evenly spaced values, space-filling designs map a point of
+ * the unit interval onto the range. Integer factors are rounded.
+ * </p>
+ *
+ * @param key     property key of the parameter
+ * @param min     lowest value
+ * @param max     highest value
+ * @param levels  number of levels in a full-factorial design
+ * @param integer whether only whole values are allowed
+ */
+public record Factor(String key, double min, double max, int levels, boolean integer) {
+
+    public Factor {
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException("Factor key must not be empty.");
+        }
+        if (!(max >= min)) {
+            throw new IllegalArgumentException("Factor " + key + " max must not be below min.");
+        }
+        if (levels < 1) {
+            throw new IllegalArgumentException("Factor " + key + " needs at least one level.");
+        }
+    }
+
+    /**
+     * Parses a factor from {@code min:max:levels} with an optional
+     * {@code :int} suffix, e.g. {@code 1:3:3:int}.
+     *
+     * @param key  property key of the parameter
+     * @param spec range specification
+     * @return the factor
+     * @throws IllegalArgumentException if the specification is malformed
+     */
+    public static Factor parse(String key, String spec) {
+        String[] parts = spec.trim().split(":");
+        if (parts.length < 3 || parts.length > 4
+                || (parts.length == 4 && !parts[3].trim().equalsIgnoreCase("int"))) {
+            throw new IllegalArgumentException("Factor " + key + " must be min:max:levels[:int], got '" + spec + "'");
+        }
+        return new Factor(key.trim(),
+                Double.parseDouble(parts[0].trim()),
+                Double.parseDouble(parts[1].trim()),
+                Integer.parseInt(parts[2].trim()),
+                parts.length == 4);
+    }
+
+    /**
+     * Returns the value of level {@code index} of a full-factorial design.
+     *
+     * @param index level number in {@code [0, levels)}
+     * @return the value
+     */
+    public double level(int index) {
+        double value = levels == 1 ? min : min + (max - min) * index / (levels - 1);
+        return integer ? Math.rint(value) : value;
+    }
+
+    /**
+     * Maps a coordinate of the unit interval onto the range. Integer factors
+     * give every whole value in the range an equal share of the interval.
+     *
+     * @param unit coordinate in {@code [0, 1)}
+     * @return the value
+     */
+    public double scale(double unit) {
+        if (!integer) {
+            return min + unit * (max - min);
+        }
+        double low = Math.ceil(min);
+        double count = Math.floor(max) - low + 1;
+        return Math.min(low + Math.floor(unit * count), Math.floor(max));
+    }
+
+    /**
+     * Formats a value of this factor as a property value.
+     *
+     * @param value the value
+     * @return text for a properties file
+     */
+    public String format(double value) {
+        return integer ? Long.toString((long) value) : String.format(Locale.US, "%s", value);
+    }
+
+    @Override
+    public String toString() {
+        return key + "=" + format(min) + ":" + format(max) + ":" + levels + (integer ? ":int" : "");
+    }
+}
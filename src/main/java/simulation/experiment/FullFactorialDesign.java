@@ -0,0 +1,36 @@
+package simulation.experiment;
+
+import java.util.List;
+
+/**
+ * Design containing every combination of factor levels. The last factor
+ * varies fastest.
+ */
+public class FullFactorialDesign implements ExperimentDesign {
+
+    @Override
+    public double[][] points(List<Factor> factors) {
+        long total = 1;
+        for (Factor factor : factors) {
+            total *= factor.levels();
+            if (total > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Full-factorial design is too large.");
+            }
+        }
+        double[][] points = new double[(int) total][factors.size()];
+        for (int p = 0; p < points.length; p++) {
+            int rest = p;
+            for (int f = factors.size() - 1; f >= 0; f--) {
+                Factor factor = factors.get(f);
+                points[p][f] = factor.level(rest % factor.levels());
+                rest /= factor.levels();
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public String describe() {
+        return "factorial";
+    }
+}
@@ -0,0 +1,60 @@
+package simulation.experiment;
+
+import eduni.distributions.RandomGenerator;
+
+import java.util.List;
+
+/**
+ * Latin-hypercube design: each factor range is split into as many equal
+ * strata as there are points, and every stratum of every factor is sampled
+ * exactly once. Strata are paired randomly across factors and each point is
+ * placed uniformly inside its stratum. The design is reproducible for a seed.
+ */
+public class LatinHypercubeDesign implements ExperimentDesign {
+
+    private final int size;
+    private final long seed;
+
+    /**
+     * Creates a design.
+     *
+     * @param size number of points
+     * @param seed seed of the random pairing and placement
+     */
+    public LatinHypercubeDesign(int size, long seed) {
+        if (size < 1) {
+            throw new IllegalArgumentException("A design needs at least one point.");
+        }
+        this.size = size;
+        this.seed = seed;
+    }
+
+    @Override
+    public double[][] points(List<Factor> factors) {
+        RandomGenerator random = new RandomGenerator(1 + Math.floorMod(seed, 2147483646L));
+        double[][] points = new double[size][factors.size()];
+        int[] strata = new int[size];
+        for (int f = 0; f < factors.size(); f++) {
+            for (int i = 0; i < size; i++) {
+                strata[i] = i;
+            }
+            // Fisher-Yates shuffle
+            for (int i = size - 1; i > 0; i--) {
+                int j = (int) (random.sample() * (i + 1));
+                int tmp = strata[i];
+                strata[i] = strata[j];
+                strata[j] = tmp;
+            }
+            Factor factor = factors.get(f);
+            for (int p = 0; p < size; p++) {
+                points[p][f] = factor.scale((strata[p] + random.sample()) / size);
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public String describe() {
+        return "lhs(points=" + size + ",seed=" + seed + ")";
+    }
+}
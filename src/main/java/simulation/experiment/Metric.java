@@ -0,0 +1,38 @@
+package simulation.experiment;
+
+import simulation.statistics.SimulationStatistics;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * System-level performance measures an experiment can estimate or optimize.
+ */
+public enum Metric {
+    AVERAGE_WAITING_TIME("Average waiting time", SimulationStatistics::getAverageWaitingTime),
+    P90_WAITING_TIME("90th percentile waiting time", statistics -> statistics.getWaitingTimePercentile(90)),
+    AVERAGE_RESPONSE_TIME("Average response time", SimulationStatistics::getAverageResponseTime),
+    THROUGHPUT("Throughput", SimulationStatistics::getThroughput),
+    AVERAGE_NUMBER_IN_SYSTEM("Average number in system", SimulationStatistics::getAverageNumberInSystem);
+
+    private final String label;
+    private final ToDoubleFunction<SimulationStatistics> extractor;
+
+    Metric(String label, ToDoubleFunction<SimulationStatistics> extractor) {
+        this.label = label;
+        this.extractor = extractor;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Reads this measure from the statistics of one run.
+     *
+     * @param statistics statistics of a finished run
+     * @return the value
+     */
+    public double valueOf(SimulationStatistics statistics) {
+        return extractor.applyAsDouble(statistics);
+    }
+}
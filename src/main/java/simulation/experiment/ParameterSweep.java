@@ -0,0 +1,363 @@
+package simulation.experiment;
+
+import simulation.config.SimulationParameters;
+import simulation.data.ColumnarResultsWriter;
+import simulation.data.FileManager;
+import simulation.data.ResultColumn;
+import simulation.logic.Simulator;
+import simulation.random.SeedSequence;
+import simulation.statistics.ServicePointStatistics;
+import simulation.statistics.SimulationStatistics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Runs every point of an {@link ExperimentDesign} for a number of
+ * replications and collects the results in one CSV file.
+ * <p>
+ * Each run uses its own quiet {@link Simulator}, and runs are spread over a
+ * fixed pool of worker threads. Replication {@code r} uses the same seed at
+ * every design point (common random numbers), so differences between points
+ * come from the parameters rather than from sampling noise.
+ * </p>
+ * <p>
+ * Results are appended and flushed one row per finished run. The first line
+ * of the file describes the experiment; when the sweep is started again on
+ * an existing file with the same description, runs already in the file are
+ * skipped, so an interrupted sweep continues where it stopped. A partially
+ * written last row is discarded.
+ * </p>
+ * <p>
+ * For very large sweeps, {@link #runColumnar(Path, int)} writes the same
+ * columns to a binary file read with
+ * {@link simulation.data.ColumnarResultsReader}; that format cannot be
+ * resumed.
+ * </p>
+ */
+public class ParameterSweep {
+
+    private static final String DESCRIPTION_PREFIX = "# sweep ";
+    private static final String COLUMN_PREFIX = "Point;";
+
+    private final Properties baseProperties;
+    private final List<Factor> factors;
+    private final ExperimentDesign design;
+    private final int replications;
+    private final long seed;
+    private final double[][] points;
+
+    /**
+     * Creates a sweep.
+     *
+     * @param baseProperties model properties used for everything the factors do not set
+     * @param factors        the varied parameters
+     * @param design         how the parameter combinations are chosen
+     * @param replications   runs per design point
+     * @param seed           base seed; replication seeds are derived from it
+     * @throws IllegalArgumentException if a design point gives invalid parameters
+     */
+    public ParameterSweep(Properties baseProperties, List<Factor> factors, ExperimentDesign design,
+            int replications, long seed) {
+        if (factors.isEmpty()) {
+            throw new IllegalArgumentException("A sweep needs at least one factor.");
+        }
+        if (replications < 1) {
+            throw new IllegalArgumentException("A sweep needs at least one replication.");
+        }
+        this.baseProperties = baseProperties;
+        this.factors = List.copyOf(factors);
+        this.design = design;
+        this.replications = replications;
+        this.seed = seed;
+        this.points = design.points(this.factors);
+        for (double[] point : points) {
+            parametersAt(point);
+        }
+    }
+
+    public List<Factor> getFactors() {
+        return factors;
+    }
+
+    public int getPointCount() {
+        return points.length;
+    }
+
+    public int getReplications() {
+        return replications;
+    }
+
+    /**
+     * Returns the factor values of design point {@code index}.
+     *
+     * @param index point number
+     * @return copy of the factor values
+     */
+    public double[] getPoint(int index) {
+        return points[index].clone();
+    }
+
+    /**
+     * Returns the seed used by replication {@code replication} at every point.
+     *
+     * @param replication replication number
+     * @return the seed
+     */
+    public long seedOf(int replication) {
+        return SeedSequence.seed(seed, replication);
+    }
+
+    /**
+     * Returns the line identifying this experiment in the output file.
+     *
+     * @return the description line
+     */
+    public String describe() {
+        return DESCRIPTION_PREFIX + design.describe() + " replications=" + replications + " seed=" + seed
+                + " factors=" + factors.stream().map(Factor::toString).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Builds the model parameters of a design point.
+     *
+     * @param point factor values in factor order
+     * @return the parameters
+     */
+    public SimulationParameters parametersAt(double[] point) {
+        Properties props = new Properties();
+        props.putAll(baseProperties);
+        for (int f = 0; f < factors.size(); f++) {
+            props.setProperty(factors.get(f).key(), factors.get(f).format(point[f]));
+        }
+        return FileManager.parametersFromProperties(props);
+    }
+
+    /**
+     * Runs all replications at all points that are not yet in {@code output}.
+     *
+     * @param output  result file, created or resumed
+     * @param threads number of worker threads
+     * @return number of runs executed by this call
+     * @throws IOException           if the result file cannot be read or written
+     * @throws InterruptedException  if the calling thread is interrupted
+     * @throws IllegalStateException if the file belongs to a different experiment or a run fails
+     */
+    public int run(Path output, int threads) throws IOException, InterruptedException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A sweep needs at least one thread.");
+        }
+        Set<Long> done = resume(output);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (done == null) {
+                writeHeader(writer);
+            }
+            CompletionService<String> completion = new ExecutorCompletionService<>(executor);
+            int submitted = 0;
+            for (int p = 0; p < points.length; p++) {
+                for (int r = 0; r < replications; r++) {
+                    if (done == null || !done.contains(key(p, r))) {
+                        int point = p;
+                        int replication = r;
+                        completion.submit(() -> runOnce(point, replication));
+                        submitted++;
+                    }
+                }
+            }
+            for (int i = 0; i < submitted; i++) {
+                writer.write(take(completion));
+                writer.newLine();
+                writer.flush();
+            }
+            return submitted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs all replications at all points and writes the results in the
+     * columnar binary format. The file is always written from scratch.
+     *
+     * @param output  result file, replaced if it exists
+     * @param threads number of worker threads
+     * @return number of runs executed
+     * @throws IOException           if the result file cannot be written
+     * @throws InterruptedException  if the calling thread is interrupted
+     * @throws IllegalStateException if a run fails
+     */
+    public int runColumnar(Path output, int threads) throws IOException, InterruptedException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A sweep needs at least one thread.");
+        }
+        List<ResultColumn> columns = new ArrayList<>();
+        for (String name : columnNames()) {
+            boolean whole = columns.size() < 3 || name.equals("Arrivals") || name.equals("Departures");
+            columns.add(whole ? ResultColumn.longColumn(name) : ResultColumn.doubleColumn(name));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (ColumnarResultsWriter writer = new ColumnarResultsWriter(output, describe(), columns)) {
+            CompletionService<Run> completion = new ExecutorCompletionService<>(executor);
+            for (int p = 0; p < points.length; p++) {
+                for (int r = 0; r < replications; r++) {
+                    int point = p;
+                    int replication = r;
+                    completion.submit(() -> new Run(point, replication, seedOf(replication),
+                            ReplicationRunner.runReplication(parametersAt(points[point]), seedOf(replication))));
+                }
+            }
+            int runs = points.length * replications;
+            for (int i = 0; i < runs; i++) {
+                writeRow(writer, take(completion));
+            }
+            return runs;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record Run(int point, int replication, long seed, SimulationStatistics statistics) {
+    }
+
+    private void writeRow(ColumnarResultsWriter writer, Run run) throws IOException {
+        SimulationStatistics statistics = run.statistics();
+        double time = statistics.getSimulationTime();
+        int c = 0;
+        writer.setLong(c++, run.point());
+        writer.setLong(c++, run.replication());
+        writer.setLong(c++, run.seed());
+        for (int f = 0; f < factors.size(); f++) {
+            writer.setDouble(c++, points[run.point()][f]);
+        }
+        writer.setDouble(c++, time);
+        writer.setLong(c++, statistics.getTotalArrivals());
+        writer.setLong(c++, statistics.getTotalDepartures());
+        writer.setDouble(c++, statistics.getAverageWaitingTime());
+        writer.setDouble(c++, statistics.getAverageResponseTime());
+        writer.setDouble(c++, statistics.getThroughput());
+        writer.setDouble(c++, statistics.getAverageNumberInSystem());
+        for (ServicePointStatistics stats : statistics.getServicePointStatistics()) {
+            writer.setDouble(c++, stats.getUtilization(time));
+        }
+        writer.endRow();
+    }
+
+    private String runOnce(int point, int replication) {
+        long runSeed = seedOf(replication);
+        SimulationStatistics statistics = ReplicationRunner.runReplication(parametersAt(points[point]), runSeed);
+        return formatRow(point, replication, runSeed, statistics);
+    }
+
+    private static <T> T take(CompletionService<T> completion) throws InterruptedException {
+        try {
+            return completion.take().get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sweep run failed", e.getCause());
+        }
+    }
+
+    private String formatRow(int point, int replication, long runSeed, SimulationStatistics statistics) {
+        StringBuilder row = new StringBuilder();
+        row.append(point).append(';').append(replication).append(';').append(runSeed);
+        for (int f = 0; f < factors.size(); f++) {
+            row.append(';').append(factors.get(f).format(points[point][f]));
+        }
+        double time = statistics.getSimulationTime();
+        row.append(String.format(Locale.US, ";%.3f;%d;%d;%.6f;%.6f;%.6f;%.6f",
+                time,
+                statistics.getTotalArrivals(),
+                statistics.getTotalDepartures(),
+                statistics.getAverageWaitingTime(),
+                statistics.getAverageResponseTime(),
+                statistics.getThroughput(),
+                statistics.getAverageNumberInSystem()));
+        for (ServicePointStatistics stats : statistics.getServicePointStatistics()) {
+            row.append(String.format(Locale.US, ";%.6f", stats.getUtilization(time)));
+        }
+        return row.toString();
+    }
+
+    private void writeHeader(BufferedWriter writer) throws IOException {
+        writer.write(describe());
+        writer.newLine();
+        writer.write(String.join(";", columnNames()));
+        writer.newLine();
+        writer.flush();
+    }
+
+    private List<String> columnNames() {
+        List<String> names = new ArrayList<>(List.of("Point", "Replication", "Seed"));
+        for (Factor factor : factors) {
+            names.add(factor.key());
+        }
+        names.addAll(List.of("SimulationTime", "Arrivals", "Departures", "AvgWaitingTime", "AvgResponseTime",
+                "Throughput", "AvgInSystem"));
+        // service point names come from an unstarted model of the first point
+        SimulationStatistics layout = new Simulator(parametersAt(points[0]), false).getStatistics();
+        for (ServicePointStatistics stats : layout.getServicePointStatistics()) {
+            names.add(stats.getServicePointName() + " utilization");
+        }
+        return names;
+    }
+
+    // Returns the finished runs of an existing result file, or null for a new file
+    private Set<Long> resume(Path output) throws IOException {
+        if (!Files.exists(output) || Files.size(output) == 0) {
+            Path parent = output.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            return null;
+        }
+        truncatePartialLine(output);
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !lines.get(0).equals(describe())) {
+            throw new IllegalStateException("Existing " + output + " belongs to a different experiment.");
+        }
+        Set<Long> done = new HashSet<>();
+        for (String line : lines) {
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith(COLUMN_PREFIX)) {
+                continue;
+            }
+            String[] fields = line.split(";", 3);
+            done.add(key(Integer.parseInt(fields[0]), Integer.parseInt(fields[1])));
+        }
+        return done;
+    }
+
+    private static void truncatePartialLine(Path output) throws IOException {
+        byte[] content = Files.readAllBytes(output);
+        int end = content.length;
+        while (end > 0 && content[end - 1] != '\n') {
+            end--;
+        }
+        if (end < content.length) {
+            try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+            }
+        }
+    }
+
+    private static long key(int point, int replication) {
+        return ((long) point << 32) | replication;
+    }
+}
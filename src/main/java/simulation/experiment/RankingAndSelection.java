@@ -0,0 +1,313 @@
+package simulation.experiment;
+
+import simulation.config.SimulationParameters;
+import simulation.statistics.SimulationStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Selects the best of several configurations with the Kim-Nelson fully
+ * sequential ranking-and-selection procedure.
+ * <p>
+ * Every configuration first gets {@code n0} replications. The variances of
+ * the pairwise differences from these replications set an elimination
+ * boundary that shrinks as replications accumulate. After each further
+ * round, which gives one replication to every surviving configuration,
+ * configurations whose mean is worse than another survivor's by more than
+ * the boundary are dropped. Clearly bad configurations therefore stop
+ * consuming runs early, and close contenders get the extra replications.
+ * </p>
+ * <p>
+ * With probability at least the requested confidence, the selected
+ * configuration is the true best or within the indifference zone
+ * {@code delta} of it. All configurations share common random numbers, which
+ * reduces the variance of the differences and speeds up elimination.
+ * </p>
+ * <p>
+ * Use {@link #builder(List)} to create instances.
+ * </p>
+ */
+public final class RankingAndSelection {
+
+    private final List<SimulationParameters> configurations;
+    private final Metric metric;
+    private final boolean maximize;
+    private final double indifferenceZone;
+    private final double confidence;
+    private final int initialReplications;
+    private final int maxReplications;
+    private final int threads;
+    private final long seed;
+
+    private RankingAndSelection(Builder builder) {
+        this.configurations = List.copyOf(builder.configurations);
+        this.metric = builder.metric;
+        this.maximize = builder.maximize;
+        this.indifferenceZone = builder.indifferenceZone;
+        this.confidence = builder.confidence;
+        this.initialReplications = builder.initialReplications;
+        this.maxReplications = builder.maxReplications;
+        this.threads = builder.threads;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder(List<SimulationParameters> configurations) {
+        return new Builder(configurations);
+    }
+
+    /**
+     * Runs the procedure.
+     *
+     * @return the selected configuration and the replications spent
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public Result run() throws InterruptedException {
+        int k = configurations.size();
+        int n0 = initialReplications;
+        double[][] initial = new double[k][n0];
+        double[] sums = new double[k];
+        int[] replications = new int[k];
+        List<Integer> survivors = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            survivors.add(i);
+        }
+
+        try (ReplicationRunner runner = new ReplicationRunner(threads, seed)) {
+            int r = 0;
+            while (true) {
+                List<SimulationParameters> batch = new ArrayList<>(survivors.size());
+                for (int i : survivors) {
+                    batch.add(configurations.get(i));
+                }
+                List<SimulationStatistics> results = runner.runEach(batch, r);
+                for (int s = 0; s < survivors.size(); s++) {
+                    int i = survivors.get(s);
+                    // internally every problem is a minimization
+                    double value = maximize ? -metric.valueOf(results.get(s)) : metric.valueOf(results.get(s));
+                    if (r < n0) {
+                        initial[i][r] = value;
+                    }
+                    sums[i] += value;
+                    replications[i]++;
+                }
+                r++;
+                if (r < n0) {
+                    continue;
+                }
+                if (survivors.size() == 1 || r >= maxReplications) {
+                    break;
+                }
+                screen(survivors, initial, sums, r);
+                if (survivors.size() == 1) {
+                    break;
+                }
+            }
+        }
+
+        int best = survivors.get(0);
+        for (int i : survivors) {
+            if (sums[i] / replications[i] < sums[best] / replications[best]) {
+                best = i;
+            }
+        }
+        double[] means = new double[k];
+        for (int i = 0; i < k; i++) {
+            means[i] = (maximize ? -sums[i] : sums[i]) / replications[i];
+        }
+        return new Result(best, survivors, means, replications);
+    }
+
+    private void screen(List<Integer> survivors, double[][] initial, double[] sums, int r) {
+        int k = configurations.size();
+        int n0 = initialReplications;
+        double alpha = 1 - confidence;
+        double eta = 0.5 * (Math.pow(2 * alpha / (k - 1), -2.0 / (n0 - 1)) - 1);
+        double hSquared = 2 * eta * (n0 - 1);
+        double delta = indifferenceZone;
+
+        List<Integer> eliminated = new ArrayList<>();
+        for (int i : survivors) {
+            for (int l : survivors) {
+                if (i == l) {
+                    continue;
+                }
+                double variance = differenceVariance(initial[i], initial[l]);
+                double boundary = Math.max(0, delta / (2.0 * r) * (hSquared * variance / (delta * delta) - r));
+                if (sums[i] / r > sums[l] / r + boundary) {
+                    eliminated.add(i);
+                    break;
+                }
+            }
+        }
+        survivors.removeAll(eliminated);
+    }
+
+    private static double differenceVariance(double[] a, double[] b) {
+        int n = a.length;
+        double mean = 0;
+        for (int j = 0; j < n; j++) {
+            mean += (a[j] - b[j]) / n;
+        }
+        double sum = 0;
+        for (int j = 0; j < n; j++) {
+            double d = a[j] - b[j] - mean;
+            sum += d * d;
+        }
+        return sum / (n - 1);
+    }
+
+    /**
+     * Outcome of a selection.
+     */
+    public static final class Result {
+        private final int best;
+        private final List<Integer> survivors;
+        private final double[] means;
+        private final int[] replications;
+
+        private Result(int best, List<Integer> survivors, double[] means, int[] replications) {
+            this.best = best;
+            this.survivors = List.copyOf(survivors);
+            this.means = means;
+            this.replications = replications;
+        }
+
+        /**
+         * Returns the index of the selected configuration.
+         *
+         * @return index into the configuration list
+         */
+        public int getBest() {
+            return best;
+        }
+
+        /**
+         * Returns the configurations that were never eliminated; more than one
+         * if the replication limit was reached first.
+         *
+         * @return indices of the surviving configurations
+         */
+        public List<Integer> getSurvivors() {
+            return survivors;
+        }
+
+        public double getMean(int configuration) {
+            return means[configuration];
+        }
+
+        public int getReplications(int configuration) {
+            return replications[configuration];
+        }
+
+        public int getTotalReplications() {
+            int total = 0;
+            for (int count : replications) {
+                total += count;
+            }
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format(Locale.US,
+                    "best configuration %d after %d replications", best, getTotalReplications()));
+            for (int i = 0; i < means.length; i++) {
+                text.append(String.format(Locale.US, "%n  %2d: mean %.4f, %d replications%s", i, means[i],
+                        replications[i], survivors.contains(i) ? "" : ", eliminated"));
+            }
+            return text.toString();
+        }
+    }
+
+    public static final class Builder {
+        private final List<SimulationParameters> configurations;
+        private Metric metric = Metric.AVERAGE_WAITING_TIME;
+        private boolean maximize;
+        private double indifferenceZone = 0.5;
+        private double confidence = 0.95;
+        private int initialReplications = 10;
+        private int maxReplications = 1000;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long seed = 12345L;
+
+        private Builder(List<SimulationParameters> configurations) {
+            this.configurations = configurations;
+        }
+
+        public Builder metric(Metric value) {
+            this.metric = value;
+            return this;
+        }
+
+        /**
+         * Makes larger metric values better, e.g. for throughput. By default
+         * the smallest value is best.
+         *
+         * @return this builder
+         */
+        public Builder maximize() {
+            this.maximize = true;
+            return this;
+        }
+
+        /**
+         * Sets the smallest difference in the metric worth detecting.
+         *
+         * @param value indifference zone, in the metric's unit
+         * @return this builder
+         */
+        public Builder indifferenceZone(double value) {
+            this.indifferenceZone = value;
+            return this;
+        }
+
+        public Builder confidence(double value) {
+            this.confidence = value;
+            return this;
+        }
+
+        public Builder initialReplications(int value) {
+            this.initialReplications = value;
+            return this;
+        }
+
+        public Builder maxReplications(int value) {
+            this.maxReplications = value;
+            return this;
+        }
+
+        public Builder threads(int value) {
+            this.threads = value;
+            return this;
+        }
+
+        public Builder seed(long value) {
+            this.seed = value;
+            return this;
+        }
+
+        public RankingAndSelection build() {
+            if (configurations == null || configurations.size() < 2) {
+                throw new IllegalArgumentException("Selection needs at least two configurations.");
+            }
+            if (metric == null) {
+                throw new IllegalArgumentException("Metric must not be null.");
+            }
+            if (!(indifferenceZone > 0)) {
+                throw new IllegalArgumentException("Indifference zone must be positive.");
+            }
+            if (!(confidence > 0 && confidence < 1)) {
+                throw new IllegalArgumentException("Confidence must be in (0, 1).");
+            }
+            if (initialReplications < 2 || maxReplications < initialReplications) {
+                throw new IllegalArgumentException("Replication limits need 2 <= initial <= max.");
+            }
+            if (threads < 1) {
+                throw new IllegalArgumentException("Threads must be positive.");
+            }
+            return new RankingAndSelection(this);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package simulation.experiment;
+
+import simulation.config.SimulationParameters;
+import simulation.logic.Simulator;
+import simulation.random.SeedSequence;
+import simulation.statistics.SimulationStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs independent replications of the model on a pool of worker threads.
+ * <p>
+ * Replication {@code i} always uses the seed {@code SeedSequence.seed(seed, i)},
+ * whatever the parameters and however many threads are used. Results are
+ * therefore reproducible, and different configurations evaluated with the
+ * same replication numbers share common random numbers.
+ * </p>
+ */
+public class ReplicationRunner implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final int threads;
+    private final long seed;
+
+    /**
+     * Creates a runner.
+     *
+     * @param threads number of worker threads
+     * @param seed    base seed of all replications
+     */
+    public ReplicationRunner(int threads, long seed) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A runner needs at least one thread.");
+        }
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Runs replications {@code first} to {@code first + count - 1} in parallel.
+     *
+     * @param parameters model parameters
+     * @param first      number of the first replication
+     * @param count      number of replications
+     * @return statistics of each replication, in replication order
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws IllegalStateException if a replication fails
+     */
+    public List<SimulationStatistics> run(SimulationParameters parameters, int first, int count)
+            throws InterruptedException {
+        List<Future<SimulationStatistics>> futures = new ArrayList<>(count);
+        for (int i = first; i < first + count; i++) {
+            long replicationSeed = SeedSequence.seed(seed, i);
+            futures.add(executor.submit(() -> runReplication(parameters, replicationSeed)));
+        }
+        return collect(futures);
+    }
+
+    /**
+     * Runs replications {@code first} to {@code first + count - 1} in
+     * parallel, each forked from the same warmed-up state.
+     *
+     * @param warmStart captured initial state
+     * @param first     number of the first replication
+     * @param count     number of replications
+     * @return statistics of each replication, in replication order
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws IllegalStateException if a replication fails
+     */
+    public List<SimulationStatistics> run(WarmStart warmStart, int first, int count) throws InterruptedException {
+        List<Future<SimulationStatistics>> futures = new ArrayList<>(count);
+        for (int i = first; i < first + count; i++) {
+            long replicationSeed = SeedSequence.seed(seed, i);
+            futures.add(executor.submit(() -> warmStart.runReplication(replicationSeed)));
+        }
+        return collect(futures);
+    }
+
+    /**
+     * Runs replication {@code replication} of every configuration in
+     * parallel. All configurations use the same seed.
+     *
+     * @param configurations model parameters of each configuration
+     * @param replication    replication number
+     * @return statistics of each configuration, in the given order
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws IllegalStateException if a replication fails
+     */
+    public List<SimulationStatistics> runEach(List<SimulationParameters> configurations, int replication)
+            throws InterruptedException {
+        long replicationSeed = SeedSequence.seed(seed, replication);
+        List<Future<SimulationStatistics>> futures = new ArrayList<>(configurations.size());
+        for (SimulationParameters parameters : configurations) {
+            futures.add(executor.submit(() -> runReplication(parameters, replicationSeed)));
+        }
+        return collect(futures);
+    }
+
+    /**
+     * Runs replications {@code 0} to {@code replications - 1} of every
+     * configuration, all in parallel.
+     *
+     * @param configurations model parameters of each configuration
+     * @param replications   replications per configuration
+     * @return per configuration, the statistics of each replication
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws IllegalStateException if a replication fails
+     */
+    public List<List<SimulationStatistics>> runAll(List<SimulationParameters> configurations, int replications)
+            throws InterruptedException {
+        List<List<Future<SimulationStatistics>>> futures = new ArrayList<>(configurations.size());
+        for (SimulationParameters parameters : configurations) {
+            List<Future<SimulationStatistics>> perConfiguration = new ArrayList<>(replications);
+            for (int i = 0; i < replications; i++) {
+                long replicationSeed = SeedSequence.seed(seed, i);
+                perConfiguration.add(executor.submit(() -> runReplication(parameters, replicationSeed)));
+            }
+            futures.add(perConfiguration);
+        }
+        List<List<SimulationStatistics>> results = new ArrayList<>(configurations.size());
+        for (List<Future<SimulationStatistics>> perConfiguration : futures) {
+            results.add(collect(perConfiguration));
+        }
+        return results;
+    }
+
+    private static List<SimulationStatistics> collect(List<Future<SimulationStatistics>> futures)
+            throws InterruptedException {
+        List<SimulationStatistics> results = new ArrayList<>(futures.size());
+        for (Future<SimulationStatistics> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Replication failed", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs one replication on the calling thread.
+     *
+     * @param parameters model parameters
+     * @param seed       seed of all model streams
+     * @return statistics at the end of the run
+     */
+    public static SimulationStatistics runReplication(SimulationParameters parameters, long seed) {
+        Simulator simulator = new Simulator(parameters, false);
+        simulator.setSeed(seed);
+        simulator.initialize();
+        simulator.run();
+        return simulator.getStatistics();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,283 @@
+package simulation.experiment;
+
+import simulation.config.SimulationParameters;
+import simulation.statistics.RunningStatistics;
+import simulation.statistics.SimulationStatistics;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs replications until the chosen metrics are estimated precisely enough.
+ * <p>
+ * Replications are launched in waves on a {@link ReplicationRunner}. After
+ * each wave the confidence interval of every metric is recomputed, and the
+ * procedure stops as soon as all relative half-widths are at or below the
+ * target, or when the replication limit or the time budget is reached. The
+ * outcome depends only on the number of replications run, so it is
+ * reproducible for a seed and wave size.
+ * </p>
+ * <p>
+ * Use {@link #builder(SimulationParameters)} to create instances.
+ * </p>
+ */
+public final class SequentialReplication {
+
+    private final SimulationParameters parameters;
+    private final List<Metric> metrics;
+    private final double relativePrecision;
+    private final double confidence;
+    private final int minReplications;
+    private final int maxReplications;
+    private final int waveSize;
+    private final Duration timeBudget;
+    private final int threads;
+    private final long seed;
+
+    private SequentialReplication(Builder builder) {
+        this.parameters = builder.parameters;
+        this.metrics = List.copyOf(builder.metrics);
+        this.relativePrecision = builder.relativePrecision;
+        this.confidence = builder.confidence;
+        this.minReplications = builder.minReplications;
+        this.maxReplications = builder.maxReplications;
+        this.waveSize = builder.waveSize > 0 ? builder.waveSize : builder.threads;
+        this.timeBudget = builder.timeBudget;
+        this.threads = builder.threads;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder(SimulationParameters parameters) {
+        return new Builder(parameters);
+    }
+
+    /**
+     * Runs replications until a stopping condition holds.
+     *
+     * @return the estimates and the number of replications used
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public Result run() throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = timeBudget == null ? Long.MAX_VALUE : start + timeBudget.toNanos();
+        Map<Metric, RunningStatistics> estimates = new EnumMap<>(Metric.class);
+        for (Metric metric : metrics) {
+            estimates.put(metric, new RunningStatistics());
+        }
+        int replications = 0;
+        StopReason reason;
+        try (ReplicationRunner runner = new ReplicationRunner(threads, seed)) {
+            while (true) {
+                int wave = Math.min(Math.max(waveSize, minReplications - replications), maxReplications - replications);
+                for (SimulationStatistics statistics : runner.run(parameters, replications, wave)) {
+                    for (Metric metric : metrics) {
+                        estimates.get(metric).add(metric.valueOf(statistics));
+                    }
+                }
+                replications += wave;
+                if (precise(estimates)) {
+                    reason = StopReason.PRECISION_REACHED;
+                    break;
+                }
+                if (replications >= maxReplications) {
+                    reason = StopReason.REPLICATION_LIMIT;
+                    break;
+                }
+                if (System.nanoTime() >= deadline) {
+                    reason = StopReason.TIME_BUDGET;
+                    break;
+                }
+            }
+        }
+        return new Result(estimates, confidence, replications, reason, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private boolean precise(Map<Metric, RunningStatistics> estimates) {
+        for (RunningStatistics estimate : estimates.values()) {
+            if (estimate.getCount() < minReplications
+                    || estimate.getRelativeHalfWidth(confidence) > relativePrecision) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Why a sequential procedure stopped.
+     */
+    public enum StopReason {
+        PRECISION_REACHED,
+        REPLICATION_LIMIT,
+        TIME_BUDGET
+    }
+
+    /**
+     * Outcome of a sequential procedure.
+     */
+    public static final class Result {
+        private final Map<Metric, RunningStatistics> estimates;
+        private final double confidence;
+        private final int replications;
+        private final StopReason stopReason;
+        private final Duration elapsed;
+
+        private Result(Map<Metric, RunningStatistics> estimates, double confidence, int replications,
+                StopReason stopReason, Duration elapsed) {
+            this.estimates = estimates;
+            this.confidence = confidence;
+            this.replications = replications;
+            this.stopReason = stopReason;
+            this.elapsed = elapsed;
+        }
+
+        /**
+         * Returns the number of replications actually run.
+         *
+         * @return replications used
+         */
+        public int getReplications() {
+            return replications;
+        }
+
+        public StopReason getStopReason() {
+            return stopReason;
+        }
+
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        public double getMean(Metric metric) {
+            return estimate(metric).getMean();
+        }
+
+        public double getHalfWidth(Metric metric) {
+            return estimate(metric).getHalfWidth(confidence);
+        }
+
+        public double getRelativeHalfWidth(Metric metric) {
+            return estimate(metric).getRelativeHalfWidth(confidence);
+        }
+
+        private RunningStatistics estimate(Metric metric) {
+            RunningStatistics estimate = estimates.get(metric);
+            if (estimate == null) {
+                throw new IllegalArgumentException(metric + " was not estimated.");
+            }
+            return estimate;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format(Locale.US,
+                    "%d replications in %.1f s (%s)", replications, elapsed.toMillis() / 1000.0, stopReason));
+            for (Metric metric : estimates.keySet()) {
+                text.append(String.format(Locale.US, "%n%s: %.4f +- %.4f (%.1f%%)", metric.getLabel(),
+                        getMean(metric), getHalfWidth(metric), 100 * getRelativeHalfWidth(metric)));
+            }
+            return text.toString();
+        }
+    }
+
+    public static final class Builder {
+        private final SimulationParameters parameters;
+        private List<Metric> metrics = List.of(Metric.AVERAGE_WAITING_TIME);
+        private double relativePrecision = 0.05;
+        private double confidence = 0.95;
+        private int minReplications = 10;
+        private int maxReplications = 10_000;
+        private int waveSize;
+        private Duration timeBudget;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long seed = 12345L;
+
+        private Builder(SimulationParameters parameters) {
+            this.parameters = parameters;
+        }
+
+        public Builder metrics(Metric... value) {
+            this.metrics = List.of(value);
+            return this;
+        }
+
+        /**
+         * Sets the target ratio of confidence half-width to mean, e.g. 0.05.
+         *
+         * @param value relative precision
+         * @return this builder
+         */
+        public Builder relativePrecision(double value) {
+            this.relativePrecision = value;
+            return this;
+        }
+
+        public Builder confidence(double value) {
+            this.confidence = value;
+            return this;
+        }
+
+        public Builder minReplications(int value) {
+            this.minReplications = value;
+            return this;
+        }
+
+        public Builder maxReplications(int value) {
+            this.maxReplications = value;
+            return this;
+        }
+
+        /**
+         * Sets the number of replications per wave; defaults to the thread count.
+         *
+         * @param value wave size
+         * @return this builder
+         */
+        public Builder waveSize(int value) {
+            this.waveSize = value;
+            return this;
+        }
+
+        public Builder timeBudget(Duration value) {
+            this.timeBudget = value;
+            return this;
+        }
+
+        public Builder threads(int value) {
+            this.threads = value;
+            return this;
+        }
+
+        public Builder seed(long value) {
+            this.seed = value;
+            return this;
+        }
+
+        public SequentialReplication build() {
+            if (parameters == null) {
+                throw new IllegalArgumentException("Parameters must not be null.");
+            }
+            if (metrics.isEmpty()) {
+                throw new IllegalArgumentException("At least one metric is required.");
+            }
+            if (!(relativePrecision > 0)) {
+                throw new IllegalArgumentException("Relative precision must be positive.");
+            }
+            if (!(confidence > 0 && confidence < 1)) {
+                throw new IllegalArgumentException("Confidence must be in (0, 1).");
+            }
+            if (minReplications < 2 || maxReplications < minReplications) {
+                throw new IllegalArgumentException("Replication limits need 2 <= min <= max.");
+            }
+            if (threads < 1 || waveSize < 0) {
+                throw new IllegalArgumentException("Threads must be positive and wave size non-negative.");
+            }
+            if (timeBudget != null && (timeBudget.isNegative() || timeBudget.isZero())) {
+                throw new IllegalArgumentException("Time budget must be positive.");
+            }
+            return new SequentialReplication(this);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package simulation.experiment;
+
+import java.util.List;
+
+/**
+ * Quasi-random design based on the Sobol low-discrepancy sequence.
+ * <p>
+ * Points are generated in Gray-code order with the direction numbers of
+ * Joe and Kuo, which gives a more even coverage of the parameter space than
+ * random sampling for the same number of runs. The all-zero first point of
+ * the sequence is skipped. Up to {@link #MAX_DIMENSIONS} factors are
+ * supported.
+ * </p>
+ */
+public class SobolDesign implements ExperimentDesign {
+
+    public static final int MAX_DIMENSIONS = 16;
+
+    private static final int BITS = 32;
+
+    // Joe-Kuo direction numbers for dimensions 2..16: degree s, coefficients a, initial m
+    private static final int[] DEGREE = {1, 2, 3, 3, 4, 4, 5, 5, 5, 5, 5, 5, 6, 6, 6};
+    private static final int[] COEFFICIENTS = {0, 1, 1, 2, 1, 4, 2, 4, 7, 11, 13, 14, 1, 13, 16};
+    private static final int[][] INITIAL = {
+            {1},
+            {1, 3},
+            {1, 3, 1},
+            {1, 1, 1},
+            {1, 1, 3, 3},
+            {1, 3, 5, 13},
+            {1, 1, 5, 5, 17},
+            {1, 1, 5, 5, 5},
+            {1, 1, 7, 11, 19},
+            {1, 1, 5, 1, 1},
+            {1, 1, 1, 3, 11},
+            {1, 3, 5, 5, 31},
+            {1, 3, 3, 9, 7, 49},
+            {1, 1, 1, 15, 21, 21},
+            {1, 3, 1, 13, 27, 49}
+    };
+
+    private final int size;
+
+    /**
+     * Creates a design.
+     *
+     * @param size number of points
+     */
+    public SobolDesign(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("A design needs at least one point.");
+        }
+        this.size = size;
+    }
+
+    @Override
+    public double[][] points(List<Factor> factors) {
+        double[][] unit = unitPoints(size, factors.size());
+        double[][] points = new double[size][factors.size()];
+        for (int p = 0; p < size; p++) {
+            for (int f = 0; f < factors.size(); f++) {
+                points[p][f] = factors.get(f).scale(unit[p][f]);
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Returns the first {@code count} points of the sequence in the unit cube,
+     * skipping the origin.
+     *
+     * @param count      number of points
+     * @param dimensions number of coordinates, at most {@link #MAX_DIMENSIONS}
+     * @return the points
+     */
+    static double[][] unitPoints(int count, int dimensions) {
+        if (dimensions > MAX_DIMENSIONS) {
+            throw new IllegalArgumentException("Sobol design supports at most " + MAX_DIMENSIONS + " factors.");
+        }
+        int[][] directions = new int[dimensions][];
+        for (int d = 0; d < dimensions; d++) {
+            directions[d] = directionNumbers(d);
+        }
+        double[][] points = new double[count][dimensions];
+        int[] state = new int[dimensions];
+        for (int i = 1; i <= count; i++) {
+            // Gray code: flip the direction of the lowest zero bit of i - 1
+            int bit = Integer.numberOfTrailingZeros(~(i - 1));
+            for (int d = 0; d < dimensions; d++) {
+                state[d] ^= directions[d][bit];
+                points[i - 1][d] = (state[d] & 0xFFFFFFFFL) / 4294967296.0;
+            }
+        }
+        return points;
+    }
+
+    private static int[] directionNumbers(int dimension) {
+        int[] v = new int[BITS];
+        if (dimension == 0) {
+            for (int k = 0; k < BITS; k++) {
+                v[k] = 1 << (BITS - 1 - k);
+            }
+            return v;
+        }
+        int s = DEGREE[dimension - 1];
+        int a = COEFFICIENTS[dimension - 1];
+        int[] m = INITIAL[dimension - 1];
+        for (int k = 0; k < Math.min(s, BITS); k++) {
+            v[k] = m[k] << (BITS - 1 - k);
+        }
+        for (int k = s; k < BITS; k++) {
+            int value = v[k - s] ^ (v[k - s] >>> s);
+            for (int i = 1; i < s; i++) {
+                if (((a >>> (s - 1 - i)) & 1) != 0) {
+                    value ^= v[k - i];
+                }
+            }
+            v[k] = value;
+        }
+        return v;
+    }
+
+    @Override
+    public String describe() {
+        return "sobol(points=" + size + ")";
+    }
+}
@@ -0,0 +1,409 @@
+package simulation.experiment;
+
+import simulation.config.SimulationParameters;
+import simulation.data.FileManager;
+import simulation.statistics.RunningStatistics;
+import simulation.statistics.SimulationStatistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Finds the cheapest staffing that meets a service-level target, treating the
+ * simulator as a black-box objective.
+ * <p>
+ * Decision variables are integer model properties such as
+ * {@code cashier.servers} and {@code barista.servers}, each with a cost per
+ * unit. A configuration is feasible when the mean of the constrained metric
+ * over the replications, by default the 90th percentile waiting time, is at
+ * or below the limit.
+ * </p>
+ * <p>
+ * The search is a local search on the integer grid. From the start point it
+ * first adds staff along the most helpful direction until the target is met,
+ * then repeatedly moves to the cheapest feasible neighbour that is cheaper
+ * than the current point, removing one unit or trading one unit for another,
+ * until no such neighbour exists. The candidates of each step are simulated
+ * in parallel, every configuration with the same replication seeds (common
+ * random numbers), and every evaluation is cached by its variable values, so
+ * no configuration is ever simulated twice.
+ * </p>
+ * <p>
+ * Use {@link #builder(Properties)} to create instances.
+ * </p>
+ */
+public final class StaffingOptimizer {
+
+    private final Properties baseProperties;
+    private final List<DecisionVariable> variables;
+    private final Metric metric;
+    private final double limit;
+    private final int replications;
+    private final int[] start;
+    private final int maxEvaluations;
+    private final int threads;
+    private final long seed;
+
+    private final Map<List<Integer>, Evaluation> cache = new HashMap<>();
+    private int cacheHits;
+
+    private StaffingOptimizer(Builder builder) {
+        this.baseProperties = builder.baseProperties;
+        this.variables = List.copyOf(builder.variables);
+        this.metric = builder.metric;
+        this.limit = builder.limit;
+        this.replications = builder.replications;
+        this.start = builder.start != null ? builder.start.clone()
+                : variables.stream().mapToInt(DecisionVariable::max).toArray();
+        this.maxEvaluations = builder.maxEvaluations;
+        this.threads = builder.threads;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder(Properties baseProperties) {
+        return new Builder(baseProperties);
+    }
+
+    /**
+     * An integer model property the optimizer may change.
+     *
+     * @param key      property key, e.g. {@code barista.servers}
+     * @param min      smallest allowed value
+     * @param max      largest allowed value
+     * @param unitCost cost of one unit, e.g. wage per shift
+     */
+    public record DecisionVariable(String key, int min, int max, double unitCost) {
+
+        public DecisionVariable {
+            if (key == null || key.isBlank() || max < min) {
+                throw new IllegalArgumentException("Decision variable needs a key and min <= max.");
+            }
+        }
+    }
+
+    /**
+     * Simulated performance and cost of one configuration.
+     *
+     * @param values    value of each decision variable
+     * @param cost      total staffing cost
+     * @param mean      mean of the constrained metric over the replications
+     * @param halfWidth 95% confidence half-width of the mean
+     * @param feasible  whether the mean meets the limit
+     */
+    public record Evaluation(List<Integer> values, double cost, double mean, double halfWidth, boolean feasible) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s cost %.2f, metric %.3f +- %.3f%s",
+                    values, cost, mean, halfWidth, feasible ? "" : " (infeasible)");
+        }
+    }
+
+    /**
+     * Runs the search.
+     *
+     * @return the best configuration found and the search effort
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public Result optimize() throws InterruptedException {
+        cache.clear();
+        cacheHits = 0;
+        List<Evaluation> path = new ArrayList<>();
+        try (ReplicationRunner runner = new ReplicationRunner(threads, seed)) {
+            Evaluation current = evaluate(runner, List.of(toKey(start))).get(0);
+            path.add(current);
+
+            // add staff until the target is met
+            while (!current.feasible() && cache.size() < maxEvaluations) {
+                List<Evaluation> candidates = evaluate(runner, neighbours(current.values(), +1));
+                Evaluation next = null;
+                for (Evaluation candidate : candidates) {
+                    if (next == null || better(candidate, next)) {
+                        next = candidate;
+                    }
+                }
+                if (next == null || next.mean() >= current.mean()) {
+                    break;
+                }
+                current = next;
+                path.add(current);
+            }
+
+            // cheapen while staying feasible
+            while (current.feasible() && cache.size() < maxEvaluations) {
+                Evaluation next = null;
+                for (Evaluation candidate : evaluate(runner, cheaperNeighbours(current))) {
+                    if (candidate.feasible() && (next == null || better(candidate, next))) {
+                        next = candidate;
+                    }
+                }
+                if (next == null) {
+                    break;
+                }
+                current = next;
+                path.add(current);
+            }
+            return new Result(current, path, cache.size(), cacheHits, cache.size() * replications);
+        }
+    }
+
+    // Feasible before infeasible, then cheaper, then lower metric
+    private static boolean better(Evaluation a, Evaluation b) {
+        if (a.feasible() != b.feasible()) {
+            return a.feasible();
+        }
+        if (a.feasible() && a.cost() != b.cost()) {
+            return a.cost() < b.cost();
+        }
+        return a.mean() < b.mean();
+    }
+
+    private List<List<Integer>> neighbours(List<Integer> values, int step) {
+        List<List<Integer>> result = new ArrayList<>();
+        for (int v = 0; v < variables.size(); v++) {
+            List<Integer> moved = new ArrayList<>(values);
+            moved.set(v, values.get(v) + step);
+            if (inBounds(moved)) {
+                result.add(moved);
+            }
+        }
+        return result;
+    }
+
+    private List<List<Integer>> cheaperNeighbours(Evaluation current) {
+        List<List<Integer>> result = new ArrayList<>(neighbours(current.values(), -1));
+        for (List<Integer> removed : neighbours(current.values(), -1)) {
+            for (List<Integer> traded : neighbours(removed, +1)) {
+                if (!traded.equals(current.values()) && cost(traded) < current.cost() && !result.contains(traded)) {
+                    result.add(traded);
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean inBounds(List<Integer> values) {
+        for (int v = 0; v < variables.size(); v++) {
+            if (values.get(v) < variables.get(v).min() || values.get(v) > variables.get(v).max()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double cost(List<Integer> values) {
+        double cost = 0;
+        for (int v = 0; v < variables.size(); v++) {
+            cost += values.get(v) * variables.get(v).unitCost();
+        }
+        return cost;
+    }
+
+    // Simulates the configurations not yet in the cache, all in parallel
+    private List<Evaluation> evaluate(ReplicationRunner runner, List<List<Integer>> points)
+            throws InterruptedException {
+        Map<List<Integer>, SimulationParameters> missing = new LinkedHashMap<>();
+        for (List<Integer> point : points) {
+            if (cache.containsKey(point)) {
+                cacheHits++;
+            } else {
+                missing.put(point, parametersAt(point));
+            }
+        }
+        List<List<SimulationStatistics>> results =
+                runner.runAll(new ArrayList<>(missing.values()), replications);
+        int i = 0;
+        for (List<Integer> point : missing.keySet()) {
+            RunningStatistics estimate = new RunningStatistics();
+            for (SimulationStatistics statistics : results.get(i++)) {
+                estimate.add(metric.valueOf(statistics));
+            }
+            cache.put(point, new Evaluation(point, cost(point), estimate.getMean(),
+                    estimate.getHalfWidth(0.95), estimate.getMean() <= limit));
+        }
+        List<Evaluation> evaluations = new ArrayList<>(points.size());
+        for (List<Integer> point : points) {
+            evaluations.add(cache.get(point));
+        }
+        return evaluations;
+    }
+
+    /**
+     * Builds the model parameters for the given decision variable values.
+     *
+     * @param values value of each decision variable
+     * @return the parameters
+     */
+    public SimulationParameters parametersAt(List<Integer> values) {
+        Properties props = new Properties();
+        props.putAll(baseProperties);
+        for (int v = 0; v < variables.size(); v++) {
+            props.setProperty(variables.get(v).key(), String.valueOf(values.get(v)));
+        }
+        return FileManager.parametersFromProperties(props);
+    }
+
+    private static List<Integer> toKey(int[] values) {
+        return Arrays.stream(values).boxed().toList();
+    }
+
+    /**
+     * Outcome of a search.
+     */
+    public static final class Result {
+        private final Evaluation best;
+        private final List<Evaluation> path;
+        private final int evaluations;
+        private final int cacheHits;
+        private final int replications;
+
+        private Result(Evaluation best, List<Evaluation> path, int evaluations, int cacheHits, int replications) {
+            this.best = best;
+            this.path = List.copyOf(path);
+            this.evaluations = evaluations;
+            this.cacheHits = cacheHits;
+            this.replications = replications;
+        }
+
+        /**
+         * Returns the final configuration; check {@link Evaluation#feasible()},
+         * as the target may be unreachable within the bounds.
+         *
+         * @return the best configuration found
+         */
+        public Evaluation getBest() {
+            return best;
+        }
+
+        /**
+         * Returns the configurations the search moved through, ending with
+         * {@link #getBest()}.
+         *
+         * @return visited configurations in order
+         */
+        public List<Evaluation> getPath() {
+            return path;
+        }
+
+        /**
+         * Returns the number of distinct configurations simulated.
+         *
+         * @return evaluations
+         */
+        public int getEvaluations() {
+            return evaluations;
+        }
+
+        /**
+         * Returns how often a configuration was requested again and served
+         * from the cache.
+         *
+         * @return cache hits
+         */
+        public int getCacheHits() {
+            return cacheHits;
+        }
+
+        public int getReplications() {
+            return replications;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "best %s after %d evaluations (%d cached, %d replications)",
+                    best, evaluations, cacheHits, replications);
+        }
+    }
+
+    public static final class Builder {
+        private final Properties baseProperties;
+        private final List<DecisionVariable> variables = new ArrayList<>();
+        private Metric metric = Metric.P90_WAITING_TIME;
+        private double limit = 5.0;
+        private int replications = 20;
+        private int[] start;
+        private int maxEvaluations = 200;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long seed = 12345L;
+
+        private Builder(Properties baseProperties) {
+            this.baseProperties = baseProperties;
+        }
+
+        public Builder variable(String key, int min, int max, double unitCost) {
+            variables.add(new DecisionVariable(key, min, max, unitCost));
+            return this;
+        }
+
+        /**
+         * Sets the service-level target: the mean of {@code value} must not
+         * exceed {@code limit}.
+         *
+         * @param value constrained metric
+         * @param max   largest acceptable mean
+         * @return this builder
+         */
+        public Builder constraint(Metric value, double max) {
+            this.metric = value;
+            this.limit = max;
+            return this;
+        }
+
+        public Builder replications(int value) {
+            this.replications = value;
+            return this;
+        }
+
+        /**
+         * Sets the start point; by default every variable starts at its maximum.
+         *
+         * @param values value of each variable, in the order they were added
+         * @return this builder
+         */
+        public Builder start(int... values) {
+            this.start = values.clone();
+            return this;
+        }
+
+        public Builder maxEvaluations(int value) {
+            this.maxEvaluations = value;
+            return this;
+        }
+
+        public Builder threads(int value) {
+            this.threads = value;
+            return this;
+        }
+
+        public Builder seed(long value) {
+            this.seed = value;
+            return this;
+        }
+
+        public StaffingOptimizer build() {
+            if (baseProperties == null || variables.isEmpty()) {
+                throw new IllegalArgumentException("Optimizer needs base properties and at least one variable.");
+            }
+            if (metric == null) {
+                throw new IllegalArgumentException("Metric must not be null.");
+            }
+            if (replications < 2 || maxEvaluations < 1 || threads < 1) {
+                throw new IllegalArgumentException("Need at least 2 replications, 1 evaluation and 1 thread.");
+            }
+            if (start != null && start.length != variables.size()) {
+                throw new IllegalArgumentException("Start point needs one value per variable.");
+            }
+            StaffingOptimizer optimizer = new StaffingOptimizer(this);
+            if (!optimizer.inBounds(toKey(optimizer.start))) {
+                throw new IllegalArgumentException("Start point is outside the variable bounds.");
+            }
+            return optimizer;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package simulation.experiment;
+
+import simulation.config.SimulationParameters;
+import simulation.logic.Simulator;
+import simulation.statistics.BatchMeans;
+import simulation.statistics.Mser5;
+import simulation.statistics.SimulationStatistics;
+import simulation.statistics.StatisticsCollector;
+
+import java.util.Locale;
+
+/**
+ * Estimates steady-state performance from one long run instead of many
+ * short replications.
+ * <p>
+ * The run advances in intervals of simulated time. During the warm-up, the
+ * waiting time of every customer leaving the system is fed to an
+ * {@link Mser5} detector. Once it reports that the initial transient is over,
+ * the {@link StatisticsCollector} is truncated at the current time, so the
+ * empty-shop start no longer biases any average, and the following waits
+ * go to a {@link BatchMeans} estimator. The run stops when the batch-means
+ * interval reaches the target relative precision or the time limit is hit.
+ * </p>
+ * <p>
+ * The collector is truncated when the warm-up is detected rather than at
+ * the detected point itself, which lies in the past; this discards a little
+ * more data than necessary but keeps the estimate unbiased.
+ * </p>
+ * <p>
+ * Use {@link #builder(SimulationParameters)} to create instances.
+ * </p>
+ */
+public final class SteadyStateRun {
+
+    private final SimulationParameters parameters;
+    private final long seed;
+    private final double relativePrecision;
+    private final double confidence;
+    private final double checkInterval;
+    private final double maxTime;
+    private final int batches;
+    private final long initialBatchSize;
+
+    private SteadyStateRun(Builder builder) {
+        this.parameters = builder.parameters;
+        this.seed = builder.seed;
+        this.relativePrecision = builder.relativePrecision;
+        this.confidence = builder.confidence;
+        this.checkInterval = builder.checkInterval;
+        this.maxTime = builder.maxTime;
+        this.batches = builder.batches;
+        this.initialBatchSize = builder.initialBatchSize;
+    }
+
+    public static Builder builder(SimulationParameters parameters) {
+        return new Builder(parameters);
+    }
+
+    /**
+     * Performs the run.
+     *
+     * @return warm-up, steady-state statistics and the batch-means interval
+     */
+    public Result run() {
+        Simulator simulator = new Simulator(parameters, false);
+        simulator.setSeed(seed);
+        simulator.initialize();
+        StatisticsCollector collector = simulator.getStatisticsCollector();
+
+        Mser5 warmUp = new Mser5();
+        BatchMeans batchMeans = new BatchMeans(batches, initialBatchSize);
+        boolean[] warming = {true};
+        collector.setWaitObserver(wait -> {
+            if (warming[0]) {
+                warmUp.add(wait);
+            } else {
+                batchMeans.add(wait);
+            }
+        });
+
+        long truncatedCustomers = -1;
+        double truncationTime = Double.NaN;
+        boolean precise = false;
+        double time = 0;
+        while (time < maxTime && !precise) {
+            time = Math.min(time + checkInterval, maxTime);
+            simulator.run(time);
+            if (warming[0]) {
+                if (warmUp.truncationPoint() >= 0) {
+                    warming[0] = false;
+                    truncatedCustomers = warmUp.getObservations();
+                    truncationTime = simulator.getTime();
+                    collector.truncate(truncationTime);
+                }
+            } else {
+                precise = batchMeans.getBatches() >= batches
+                        && batchMeans.getRelativeHalfWidth(confidence) <= relativePrecision;
+            }
+        }
+        collector.setWaitObserver(null);
+        return new Result(simulator.getStatistics(), truncatedCustomers, truncationTime,
+                batchMeans, confidence, precise, simulator.getTime());
+    }
+
+    /**
+     * Outcome of a steady-state run.
+     */
+    public static final class Result {
+        private final SimulationStatistics statistics;
+        private final long truncatedCustomers;
+        private final double truncationTime;
+        private final double waitMean;
+        private final double waitHalfWidth;
+        private final int batches;
+        private final long batchSize;
+        private final boolean precisionReached;
+        private final double endTime;
+
+        private Result(SimulationStatistics statistics, long truncatedCustomers, double truncationTime,
+                BatchMeans batchMeans, double confidence, boolean precisionReached, double endTime) {
+            this.statistics = statistics;
+            this.truncatedCustomers = truncatedCustomers;
+            this.truncationTime = truncationTime;
+            this.waitMean = batchMeans.getMean();
+            this.waitHalfWidth = batchMeans.getHalfWidth(confidence);
+            this.batches = batchMeans.getBatches();
+            this.batchSize = batchMeans.getBatchSize();
+            this.precisionReached = precisionReached;
+            this.endTime = endTime;
+        }
+
+        /**
+         * Returns the statistics collected after the warm-up, or over the
+         * whole run if no warm-up end was detected.
+         *
+         * @return steady-state statistics
+         */
+        public SimulationStatistics getStatistics() {
+            return statistics;
+        }
+
+        public boolean isWarmUpDetected() {
+            return truncatedCustomers >= 0;
+        }
+
+        /**
+         * Returns the number of departed customers discarded as warm-up.
+         *
+         * @return discarded customers, or -1 if no warm-up end was detected
+         */
+        public long getTruncatedCustomers() {
+            return truncatedCustomers;
+        }
+
+        public double getTruncationTime() {
+            return truncationTime;
+        }
+
+        /**
+         * Returns the batch-means estimate of the steady-state average wait.
+         *
+         * @return mean waiting time
+         */
+        public double getWaitMean() {
+            return waitMean;
+        }
+
+        public double getWaitHalfWidth() {
+            return waitHalfWidth;
+        }
+
+        public int getBatches() {
+            return batches;
+        }
+
+        public long getBatchSize() {
+            return batchSize;
+        }
+
+        public boolean isPrecisionReached() {
+            return precisionReached;
+        }
+
+        public double getEndTime() {
+            return endTime;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "warm-up %d customers (t=%.1f), wait %.4f +- %.4f from %d batches of %d, run to t=%.1f%s",
+                    truncatedCustomers, truncationTime, waitMean, waitHalfWidth, batches, batchSize, endTime,
+                    precisionReached ? "" : " (precision not reached)");
+        }
+    }
+
+    public static final class Builder {
+        private final SimulationParameters parameters;
+        private long seed = 12345L;
+        private double relativePrecision = 0.05;
+        private double confidence = 0.95;
+        private double checkInterval = 60.0;
+        private double maxTime = 1_000_000.0;
+        private int batches = 20;
+        private long initialBatchSize = 10;
+
+        private Builder(SimulationParameters parameters) {
+            this.parameters = parameters;
+        }
+
+        public Builder seed(long value) {
+            this.seed = value;
+            return this;
+        }
+
+        public Builder relativePrecision(double value) {
+            this.relativePrecision = value;
+            return this;
+        }
+
+        public Builder confidence(double value) {
+            this.confidence = value;
+            return this;
+        }
+
+        /**
+         * Sets how much simulated time passes between checks of the
+         * warm-up and precision criteria.
+         *
+         * @param value simulated time between checks
+         * @return this builder
+         */
+        public Builder checkInterval(double value) {
+            this.checkInterval = value;
+            return this;
+        }
+
+        public Builder maxTime(double value) {
+            this.maxTime = value;
+            return this;
+        }
+
+        /**
+         * Sets the minimum number of batches; between this and twice this
+         * number are kept.
+         *
+         * @param value minimum number of batches
+         * @return this builder
+         */
+        public Builder batches(int value) {
+            this.batches = value;
+            return this;
+        }
+
+        public Builder initialBatchSize(long value) {
+            this.initialBatchSize = value;
+            return this;
+        }
+
+        public SteadyStateRun build() {
+            if (parameters == null) {
+                throw new IllegalArgumentException("Parameters must not be null.");
+            }
+            if (!(relativePrecision > 0)) {
+                throw new IllegalArgumentException("Relative precision must be positive.");
+            }
+            if (!(confidence > 0 && confidence < 1)) {
+                throw new IllegalArgumentException("Confidence must be in (0, 1).");
+            }
+            if (!(checkInterval > 0) || !(maxTime >= checkInterval)) {
+                throw new IllegalArgumentException("Check interval must be positive and not exceed the time limit.");
+            }
+            if (batches < 2 || initialBatchSize < 1) {
+                throw new IllegalArgumentException("Need at least 2 batches of at least 1 observation.");
+            }
+            return new SteadyStateRun(this);
+        }
+    }
+}
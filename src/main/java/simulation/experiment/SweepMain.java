@@ -0,0 +1,94 @@
+package simulation.experiment;
+
+import simulation.data.FileManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+/**
+ * Entry point for running a parameter sweep from the command line.
+ * <p>
+ * The sweep is described by a properties file, {@code config/sweep.properties}
+ * unless another path is given as the first argument:
+ * <ul>
+ *     <li>sweep.base: model properties the factors are applied to (default {@code config/simulator.properties})</li>
+ *     <li>sweep.design: {@code factorial}, {@code lhs} or {@code sobol}</li>
+ *     <li>sweep.points: number of points of an {@code lhs} or {@code sobol} design</li>
+ *     <li>sweep.replications: runs per point</li>
+ *     <li>sweep.seed: base seed</li>
+ *     <li>sweep.threads: worker threads (default: all cores)</li>
+ *     <li>sweep.output: result file (default {@code output/sweep-results.csv}); a name ending in
+ *     {@code .cols} selects the columnar binary format</li>
+ *     <li>factor.&lt;property key&gt;: {@code min:max:levels} with an optional {@code :int} suffix</li>
+ * </ul>
+ * Running the same sweep again resumes it, unless the output is columnar.
+ * </p>
+ */
+public class SweepMain {
+
+    private static final String FACTOR_PREFIX = "factor.";
+    private static final String COLUMNAR_SUFFIX = ".cols";
+
+    /**
+     * Main method to start the sweep.
+     *
+     * @param args optional path of the sweep properties file
+     */
+    public static void main(String[] args) {
+        Path configPath = Path.of(args.length > 0 ? args[0] : "config/sweep.properties");
+        try {
+            Properties sweep = FileManager.loadProperties(configPath);
+            Path basePath = Path.of(sweep.getProperty("sweep.base", "config/simulator.properties"));
+            Properties base = Files.exists(basePath) ? FileManager.loadProperties(basePath) : new Properties();
+            ParameterSweep parameterSweep = create(sweep, base);
+            Path output = Path.of(sweep.getProperty("sweep.output", "output/sweep-results.csv"));
+            int threads = Integer.parseInt(sweep.getProperty("sweep.threads",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())).trim());
+
+            long start = System.nanoTime();
+            int runs = output.getFileName().toString().endsWith(COLUMNAR_SUFFIX)
+                    ? parameterSweep.runColumnar(output, threads)
+                    : parameterSweep.run(output, threads);
+            System.out.printf("Sweep of %d points x %d replications: %d runs executed in %.1f s%n",
+                    parameterSweep.getPointCount(), parameterSweep.getReplications(), runs,
+                    (System.nanoTime() - start) / 1e9);
+            System.out.println("Sweep results written to " + output.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Sweep failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Sweep interrupted; run again to resume.");
+        }
+    }
+
+    /**
+     * Creates a sweep from its properties.
+     *
+     * @param sweep sweep settings and factors
+     * @param base  model properties the factors are applied to
+     * @return the sweep
+     * @throws IllegalArgumentException if a setting is invalid
+     */
+    public static ParameterSweep create(Properties sweep, Properties base) {
+        List<Factor> factors = new ArrayList<>();
+        for (String name : sweep.stringPropertyNames().stream().sorted().toList()) {
+            if (name.startsWith(FACTOR_PREFIX)) {
+                factors.add(Factor.parse(name.substring(FACTOR_PREFIX.length()), sweep.getProperty(name)));
+            }
+        }
+        long seed = Long.parseLong(sweep.getProperty("sweep.seed", "12345").trim());
+        int points = Integer.parseInt(sweep.getProperty("sweep.points", "64").trim());
+        String designName = sweep.getProperty("sweep.design", "factorial").trim().toLowerCase();
+        ExperimentDesign design = switch (designName) {
+            case "factorial" -> new FullFactorialDesign();
+            case "lhs" -> new LatinHypercubeDesign(points, seed);
+            case "sobol" -> new SobolDesign(points);
+            default -> throw new IllegalArgumentException("Unknown sweep design '" + designName + "'");
+        };
+        int replications = Integer.parseInt(sweep.getProperty("sweep.replications", "5").trim());
+        return new ParameterSweep(base, factors, design, replications, seed);
+    }
+}
@@ -0,0 +1,56 @@
+package simulation.experiment;
+
+import simulation.config.SimulationParameters;
+
+import java.util.Locale;
+/**
+ * Measures how long {@link WarmStart#fork(long)} takes.
+ * <p>
+ * Usage: {@code WarmStartBenchmark [forks]}. The default model with three
+ * baristas, which settles into a steady state, is warmed up for 2000
+ * minutes once and then forked with a new seed {@code forks} times (10000
+ * by default). Forks are not run, so the figure is the fixed cost a
+ * replication pays before its first event. It grows with the number of
+ * customers in the captured state.
+ * </p>
+ */
+public class WarmStartBenchmark {
+
+    /**
+     * Main method of the benchmark.
+     *
+     * @param args optional number of forks
+     */
+    public static void main(String[] args) {
+        int forks = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        WarmStart warmStart = WarmStart.warmUp(SimulationParameters.builder().baristaServers(3).build(), 1, 2000);
+        run(warmStart, Math.min(forks, 1_000)); // warm-up
+        Result result = run(warmStart, forks);
+        System.out.println(String.format(Locale.US, "%d forks of a state with %d customers, %.1f microseconds per fork",
+                result.forks(), warmStart.getState().getCustomerCount(), result.nanos() / 1e3 / result.forks()));
+    }
+
+    /**
+     * Forks a warm start repeatedly.
+     *
+     * @param warmStart state to fork
+     * @param forks     number of forks
+     * @return measurements of the run
+     */
+    public static Result run(WarmStart warmStart, int forks) {
+        long start = System.nanoTime();
+        for (int i = 0; i < forks; i++) {
+            warmStart.fork(i);
+        }
+        return new Result(forks, System.nanoTime() - start);
+    }
+
+    /**
+     * Measurements of one benchmark run.
+     *
+     * @param forks number of forks
+     * @param nanos wall-clock duration
+     */
+    public record Result(int forks, long nanos) {
+    }
+}
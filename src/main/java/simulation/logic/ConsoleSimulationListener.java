@@ -24,4 +24,14 @@ public class ConsoleSimulationListener implements SimulationListener {
         String destination = (to != null) ? to.getName() : "OUT";
         System.out.printf("Routing %s from %s to %s%n", customer, from.getName(), destination);
     }
+
+    @Override
+    public void onBalk(Customer customer, ServicePoint servicePoint) {
+        System.out.printf("%s balks at %s%n", customer, servicePoint.getName());
+    }
+
+    @Override
+    public void onRenege(Customer customer, ServicePoint servicePoint) {
+        System.out.printf("%s reneges at %s%n", customer, servicePoint.getName());
+    }
 }
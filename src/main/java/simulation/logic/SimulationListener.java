@@ -16,9 +16,44 @@ public interface SimulationListener {
     default void onArrival(Event event) {
     }
 
+    /**
+     * Called when service ends. The event carries every customer of a batch
+     * served together; the times are those of the first customer, and the
+     * service time is shared by the whole batch.
+     *
+     * @param event       the departure event
+     * @param waitTime    waiting time of the (first) customer
+     * @param serviceTime service time
+     */
     default void onDeparture(Event event, double waitTime, double serviceTime) {
     }
 
+    default void onServiceStart(Customer customer, ServicePoint servicePoint) {
+    }
+
     default void onRouting(Customer customer, ServicePoint from, ServicePoint to) {
     }
+
+    default void onExit(Customer customer, ServicePoint from) {
+    }
+
+    /**
+     * Called when an arriving customer leaves at once because the queue is
+     * too long. The customer never joins the queue.
+     *
+     * @param customer     the customer
+     * @param servicePoint the service point they would have queued at
+     */
+    default void onBalk(Customer customer, ServicePoint servicePoint) {
+    }
+
+    /**
+     * Called when a waiting customer runs out of patience and leaves the
+     * queue before being served.
+     *
+     * @param customer     the customer
+     * @param servicePoint the service point they were queued at
+     */
+    default void onRenege(Customer customer, ServicePoint servicePoint) {
+    }
 }
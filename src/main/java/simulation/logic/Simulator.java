@@ -1,21 +1,40 @@
 package simulation.logic;
 
+import eduni.distributions.ContinuousGenerator;
+import eduni.distributions.DiscreteGenerator;
+import eduni.distributions.FastPoisson;
 import eduni.distributions.Negexp;
+import eduni.distributions.SeedGenerator;
+import eduni.distributions.Seedable;
 import eduni.distributions.Uniform;
 import simulation.config.SimulationParameters;
+import simulation.data.FileManager;
 import simulation.model.Clock;
 import simulation.model.Customer;
 import simulation.model.Event;
 import simulation.model.EventList;
+import simulation.model.FifoQueue;
 import simulation.model.ServicePoint;
 import simulation.random.ArrivalProcess;
+import simulation.random.BufferedGenerator;
+import simulation.random.CategoricalGenerator;
 import simulation.random.DeterministicGenerator;
+import simulation.random.NonStationaryArrivalProcess;
 import simulation.random.PositiveNormalGenerator;
+import simulation.random.RateSchedule;
+import simulation.random.ShiftedDiscreteGenerator;
 import simulation.statistics.SimulationStatistics;
 import simulation.statistics.StatisticsCollector;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The Simulator class controls the execution of the discrete-event
@@ -26,6 +45,8 @@ import java.util.List;
  *   <li>Event scheduling and execution</li>
  *   <li>Simulation clock progression</li>
  *   <li>Customer arrivals, services, and routing</li>
+ *   <li>Customers who balk at a long queue or renege after waiting too long</li>
+ *   <li>Batch service of compatible customers, e.g. several drinks at once</li>
  *   <li>Statistics collection and reporting</li>
  * </ul>
  *
@@ -50,28 +71,69 @@ public class Simulator {
     private final ArrivalProcess instoreArrivalProcess;
     private final ArrivalProcess mobileArrivalProcess;
 
+    // Abandonment per customer class; a null patience means customers never renege
+    private final int instoreBalkThreshold;
+    private final int mobileBalkThreshold;
+    private final ContinuousGenerator instorePatience;
+    private final ContinuousGenerator mobilePatience;
+    // Drink of every arriving customer; null when the model has no drink mix
+    private final CategoricalGenerator drinks;
+    // Pending renege event of every waiting customer who may still give up
+    private final Map<Customer, Event> renegeEvents = new HashMap<>();
+    // Pending batch-forming timeout of every station waiting for a batch to fill up
+    private final Map<ServicePoint, Event> batchTimeouts = new IdentityHashMap<>();
+
     private final List<SimulationListener> listeners = new ArrayList<>();
     private final StatisticsCollector statisticsCollector = new StatisticsCollector();
+    // Every random stream of the model, in a fixed order, so a seed reproduces a run
+    private final List<Seedable> streams = new ArrayList<>();
 
     public Simulator() {
         this(SimulationParameters.defaults());
     }
 
     public Simulator(SimulationParameters parameters) {
+        this(parameters, true);
+    }
+
+    /**
+     * Creates a simulator.
+     *
+     * @param parameters    model parameters
+     * @param consoleOutput whether events are printed to the console; batch
+     *                      experiments running many replications turn this off
+     */
+    public Simulator(SimulationParameters parameters, boolean consoleOutput) {
         this.parameters = parameters;
-        this.cashier = new ServicePoint("Cashier", new Negexp(parameters.getCashierServiceMean()));
+        this.cashier = new ServicePoint("Cashier",
+                stream(buffered(new Negexp(parameters.getCashierServiceMean()))),
+                parameters.getCashierServers());
         this.barista = new ServicePoint("Barista",
-                new PositiveNormalGenerator(parameters.getBaristaServiceMean(),
-                        parameters.getBaristaServiceVariance()));
+                stream(buffered(baristaServiceGenerator(parameters))),
+                parameters.getBaristaServers(),
+                parameters.getBaristaQueueDiscipline() == null ? new FifoQueue()
+                        : parameters.getBaristaQueueDiscipline().get(),
+                parameters.getBaristaBatchPolicy());
         this.shelf = new ServicePoint("Pickup Shelf",
-                new Uniform(parameters.getShelfServiceMin(), parameters.getShelfServiceMax()));
+                stream(buffered(new Uniform(parameters.getShelfServiceMin(), parameters.getShelfServiceMax()))));
         this.delivery = new ServicePoint("Delivery Window",
                 new DeterministicGenerator(parameters.getDeliveryServiceTime()));
-        this.instoreArrivalProcess = new ArrivalProcess("INSTORE", cashier,
-                new Negexp(parameters.getInstoreArrivalMean()));
-        this.mobileArrivalProcess = new ArrivalProcess("MOBILE", barista,
-                new Negexp(parameters.getMobileArrivalMean()));
-        listeners.add(new ConsoleSimulationListener());
+        this.instoreArrivalProcess = arrivalProcess("INSTORE", cashier,
+                parameters.getInstoreArrivalSchedule(), parameters.getInstoreArrivalMean(),
+                parameters.getInstoreBatchMean());
+        this.mobileArrivalProcess = arrivalProcess("MOBILE", barista,
+                parameters.getMobileArrivalSchedule(), parameters.getMobileArrivalMean(),
+                parameters.getMobileBatchMean());
+        // created last, so the other streams get the same seeds with or without reneging
+        this.instoreBalkThreshold = parameters.getInstoreBalkThreshold();
+        this.mobileBalkThreshold = parameters.getMobileBalkThreshold();
+        this.instorePatience = patience(parameters.getInstorePatienceMean());
+        this.mobilePatience = patience(parameters.getMobilePatienceMean());
+        // likewise after all others, so a drink mix does not shift their seeds
+        this.drinks = parameters.getDrinkMix() == null ? null : stream(drinkMix(parameters.getDrinkMix()));
+        if (consoleOutput) {
+            listeners.add(new ConsoleSimulationListener());
+        }
         statisticsCollector.registerServicePoint(cashier, false);
         statisticsCollector.registerServicePoint(barista, false);
         statisticsCollector.registerServicePoint(shelf, true);
@@ -79,6 +141,73 @@ public class Simulator {
         listeners.add(statisticsCollector);
     }
 
+    // A rate schedule replaces the stationary mean when configured; groups
+    // of 1 + Poisson(batchMean - 1) customers arrive together when batchMean > 1
+    private ArrivalProcess arrivalProcess(String type, ServicePoint target,
+            RateSchedule schedule, double mean, double batchMean) {
+        DiscreteGenerator batchSizes = batchMean > 1.0
+                ? stream(new ShiftedDiscreteGenerator(new FastPoisson(batchMean - 1.0), 1L))
+                : null;
+        if (schedule == null) {
+            return new ArrivalProcess(type, target, stream(buffered(new Negexp(mean))), batchSizes);
+        }
+        return new NonStationaryArrivalProcess(type, target, schedule,
+                stream(buffered(new Negexp(1.0))), batchSizes);
+    }
+
+    private ContinuousGenerator patience(double mean) {
+        return Double.isInfinite(mean) ? null : stream(buffered(new Negexp(mean)));
+    }
+
+    private <T extends Seedable> T stream(T generator) {
+        streams.add(generator);
+        return generator;
+    }
+
+    // Recorded service times replace the normal distribution when configured
+    private static ContinuousGenerator baristaServiceGenerator(SimulationParameters parameters) {
+        if (parameters.getBaristaServiceSamples() == null) {
+            return new PositiveNormalGenerator(parameters.getBaristaServiceMean(),
+                    parameters.getBaristaServiceVariance());
+        }
+        try {
+            return FileManager.loadEmpirical(Path.of(parameters.getBaristaServiceSamples()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load barista service samples", e);
+        }
+    }
+
+    private static CategoricalGenerator drinkMix(String path) {
+        try {
+            return FileManager.loadAlias(Path.of(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load drink mix", e);
+        }
+    }
+
+    // Samples are drawn in blocks; the sequence is the same as sampling directly
+    private static ContinuousGenerator buffered(ContinuousGenerator generator) {
+        return new BufferedGenerator(generator);
+    }
+
+    /**
+     * Reseeds every random stream of the model from one seed.
+     * <p>
+     * The streams receive seeds that are far apart in the underlying
+     * generator's cycle, so they do not overlap. Two simulators with the same
+     * parameters and seed produce identical runs, which is what common random
+     * numbers across experiment points rely on. Call before {@link #initialize()}.
+     * </p>
+     *
+     * @param seed any value; it is mapped into the generator's seed range
+     */
+    public void setSeed(long seed) {
+        SeedGenerator seeds = new SeedGenerator(1 + Math.floorMod(seed, 2147483646L), 100000);
+        for (Seedable generator : streams) {
+            generator.setSeed(seeds.sample());
+        }
+    }
+
     public void addListener(SimulationListener listener) {
         listeners.add(listener);
     }
@@ -94,29 +223,47 @@ public class Simulator {
     }
 
     public void run(double endTime) {
-        while (!eventList.isEmpty() && clock.getTime() < endTime) {
-            // A-phase: find time of next event and advance clock
-            Event first = eventList.removeNext();
-            double currentTime = first.getTime();
-            if (currentTime > endTime) {
-                clock.setTime(endTime);
-                break;
-            }
-            clock.setTime(currentTime);
+        while (step(endTime)) {
+            // each step handles one instant of simulation time
+        }
+    }
 
-            // B-phase: execute all bound (scheduled) events due at current time
-            handleBEvent(first);
-            while (!eventList.isEmpty() && eventList.peekNext().getTime() == currentTime) {
-                Event nextAtSameTime = eventList.removeNext();
-                handleBEvent(nextAtSameTime);
-            }
+    /**
+     * Runs one cycle of the simulation: advances the clock to the next event
+     * time, executes every event due then, and starts the services that can
+     * start. Front-ends that pace or pause a run, such as the GUI, call this
+     * in a loop instead of {@link #run(double)}.
+     *
+     * @param endTime simulation horizon
+     * @return false if the horizon was reached or no events are left
+     */
+    public boolean step(double endTime) {
+        if (eventList.isEmpty() || clock.getTime() >= endTime) {
+            return false;
+        }
+        // A-phase: find time of next event and advance clock; events beyond
+        // the horizon stay in the list so a later run can continue from them
+        double currentTime = eventList.peekNext().getTime();
+        if (currentTime > endTime) {
+            clock.setTime(endTime);
+            return false;
+        }
+        Event first = eventList.removeNext();
+        clock.setTime(currentTime);
 
-            // C-phase: repeatedly start services where conditions are met
-            boolean executed;
-            do {
-                executed = cPhase();
-            } while (executed);
+        // B-phase: execute all bound (scheduled) events due at current time
+        handleBEvent(first);
+        while (!eventList.isEmpty() && eventList.peekNext().getTime() == currentTime) {
+            Event nextAtSameTime = eventList.removeNext();
+            handleBEvent(nextAtSameTime);
         }
+
+        // C-phase: repeatedly start services where conditions are met
+        boolean executed;
+        do {
+            executed = cPhase();
+        } while (executed);
+        return true;
     }
 
     public void run() {
@@ -125,44 +272,84 @@ public class Simulator {
 
     // B-phase: handle scheduled ARRIVAL and DEPARTURE events
     private void handleBEvent(Event e) {
-        Customer c = e.getCustomer();
         ServicePoint sp = e.getTarget();
 
         if (e.getType() == Event.ARRIVAL) {
             notifyArrival(e);
-            // Customer arrives to the queue of a service point
-            sp.addCustomer(c);
+            // Customers (a whole group for batch arrivals) join the queue of a service point
+            for (Customer arriving : e.getCustomers()) {
+                if (drinks != null) {
+                    arriving.setDrink(drinks.sampleName());
+                }
+                join(arriving, sp);
+            }
 
-            if (c.getType().equals("INSTORE")) {
+            if ("INSTORE".equals(e.getCustomerType())) {
                 instoreArrivalProcess.scheduleNext(clock.getTime(), eventList);
-            } else if (c.getType().equals("MOBILE")) {
+            } else if ("MOBILE".equals(e.getCustomerType())) {
                 mobileArrivalProcess.scheduleNext(clock.getTime(), eventList);
             }
         } else if (e.getType() == Event.DEPARTURE) {
-            notifyDeparture(e, c.getWaitingTime(), c.getServiceTime());
-
-            // Service at this point has finished
-            sp.setBusy(false);
-
-            // Route customers after service by placing them into the next queue
-            if (sp == cashier) {
-                barista.addCustomer(c);
-                notifyRouting(c, sp, barista);
-            } else if (sp == barista) {
-                if (c.getType().equals("INSTORE")) {
-                    shelf.addCustomer(c);
-                    notifyRouting(c, sp, shelf);
+            Customer first = e.getCustomer();
+            notifyDeparture(e, first.getWaitingTime(), first.getServiceTime());
+
+            // Service at this point has finished, one server becomes free
+            sp.releaseServer();
+
+            // Route customers (a whole batch for batch service) after service
+            // by placing them into the next queue
+            for (Customer c : e.getCustomers()) {
+                if (sp == cashier) {
+                    barista.addCustomer(c);
+                    notifyRouting(c, sp, barista);
+                } else if (sp == barista) {
+                    if (c.getType().equals("INSTORE")) {
+                        shelf.addCustomer(c);
+                        notifyRouting(c, sp, shelf);
+                    } else {
+                        delivery.addCustomer(c);
+                        notifyRouting(c, sp, delivery);
+                    }
                 } else {
-                    delivery.addCustomer(c);
-                    notifyRouting(c, sp, delivery);
+                    // shelf and delivery are terminal points in this simple model
+                    notifyExit(c, sp);
                 }
             }
-            // shelf and delivery are terminal points in this simple model
+        } else if (e.getType() == Event.RENEGE) {
+            Customer c = e.getCustomer();
+            renegeEvents.remove(c);
+            if (sp.removeCustomer(c)) {
+                notifyRenege(e, c);
+                if (!sp.hasWaitingCustomer()) {
+                    stopBatchForming(sp);
+                }
+            }
+        } else if (e.getType() == Event.BATCH_TIMEOUT) {
+            // the deadline has passed; the C-phase starts whatever batch there is
+            batchTimeouts.remove(sp);
+            notifyEvent(e);
+        }
+    }
+
+    // An arriving customer balks if the queue is too long; otherwise they
+    // join it and, if they have limited patience, schedule their reneging
+    private void join(Customer customer, ServicePoint sp) {
+        boolean instore = "INSTORE".equals(customer.getType());
+        if (sp.getQueueLength() >= (instore ? instoreBalkThreshold : mobileBalkThreshold)) {
+            notifyBalk(customer, sp);
+            return;
+        }
+        sp.addCustomer(customer);
+        ContinuousGenerator patience = instore ? instorePatience : mobilePatience;
+        if (patience != null) {
+            Event renege = new Event(clock.getTime() + patience.sample(), Event.RENEGE, customer, sp);
+            renegeEvents.put(customer, renege);
+            eventList.add(renege);
         }
     }
 
     // C-phase: for each service point, start service if there is a waiting customer
-    // and the point is idle
+    // and an idle server
     private boolean cPhase() {
         boolean executed = false;
         executed |= tryStartService(cashier);
@@ -172,18 +359,70 @@ public class Simulator {
         return executed;
     }
 
+    // A batch station takes all customers of a batch at once and schedules
+    // one departure for them; other stations take one customer
     private boolean tryStartService(ServicePoint sp) {
-        if (!sp.isBusy() && sp.hasWaitingCustomer()) {
-            Customer next = sp.getNextCustomer();
-            double currentTime = clock.getTime();
+        if (sp.isBusy() || !sp.hasWaitingCustomer()) {
+            return false;
+        }
+        double currentTime = clock.getTime();
+        List<Customer> batch = sp.takeBatch(currentTime >= sp.getBatchDeadline());
+        if (batch.isEmpty()) {
+            startBatchForming(sp, currentTime);
+            return false;
+        }
+        stopBatchForming(sp);
+        Customer first = batch.get(0);
+        double serviceTime = sp.generateServiceTime(first);
+        for (Customer next : batch) {
+            Event renege = renegeEvents.remove(next);
+            if (renege != null) {
+                eventList.cancel(renege);
+            }
+            // the batch shares the first customer's service time
+            next.setPlannedServiceTime(Double.NaN);
             next.setServiceStartTime(currentTime);
-            double serviceTime = sp.generateServiceTime();
             next.setServiceEndTime(currentTime + serviceTime);
-            sp.setBusy(true);
-            eventList.add(new Event(currentTime + serviceTime, Event.DEPARTURE, next, sp));
-            return true;
         }
-        return false;
+        sp.acquireServer();
+        eventList.add(batch.size() == 1
+                ? new Event(currentTime + serviceTime, Event.DEPARTURE, first, sp)
+                : Event.departure(currentTime + serviceTime, batch, sp));
+        for (Customer next : batch) {
+            notifyServiceStart(next, sp);
+        }
+        return true;
+    }
+
+    // An idle server waits for a batch to fill up, at most for the forming timeout
+    private void startBatchForming(ServicePoint sp, double currentTime) {
+        if (!Double.isNaN(sp.getBatchDeadline())) {
+            return;
+        }
+        double deadline = currentTime + sp.getBatchPolicy().getFormingTimeout();
+        sp.setBatchDeadline(deadline);
+        if (!Double.isInfinite(deadline)) {
+            Event timeout = new Event(deadline, Event.BATCH_TIMEOUT, null, sp);
+            batchTimeouts.put(sp, timeout);
+            eventList.add(timeout);
+        }
+    }
+
+    private void stopBatchForming(ServicePoint sp) {
+        if (Double.isNaN(sp.getBatchDeadline())) {
+            return;
+        }
+        sp.setBatchDeadline(Double.NaN);
+        Event timeout = batchTimeouts.remove(sp);
+        if (timeout != null) {
+            eventList.cancel(timeout);
+        }
+    }
+
+    private void notifyEvent(Event event) {
+        for (SimulationListener listener : listeners) {
+            listener.onEvent(event);
+        }
     }
 
     private void notifyArrival(Event event) {
@@ -200,12 +439,255 @@ public class Simulator {
         }
     }
 
+    private void notifyServiceStart(Customer customer, ServicePoint servicePoint) {
+        for (SimulationListener listener : listeners) {
+            listener.onServiceStart(customer, servicePoint);
+        }
+    }
+
     private void notifyRouting(Customer customer, ServicePoint from, ServicePoint to) {
         for (SimulationListener listener : listeners) {
             listener.onRouting(customer, from, to);
         }
     }
 
+    private void notifyExit(Customer customer, ServicePoint from) {
+        for (SimulationListener listener : listeners) {
+            listener.onExit(customer, from);
+        }
+    }
+
+    private void notifyBalk(Customer customer, ServicePoint servicePoint) {
+        for (SimulationListener listener : listeners) {
+            listener.onBalk(customer, servicePoint);
+        }
+    }
+
+    private void notifyRenege(Event event, Customer customer) {
+        for (SimulationListener listener : listeners) {
+            listener.onEvent(event);
+            listener.onRenege(customer, event.getTarget());
+        }
+    }
+
+    /**
+     * Captures the complete state of the run.
+     * <p>
+     * The state is copied into primitive arrays, so the simulator can
+     * continue immediately while the snapshot is written elsewhere. Call it
+     * between runs, not from a listener.
+     * </p>
+     *
+     * @return the captured state
+     */
+    public SimulatorState snapshot() {
+        ServicePoint[] points = servicePoints();
+        Map<Customer, Integer> index = new IdentityHashMap<>();
+        List<Customer> customers = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+
+        int[][] queues = new int[points.length][];
+        double[][] queueStates = new double[points.length][];
+        int[] busy = new int[points.length];
+        double[] batchDeadlines = new double[points.length];
+        for (int p = 0; p < points.length; p++) {
+            List<Customer> queue = points[p].getQueuedCustomers();
+            queues[p] = new int[queue.size()];
+            for (int i = 0; i < queue.size(); i++) {
+                queues[p][i] = indexOf(queue.get(i), index, customers);
+            }
+            queueStates[p] = points[p].getQueueDiscipline().getState();
+            busy[p] = points[p].getBusyServers();
+            batchDeadlines[p] = points[p].getBatchDeadline();
+        }
+
+        List<Event> events = eventList.toList();
+        double[] eventTime = new double[events.size()];
+        long[] eventSequence = new long[events.size()];
+        int[] eventType = new int[events.size()];
+        int[] eventTarget = new int[events.size()];
+        int[][] eventCustomers = new int[events.size()][];
+        int[] eventCustomerType = new int[events.size()];
+        int[] eventCount = new int[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            eventTime[i] = event.getTime();
+            eventSequence[i] = event.getSequence();
+            eventType[i] = event.getType();
+            eventTarget[i] = Arrays.asList(points).indexOf(event.getTarget());
+            // lazy arrivals and batch timeouts have no customer objects
+            List<Customer> carried = event.getCustomerIfCreated() == null ? List.of() : event.getCustomers();
+            eventCustomers[i] = new int[carried.size()];
+            for (int c = 0; c < carried.size(); c++) {
+                eventCustomers[i][c] = indexOf(carried.get(c), index, customers);
+            }
+            eventCustomerType[i] = typeIndex(event.getCustomerType(), types);
+            eventCount[i] = event.getCount();
+        }
+
+        StatisticsCollector.State statistics =
+                statisticsCollector.captureState(customer -> indexOf(customer, index, customers));
+
+        int count = customers.size();
+        int[] ids = new int[count];
+        int[] customerTypes = new int[count];
+        double[] arrival = new double[count];
+        double[] serviceStart = new double[count];
+        double[] serviceEnd = new double[count];
+        double[] serviceDuration = new double[count];
+        double[] plannedService = new double[count];
+        int[] drink = new int[count];
+        for (int i = 0; i < count; i++) {
+            Customer customer = customers.get(i);
+            ids[i] = customer.getId();
+            customerTypes[i] = typeIndex(customer.getType(), types);
+            arrival[i] = customer.getArrivalTime();
+            serviceStart[i] = customer.getServiceStartTime();
+            serviceEnd[i] = customer.getServiceEndTime();
+            serviceDuration[i] = customer.getTotalServiceDuration();
+            plannedService[i] = customer.getPlannedServiceTime();
+            drink[i] = typeIndex(customer.getDrink(), types);
+        }
+
+        long[] seeds = new long[streams.size()];
+        int[] positions = new int[streams.size()];
+        for (int i = 0; i < streams.size(); i++) {
+            Seedable stream = streams.get(i);
+            seeds[i] = stream.getSeed();
+            positions[i] = stream instanceof BufferedGenerator buffer ? buffer.getPosition() : -1;
+        }
+        double[][] arrivalStates = {instoreArrivalProcess.getState(), mobileArrivalProcess.getState()};
+
+        return new SimulatorState(clock.getTime(), types.toArray(new String[0]), ids, customerTypes, arrival,
+                serviceStart, serviceEnd, serviceDuration, plannedService, drink, queues, queueStates, busy, batchDeadlines,
+                eventTime, eventSequence, eventList.getNextSequence(), eventType, eventTarget, eventCustomers, eventCustomerType, eventCount, seeds, positions,
+                arrivalStates, statistics);
+    }
+
+    /**
+     * Replaces the state of this simulator with a captured one. The simulator
+     * must have been created with the same parameters as the one that took
+     * the snapshot; {@link #run(double)} then continues exactly as the
+     * original would have. Do not call {@link #initialize()} afterwards.
+     *
+     * @param state the captured state
+     * @throws IllegalArgumentException if the state belongs to a different model
+     */
+    public void restore(SimulatorState state) {
+        ServicePoint[] points = servicePoints();
+        if (state.queues.length != points.length || state.streamSeeds.length != streams.size()
+                || state.arrivalStates.length != 2) {
+            throw new IllegalArgumentException("Snapshot was taken from a differently configured model.");
+        }
+        List<Customer> customers = new ArrayList<>(state.customerIds.length);
+        for (int i = 0; i < state.customerIds.length; i++) {
+            Customer customer = Customer.restore(state.customerIds[i],
+                    state.customerTypes[state.customerTypeIndex[i]], state.customerArrival[i],
+                    state.customerServiceStart[i], state.customerServiceEnd[i], state.customerServiceDuration[i]);
+            customer.setPlannedServiceTime(state.customerPlannedService[i]);
+            if (state.customerDrink[i] >= 0) {
+                customer.setDrink(state.customerTypes[state.customerDrink[i]]);
+            }
+            customers.add(customer);
+        }
+
+        clock.setTime(state.time);
+        for (int p = 0; p < points.length; p++) {
+            List<Customer> queue = new ArrayList<>(state.queues[p].length);
+            for (int c : state.queues[p]) {
+                queue.add(customers.get(c));
+            }
+            points[p].restore(queue, state.busyServers[p]);
+            points[p].getQueueDiscipline().setState(state.queueStates[p]);
+            points[p].setBatchDeadline(state.batchDeadlines[p]);
+        }
+
+        // the saved sequence numbers order events with equal times as before
+        eventList.clear();
+        renegeEvents.clear();
+        batchTimeouts.clear();
+        for (int i = 0; i < state.eventTime.length; i++) {
+            ServicePoint target = points[state.eventTarget[i]];
+            String type = state.eventCustomerType[i] < 0 ? null : state.customerTypes[state.eventCustomerType[i]];
+            int[] carried = state.eventCustomers[i];
+            if (state.eventType[i] == Event.BATCH_TIMEOUT) {
+                Event timeout = new Event(state.eventTime[i], Event.BATCH_TIMEOUT, null, target);
+                batchTimeouts.put(target, timeout);
+                eventList.restore(timeout, state.eventSequence[i]);
+            } else if (carried.length == 0) {
+                eventList.restore(Event.arrival(state.eventTime[i], type, state.eventCount[i], target),
+                        state.eventSequence[i]);
+            } else if (carried.length == 1) {
+                Event event = new Event(state.eventTime[i], state.eventType[i], customers.get(carried[0]), target);
+                if (event.getType() == Event.RENEGE) {
+                    renegeEvents.put(event.getCustomer(), event);
+                }
+                eventList.restore(event, state.eventSequence[i]);
+            } else {
+                List<Customer> batch = new ArrayList<>(carried.length);
+                for (int c : carried) {
+                    batch.add(customers.get(c));
+                }
+                eventList.restore(Event.withCustomers(state.eventTime[i], state.eventType[i], batch, target),
+                        state.eventSequence[i]);
+            }
+        }
+        eventList.setNextSequence(state.nextEventSequence);
+
+        for (int i = 0; i < streams.size(); i++) {
+            Seedable stream = streams.get(i);
+            if (stream instanceof BufferedGenerator buffer && state.streamPositions[i] >= 0) {
+                buffer.restore(state.streamSeeds[i], state.streamPositions[i]);
+            } else {
+                stream.setSeed(state.streamSeeds[i]);
+            }
+        }
+        instoreArrivalProcess.setState(state.arrivalStates[0]);
+        mobileArrivalProcess.setState(state.arrivalStates[1]);
+        statisticsCollector.restoreState(state.statistics, customers);
+    }
+
+    private ServicePoint[] servicePoints() {
+        return new ServicePoint[] {cashier, barista, shelf, delivery};
+    }
+
+    private static int indexOf(Customer customer, Map<Customer, Integer> index, List<Customer> customers) {
+        return index.computeIfAbsent(customer, c -> {
+            customers.add(c);
+            return customers.size() - 1;
+        });
+    }
+
+    private static int typeIndex(String type, List<String> types) {
+        if (type == null) {
+            return -1;
+        }
+        int i = types.indexOf(type);
+        if (i < 0) {
+            types.add(type);
+            i = types.size() - 1;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the service points in a fixed order: cashier, barista, pickup
+     * shelf, delivery window.
+     *
+     * @return unmodifiable list of the service points
+     */
+    public List<ServicePoint> getServicePoints() {
+        return List.of(servicePoints());
+    }
+
+    public double getTime() {
+        return clock.getTime();
+    }
+
+    public StatisticsCollector getStatisticsCollector() {
+        return statisticsCollector;
+    }
+
     public SimulationStatistics getStatistics() {
         return statisticsCollector.snapshot(clock.getTime());
     }
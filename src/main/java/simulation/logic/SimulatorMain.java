@@ -4,6 +4,7 @@ import simulation.config.SimulationParameters;
 import simulation.data.FileManager;
 import simulation.statistics.SimulationStatistics;
 import simulation.statistics.StatisticsReporter;
+import simulation.trace.TraceRecorder;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -16,23 +17,48 @@ import java.nio.file.Path;
  *     <li>Initializes and runs the {@link Simulator}.</li>
  *     <li>Writes the resulting statistics to a CSV file and prints a summary to the console.</li>
  * </ol>
+ * If a file name is given as the first argument, every customer's journey is
+ * also recorded there as a binary trace; inspect it with
+ * {@link simulation.trace.TraceMain}.
  * </p>
  */
 public class SimulatorMain {
     /**
      * Main method to start the simulation.
      *
-     * @param args command-line arguments (ignored)
+     * @param args optional path of a trace file to record
      */
     public static void main(String[] args) {
         SimulationParameters params = loadParameters();
         Simulator sim = new Simulator(params);
-        sim.initialize();
-        sim.run();
+        if (args.length > 0) {
+            runTraced(sim, Path.of(args[0]));
+        } else {
+            sim.initialize();
+            sim.run();
+        }
         writeResults(sim);
     }
 
-    private static SimulationParameters loadParameters() {
+    private static void runTraced(Simulator sim, Path tracePath) {
+        try (TraceRecorder recorder = new TraceRecorder(tracePath)) {
+            sim.addListener(recorder);
+            sim.initialize();
+            sim.run();
+            System.out.println(recorder.getRecordCount() + " trace records written to " + tracePath.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Failed to write trace: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the parameters from {@code config/simulator.properties}, or
+     * returns the defaults if the file is missing or invalid. The GUI uses
+     * the same parameters, so its runs match command-line runs.
+     *
+     * @return the simulation parameters
+     */
+    public static SimulationParameters loadParameters() {
         Path configPath = Path.of("config", "simulator.properties");
         if (configPath.toFile().exists()) {
             try {
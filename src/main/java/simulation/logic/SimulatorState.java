@@ -0,0 +1,320 @@
+package simulation.logic;
+
+import simulation.statistics.StatisticsCollector;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Complete state of a {@link Simulator} at one instant, held in primitive
+ * arrays.
+ * <p>
+ * The state covers the clock, the pending events with their tie-breaking
+ * sequence numbers, the queues, queue discipline state, batch-forming
+ * deadline and busy servers of every service point, every customer still in
+ * the system, the position of every random stream and all statistics
+ * accumulators. Customers are referred to by their index in the customer
+ * arrays and service points by their position in the model.
+ * </p>
+ * <p>
+ * Instances are created with {@link Simulator#snapshot()} and never change
+ * afterwards, so they can be written to disk on another thread while the
+ * simulator continues. A simulator with the same parameters that
+ * {@linkplain Simulator#restore(SimulatorState) restores} the state
+ * continues bit-identically.
+ * </p>
+ */
+public final class SimulatorState {
+
+    private static final int MAGIC = 0x43534E50; // "CSNP"
+    private static final int VERSION = 7;
+
+    final double time;
+    // customer types and drink names, referred to by index
+    final String[] customerTypes;
+
+    final int[] customerIds;
+    final int[] customerTypeIndex;
+    final double[] customerArrival;
+    final double[] customerServiceStart;
+    final double[] customerServiceEnd;
+    final double[] customerServiceDuration;
+    final double[] customerPlannedService;
+    final int[] customerDrink;
+
+    final int[][] queues;
+    final double[][] queueStates;
+    final int[] busyServers;
+    final double[] batchDeadlines;
+
+    final double[] eventTime;
+    final long[] eventSequence;
+    final long nextEventSequence;
+    final int[] eventType;
+    final int[] eventTarget;
+    final int[][] eventCustomers;
+    final int[] eventCustomerType;
+    final int[] eventCount;
+
+    final long[] streamSeeds;
+    final int[] streamPositions;
+    final double[][] arrivalStates;
+
+    final StatisticsCollector.State statistics;
+
+    SimulatorState(double time, String[] customerTypes, int[] customerIds, int[] customerTypeIndex,
+            double[] customerArrival, double[] customerServiceStart, double[] customerServiceEnd,
+            double[] customerServiceDuration, double[] customerPlannedService, int[] customerDrink, int[][] queues,
+            double[][] queueStates, int[] busyServers, double[] batchDeadlines, double[] eventTime,
+            long[] eventSequence, long nextEventSequence,
+            int[] eventType, int[] eventTarget, int[][] eventCustomers, int[] eventCustomerType, int[] eventCount,
+            long[] streamSeeds, int[] streamPositions, double[][] arrivalStates,
+            StatisticsCollector.State statistics) {
+        this.time = time;
+        this.customerTypes = customerTypes;
+        this.customerIds = customerIds;
+        this.customerTypeIndex = customerTypeIndex;
+        this.customerArrival = customerArrival;
+        this.customerServiceStart = customerServiceStart;
+        this.customerServiceEnd = customerServiceEnd;
+        this.customerServiceDuration = customerServiceDuration;
+        this.customerPlannedService = customerPlannedService;
+        this.customerDrink = customerDrink;
+        this.queues = queues;
+        this.queueStates = queueStates;
+        this.busyServers = busyServers;
+        this.batchDeadlines = batchDeadlines;
+        this.eventTime = eventTime;
+        this.eventSequence = eventSequence;
+        this.nextEventSequence = nextEventSequence;
+        this.eventType = eventType;
+        this.eventTarget = eventTarget;
+        this.eventCustomers = eventCustomers;
+        this.eventCustomerType = eventCustomerType;
+        this.eventCount = eventCount;
+        this.streamSeeds = streamSeeds;
+        this.streamPositions = streamPositions;
+        this.arrivalStates = arrivalStates;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns the simulation time at which the state was captured.
+     *
+     * @return clock time
+     */
+    public double getTime() {
+        return time;
+    }
+
+    public int getCustomerCount() {
+        return customerIds.length;
+    }
+
+    public int getPendingEventCount() {
+        return eventTime.length;
+    }
+
+    /**
+     * Writes the state in a compact binary format.
+     *
+     * @param out destination; it is not closed
+     * @throws IOException if writing fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeDouble(time);
+        data.writeInt(customerTypes.length);
+        for (String type : customerTypes) {
+            data.writeUTF(type);
+        }
+
+        data.writeInt(customerIds.length);
+        for (int i = 0; i < customerIds.length; i++) {
+            data.writeInt(customerIds[i]);
+            data.writeInt(customerTypeIndex[i]);
+            data.writeDouble(customerArrival[i]);
+            data.writeDouble(customerServiceStart[i]);
+            data.writeDouble(customerServiceEnd[i]);
+            data.writeDouble(customerServiceDuration[i]);
+            data.writeDouble(customerPlannedService[i]);
+            data.writeInt(customerDrink[i]);
+        }
+
+        data.writeInt(queues.length);
+        for (int p = 0; p < queues.length; p++) {
+            data.writeInt(busyServers[p]);
+            data.writeDouble(batchDeadlines[p]);
+            writeInts(data, queues[p]);
+            writeDoubles(data, queueStates[p]);
+        }
+
+        data.writeLong(nextEventSequence);
+        data.writeInt(eventTime.length);
+        for (int i = 0; i < eventTime.length; i++) {
+            data.writeDouble(eventTime[i]);
+            data.writeLong(eventSequence[i]);
+            data.writeByte(eventType[i]);
+            data.writeInt(eventTarget[i]);
+            writeInts(data, eventCustomers[i]);
+            data.writeInt(eventCustomerType[i]);
+            data.writeInt(eventCount[i]);
+        }
+
+        data.writeInt(streamSeeds.length);
+        for (int i = 0; i < streamSeeds.length; i++) {
+            data.writeLong(streamSeeds[i]);
+            data.writeInt(streamPositions[i]);
+        }
+        data.writeInt(arrivalStates.length);
+        for (double[] state : arrivalStates) {
+            writeDoubles(data, state);
+        }
+
+        data.writeInt(statistics.systemArrivals());
+        data.writeInt(statistics.systemDepartures());
+        data.writeInt(statistics.systemBalked());
+        data.writeInt(statistics.systemReneged());
+        data.writeDouble(statistics.totalServiceTime());
+        data.writeDouble(statistics.totalWaitTime());
+        data.writeDouble(statistics.totalResponseTime());
+        data.writeDouble(statistics.observationStart());
+        writeDoubles(data, statistics.waitingTimeHistogram());
+        writeInts(data, statistics.servicePointArrivals());
+        writeInts(data, statistics.servicePointCompletions());
+        writeDoubles(data, statistics.servicePointServiceTimes());
+        writeInts(data, statistics.inFlightCustomers());
+        writeDoubles(data, statistics.inFlightServiceTimes());
+        data.flush();
+    }
+
+    /**
+     * Reads a state written by {@link #writeTo(OutputStream)}.
+     *
+     * @param in source; it is not closed
+     * @return the state
+     * @throws IOException if reading fails or the data is not a simulator state
+     */
+    public static SimulatorState readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a simulator snapshot.");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + ".");
+        }
+        double time = data.readDouble();
+        String[] customerTypes = new String[data.readInt()];
+        for (int i = 0; i < customerTypes.length; i++) {
+            customerTypes[i] = data.readUTF();
+        }
+
+        int customers = data.readInt();
+        int[] ids = new int[customers];
+        int[] types = new int[customers];
+        double[] arrival = new double[customers];
+        double[] serviceStart = new double[customers];
+        double[] serviceEnd = new double[customers];
+        double[] serviceDuration = new double[customers];
+        double[] plannedService = new double[customers];
+        int[] drink = new int[customers];
+        for (int i = 0; i < customers; i++) {
+            ids[i] = data.readInt();
+            types[i] = data.readInt();
+            arrival[i] = data.readDouble();
+            serviceStart[i] = data.readDouble();
+            serviceEnd[i] = data.readDouble();
+            serviceDuration[i] = data.readDouble();
+            plannedService[i] = data.readDouble();
+            drink[i] = data.readInt();
+        }
+
+        int points = data.readInt();
+        int[][] queues = new int[points][];
+        double[][] queueStates = new double[points][];
+        int[] busy = new int[points];
+        double[] batchDeadlines = new double[points];
+        for (int p = 0; p < points; p++) {
+            busy[p] = data.readInt();
+            batchDeadlines[p] = data.readDouble();
+            queues[p] = readInts(data);
+            queueStates[p] = readDoubles(data);
+        }
+
+        long nextEventSequence = data.readLong();
+        int events = data.readInt();
+        double[] eventTime = new double[events];
+        long[] eventSequence = new long[events];
+        int[] eventType = new int[events];
+        int[] eventTarget = new int[events];
+        int[][] eventCustomers = new int[events][];
+        int[] eventCustomerType = new int[events];
+        int[] eventCount = new int[events];
+        for (int i = 0; i < events; i++) {
+            eventTime[i] = data.readDouble();
+            eventSequence[i] = data.readLong();
+            eventType[i] = data.readByte();
+            eventTarget[i] = data.readInt();
+            eventCustomers[i] = readInts(data);
+            eventCustomerType[i] = data.readInt();
+            eventCount[i] = data.readInt();
+        }
+
+        int streams = data.readInt();
+        long[] seeds = new long[streams];
+        int[] positions = new int[streams];
+        for (int i = 0; i < streams; i++) {
+            seeds[i] = data.readLong();
+            positions[i] = data.readInt();
+        }
+        double[][] arrivalStates = new double[data.readInt()][];
+        for (int i = 0; i < arrivalStates.length; i++) {
+            arrivalStates[i] = readDoubles(data);
+        }
+
+        StatisticsCollector.State statistics = new StatisticsCollector.State(data.readInt(), data.readInt(),
+                data.readInt(), data.readInt(), data.readDouble(), data.readDouble(), data.readDouble(),
+                data.readDouble(), readDoubles(data), readInts(data), readInts(data), readDoubles(data), readInts(data), readDoubles(data));
+
+        return new SimulatorState(time, customerTypes, ids, types, arrival, serviceStart, serviceEnd,
+                serviceDuration, plannedService, drink, queues, queueStates, busy, batchDeadlines, eventTime,
+                eventSequence, nextEventSequence, eventType, eventTarget,
+                eventCustomers, eventCustomerType, eventCount, seeds, positions, arrivalStates, statistics);
+    }
+
+    private static void writeInts(DataOutputStream data, int[] values) throws IOException {
+        data.writeInt(values.length);
+        for (int value : values) {
+            data.writeInt(value);
+        }
+    }
+
+    private static void writeDoubles(DataOutputStream data, double[] values) throws IOException {
+        data.writeInt(values.length);
+        for (double value : values) {
+            data.writeDouble(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream data) throws IOException {
+        int[] values = new int[data.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = data.readInt();
+        }
+        return values;
+    }
+
+    private static double[] readDoubles(DataInputStream data) throws IOException {
+        double[] values = new double[data.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = data.readDouble();
+        }
+        return values;
+    }
+}
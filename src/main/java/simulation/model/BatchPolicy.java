@@ -0,0 +1,80 @@
+package simulation.model;
+
+import java.util.function.Function;
+
+/**
+ * Rules for serving several compatible customers at once, e.g. a barista
+ * making up to four identical drinks together.
+ * <p>
+ * A batch is formed around the customer the queue discipline serves next
+ * and filled with compatible customers in the order they joined the queue.
+ * Service starts when at least {@code minSize} compatible customers are
+ * waiting, or, with fewer, once the idle server has waited
+ * {@code formingTimeout} for the batch to fill up. The whole batch shares
+ * one service time and leaves together. Instances are immutable.
+ * </p>
+ */
+public final class BatchPolicy {
+
+    private final int minSize;
+    private final int maxSize;
+    private final double formingTimeout;
+    private final Function<Customer, ?> compatibility;
+
+    /**
+     * Creates a policy under which customers of the same type are compatible.
+     *
+     * @param minSize        customers needed to start a batch without waiting, at least 1
+     * @param maxSize        largest batch, at least {@code minSize}
+     * @param formingTimeout longest time a server waits for a batch to reach
+     *                       {@code minSize}; infinite to always wait
+     */
+    public BatchPolicy(int minSize, int maxSize, double formingTimeout) {
+        this(minSize, maxSize, formingTimeout, Customer::getType);
+    }
+
+    /**
+     * Creates a policy.
+     *
+     * @param minSize        customers needed to start a batch without waiting, at least 1
+     * @param maxSize        largest batch, at least {@code minSize}
+     * @param formingTimeout longest time a server waits for a batch to reach
+     *                       {@code minSize}; infinite to always wait
+     * @param compatibility  maps a customer to a key; customers with equal keys
+     *                       can be served together
+     */
+    public BatchPolicy(int minSize, int maxSize, double formingTimeout, Function<Customer, ?> compatibility) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Batch sizes must satisfy 1 <= min <= max.");
+        }
+        if (!(formingTimeout >= 0)) {
+            throw new IllegalArgumentException("Batch forming timeout must not be negative.");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.formingTimeout = formingTimeout;
+        this.compatibility = compatibility;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public double getFormingTimeout() {
+        return formingTimeout;
+    }
+
+    /**
+     * Returns the compatibility key of a customer.
+     *
+     * @param customer the customer
+     * @return the key; customers with equal keys can share a batch
+     */
+    public Object compatibilityKey(Customer customer) {
+        return compatibility.apply(customer);
+    }
+}
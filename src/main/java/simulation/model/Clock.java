@@ -3,17 +3,21 @@ package simulation.model;
 /**
  * Global simulation clock implemented as a Singleton.
  * Provides centralized time control for all simulator components.
+ * <p>
+ * There is one instance per thread, so replications running in parallel
+ * on different threads each advance their own time.
+ * </p>
  */
 public final class Clock {
 
-    private static final Clock INSTANCE = new Clock();
+    private static final ThreadLocal<Clock> INSTANCE = ThreadLocal.withInitial(Clock::new);
     private double currentTime = 0.0;
 
     private Clock() {
     }
 
     public static Clock getInstance() {
-        return INSTANCE;
+        return INSTANCE.get();
     }
 
     public double getTime() {
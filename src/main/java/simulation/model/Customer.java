@@ -1,4 +1,6 @@
 package simulation.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
 /**
  * Represents a customer in the cafe simulation.
  * <p>
@@ -6,6 +8,7 @@ package simulation.model;
  * <ul>
  *   <li>A unique ID</li>
  *   <li>A type (INSTORE or MOBILE)</li>
+ *   <li>The drink they order, when the model has a drink mix</li>
  *   <li>Arrival, service, and departure times</li>
  * </ul>
  *
@@ -14,13 +17,15 @@ package simulation.model;
  */
 
 public class Customer {
-    private static int counter = 0;
+    private static final AtomicInteger counter = new AtomicInteger();
     private final int id;
     private final String type; // "INSTORE" or "MOBILE"
     private double arrivalTime;
     private double serviceStartTime;
     private double serviceEndTime;
     private double totalServiceDuration;
+    private double plannedServiceTime = Double.NaN;
+    private String drink;
 
     /**
      * Creates a new customer.
@@ -29,11 +34,38 @@ public class Customer {
      * @param arrivalTime arrival time into the system
      */
     public Customer(String type, double arrivalTime) {
-        this.id = ++counter;
+        this(counter.incrementAndGet(), type, arrivalTime);
+    }
+
+    private Customer(int id, String type, double arrivalTime) {
+        this.id = id;
         this.type = type;
         this.arrivalTime = arrivalTime;
     }
 
+    /**
+     * Recreates a customer saved in a simulation snapshot, keeping its id.
+     * Customers created afterwards get larger ids, so they never reuse the
+     * id of a restored customer.
+     *
+     * @param id                   the saved id
+     * @param type                 customer type
+     * @param arrivalTime          arrival time into the system
+     * @param serviceStartTime     start of the current or last service
+     * @param serviceEndTime       end of the current or last service
+     * @param totalServiceDuration accumulated service duration
+     * @return the restored customer
+     */
+    public static Customer restore(int id, String type, double arrivalTime, double serviceStartTime,
+            double serviceEndTime, double totalServiceDuration) {
+        counter.accumulateAndGet(id, Math::max);
+        Customer customer = new Customer(id, type, arrivalTime);
+        customer.serviceStartTime = serviceStartTime;
+        customer.serviceEndTime = serviceEndTime;
+        customer.totalServiceDuration = totalServiceDuration;
+        return customer;
+    }
+
     public int getId() {
         return id;
     }
@@ -46,6 +78,14 @@ public class Customer {
         return arrivalTime;
     }
 
+    public double getServiceStartTime() {
+        return serviceStartTime;
+    }
+
+    public double getServiceEndTime() {
+        return serviceEndTime;
+    }
+
     public void setServiceStartTime(double time) {
         this.serviceStartTime = time;
     }
@@ -85,6 +125,34 @@ public class Customer {
         return totalServiceDuration;
     }
 
+    /**
+     * Returns the service time drawn when the customer joined a queue whose
+     * discipline orders by service time, or NaN if none is pending.
+     *
+     * @return planned service time or NaN
+     */
+    public double getPlannedServiceTime() {
+        return plannedServiceTime;
+    }
+
+    public void setPlannedServiceTime(double time) {
+        this.plannedServiceTime = time;
+    }
+
+    /**
+     * Returns the drink the customer ordered, or {@code null} if the model
+     * has no drink mix.
+     *
+     * @return drink name or {@code null}
+     */
+    public String getDrink() {
+        return drink;
+    }
+
+    public void setDrink(String drink) {
+        this.drink = drink;
+    }
+
     public double getTotalWaitingTime() {
         double response = getResponseTime();
         if (response <= 0) {
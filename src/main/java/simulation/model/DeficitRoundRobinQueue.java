@@ -0,0 +1,235 @@
+package simulation.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted round-robin between customer classes by deficit round-robin:
+ * over time each class gets a share of the server time proportional to its
+ * weight, whatever the service times of its customers.
+ * <p>
+ * Each class has a FIFO bucket and a deficit counter. When the round
+ * reaches a class, its deficit grows by {@code weight * quantum}; its
+ * customers are served while the planned service time of the first one
+ * fits into the deficit, which is reduced accordingly. An empty class
+ * loses its deficit.
+ * </p>
+ * <p>
+ * Adding and removing are O(1). If no class can be served after one full
+ * round, the rounds in which nobody could be served either are skipped in
+ * one step, so taking the next customer costs O(number of classes) even
+ * when service times are much longer than the quantum.
+ * </p>
+ */
+public final class DeficitRoundRobinQueue implements QueueDiscipline {
+
+    private final List<String> classes;
+    private final double[] quantum;
+    private final double[] deficit;
+    private final List<LinkedHashSet<Customer>> buckets;
+    private int current;
+    private boolean visited;
+    private int size;
+
+    /**
+     * Creates the discipline.
+     *
+     * @param weights customer type to weight, in round order; every weight positive
+     * @param quantum server time added per unit of weight and round, positive
+     */
+    public DeficitRoundRobinQueue(Map<String, Double> weights, double quantum) {
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("At least one weighted class is required.");
+        }
+        if (!(quantum > 0)) {
+            throw new IllegalArgumentException("Quantum must be positive.");
+        }
+        this.classes = List.copyOf(weights.keySet());
+        this.quantum = new double[classes.size()];
+        this.deficit = new double[classes.size()];
+        this.buckets = new ArrayList<>(classes.size());
+        for (int i = 0; i < classes.size(); i++) {
+            double weight = weights.get(classes.get(i));
+            if (!(weight > 0)) {
+                throw new IllegalArgumentException("Weight of " + classes.get(i) + " must be positive.");
+            }
+            this.quantum[i] = weight * quantum;
+            this.buckets.add(new LinkedHashSet<>());
+        }
+    }
+
+    @Override
+    public boolean usesServiceTimes() {
+        return true;
+    }
+
+    @Override
+    public void add(Customer customer) {
+        if (bucket(customer).add(customer)) {
+            size++;
+        }
+    }
+
+    @Override
+    public Customer peek() {
+        return size == 0 ? null : buckets.get(schedule(false)).iterator().next();
+    }
+
+    @Override
+    public Customer poll() {
+        if (size == 0) {
+            return null;
+        }
+        int served = schedule(true);
+        Iterator<Customer> first = buckets.get(served).iterator();
+        Customer head = first.next();
+        deficit[served] -= head.getPlannedServiceTime();
+        first.remove();
+        size--;
+        if (buckets.get(served).isEmpty()) {
+            deficit[served] = 0.0;
+            advance();
+        }
+        return head;
+    }
+
+    // Runs the round until a class's first customer fits into its deficit
+    // and returns that class. Without commit, the round runs on copies, so
+    // peeking leaves the state untouched.
+    private int schedule(boolean commit) {
+        double[] deficits = commit ? deficit : deficit.clone();
+        int saved = current;
+        boolean savedVisited = visited;
+        try {
+            for (int step = 0; step < buckets.size(); step++) {
+                if (fits(deficits)) {
+                    return current;
+                }
+            }
+            skipIdleRounds(deficits);
+            while (!fits(deficits)) {
+                // the next round serves a class
+            }
+            return current;
+        } finally {
+            if (!commit) {
+                current = saved;
+                visited = savedVisited;
+            }
+        }
+    }
+
+    // Visits the current class: true if its first customer fits into its
+    // deficit; otherwise the round moves on to the next class
+    private boolean fits(double[] deficits) {
+        LinkedHashSet<Customer> bucket = buckets.get(current);
+        if (bucket.isEmpty()) {
+            deficits[current] = 0.0;
+            advance();
+            return false;
+        }
+        if (!visited) {
+            deficits[current] += quantum[current];
+            visited = true;
+        }
+        if (bucket.iterator().next().getPlannedServiceTime() <= deficits[current]) {
+            return true;
+        }
+        advance();
+        return false;
+    }
+
+    // After a full round without service, adds the quanta of all rounds
+    // but the one in which the first class can be served
+    private void skipIdleRounds(double[] deficits) {
+        double rounds = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < buckets.size(); i++) {
+            if (!buckets.get(i).isEmpty()) {
+                double missing = buckets.get(i).iterator().next().getPlannedServiceTime() - deficits[i];
+                rounds = Math.min(rounds, Math.ceil(missing / quantum[i]) - 1);
+            }
+        }
+        if (rounds > 0) {
+            for (int i = 0; i < buckets.size(); i++) {
+                if (!buckets.get(i).isEmpty()) {
+                    deficits[i] += rounds * quantum[i];
+                }
+            }
+        }
+    }
+
+    private void advance() {
+        current = (current + 1) % buckets.size();
+        visited = false;
+    }
+
+    @Override
+    public boolean remove(Customer customer) {
+        if (bucket(customer).remove(customer)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Customer> toList() {
+        List<Customer> waiting = new ArrayList<>(size);
+        for (LinkedHashSet<Customer> bucket : buckets) {
+            waiting.addAll(bucket);
+        }
+        return waiting;
+    }
+
+    @Override
+    public void clear() {
+        for (LinkedHashSet<Customer> bucket : buckets) {
+            bucket.clear();
+        }
+        Arrays.fill(deficit, 0.0);
+        current = 0;
+        visited = false;
+        size = 0;
+    }
+
+    /**
+     * Returns the deficit of every class followed by the current class and
+     * whether it has received its quantum in this round.
+     *
+     * @return the scheduling state
+     */
+    @Override
+    public double[] getState() {
+        double[] state = Arrays.copyOf(deficit, deficit.length + 2);
+        state[deficit.length] = current;
+        state[deficit.length + 1] = visited ? 1 : 0;
+        return state;
+    }
+
+    @Override
+    public void setState(double[] state) {
+        if (state.length != deficit.length + 2) {
+            throw new IllegalArgumentException("Saved round-robin state has " + state.length + " values.");
+        }
+        System.arraycopy(state, 0, deficit, 0, deficit.length);
+        current = (int) state[deficit.length];
+        visited = state[deficit.length + 1] != 0;
+    }
+
+    private LinkedHashSet<Customer> bucket(Customer customer) {
+        int index = classes.indexOf(customer.getType());
+        if (index < 0) {
+            throw new IllegalArgumentException("No round-robin weight for customer type " + customer.getType());
+        }
+        return buckets.get(index);
+    }
+}
@@ -1,27 +1,121 @@
 package simulation.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Represents a discrete event in the simulation.
  *
- * <p>Events are ordered by time and can be either ARRIVAL or DEPARTURE
- * events. Each event is associated with a customer and a target
- * service point.
+ * <p>Events are ordered by time and, at equal times, by the order in which
+ * they were added to their {@link EventList}. They can be ARRIVAL, DEPARTURE, RENEGE,
+ * BATCH_TIMEOUT or WAKEUP events. Each event is associated with a customer and a
+ * target service point. A RENEGE event fires when a waiting customer runs
+ * out of patience; it is {@linkplain EventList#cancel(Event) cancelled} if
+ * the customer's service starts first. A BATCH_TIMEOUT event has no
+ * customer: it ends an idle server's wait for a batch to fill up. A WAKEUP
+ * event has no target: it starts or resumes a customer written as a
+ * {@linkplain simulation.process.ProcessSimulation process}.
+ *
+ * <p>A departure created with {@link #departure(double, List, ServicePoint)}
+ * carries a whole batch served together, so the batch costs one event.
+ * {@link #withCustomers(double, int, List, ServicePoint)} recreates any
+ * event from its saved customers.
+ *
+ * <p>Arrival events created with {@link #arrival(double, String, int, ServicePoint)}
+ * only record the customer type and the number of customers arriving
+ * together. The {@link Customer} objects are materialized on first access,
+ * i.e. when the event is processed, so arrivals that are never processed
+ * cost no more than this small event.
  */
 
 public class Event implements Comparable<Event> {
     public static final int ARRIVAL = 1;
     public static final int DEPARTURE = 2;
+    public static final int RENEGE = 3;
+    public static final int BATCH_TIMEOUT = 4;
+    public static final int WAKEUP = 5;
 
     private final double time;
     private final int type;
-    private final Customer customer;
     private final ServicePoint target;
+    private final String customerType;
+    private final int count;
+    private Customer customer;
+    private List<Customer> customers;
+    private boolean cancelled;
+    private long sequence;
 
     public Event(double time, int type, Customer customer, ServicePoint target) {
         this.time = time;
         this.type = type;
         this.customer = customer;
         this.target = target;
+        this.customerType = customer != null ? customer.getType() : null;
+        this.count = 1;
+    }
+
+    private Event(double time, String customerType, int count, ServicePoint target) {
+        this.time = time;
+        this.type = ARRIVAL;
+        this.target = target;
+        this.customerType = customerType;
+        this.count = count;
+    }
+
+    private Event(double time, int type, List<Customer> batch, ServicePoint target) {
+        this.time = time;
+        this.type = type;
+        this.target = target;
+        this.customer = batch.get(0);
+        this.customers = List.copyOf(batch);
+        this.customerType = customer.getType();
+        this.count = batch.size();
+    }
+
+    /**
+     * Creates the departure of a batch of customers served together.
+     *
+     * @param time   end of the batch's service
+     * @param batch  the customers, at least one
+     * @param target service point that served them
+     * @return the departure event
+     */
+    public static Event departure(double time, List<Customer> batch, ServicePoint target) {
+        return withCustomers(time, DEPARTURE, batch, target);
+    }
+
+    /**
+     * Creates an event carrying the given customers, e.g. to restore a saved
+     * event whose customers had already been created.
+     *
+     * @param time      event time
+     * @param type      event type
+     * @param customers the customers, at least one
+     * @param target    target service point
+     * @return the event
+     */
+    public static Event withCustomers(double time, int type, List<Customer> customers, ServicePoint target) {
+        if (customers.isEmpty()) {
+            throw new IllegalArgumentException("An event must carry at least one customer.");
+        }
+        return new Event(time, type, customers, target);
+    }
+
+    /**
+     * Creates an arrival event whose customers are created lazily.
+     *
+     * @param time         arrival time
+     * @param customerType type of the arriving customers
+     * @param count        number of customers arriving together, at least 1
+     * @param target       service point the customers arrive to
+     * @return the arrival event
+     */
+    public static Event arrival(double time, String customerType, int count, ServicePoint target) {
+        if (count < 1) {
+            throw new IllegalArgumentException("An arrival must carry at least one customer.");
+        }
+        return new Event(time, customerType, count, target);
     }
 
     public double getTime() {
@@ -32,22 +126,111 @@ public class Event implements Comparable<Event> {
         return type;
     }
 
+    /**
+     * Returns the (first) customer of this event, creating it if needed.
+     *
+     * @return the customer
+     */
     public Customer getCustomer() {
+        if (customer == null && customerType != null) {
+            customer = new Customer(customerType, time);
+        }
         return customer;
     }
 
+    /**
+     * Returns the (first) customer of this event without creating it.
+     *
+     * @return the customer, or {@code null} if it has not been created yet
+     */
+    public Customer getCustomerIfCreated() {
+        return customer;
+    }
+
+    /**
+     * Returns all customers carried by this event, creating them if needed.
+     *
+     * @return unmodifiable list of {@link #getCount()} customers
+     */
+    public List<Customer> getCustomers() {
+        if (customers == null) {
+            Customer first = getCustomer();
+            if (count == 1) {
+                customers = Collections.singletonList(first);
+            } else {
+                List<Customer> batch = new ArrayList<>(count);
+                batch.add(first);
+                for (int i = 1; i < count; i++) {
+                    batch.add(new Customer(customerType, time));
+                }
+                customers = Collections.unmodifiableList(batch);
+            }
+        }
+        return customers;
+    }
+
+    public String getCustomerType() {
+        return customerType;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
     public ServicePoint getTarget() {
         return target;
     }
 
+    /**
+     * Tells whether the event was cancelled while pending; a cancelled event
+     * is never handed out by its {@link EventList}.
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns the position of this event in the order its event list
+     * received events; it breaks ties between events at the same time.
+     *
+     * @return the sequence number
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
     @Override
     public int compareTo(Event other) {
-        return Double.compare(this.time, other.time);
+        int byTime = Double.compare(this.time, other.time);
+        return byTime != 0 ? byTime : Long.compare(this.sequence, other.sequence);
     }
 
     @Override
     public String toString() {
-        String t = (type == ARRIVAL) ? "ARRIVAL" : "DEPARTURE";
-        return String.format("[%.2f] %s of %s at %s", time, t, customer, target.getName());
+        String t = switch (type) {
+            case ARRIVAL -> "ARRIVAL";
+            case DEPARTURE -> "DEPARTURE";
+            case RENEGE -> "RENEGE";
+            case WAKEUP -> "WAKEUP";
+            default -> "BATCH_TIMEOUT";
+        };
+        if (customerType == null) {
+            return String.format("[%.2f] %s at %s", time, t, target.getName());
+        }
+        String who = (count == 1) ? String.valueOf(getCustomer()) : count + " x " + customerType;
+        if (target == null) {
+            return String.format("[%.2f] %s of %s", time, t, who);
+        }
+        return String.format("[%.2f] %s of %s at %s", time, t, who, target.getName());
     }
 }
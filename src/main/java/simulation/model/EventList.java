@@ -1,31 +1,128 @@
 package simulation.model;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.PriorityQueue;
 /**
  * Maintains a prioritized list of future simulation events.
  * <p>
- * Events are ordered by their scheduled execution time.
+ * Events are ordered by their scheduled execution time; events with equal
+ * times leave in the order they were added, so a run does not depend on
+ * the internal layout of the heap.
+ * </p>
+ * <p>
+ * Cancelling an event only marks it; it stays in the heap as a tombstone
+ * and is dropped when it reaches the front. Cancelling is therefore O(1).
+ * Once tombstones make up more than half of a large heap, they are purged
+ * in one O(n) pass, so they never dominate the memory or the
+ * O(log n) cost of adding and removing.
+ * </p>
  */
 public class EventList {
+    private static final int PURGE_MIN_SIZE = 64;
+
     private final PriorityQueue<Event> list = new PriorityQueue<>();
+    private int cancelled;
+    private long nextSequence;
     /**
      * Adds a new event to the event list.
      *
      * @param e event to add
      */
     public void add(Event e) {
+        e.setSequence(nextSequence++);
         list.add(e);
     }
 
+    /**
+     * Adds a saved event with the sequence number it had when it was saved.
+     *
+     * @param e        event to add
+     * @param sequence its saved {@link Event#getSequence() sequence number}
+     */
+    public void restore(Event e, long sequence) {
+        e.setSequence(sequence);
+        list.add(e);
+        nextSequence = Math.max(nextSequence, sequence + 1);
+    }
+
+    /**
+     * Returns the sequence number the next added event will get.
+     *
+     * @return the next sequence number
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Sets the sequence number the next added event will get, e.g. when a
+     * saved run is restored.
+     *
+     * @param nextSequence the next sequence number
+     */
+    public void setNextSequence(long nextSequence) {
+        this.nextSequence = nextSequence;
+    }
+
+    /**
+     * Cancels a pending event, e.g. the renege event of a customer whose
+     * service has started. Cancelling an event twice has no effect.
+     *
+     * @param e an event that is in this list
+     */
+    public void cancel(Event e) {
+        if (e.isCancelled()) {
+            return;
+        }
+        e.cancel();
+        cancelled++;
+        if (list.size() >= PURGE_MIN_SIZE && cancelled > list.size() / 2) {
+            list.removeIf(Event::isCancelled);
+            cancelled = 0;
+        }
+    }
+
     public Event removeNext() {
+        dropCancelled();
         return list.poll();
     }
 
     public Event peekNext() {
+        dropCancelled();
         return list.peek();
     }
 
     public boolean isEmpty() {
-        return list.isEmpty();
+        return size() == 0;
+    }
+
+    public int size() {
+        return list.size() - cancelled;
+    }
+
+    // Removes tombstones from the front, so the head is a live event
+    private void dropCancelled() {
+        while (cancelled > 0 && !list.isEmpty() && list.peek().isCancelled()) {
+            list.poll();
+            cancelled--;
+        }
+    }
+
+    /**
+     * Returns the pending events, without the cancelled ones, in no
+     * particular order. Restoring them with their sequence numbers
+     * reproduces the order in which they are removed.
+     *
+     * @return the pending events
+     */
+    public List<Event> toList() {
+        return Arrays.stream(list.toArray(new Event[0])).filter(e -> !e.isCancelled()).toList();
+    }
+
+    public void clear() {
+        list.clear();
+        cancelled = 0;
+        nextSequence = 0;
     }
 }
@@ -0,0 +1,60 @@
+package simulation.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * First come, first served. The line is a linked hash set, so the first
+ * customer is taken and a reneging customer removed in O(1).
+ */
+public final class FifoQueue implements QueueDiscipline {
+
+    private final LinkedHashSet<Customer> line = new LinkedHashSet<>();
+
+    @Override
+    public void add(Customer customer) {
+        line.add(customer);
+    }
+
+    @Override
+    public Customer peek() {
+        return line.isEmpty() ? null : line.iterator().next();
+    }
+
+    @Override
+    public Customer poll() {
+        return pollFirst(line);
+    }
+
+    @Override
+    public boolean remove(Customer customer) {
+        return line.remove(customer);
+    }
+
+    @Override
+    public int size() {
+        return line.size();
+    }
+
+    @Override
+    public List<Customer> toList() {
+        return new ArrayList<>(line);
+    }
+
+    @Override
+    public void clear() {
+        line.clear();
+    }
+
+    static Customer pollFirst(LinkedHashSet<Customer> line) {
+        Iterator<Customer> first = line.iterator();
+        if (!first.hasNext()) {
+            return null;
+        }
+        Customer next = first.next();
+        first.remove();
+        return next;
+    }
+}
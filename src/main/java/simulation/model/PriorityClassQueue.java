@@ -0,0 +1,102 @@
+package simulation.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Serves customer classes in a fixed priority order, e.g. mobile orders
+ * before in-store customers, and each class first come, first served.
+ * <p>
+ * Every class has its own FIFO bucket, so adding and removing are O(1) and
+ * picking the next customer costs one look at each class. Customers of
+ * classes not in the priority list come last.
+ * </p>
+ */
+public final class PriorityClassQueue implements QueueDiscipline {
+
+    private final List<String> classes;
+    private final List<LinkedHashSet<Customer>> buckets;
+    private int size;
+
+    /**
+     * Creates the discipline.
+     *
+     * @param classesHighestFirst customer types, highest priority first
+     */
+    public PriorityClassQueue(List<String> classesHighestFirst) {
+        if (classesHighestFirst.isEmpty()) {
+            throw new IllegalArgumentException("At least one priority class is required.");
+        }
+        this.classes = List.copyOf(classesHighestFirst);
+        // one more bucket for classes that are not listed
+        this.buckets = new ArrayList<>(classes.size() + 1);
+        for (int i = 0; i <= classes.size(); i++) {
+            buckets.add(new LinkedHashSet<>());
+        }
+    }
+
+    @Override
+    public void add(Customer customer) {
+        if (bucket(customer).add(customer)) {
+            size++;
+        }
+    }
+
+    @Override
+    public Customer peek() {
+        for (LinkedHashSet<Customer> bucket : buckets) {
+            if (!bucket.isEmpty()) {
+                return bucket.iterator().next();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Customer poll() {
+        for (LinkedHashSet<Customer> bucket : buckets) {
+            if (!bucket.isEmpty()) {
+                size--;
+                return FifoQueue.pollFirst(bucket);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(Customer customer) {
+        if (bucket(customer).remove(customer)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Customer> toList() {
+        List<Customer> waiting = new ArrayList<>(size);
+        for (LinkedHashSet<Customer> bucket : buckets) {
+            waiting.addAll(bucket);
+        }
+        return waiting;
+    }
+
+    @Override
+    public void clear() {
+        for (LinkedHashSet<Customer> bucket : buckets) {
+            bucket.clear();
+        }
+        size = 0;
+    }
+
+    private LinkedHashSet<Customer> bucket(Customer customer) {
+        int priority = classes.indexOf(customer.getType());
+        return buckets.get(priority < 0 ? classes.size() : priority);
+    }
+}
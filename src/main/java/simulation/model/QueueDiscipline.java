@@ -0,0 +1,92 @@
+package simulation.model;
+
+import java.util.List;
+
+/**
+ * Decides in which order the waiting customers of a {@link ServicePoint}
+ * are served.
+ * <p>
+ * Implementations keep the waiting customers themselves, so each can use
+ * the structure that makes its choice cheap: {@link #poll()} and
+ * {@link #remove(Customer)} run in O(1) or O(log n). Service is never
+ * preempted; the discipline only picks the next customer when a server
+ * becomes free.
+ * </p>
+ */
+public interface QueueDiscipline {
+
+    /**
+     * Tells whether the discipline orders by service time. The service point
+     * then draws each customer's service time when they join the queue and
+     * stores it as their {@linkplain Customer#getPlannedServiceTime()
+     * planned service time}.
+     *
+     * @return true if planned service times are needed
+     */
+    default boolean usesServiceTimes() {
+        return false;
+    }
+
+    /**
+     * Adds a customer to the waiting line.
+     *
+     * @param customer the customer
+     */
+    void add(Customer customer);
+
+    /**
+     * Returns the customer to serve next without removing them.
+     *
+     * @return the customer, or {@code null} if nobody is waiting
+     */
+    Customer peek();
+
+    /**
+     * Removes and returns the customer to serve next.
+     *
+     * @return the customer, or {@code null} if nobody is waiting
+     */
+    Customer poll();
+
+    /**
+     * Removes a customer from wherever they are in the line, e.g. when they
+     * renege.
+     *
+     * @param customer the customer
+     * @return false if the customer was not waiting
+     */
+    boolean remove(Customer customer);
+
+    int size();
+
+    /**
+     * Returns the waiting customers in an order that, added one by one to an
+     * empty discipline of the same kind, rebuilds the same line.
+     *
+     * @return copy of the waiting customers
+     */
+    List<Customer> toList();
+
+    /**
+     * Removes all waiting customers and resets any scheduling state.
+     */
+    void clear();
+
+    /**
+     * Returns the scheduling state beyond the waiting customers, e.g. the
+     * deficit counters of a round-robin, so a saved run continues exactly.
+     *
+     * @return the state; empty for stateless disciplines
+     */
+    default double[] getState() {
+        return new double[0];
+    }
+
+    /**
+     * Restores a state returned by {@link #getState()}.
+     *
+     * @param state the saved state
+     */
+    default void setState(double[] state) {
+    }
+}
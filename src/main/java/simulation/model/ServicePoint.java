@@ -2,24 +2,93 @@ package simulation.model;
 
 import eduni.distributions.ContinuousGenerator;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
 /**
  * Represents a service station in the simulation.
  * <p>
  * Manages a queue of customers and generates service times
- * using a probability distribution.
+ * using a probability distribution. A station may have several
+ * identical servers; it is busy when all of them are serving.
+ * </p>
+ * <p>
+ * The order of service is set by a {@link QueueDiscipline}, first come,
+ * first served by default. A customer who gives up waiting can be removed
+ * from the middle of the line in O(1) or O(log n), depending on the
+ * discipline.
+ * </p>
+ * <p>
+ * With a {@link BatchPolicy} a server serves several compatible customers
+ * at once. The waiting customers are then also indexed by compatibility
+ * key, oldest first, so a whole batch is taken from the queue in one
+ * operation costing O(batch size * log n).
  * </p>
  */
 public class ServicePoint {
     private final String name;
-    private final Queue<Customer> queue = new LinkedList<>();
-    private boolean busy = false;
+    private final QueueDiscipline queue;
+    private final int servers;
+    private int busyServers = 0;
     private final ContinuousGenerator serviceTimeGenerator;
+    private final BatchPolicy batching;
+    // Waiting customers by compatibility key, when serving in batches
+    private final Map<Object, NavigableSet<Customer>> compatible = new HashMap<>();
+    private double batchDeadline = Double.NaN;
 
     public ServicePoint(String name, ContinuousGenerator serviceTimeGenerator) {
+        this(name, serviceTimeGenerator, 1);
+    }
+
+    /**
+     * Creates a service point with several parallel servers.
+     *
+     * @param name                 display name
+     * @param serviceTimeGenerator service time distribution
+     * @param servers              number of servers, at least 1
+     */
+    public ServicePoint(String name, ContinuousGenerator serviceTimeGenerator, int servers) {
+        this(name, serviceTimeGenerator, servers, new FifoQueue());
+    }
+
+    /**
+     * Creates a service point whose waiting customers are served in the
+     * order chosen by a queue discipline.
+     *
+     * @param name                 display name
+     * @param serviceTimeGenerator service time distribution
+     * @param servers              number of servers, at least 1
+     * @param discipline           order of service; not shared with other service points
+     */
+    public ServicePoint(String name, ContinuousGenerator serviceTimeGenerator, int servers,
+            QueueDiscipline discipline) {
+        this(name, serviceTimeGenerator, servers, discipline, null);
+    }
+
+    /**
+     * Creates a service point whose servers serve compatible customers in
+     * batches.
+     *
+     * @param name                 display name
+     * @param serviceTimeGenerator service time distribution, one sample per batch
+     * @param servers              number of servers, at least 1
+     * @param discipline           order of service; not shared with other service points
+     * @param batching             batch rules, or {@code null} to serve one customer at a time
+     */
+    public ServicePoint(String name, ContinuousGenerator serviceTimeGenerator, int servers,
+            QueueDiscipline discipline, BatchPolicy batching) {
+        if (servers < 1) {
+            throw new IllegalArgumentException("A service point needs at least one server.");
+        }
         this.name = name;
         this.serviceTimeGenerator = serviceTimeGenerator;
+        this.servers = servers;
+        this.queue = discipline;
+        this.batching = batching;
     }
 
     public String getName() {
@@ -27,30 +96,231 @@ public class ServicePoint {
     }
 
     public boolean isBusy() {
-        return busy;
+        return busyServers >= servers;
     }
 
+    /**
+     * Adds a customer to the queue. If the discipline orders by service
+     * time, the customer's service time is drawn now.
+     *
+     * @param c the customer
+     */
     public void addCustomer(Customer c) {
+        if (queue.usesServiceTimes()) {
+            c.setPlannedServiceTime(serviceTimeGenerator.sample());
+        }
+        enqueue(c);
+    }
+
+    private void enqueue(Customer c) {
         queue.add(c);
+        if (batching != null) {
+            compatible.computeIfAbsent(batching.compatibilityKey(c),
+                    key -> new TreeSet<>(Comparator.comparingDouble(Customer::getArrivalTime)
+                            .thenComparingInt(Customer::getId)))
+                    .add(c);
+        }
     }
 
+    /**
+     * Removes and returns the customer the discipline serves next.
+     *
+     * @return the customer, or {@code null} if nobody is waiting
+     */
     public Customer getNextCustomer() {
-        return queue.poll();
+        Customer next = queue.poll();
+        if (next != null) {
+            ungroup(next);
+        }
+        return next;
+    }
+
+    /**
+     * Removes and returns the customers to serve together next: the one the
+     * discipline serves next and, under a batch policy, up to
+     * {@code maxSize - 1} compatible customers who entered the system
+     * earliest.
+     *
+     * @param force whether to start a batch smaller than the minimum, e.g.
+     *              once the batch-forming timeout has passed
+     * @return the batch, or an empty list if nobody is waiting or, without
+     *         {@code force}, fewer than the minimum compatible customers are
+     */
+    public List<Customer> takeBatch(boolean force) {
+        if (batching == null) {
+            Customer next = queue.poll();
+            return next == null ? List.of() : List.of(next);
+        }
+        Customer head = queue.peek();
+        if (head == null) {
+            return List.of();
+        }
+        Object key = batching.compatibilityKey(head);
+        NavigableSet<Customer> group = compatible.get(key);
+        if (group.size() < batching.getMinSize() && !force) {
+            return List.of();
+        }
+        queue.poll();
+        group.remove(head);
+        List<Customer> batch = new ArrayList<>(Math.min(group.size() + 1, batching.getMaxSize()));
+        batch.add(head);
+        while (batch.size() < batching.getMaxSize() && !group.isEmpty()) {
+            Customer next = group.pollFirst();
+            queue.remove(next);
+            batch.add(next);
+        }
+        if (group.isEmpty()) {
+            compatible.remove(key);
+        }
+        return batch;
+    }
+
+    private void ungroup(Customer c) {
+        if (batching != null) {
+            Object key = batching.compatibilityKey(c);
+            NavigableSet<Customer> group = compatible.get(key);
+            if (group != null && group.remove(c) && group.isEmpty()) {
+                compatible.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Removes a waiting customer from wherever they are in the queue.
+     *
+     * @param c the customer
+     * @return false if the customer was not waiting here
+     */
+    public boolean removeCustomer(Customer c) {
+        if (queue.remove(c)) {
+            ungroup(c);
+            return true;
+        }
+        return false;
     }
 
     public boolean hasWaitingCustomer() {
-        return !queue.isEmpty();
+        return queue.size() > 0;
     }
 
     public double generateServiceTime() {
         return serviceTimeGenerator.sample();
     }
 
+    /**
+     * Returns the service time of a customer whose service starts: the one
+     * drawn when they joined the queue, if the discipline needed it, or a
+     * new sample otherwise.
+     *
+     * @param c the customer taken from the queue
+     * @return the service time
+     */
+    public double generateServiceTime(Customer c) {
+        double planned = c.getPlannedServiceTime();
+        if (Double.isNaN(planned)) {
+            return serviceTimeGenerator.sample();
+        }
+        c.setPlannedServiceTime(Double.NaN);
+        return planned;
+    }
+
+    /**
+     * Marks all servers busy or all servers idle.
+     *
+     * @param busy whether the station is fully occupied
+     */
     public void setBusy(boolean busy) {
-        this.busy = busy;
+        this.busyServers = busy ? servers : 0;
+    }
+
+    /**
+     * Occupies one idle server.
+     */
+    public void acquireServer() {
+        if (busyServers >= servers) {
+            throw new IllegalStateException(name + " has no idle server.");
+        }
+        busyServers++;
+    }
+
+    /**
+     * Frees one busy server.
+     */
+    public void releaseServer() {
+        if (busyServers > 0) {
+            busyServers--;
+        }
+    }
+
+    public int getServers() {
+        return servers;
+    }
+
+    public int getBusyServers() {
+        return busyServers;
+    }
+
+    public ContinuousGenerator getServiceTimeGenerator() {
+        return serviceTimeGenerator;
     }
 
     public int getQueueLength() {
         return queue.size();
     }
+
+    public QueueDiscipline getQueueDiscipline() {
+        return queue;
+    }
+
+    /**
+     * Returns the batch rules of this service point.
+     *
+     * @return the policy, or {@code null} if customers are served one at a time
+     */
+    public BatchPolicy getBatchPolicy() {
+        return batching;
+    }
+
+    /**
+     * Returns the time until which an idle server waits for a batch to
+     * reach its minimum size.
+     *
+     * @return the deadline, or NaN if no batch is being formed
+     */
+    public double getBatchDeadline() {
+        return batchDeadline;
+    }
+
+    public void setBatchDeadline(double time) {
+        this.batchDeadline = time;
+    }
+
+    /**
+     * Returns the waiting customers, in the order in which
+     * {@link #restore(List, int)} rebuilds the same queue.
+     *
+     * @return copy of the queue
+     */
+    public List<Customer> getQueuedCustomers() {
+        return queue.toList();
+    }
+
+    /**
+     * Replaces the queue and the number of busy servers, e.g. when a saved
+     * simulation state is restored. The customers keep their planned
+     * service times; the discipline's scheduling state is restored
+     * separately, through {@link #getQueueDiscipline()}.
+     *
+     * @param customers   waiting customers, as returned by {@link #getQueuedCustomers()}
+     * @param busyServers number of servers currently serving
+     */
+    public void restore(List<Customer> customers, int busyServers) {
+        if (busyServers < 0 || busyServers > servers) {
+            throw new IllegalArgumentException(name + " cannot have " + busyServers + " busy servers.");
+        }
+        queue.clear();
+        compatible.clear();
+        customers.forEach(this::enqueue);
+        this.busyServers = busyServers;
+    }
 }
@@ -0,0 +1,153 @@
+package simulation.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the customer with the shortest planned service time first; equal
+ * times are served in arrival order.
+ * <p>
+ * The line is a binary heap that remembers where each customer sits, so
+ * adding, taking the next customer and removing a reneging customer are
+ * all O(log n).
+ * </p>
+ */
+public final class ShortestProcessingTimeQueue implements QueueDiscipline {
+
+    private final List<Node> heap = new ArrayList<>();
+    private final Map<Customer, Node> nodes = new HashMap<>();
+    private long sequence;
+
+    @Override
+    public boolean usesServiceTimes() {
+        return true;
+    }
+
+    /**
+     * Adds a customer.
+     *
+     * @param customer the customer; their planned service time must be set
+     */
+    @Override
+    public void add(Customer customer) {
+        double time = customer.getPlannedServiceTime();
+        if (Double.isNaN(time)) {
+            throw new IllegalArgumentException(customer + " has no planned service time.");
+        }
+        Node node = new Node(customer, time, sequence++, heap.size());
+        if (nodes.putIfAbsent(customer, node) != null) {
+            return;
+        }
+        heap.add(node);
+        siftUp(node.index);
+    }
+
+    @Override
+    public Customer peek() {
+        return heap.isEmpty() ? null : heap.get(0).customer;
+    }
+
+    @Override
+    public Customer poll() {
+        if (heap.isEmpty()) {
+            return null;
+        }
+        Node first = heap.get(0);
+        removeAt(0);
+        nodes.remove(first.customer);
+        return first.customer;
+    }
+
+    @Override
+    public boolean remove(Customer customer) {
+        Node node = nodes.remove(customer);
+        if (node == null) {
+            return false;
+        }
+        removeAt(node.index);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public List<Customer> toList() {
+        return heap.stream().sorted(Node::compareTo).map(node -> node.customer).toList();
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+        nodes.clear();
+        sequence = 0;
+    }
+
+    private void removeAt(int index) {
+        Node last = heap.remove(heap.size() - 1);
+        if (index < heap.size()) {
+            place(last, index);
+            siftDown(index);
+            siftUp(last.index);
+        }
+    }
+
+    private void siftUp(int index) {
+        Node node = heap.get(index);
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap.get(parent).compareTo(node) <= 0) {
+                break;
+            }
+            place(heap.get(parent), index);
+            index = parent;
+        }
+        place(node, index);
+    }
+
+    private void siftDown(int index) {
+        Node node = heap.get(index);
+        int half = heap.size() >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < heap.size() && heap.get(child + 1).compareTo(heap.get(child)) < 0) {
+                child++;
+            }
+            if (node.compareTo(heap.get(child)) <= 0) {
+                break;
+            }
+            place(heap.get(child), index);
+            index = child;
+        }
+        place(node, index);
+    }
+
+    private void place(Node node, int index) {
+        heap.set(index, node);
+        node.index = index;
+    }
+
+    private static final class Node implements Comparable<Node> {
+        private final Customer customer;
+        private final double time;
+        private final long sequence;
+        private int index;
+
+        private Node(Customer customer, double time, long sequence, int index) {
+            this.customer = customer;
+            this.time = time;
+            this.sequence = sequence;
+            this.index = index;
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int byTime = Double.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
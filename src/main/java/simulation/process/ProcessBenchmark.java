@@ -0,0 +1,70 @@
+package simulation.process;
+
+import simulation.model.ServicePoint;
+import simulation.random.DeterministicGenerator;
+
+import java.util.Locale;
+/**
+ * Measures how many suspended processes a {@link ProcessSimulation} can
+ * hold and how fast it switches between them.
+ * <p>
+ * Usage: {@code ProcessBenchmark [customers]}. All customers arrive at time
+ * 0 and queue for one cashier, so all but one are suspended at once; each
+ * is then served for one time unit. The default is two million customers,
+ * which fits in the default heap of a machine with a few gigabytes of
+ * memory.
+ * </p>
+ */
+public class ProcessBenchmark {
+
+    /**
+     * Main method of the benchmark.
+     *
+     * @param args optional number of customers
+     */
+    public static void main(String[] args) {
+        int customers = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        run(Math.min(customers, 100_000)); // warm-up
+        Result result = run(customers);
+        System.out.println(String.format(Locale.US,
+                "%d customers, %d suspended at once, %.0f ms, %.0f process switches per second",
+                customers, result.peakSuspended(), result.nanos() / 1e6,
+                result.switches() / (result.nanos() / 1e9)));
+    }
+
+    /**
+     * Runs the benchmark once.
+     *
+     * @param customers number of customers
+     * @return measurements of the run
+     */
+    public static Result run(int customers) {
+        long start = System.nanoTime();
+        ProcessSimulation simulation = new ProcessSimulation();
+        ServicePoint cashier = simulation.station("Cashier", new DeterministicGenerator(1.0), 1, true);
+        ProcessBody customer = ProcessBody.of(p -> p.serve(cashier));
+        for (int i = 0; i < customers; i++) {
+            simulation.start("INSTORE", customer);
+        }
+        // let every customer reach the queue before counting them
+        simulation.run(0.0);
+        int peakSuspended = simulation.getLiveProcesses();
+        simulation.run(Double.POSITIVE_INFINITY);
+        if (simulation.getStatistics().getTotalDepartures() != customers) {
+            throw new IllegalStateException("Not every customer was served.");
+        }
+        // a start and a resume after the service per customer
+        long switches = 2L * customers;
+        return new Result(peakSuspended, switches, System.nanoTime() - start);
+    }
+
+    /**
+     * Measurements of one benchmark run.
+     *
+     * @param peakSuspended processes alive at the peak
+     * @param switches      number of times the scheduler ran a process
+     * @param nanos         wall-clock duration
+     */
+    public record Result(int peakSuspended, long switches, long nanos) {
+    }
+}
@@ -0,0 +1,51 @@
+package simulation.process;
+
+/**
+ * The behaviour of one simulated process, written as a sequence of steps,
+ * e.g. "queue at the cashier, queue at the barista, pick up the drink":
+ * <pre>{@code
+ * ProcessBody customer = ProcessBody.of(
+ *         p -> p.serve(cashier),
+ *         p -> p.serve(barista),
+ *         p -> p.serve(shelf));
+ * }</pre>
+ * <p>
+ * The body holds no state of its own, so one body can be shared by any
+ * number of processes; where a process is in its body is kept by its
+ * {@link ProcessContext}.
+ * </p>
+ */
+public final class ProcessBody {
+
+    private final ProcessStep[] steps;
+
+    private ProcessBody(ProcessStep[] steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Creates a body that runs the given steps in order.
+     *
+     * @param steps the steps, at least one
+     * @return the body
+     */
+    public static ProcessBody of(ProcessStep... steps) {
+        if (steps.length == 0) {
+            throw new IllegalArgumentException("A process needs at least one step.");
+        }
+        for (ProcessStep step : steps) {
+            if (step == null) {
+                throw new IllegalArgumentException("A process step cannot be null.");
+            }
+        }
+        return new ProcessBody(steps.clone());
+    }
+
+    int size() {
+        return steps.length;
+    }
+
+    ProcessStep step(int index) {
+        return steps[index];
+    }
+}
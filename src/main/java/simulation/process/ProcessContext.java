@@ -0,0 +1,215 @@
+package simulation.process;
+
+import simulation.model.Customer;
+import simulation.model.Event;
+import simulation.model.ServicePoint;
+
+/**
+ * A running process: the customer it simulates together with its place in
+ * its {@link ProcessBody}.
+ * <p>
+ * A process is itself the {@link Customer} it simulates. It queues at
+ * service points like any other customer, and its service times are
+ * recorded on it, so the statistics of a process run are collected exactly
+ * as in an event-scheduling run.
+ * </p>
+ * <p>
+ * A process has no thread or stack of its own. When one of its steps
+ * waits, the step returns and the process is just an object in a queue or
+ * on the event list until the simulation resumes it with the next step.
+ * </p>
+ */
+public final class ProcessContext extends Customer {
+
+    private final ProcessSimulation simulation;
+    private final ProcessBody body;
+    private int next;
+    private boolean running;
+    private boolean waiting;
+    // queued to be served rather than to hold a server until release
+    private boolean serving;
+    // balked or reneged instead of finishing its body
+    private boolean left;
+    // service point the process last queued at
+    private ServicePoint station;
+    private Event renege;
+
+    ProcessContext(ProcessSimulation simulation, String type, double startTime, ProcessBody body) {
+        super(type, startTime);
+        this.simulation = simulation;
+        this.body = body;
+    }
+
+    /**
+     * Returns the current simulation time.
+     *
+     * @return the time
+     */
+    public double now() {
+        return simulation.now();
+    }
+
+    /**
+     * Lets simulation time pass; the next step runs after the given time.
+     *
+     * @param duration time to wait, not negative
+     */
+    public void hold(double duration) {
+        if (!(duration >= 0)) {
+            throw new IllegalArgumentException("Hold duration must be non-negative: " + duration);
+        }
+        startWait();
+        waiting = true;
+        simulation.hold(this, duration);
+    }
+
+    /**
+     * Queues at a service point to be served; the next step runs when the
+     * service, drawn from the service point's service time distribution,
+     * ends. The server is freed at the same time.
+     *
+     * @param station the service point
+     */
+    public void serve(ServicePoint station) {
+        serve(station, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Queues at a service point to be served, but leaves the queue if the
+     * service has not started within the patience. A process that reneges
+     * ends without running its remaining steps.
+     *
+     * @param station  the service point
+     * @param patience longest time to wait, not negative
+     */
+    public void serve(ServicePoint station, double patience) {
+        if (!(patience >= 0)) {
+            throw new IllegalArgumentException("Patience must be non-negative: " + patience);
+        }
+        startWait();
+        waiting = simulation.join(this, station, true, patience);
+    }
+
+    /**
+     * Queues for a server of a service point and keeps it until
+     * {@link #release(ServicePoint)}; the time in between counts as the
+     * process's service. If a server is idle, the process gets it at once
+     * and the next step runs without waiting.
+     *
+     * @param station the service point
+     */
+    public void request(ServicePoint station) {
+        startWait();
+        waiting = simulation.join(this, station, false, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Frees the server taken with {@link #request(ServicePoint)}. The first
+     * waiting process gets it.
+     *
+     * @param station the service point
+     */
+    public void release(ServicePoint station) {
+        checkRunning();
+        simulation.release(this, station);
+    }
+
+    /**
+     * Arrives at a service point but leaves at once, e.g. because its queue
+     * is too long. The process ends without running its remaining steps.
+     *
+     * @param station the service point
+     */
+    public void balk(ServicePoint station) {
+        startWait();
+        left = true;
+        next = body.size();
+        simulation.balk(this, station);
+    }
+
+    /**
+     * Ends the process after the current step, or after the wait the step
+     * ends with.
+     */
+    public void end() {
+        checkRunning();
+        next = body.size();
+    }
+
+    /**
+     * Continues with the given step instead of the next one, e.g. to order
+     * another drink.
+     *
+     * @param step index of the step in the body
+     */
+    public void goTo(int step) {
+        checkRunning();
+        if (step < 0 || step >= body.size()) {
+            throw new IllegalArgumentException("No step " + step + " in a body of " + body.size() + " steps.");
+        }
+        next = step;
+    }
+
+    // Runs steps until one waits or the body is done
+    void resume() {
+        running = true;
+        try {
+            while (next < body.size()) {
+                waiting = false;
+                body.step(next++).run(this);
+                if (waiting) {
+                    return;
+                }
+            }
+        } finally {
+            running = false;
+        }
+        simulation.finished(this);
+    }
+
+    boolean isServing() {
+        return serving;
+    }
+
+    void setServing(boolean serving) {
+        this.serving = serving;
+    }
+
+    boolean hasLeft() {
+        return left;
+    }
+
+    void leave() {
+        left = true;
+        next = body.size();
+    }
+
+    ServicePoint getStation() {
+        return station;
+    }
+
+    void setStation(ServicePoint station) {
+        this.station = station;
+    }
+
+    Event getRenege() {
+        return renege;
+    }
+
+    void setRenege(Event renege) {
+        this.renege = renege;
+    }
+
+    private void checkRunning() {
+        if (!running) {
+            throw new IllegalStateException("A process can only act during one of its own steps.");
+        }
+    }
+
+    private void startWait() {
+        checkRunning();
+        if (waiting) {
+            throw new IllegalStateException("A step can wait only once; the next wait belongs in the next step.");
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package simulation.process;
+
+import eduni.distributions.ContinuousGenerator;
+import simulation.logic.SimulationListener;
+import simulation.model.Clock;
+import simulation.model.Customer;
+import simulation.model.Event;
+import simulation.model.EventList;
+import simulation.model.ServicePoint;
+import simulation.statistics.SimulationStatistics;
+import simulation.statistics.StatisticsCollector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Process-interaction front end: every customer is a {@link ProcessBody}
+ * written as a sequence of steps ("queue at the cashier, queue at the
+ * barista, pick up the drink") instead of a set of event handlers.
+ * <p>
+ * Processes run on the same machinery as the event-scheduling
+ * {@link simulation.logic.Simulator}: their wake-ups and service ends are
+ * {@link Event}s on an {@link EventList}, time is kept by the
+ * {@link Clock}, they queue at {@link ServicePoint}s, and a
+ * {@link StatisticsCollector} records them. Each process is a small state
+ * machine that remembers which step comes next; a suspended process is an
+ * object in a queue or on the event list, not a thread, so millions of
+ * them can wait at once (see {@link ProcessBenchmark}).
+ * </p>
+ * <p>
+ * Everything runs on the calling thread. Events at equal times are handled
+ * in the order they were scheduled, so a run is as deterministic as the
+ * random streams the processes draw from.
+ * </p>
+ */
+public final class ProcessSimulation {
+
+    private final Clock clock = Clock.getInstance();
+    private final EventList eventList = new EventList();
+    private final StatisticsCollector statisticsCollector = new StatisticsCollector();
+    private final List<SimulationListener> listeners = new ArrayList<>();
+    private int liveProcesses;
+    private int peakLiveProcesses;
+
+    /**
+     * Creates an empty simulation and resets the clock of the calling
+     * thread.
+     */
+    public ProcessSimulation() {
+        clock.reset();
+        listeners.add(statisticsCollector);
+    }
+
+    /**
+     * Creates a service point whose waiting processes are served first come,
+     * first served.
+     *
+     * @param name        display name
+     * @param serviceTime service time distribution
+     * @param servers     number of servers, at least 1
+     * @param terminal    whether processes leave the system after being served here
+     * @return the service point
+     */
+    public ServicePoint station(String name, ContinuousGenerator serviceTime, int servers, boolean terminal) {
+        return addStation(new ServicePoint(name, serviceTime, servers), terminal);
+    }
+
+    /**
+     * Adds a service point, e.g. one with another queue discipline, and
+     * registers it for statistics.
+     *
+     * @param station  the service point; it must serve one customer at a time
+     * @param terminal whether processes leave the system after being served here
+     * @return the service point
+     */
+    public ServicePoint addStation(ServicePoint station, boolean terminal) {
+        if (station.getBatchPolicy() != null) {
+            throw new IllegalArgumentException(station.getName() + " serves batches; processes are served one at a time.");
+        }
+        statisticsCollector.registerServicePoint(station, terminal);
+        return station;
+    }
+
+    public void addListener(SimulationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts a process at the current time.
+     *
+     * @param type customer type of the process
+     * @param body behaviour of the process
+     */
+    public void start(String type, ProcessBody body) {
+        startAt(clock.getTime(), type, body);
+    }
+
+    /**
+     * Starts a process at a later time. A process step may call this, e.g.
+     * to create the next arriving customer.
+     *
+     * @param time start time, not before the current time
+     * @param type customer type of the process
+     * @param body behaviour of the process
+     */
+    public void startAt(double time, String type, ProcessBody body) {
+        if (time < clock.getTime()) {
+            throw new IllegalArgumentException("Cannot start a process in the past: " + time);
+        }
+        eventList.add(new Event(time, Event.WAKEUP, new ProcessContext(this, type, time, body), null));
+        peakLiveProcesses = Math.max(peakLiveProcesses, ++liveProcesses);
+    }
+
+    /**
+     * Runs the simulation until no event is left before the end time. The
+     * clock then shows the end time, unless it is infinite.
+     *
+     * @param endTime simulation time to run to
+     * @throws IllegalStateException if a process step fails; the cause is
+     *                               the step's exception
+     */
+    public void run(double endTime) {
+        while (!eventList.isEmpty() && eventList.peekNext().getTime() <= endTime) {
+            Event event = eventList.removeNext();
+            clock.setTime(event.getTime());
+            try {
+                handle(event);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("A simulated process failed at time " + clock.getTime(), e);
+            }
+        }
+        if (!Double.isInfinite(endTime) && endTime > clock.getTime()) {
+            clock.setTime(endTime);
+        }
+    }
+
+    public double now() {
+        return clock.getTime();
+    }
+
+    /**
+     * Returns the number of processes that have been started but have not
+     * ended, including those whose start time has not come yet.
+     *
+     * @return the number of live processes
+     */
+    public int getLiveProcesses() {
+        return liveProcesses;
+    }
+
+    /**
+     * Returns the largest number of processes that were live at once.
+     *
+     * @return the peak number of live processes
+     */
+    public int getPeakLiveProcesses() {
+        return peakLiveProcesses;
+    }
+
+    public StatisticsCollector getStatisticsCollector() {
+        return statisticsCollector;
+    }
+
+    public SimulationStatistics getStatistics() {
+        return statisticsCollector.snapshot(clock.getTime());
+    }
+
+    private void handle(Event event) {
+        ProcessContext process = (ProcessContext) event.getCustomer();
+        ServicePoint station = event.getTarget();
+        switch (event.getType()) {
+            case Event.WAKEUP -> {
+                notifyEvent(event);
+                process.resume();
+            }
+            case Event.DEPARTURE -> {
+                notifyDeparture(event, process.getWaitingTime(), process.getServiceTime());
+                station.releaseServer();
+                serveNext(station);
+                process.resume();
+            }
+            case Event.RENEGE -> {
+                process.setRenege(null);
+                if (station.removeCustomer(process)) {
+                    notifyRenege(event, process);
+                    process.leave();
+                    finished(process);
+                }
+            }
+            default -> throw new IllegalStateException("Unexpected event " + event);
+        }
+    }
+
+    void hold(ProcessContext process, double duration) {
+        eventList.add(new Event(clock.getTime() + duration, Event.WAKEUP, process, null));
+    }
+
+    // Takes an idle server or joins the queue; tells whether the process waits
+    boolean join(ProcessContext process, ServicePoint station, boolean serving, double patience) {
+        arrive(process, station);
+        if (!station.isBusy()) {
+            startService(process, station, serving);
+            return serving;
+        }
+        process.setServing(serving);
+        station.addCustomer(process);
+        if (!Double.isInfinite(patience)) {
+            Event renege = new Event(clock.getTime() + patience, Event.RENEGE, process, station);
+            process.setRenege(renege);
+            eventList.add(renege);
+        }
+        return true;
+    }
+
+    void release(ProcessContext process, ServicePoint station) {
+        if (station.getBusyServers() == 0) {
+            throw new IllegalStateException(station.getName() + " has no busy server to release.");
+        }
+        double now = clock.getTime();
+        process.setServiceEndTime(now);
+        notifyDeparture(new Event(now, Event.DEPARTURE, process, station),
+                process.getWaitingTime(), process.getServiceTime());
+        station.releaseServer();
+        serveNext(station);
+    }
+
+    void balk(ProcessContext process, ServicePoint station) {
+        arrive(process, station);
+        notifyBalk(process, station);
+    }
+
+    void finished(ProcessContext process) {
+        liveProcesses--;
+        if (!process.hasLeft() && process.getStation() != null) {
+            notifyExit(process, process.getStation());
+        }
+    }
+
+    // The first station a process visits is its arrival into the system
+    private void arrive(ProcessContext process, ServicePoint station) {
+        ServicePoint from = process.getStation();
+        process.setStation(station);
+        if (from == null) {
+            notifyArrival(new Event(clock.getTime(), Event.ARRIVAL, process, station));
+        } else {
+            notifyRouting(process, from, station);
+        }
+    }
+
+    // A freed server takes the next waiting process; one that requested the
+    // server resumes now, one that is served resumes when its service ends
+    private void serveNext(ServicePoint station) {
+        Customer next = station.getNextCustomer();
+        if (next == null) {
+            return;
+        }
+        ProcessContext process = (ProcessContext) next;
+        Event renege = process.getRenege();
+        if (renege != null) {
+            eventList.cancel(renege);
+            process.setRenege(null);
+        }
+        startService(process, station, process.isServing());
+        if (!process.isServing()) {
+            eventList.add(new Event(clock.getTime(), Event.WAKEUP, process, null));
+        }
+    }
+
+    private void startService(ProcessContext process, ServicePoint station, boolean serving) {
+        double now = clock.getTime();
+        station.acquireServer();
+        process.setServiceStartTime(now);
+        if (serving) {
+            double serviceTime = station.generateServiceTime(process);
+            process.setServiceEndTime(now + serviceTime);
+            eventList.add(new Event(now + serviceTime, Event.DEPARTURE, process, station));
+        } else {
+            process.setPlannedServiceTime(Double.NaN);
+        }
+        notifyServiceStart(process, station);
+    }
+
+    private void notifyEvent(Event event) {
+        for (SimulationListener listener : listeners) {
+            listener.onEvent(event);
+        }
+    }
+
+    private void notifyArrival(Event event) {
+        for (SimulationListener listener : listeners) {
+            listener.onEvent(event);
+            listener.onArrival(event);
+        }
+    }
+
+    private void notifyDeparture(Event event, double waitTime, double serviceTime) {
+        for (SimulationListener listener : listeners) {
+            listener.onEvent(event);
+            listener.onDeparture(event, waitTime, serviceTime);
+        }
+    }
+
+    private void notifyServiceStart(Customer customer, ServicePoint servicePoint) {
+        for (SimulationListener listener : listeners) {
+            listener.onServiceStart(customer, servicePoint);
+        }
+    }
+
+    private void notifyRouting(Customer customer, ServicePoint from, ServicePoint to) {
+        for (SimulationListener listener : listeners) {
+            listener.onRouting(customer, from, to);
+        }
+    }
+
+    private void notifyExit(Customer customer, ServicePoint from) {
+        for (SimulationListener listener : listeners) {
+            listener.onExit(customer, from);
+        }
+    }
+
+    private void notifyBalk(Customer customer, ServicePoint servicePoint) {
+        for (SimulationListener listener : listeners) {
+            listener.onBalk(customer, servicePoint);
+        }
+    }
+
+    private void notifyRenege(Event event, Customer customer) {
+        for (SimulationListener listener : listeners) {
+            listener.onEvent(event);
+            listener.onRenege(customer, event.getTarget());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package simulation.process;
+
+/**
+ * One step of a {@link ProcessBody}.
+ * <p>
+ * A step runs to its end without being interrupted. Its last action may be
+ * one wait: {@link ProcessContext#hold(double)},
+ * {@link ProcessContext#serve(simulation.model.ServicePoint)} or a
+ * {@link ProcessContext#request(simulation.model.ServicePoint)} that cannot
+ * be granted at once. The next step runs when the wait is over, or at once
+ * if the step does not wait.
+ * </p>
+ */
+@FunctionalInterface
+public interface ProcessStep {
+
+    /**
+     * Runs the step.
+     *
+     * @param process the process's handle on the simulation
+     */
+    void run(ProcessContext process);
+}
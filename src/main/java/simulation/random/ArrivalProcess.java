@@ -1,29 +1,99 @@
 package simulation.random;
 
 import eduni.distributions.ContinuousGenerator;
-import simulation.model.Customer;
+import eduni.distributions.DiscreteGenerator;
 import simulation.model.Event;
 import simulation.model.EventList;
 import simulation.model.ServicePoint;
 
 /**
  * Generates arrival events using its own random generator.
+ * <p>
+ * The process is an arrival stream that keeps a single pending arrival in
+ * the event list: the next one is scheduled when the current one is
+ * processed. Scheduled events only carry the customer type and group size;
+ * the customers themselves are created when the event is processed.
+ * With a batch size generator, customers arrive in groups that are carried
+ * by one event.
+ * </p>
  */
 public class ArrivalProcess {
 
     private final String customerType;
     private final ServicePoint target;
     private final ContinuousGenerator interArrivalGenerator;
+    private final DiscreteGenerator batchSizeGenerator;
 
     public ArrivalProcess(String customerType, ServicePoint target, ContinuousGenerator generator) {
+        this(customerType, target, generator, null);
+    }
+
+    /**
+     * @param customerType type of the generated customers
+     * @param target       service point the customers arrive to
+     * @param generator    inter-arrival time generator
+     * @param batchSizes   generator of group sizes, or {@code null} for single arrivals
+     */
+    public ArrivalProcess(String customerType, ServicePoint target, ContinuousGenerator generator,
+            DiscreteGenerator batchSizes) {
         this.customerType = customerType;
         this.target = target;
         this.interArrivalGenerator = generator;
+        this.batchSizeGenerator = batchSizes;
     }
 
     public void scheduleNext(double currentTime, EventList eventList) {
-        double nextTime = currentTime + interArrivalGenerator.sample();
-        eventList.add(new Event(nextTime, Event.ARRIVAL,
-                new Customer(customerType, nextTime), target));
+        double nextTime = nextArrivalTime(currentTime);
+        if (Double.isInfinite(nextTime)) {
+            return; // no further arrivals
+        }
+        eventList.add(Event.arrival(nextTime, customerType, nextBatchSize(), target));
+    }
+
+    public String getCustomerType() {
+        return customerType;
+    }
+
+    /**
+     * Returns the time of the arrival following {@code currentTime}.
+     *
+     * @param currentTime time of the previous arrival
+     * @return time of the next arrival, or positive infinity if there is none
+     */
+    protected double nextArrivalTime(double currentTime) {
+        return currentTime + interArrivalGenerator.sample();
+    }
+
+    /**
+     * Returns the internal state beyond the random streams that a saved
+     * simulation needs to continue identically. Stateless processes return
+     * an empty array.
+     *
+     * @return the state
+     */
+    public double[] getState() {
+        return new double[0];
+    }
+
+    /**
+     * Restores state returned by {@link #getState()}.
+     *
+     * @param state the saved state
+     */
+    public void setState(double[] state) {
+        if (state.length != 0) {
+            throw new IllegalArgumentException("Arrival process has no state to restore.");
+        }
+    }
+
+    protected ContinuousGenerator getInterArrivalGenerator() {
+        return interArrivalGenerator;
+    }
+
+    private int nextBatchSize() {
+        if (batchSizeGenerator == null) {
+            return 1;
+        }
+        return (int) Math.max(1L, Math.min(Integer.MAX_VALUE, batchSizeGenerator.sample()));
     }
 }
@@ -0,0 +1,222 @@
+package simulation.random;
+
+import eduni.distributions.ContinuousGenerator;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Decorator that pre-generates samples of another {@link ContinuousGenerator}
+ * in primitive blocks.
+ * <p>
+ * Instead of walking through the generator hierarchy for every draw, consumers
+ * read the next slot of a {@code double[]} block. When a block is exhausted it
+ * is refilled in one tight loop. In background mode two blocks are used: the
+ * consumer reads one while a daemon thread fills the other.
+ * </p>
+ * <p>
+ * Samples are taken from the delegate strictly in order, so the produced
+ * sequence is identical to sampling the delegate directly and replay is
+ * deterministic for a given seed and block size. The delegate must not be
+ * used by anyone else while it is wrapped.
+ * </p>
+ * <p>
+ * A block is only generated when the first sample of it is drawn. Creating,
+ * reseeding or restoring a buffer therefore costs no samples, which keeps
+ * short-lived models that are reseeded right away cheap.
+ * </p>
+ */
+public class BufferedGenerator implements ContinuousGenerator {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private static final ExecutorService FILLERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "sample-buffer-filler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ContinuousGenerator delegate;
+    private final int blockSize;
+    private final boolean background;
+
+    private double[] current;
+    private long currentBlockSeed;
+    private int position;
+    // the current block is not generated yet; it starts at currentBlockSeed
+    // and resumes at startPosition
+    private boolean stale;
+    private int startPosition;
+    private Future<Block> pending;
+
+    /**
+     * Creates a synchronous buffer using {@link #DEFAULT_BLOCK_SIZE}.
+     *
+     * @param delegate generator providing the samples
+     */
+    public BufferedGenerator(ContinuousGenerator delegate) {
+        this(delegate, DEFAULT_BLOCK_SIZE, false);
+    }
+
+    /**
+     * Creates a buffer with the given block size.
+     *
+     * @param delegate   generator providing the samples
+     * @param blockSize  number of samples generated per refill
+     * @param background whether the next block is filled on a background thread
+     */
+    public BufferedGenerator(ContinuousGenerator delegate, int blockSize, boolean background) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+        this.delegate = delegate;
+        this.blockSize = blockSize;
+        this.background = background;
+        this.current = new double[blockSize];
+        restart();
+    }
+
+    @Override
+    public double sample() {
+        if (position == current.length) {
+            nextBlock();
+        }
+        return current[position++];
+    }
+
+    /**
+     * Returns the number of samples already consumed from the current block.
+     *
+     * @return position inside the current block
+     */
+    public int getPosition() {
+        return stale ? startPosition : position;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Discards all buffered samples and reseeds the delegate.
+     *
+     * @param seed the new seed for the delegate
+     */
+    @Override
+    public void setSeed(long seed) {
+        awaitPending();
+        delegate.setSeed(seed);
+        restart();
+    }
+
+    /**
+     * Returns the delegate seed at the start of the block currently being
+     * consumed. Together with {@link #getPosition()} this identifies the exact
+     * position in the sample stream.
+     *
+     * @return seed the current block was generated from
+     */
+    @Override
+    public long getSeed() {
+        return currentBlockSeed;
+    }
+
+    /**
+     * Moves to an exact position in the sample stream, as identified by
+     * {@link #getSeed()} and {@link #getPosition()}. The block is generated
+     * again from its seed when it is next sampled, so the following samples
+     * are identical to those the buffer would have returned at that position.
+     *
+     * @param blockSeed delegate seed at the start of the block
+     * @param position  samples already consumed from the block
+     */
+    public void restore(long blockSeed, int position) {
+        if (position < 0 || position > blockSize) {
+            throw new IllegalArgumentException("Position must be within the block.");
+        }
+        setSeed(blockSeed);
+        startPosition = position;
+    }
+
+    @Override
+    public void reseed() {
+        awaitPending();
+        delegate.reseed();
+        restart();
+    }
+
+    // Starts a new block at the delegate's seed without generating it yet;
+    // the next sample() finds the block used up and generates it
+    private void restart() {
+        currentBlockSeed = delegate.getSeed();
+        position = blockSize;
+        stale = true;
+        startPosition = 0;
+    }
+
+    private void nextBlock() {
+        if (stale) {
+            stale = false;
+            fillSamples(current);
+            position = startPosition;
+            if (background) {
+                pending = submit(new double[blockSize]);
+            }
+            if (position < blockSize) {
+                return;
+            }
+        }
+        if (!background) {
+            currentBlockSeed = delegate.getSeed();
+            fillSamples(current);
+            position = 0;
+            return;
+        }
+        Block block = awaitPending();
+        double[] spent = current;
+        current = block.samples;
+        currentBlockSeed = block.seed;
+        position = 0;
+        pending = submit(spent);
+    }
+
+    private Future<Block> submit(double[] target) {
+        return FILLERS.submit(() -> fill(target));
+    }
+
+    private Block awaitPending() {
+        if (pending == null) {
+            return null;
+        }
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for sample block", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sample block generation failed", e.getCause());
+        } finally {
+            pending = null;
+        }
+    }
+
+    private Block fill(double[] target) {
+        long seed = delegate.getSeed();
+        fillSamples(target);
+        return new Block(target, seed);
+    }
+
+    private void fillSamples(double[] target) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = delegate.sample();
+        }
+    }
+
+    private record Block(double[] samples, long seed) {
+    }
+}
@@ -0,0 +1,67 @@
+package simulation.random;
+
+import eduni.distributions.Alias;
+import eduni.distributions.DiscreteGenerator;
+
+import java.util.List;
+
+/**
+ * Discrete generator over named outcomes, e.g. the drinks of a drink mix.
+ * <p>
+ * Sampling uses an {@link Alias} table, so it costs O(1) however many
+ * outcomes there are. {@link #sample()} returns the index of the outcome
+ * and {@link #sampleName()} its name.
+ * </p>
+ */
+public class CategoricalGenerator implements DiscreteGenerator {
+
+    private final List<String> names;
+    private final Alias alias;
+
+    /**
+     * Creates a generator.
+     *
+     * @param names   outcome names
+     * @param weights non-negative relative weight of each outcome
+     */
+    public CategoricalGenerator(List<String> names, double[] weights) {
+        if (names.size() != weights.length) {
+            throw new IllegalArgumentException("Every outcome needs exactly one weight.");
+        }
+        this.names = List.copyOf(names);
+        this.alias = new Alias(weights);
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Samples the name of an outcome.
+     *
+     * @return the name
+     */
+    public String sampleName() {
+        return names.get((int) alias.sample());
+    }
+
+    @Override
+    public long sample() {
+        return alias.sample();
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        alias.setSeed(seed);
+    }
+
+    @Override
+    public long getSeed() {
+        return alias.getSeed();
+    }
+
+    @Override
+    public void reseed() {
+        alias.reseed();
+    }
+}
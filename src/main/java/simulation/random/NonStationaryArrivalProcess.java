@@ -0,0 +1,84 @@
+package simulation.random;
+
+import eduni.distributions.ContinuousGenerator;
+import eduni.distributions.DiscreteGenerator;
+import eduni.distributions.Negexp;
+import simulation.model.ServicePoint;
+
+/**
+ * Non-homogeneous Poisson arrival process driven by a {@link RateSchedule}.
+ * <p>
+ * Arrivals are generated by inverting the cumulative intensity: if the
+ * previous arrival happened at cumulative intensity {@code L}, the next one
+ * happens when it reaches {@code L + E} with {@code E} drawn from a unit-mean
+ * exponential distribution. Each arrival therefore costs one sample and one
+ * binary search over the schedule's segments, independently of how much
+ * the rate varies.
+ * </p>
+ */
+public class NonStationaryArrivalProcess extends ArrivalProcess {
+
+    private final RateSchedule schedule;
+    private double lastArrivalTime = Double.NaN;
+    private double lastCumulative;
+
+    public NonStationaryArrivalProcess(String customerType, ServicePoint target, RateSchedule schedule) {
+        this(customerType, target, schedule, new Negexp(1.0));
+    }
+
+    /**
+     * @param customerType    type of the generated customers
+     * @param target          service point the customers arrive to
+     * @param schedule        time-dependent arrival rate
+     * @param unitExponential generator of exponential samples with mean 1
+     */
+    public NonStationaryArrivalProcess(String customerType, ServicePoint target, RateSchedule schedule,
+            ContinuousGenerator unitExponential) {
+        this(customerType, target, schedule, unitExponential, null);
+    }
+
+    /**
+     * @param customerType    type of the generated customers
+     * @param target          service point the customers arrive to
+     * @param schedule        time-dependent arrival rate of groups
+     * @param unitExponential generator of exponential samples with mean 1
+     * @param batchSizes      generator of group sizes, or {@code null} for single arrivals
+     */
+    public NonStationaryArrivalProcess(String customerType, ServicePoint target, RateSchedule schedule,
+            ContinuousGenerator unitExponential, DiscreteGenerator batchSizes) {
+        super(customerType, target, unitExponential, batchSizes);
+        if (schedule == null) {
+            throw new IllegalArgumentException("schedule must not be null");
+        }
+        this.schedule = schedule;
+    }
+
+    public RateSchedule getSchedule() {
+        return schedule;
+    }
+
+    @Override
+    public double[] getState() {
+        return new double[] {lastArrivalTime, lastCumulative};
+    }
+
+    @Override
+    public void setState(double[] state) {
+        if (state.length != 2) {
+            throw new IllegalArgumentException("Non-stationary arrival state needs two values.");
+        }
+        lastArrivalTime = state[0];
+        lastCumulative = state[1];
+    }
+
+    @Override
+    protected double nextArrivalTime(double currentTime) {
+        // arrivals are scheduled one after another, so the previous target is usually reusable
+        double start = (currentTime == lastArrivalTime) ? lastCumulative : schedule.cumulative(currentTime);
+        double target = start + getInterArrivalGenerator().sample();
+        double next = schedule.inverseCumulative(target);
+        lastArrivalTime = next;
+        lastCumulative = target;
+        return Math.max(next, currentTime);
+    }
+}
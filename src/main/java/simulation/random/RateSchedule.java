@@ -0,0 +1,213 @@
+package simulation.random;
+
+import java.util.Arrays;
+
+/**
+ * Time-of-day arrival rate used by a non-homogeneous Poisson process.
+ * <p>
+ * The rate is given at breakpoints {@code t0 = 0 < t1 < ... < tn} and is
+ * either held constant between breakpoints (step) or interpolated linearly.
+ * After the last breakpoint the last rate is kept, unless the schedule is
+ * periodic, in which case it repeats every {@code period} time units.
+ * </p>
+ * <p>
+ * The cumulative intensity at every breakpoint is precomputed, so both the
+ * cumulative intensity and its inverse are evaluated with a binary search
+ * over the segments plus a closed-form solution inside one segment.
+ * Instances are immutable.
+ * </p>
+ */
+public final class RateSchedule {
+
+    private final double[] segmentStart;
+    private final double[] startRate;
+    private final double[] slope;
+    private final double[] cumulativeAtStart;
+    private final boolean linear;
+    private final double period;
+    private final double cycleIntensity;
+
+    private RateSchedule(double[] times, double[] rates, boolean linear, double period) {
+        validate(times, rates, period);
+        int breakpoints = times.length;
+        boolean periodic = period > 0;
+        this.segmentStart = times.clone();
+        this.startRate = rates.clone();
+        this.slope = new double[breakpoints];
+        this.cumulativeAtStart = new double[breakpoints];
+        this.linear = linear;
+        this.period = period;
+
+        for (int i = 0; i < breakpoints; i++) {
+            double end;
+            double endRate;
+            if (i + 1 < breakpoints) {
+                end = times[i + 1];
+                endRate = rates[i + 1];
+            } else {
+                // last segment runs to the end of the cycle, or forever
+                end = periodic ? period : Double.NaN;
+                endRate = rates[0];
+            }
+            slope[i] = (linear && !Double.isNaN(end)) ? (endRate - rates[i]) / (end - times[i]) : 0.0;
+            if (i + 1 < breakpoints) {
+                cumulativeAtStart[i + 1] = cumulativeAtStart[i] + segmentIntensity(i, end - times[i]);
+            }
+        }
+        int last = breakpoints - 1;
+        this.cycleIntensity = periodic
+                ? cumulativeAtStart[last] + segmentIntensity(last, period - times[last])
+                : Double.NaN;
+    }
+
+    /**
+     * Creates a schedule whose rate is constant between breakpoints.
+     *
+     * @param times breakpoints, starting at 0 and strictly increasing
+     * @param rates arrival rate (customers per time unit) from each breakpoint on
+     * @return the schedule
+     */
+    public static RateSchedule piecewiseConstant(double[] times, double[] rates) {
+        return new RateSchedule(times, rates, false, 0.0);
+    }
+
+    /**
+     * Creates a schedule whose rate is interpolated linearly between breakpoints.
+     *
+     * @param times breakpoints, starting at 0 and strictly increasing
+     * @param rates arrival rate (customers per time unit) at each breakpoint
+     * @return the schedule
+     */
+    public static RateSchedule piecewiseLinear(double[] times, double[] rates) {
+        return new RateSchedule(times, rates, true, 0.0);
+    }
+
+    /**
+     * Returns a copy of this schedule that repeats every {@code period} time
+     * units. For a linear schedule the last segment interpolates back to the
+     * first rate.
+     *
+     * @param period cycle length, greater than the last breakpoint
+     * @return the periodic schedule
+     */
+    public RateSchedule periodic(double period) {
+        return new RateSchedule(segmentStart, startRate, linear, period);
+    }
+
+    public boolean isLinear() {
+        return linear;
+    }
+
+    public boolean isPeriodic() {
+        return period > 0;
+    }
+
+    public double getPeriod() {
+        return period;
+    }
+
+    /**
+     * Returns the arrival rate at time {@code t}.
+     *
+     * @param t time, non-negative
+     * @return rate at {@code t}
+     */
+    public double rateAt(double t) {
+        double local = isPeriodic() ? t - Math.floor(t / period) * period : t;
+        int i = segmentOf(local);
+        return startRate[i] + slope[i] * (local - segmentStart[i]);
+    }
+
+    /**
+     * Returns the expected number of arrivals in {@code [0, t]}.
+     *
+     * @param t time, non-negative
+     * @return cumulative intensity at {@code t}
+     */
+    public double cumulative(double t) {
+        if (!isPeriodic()) {
+            return cumulativeWithin(t);
+        }
+        double cycles = Math.floor(t / period);
+        return cycles * cycleIntensity + cumulativeWithin(t - cycles * period);
+    }
+
+    /**
+     * Returns the earliest time at which the cumulative intensity reaches
+     * {@code target}.
+     *
+     * @param target cumulative intensity, non-negative
+     * @return time, or {@link Double#POSITIVE_INFINITY} if the rate stays zero
+     */
+    public double inverseCumulative(double target) {
+        if (!isPeriodic()) {
+            return inverseWithin(target);
+        }
+        if (cycleIntensity <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double cycles = Math.floor(target / cycleIntensity);
+        double remainder = target - cycles * cycleIntensity;
+        return cycles * period + inverseWithin(remainder);
+    }
+
+    private double cumulativeWithin(double t) {
+        int i = segmentOf(t);
+        return cumulativeAtStart[i] + segmentIntensity(i, t - segmentStart[i]);
+    }
+
+    private double inverseWithin(double target) {
+        // last segment whose cumulative start does not exceed the target;
+        // segments with zero rate are skipped because their successors share their start value
+        int lo = 0;
+        int hi = cumulativeAtStart.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (cumulativeAtStart[mid] <= target) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        double remaining = target - cumulativeAtStart[lo];
+        if (remaining <= 0) {
+            return segmentStart[lo];
+        }
+        // solve r*d + s*d^2/2 = remaining in a form that is stable for s = 0 and s < 0
+        double r = startRate[lo];
+        double denominator = r + Math.sqrt(Math.max(0.0, r * r + 2.0 * slope[lo] * remaining));
+        if (denominator <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return segmentStart[lo] + 2.0 * remaining / denominator;
+    }
+
+    private int segmentOf(double t) {
+        int index = Arrays.binarySearch(segmentStart, t);
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    private double segmentIntensity(int i, double duration) {
+        return startRate[i] * duration + 0.5 * slope[i] * duration * duration;
+    }
+
+    private static void validate(double[] times, double[] rates, double period) {
+        if (times == null || rates == null || times.length == 0 || times.length != rates.length) {
+            throw new IllegalArgumentException("Rate schedule needs one rate per breakpoint.");
+        }
+        if (times[0] != 0.0) {
+            throw new IllegalArgumentException("Rate schedule must start at time 0.");
+        }
+        for (int i = 0; i < times.length; i++) {
+            if (i > 0 && !(times[i] > times[i - 1])) {
+                throw new IllegalArgumentException("Rate schedule breakpoints must be strictly increasing.");
+            }
+            if (!(rates[i] >= 0) || Double.isInfinite(rates[i])) {
+                throw new IllegalArgumentException("Arrival rates must be finite and non-negative.");
+            }
+        }
+        if (period > 0 && period <= times[times.length - 1]) {
+            throw new IllegalArgumentException("Rate schedule period must exceed the last breakpoint.");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package simulation.random;
+
+/**
+ * Derives independent-looking seeds for numbered replications from one base
+ * seed.
+ * <p>
+ * The replication index is mixed into the base seed with the SplitMix64
+ * finalizer, so neighbouring indices give unrelated seeds. The result is a
+ * valid seed for the multiplicative congruential generator used by
+ * {@code eduni.distributions}, i.e. in {@code [1, 2^31 - 2]}.
+ * </p>
+ */
+public final class SeedSequence {
+
+    private static final long MODULUS = 2147483647L;
+
+    private SeedSequence() {
+    }
+
+    /**
+     * Returns the seed of replication {@code index}.
+     *
+     * @param base  base seed of the experiment
+     * @param index replication number, starting at 0
+     * @return seed in {@code [1, 2^31 - 2]}
+     */
+    public static long seed(long base, long index) {
+        long z = base + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return 1 + Math.floorMod(z, MODULUS - 1);
+    }
+}
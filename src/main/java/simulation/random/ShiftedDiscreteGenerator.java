@@ -0,0 +1,41 @@
+package simulation.random;
+
+import eduni.distributions.DiscreteGenerator;
+
+/**
+ * Wrapper around a {@link DiscreteGenerator} that adds a constant to every
+ * sample, e.g. {@code 1 + Poisson} for group sizes that are at least one.
+ */
+public class ShiftedDiscreteGenerator implements DiscreteGenerator {
+
+    private final DiscreteGenerator delegate;
+    private final long shift;
+
+    public ShiftedDiscreteGenerator(DiscreteGenerator delegate, long shift) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        this.delegate = delegate;
+        this.shift = shift;
+    }
+
+    @Override
+    public long sample() {
+        return shift + delegate.sample();
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        delegate.setSeed(seed);
+    }
+
+    @Override
+    public long getSeed() {
+        return delegate.getSeed();
+    }
+
+    @Override
+    public void reseed() {
+        delegate.reseed();
+    }
+}
@@ -0,0 +1,110 @@
+package simulation.statistics;
+
+/**
+ * Confidence interval for the steady-state mean of a correlated series
+ * from a single long run (method of batch means).
+ * <p>
+ * Consecutive observations are grouped into batches whose means are nearly
+ * independent, and the interval is computed from the batch means. The
+ * number of batches is kept between {@code k} and {@code 2k}: when {@code 2k}
+ * batches are full, adjacent pairs are merged and the batch size doubles.
+ * Only the batch means are stored, so memory stays constant however long
+ * the run is.
+ * </p>
+ */
+public class BatchMeans {
+
+    private final double[] batchMeans;
+    private final int minBatches;
+    private int batches;
+    private long batchSize;
+    private double currentSum;
+    private long currentCount;
+
+    /**
+     * Creates an estimator.
+     *
+     * @param minBatches       number of batches {@code k} kept after a merge, at least 2
+     * @param initialBatchSize observations per batch at the start
+     */
+    public BatchMeans(int minBatches, long initialBatchSize) {
+        if (minBatches < 2 || initialBatchSize < 1) {
+            throw new IllegalArgumentException("Need at least 2 batches of at least 1 observation.");
+        }
+        this.minBatches = minBatches;
+        this.batchMeans = new double[2 * minBatches];
+        this.batchSize = initialBatchSize;
+    }
+
+    /**
+     * Adds the next observation of the series.
+     *
+     * @param value the observation
+     */
+    public void add(double value) {
+        currentSum += value;
+        if (++currentCount < batchSize) {
+            return;
+        }
+        batchMeans[batches++] = currentSum / currentCount;
+        currentSum = 0;
+        currentCount = 0;
+        if (batches == batchMeans.length) {
+            for (int i = 0; i < minBatches; i++) {
+                batchMeans[i] = (batchMeans[2 * i] + batchMeans[2 * i + 1]) / 2;
+            }
+            batches = minBatches;
+            batchSize *= 2;
+        }
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public long getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the batch means as running statistics.
+     *
+     * @return statistics of the completed batch means
+     */
+    public RunningStatistics getStatistics() {
+        RunningStatistics statistics = new RunningStatistics();
+        for (int i = 0; i < batches; i++) {
+            statistics.add(batchMeans[i]);
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns the mean of the completed batches.
+     *
+     * @return the estimate of the steady-state mean
+     */
+    public double getMean() {
+        return getStatistics().getMean();
+    }
+
+    /**
+     * Returns the confidence half-width of the mean.
+     *
+     * @param confidence confidence level, e.g. 0.95
+     * @return half-width, or infinity with fewer than two batches
+     */
+    public double getHalfWidth(double confidence) {
+        return getStatistics().getHalfWidth(confidence);
+    }
+
+    /**
+     * Returns the half-width relative to the magnitude of the mean.
+     *
+     * @param confidence confidence level, e.g. 0.95
+     * @return relative half-width
+     */
+    public double getRelativeHalfWidth(double confidence) {
+        return getStatistics().getRelativeHalfWidth(confidence);
+    }
+}
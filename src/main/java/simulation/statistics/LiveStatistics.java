@@ -0,0 +1,44 @@
+package simulation.statistics;
+
+import java.util.List;
+
+/**
+ * Immutable view of a running simulation, published by
+ * {@link LiveStatisticsPublisher} for live displays.
+ *
+ * @param sequence   number of the snapshot; increases with every publication
+ * @param time       simulation time of the snapshot
+ * @param stations   state of each service point
+ * @param departures customers that have left the system
+ * @param meanWait   average waiting time of departed customers
+ * @param waitP50    median waiting time
+ * @param waitP90    90th percentile of the waiting time
+ * @param waitP99    99th percentile of the waiting time
+ */
+public record LiveStatistics(long sequence, double time, List<Station> stations, int departures,
+        double meanWait, double waitP50, double waitP90, double waitP99) {
+
+    public LiveStatistics {
+        stations = List.copyOf(stations);
+    }
+
+    /**
+     * Returns the number of customers leaving the system per time unit.
+     *
+     * @return system throughput, or 0 at time 0
+     */
+    public double throughput() {
+        return time > 0 ? departures / time : 0.0;
+    }
+
+    /**
+     * State of one service point.
+     *
+     * @param name        service point name
+     * @param customers   customers queued or in service
+     * @param utilization fraction of server capacity used so far
+     * @param completions customers served
+     */
+    public record Station(String name, int customers, double utilization, int completions) {
+    }
+}
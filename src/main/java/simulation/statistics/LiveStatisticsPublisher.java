@@ -0,0 +1,96 @@
+package simulation.statistics;
+
+import java.util.List;
+
+/**
+ * Hands snapshots of a running simulation from the engine thread to a
+ * display thread without locks.
+ * <p>
+ * The display calls {@link #sample()} at its own wall-clock rate. That
+ * raises a request flag and returns the latest snapshot. The engine checks
+ * {@link #isRequested()} after each event, which is a single volatile read,
+ * and only when asked builds a new immutable {@link LiveStatistics} and
+ * publishes it through one volatile reference. The engine never waits for
+ * the display, and the snapshot cost is paid at most once per sample.
+ * </p>
+ * <p>
+ * Waiting-time percentiles come from a {@link WaitingTimeHistogram} updated
+ * as customers leave, so they cost the same however many customers have
+ * been served.
+ * </p>
+ */
+public class LiveStatisticsPublisher {
+
+    private volatile LiveStatistics latest;
+    private volatile boolean requested = true;
+
+    // written by the engine thread only
+    private final WaitingTimeHistogram waits = new WaitingTimeHistogram();
+    private int departures;
+    private double totalWait;
+    private long sequence;
+
+    /**
+     * Asks the engine for a fresh snapshot and returns the latest one
+     * published. Called from the display thread.
+     *
+     * @return the latest snapshot, or {@code null} if none has been published
+     */
+    public LiveStatistics sample() {
+        requested = true;
+        return latest;
+    }
+
+    /**
+     * Returns the latest snapshot without asking for a new one.
+     *
+     * @return the latest snapshot, or {@code null} if none has been published
+     */
+    public LiveStatistics getLatest() {
+        return latest;
+    }
+
+    /**
+     * Tells the engine whether a display is waiting for a snapshot.
+     *
+     * @return true if {@link #publish(double, List)} should be called
+     */
+    public boolean isRequested() {
+        return requested;
+    }
+
+    /**
+     * Records the waiting time of a customer leaving the system. Called from
+     * the engine thread.
+     *
+     * @param wait total waiting time of the customer
+     */
+    public void recordWait(double wait) {
+        waits.record(wait);
+        departures++;
+        totalWait += wait;
+    }
+
+    /**
+     * Forgets the recorded waiting times, e.g. at the end of a warm-up period.
+     */
+    public void resetWaits() {
+        waits.clear();
+        departures = 0;
+        totalWait = 0.0;
+    }
+
+    /**
+     * Publishes a snapshot and clears the request. Called from the engine
+     * thread.
+     *
+     * @param time     current simulation time
+     * @param stations state of each service point
+     */
+    public void publish(double time, List<LiveStatistics.Station> stations) {
+        requested = false;
+        latest = new LiveStatistics(++sequence, time, stations, departures,
+                departures == 0 ? 0.0 : totalWait / departures,
+                waits.quantile(0.50), waits.quantile(0.90), waits.quantile(0.99));
+    }
+}
@@ -0,0 +1,124 @@
+package simulation.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Warm-up detection with the MSER-5 rule (marginal standard error rule on
+ * batches of five observations).
+ * <p>
+ * Observations are averaged in batches of five. For every candidate
+ * truncation point {@code d} the rule computes the squared standard error
+ * of the remaining batch means, {@code sum (Z_i - mean_d)^2 / (k - d)^2}, and
+ * picks the {@code d} that minimizes it. The result is only trusted when
+ * the minimum lies in the first half of the series; otherwise the run is
+ * too short to have left its initial transient.
+ * </p>
+ * <p>
+ * Memory is bounded: when the batch capacity is reached, adjacent batches
+ * are merged and the batch size doubles, so very long series are judged on
+ * coarser batches.
+ * </p>
+ */
+public class Mser5 {
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private final int capacity;
+    private double[] batchMeans;
+    private int batches;
+    private int batchSize = 5;
+    private double currentSum;
+    private int currentCount;
+    private long observations;
+
+    public Mser5() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a detector.
+     *
+     * @param capacity maximum number of stored batch means, even and at least 4
+     */
+    public Mser5(int capacity) {
+        if (capacity < 4 || capacity % 2 != 0) {
+            throw new IllegalArgumentException("Capacity must be even and at least 4.");
+        }
+        this.capacity = capacity;
+        this.batchMeans = new double[Math.min(capacity, 256)];
+    }
+
+    /**
+     * Adds the next observation of the series.
+     *
+     * @param value the observation
+     */
+    public void add(double value) {
+        observations++;
+        currentSum += value;
+        if (++currentCount < batchSize) {
+            return;
+        }
+        if (batches == batchMeans.length) {
+            batchMeans = Arrays.copyOf(batchMeans, Math.min(capacity, batchMeans.length * 2));
+        }
+        batchMeans[batches++] = currentSum / currentCount;
+        currentSum = 0;
+        currentCount = 0;
+        if (batches == capacity) {
+            merge();
+        }
+    }
+
+    private void merge() {
+        for (int i = 0; i < batches / 2; i++) {
+            batchMeans[i] = (batchMeans[2 * i] + batchMeans[2 * i + 1]) / 2;
+        }
+        batches /= 2;
+        batchSize *= 2;
+    }
+
+    /**
+     * Returns the number of observations added so far.
+     *
+     * @return observation count
+     */
+    public long getObservations() {
+        return observations;
+    }
+
+    /**
+     * Returns the number of leading observations to discard.
+     *
+     * @return truncation point in observations, or -1 if the warm-up has
+     *         not ended yet or there are too few observations to tell
+     */
+    public long truncationPoint() {
+        if (batches < 4) {
+            return -1;
+        }
+        // suffix sums give every candidate's statistic in one pass
+        double sum = 0;
+        double sumSquares = 0;
+        double best = Double.POSITIVE_INFINITY;
+        int bestD = -1;
+        for (int d = batches - 1; d >= 0; d--) {
+            sum += batchMeans[d];
+            sumSquares += batchMeans[d] * batchMeans[d];
+            int remaining = batches - d;
+            if (remaining < 2 || d > batches / 2) {
+                continue;
+            }
+            double squaredError = (sumSquares - sum * sum / remaining) / ((double) remaining * remaining);
+            if (squaredError <= best) {
+                best = squaredError;
+                bestD = d;
+            }
+        }
+        // a minimum at the end of the admissible range means the transient may not be over
+        if (bestD >= batches / 2) {
+            return -1;
+        }
+        return (long) bestD * batchSize;
+    }
+}
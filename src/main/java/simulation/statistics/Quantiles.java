@@ -0,0 +1,140 @@
+package simulation.statistics;
+
+/**
+ * Quantile functions of the distributions used for confidence intervals.
+ */
+public final class Quantiles {
+
+    private Quantiles() {
+    }
+
+    /**
+     * Returns the {@code p}-quantile of the standard normal distribution
+     * (Acklam's rational approximation, relative error below 1.2e-9).
+     *
+     * @param p probability in {@code (0, 1)}
+     * @return the quantile
+     */
+    public static double normal(double p) {
+        if (!(p > 0 && p < 1)) {
+            throw new IllegalArgumentException("Probability must be in (0, 1).");
+        }
+        final double low = 0.02425;
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return tail(q);
+        }
+        if (p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -tail(q);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((-3.969683028665376e+01 * r + 2.209460984245205e+02) * r - 2.759285104469687e+02) * r
+                + 1.383577518672690e+02) * r - 3.066479806614716e+01) * r + 2.506628277459239e+00) * q
+                / (((((-5.447609879822406e+01 * r + 1.615858368580409e+02) * r - 1.556989798598866e+02) * r
+                + 6.680131188771972e+01) * r - 1.328068155288572e+01) * r + 1);
+    }
+
+    private static double tail(double q) {
+        return (((((-7.784894002430293e-03 * q - 3.223964580411365e-01) * q - 2.400758277161838e+00) * q
+                - 2.549732539343734e+00) * q + 4.374664141464968e+00) * q + 2.938163982698783e+00)
+                / ((((7.784695709041462e-03 * q + 3.224671290700398e-01) * q + 2.445134137142996e+00) * q
+                + 3.754408661907416e+00) * q + 1);
+    }
+
+    /**
+     * Returns the {@code p}-quantile of Student's t distribution. Hill's
+     * algorithm 396 gives a starting value that is refined with Newton steps
+     * on the exact distribution function.
+     *
+     * @param p       probability in {@code (0, 1)}
+     * @param degrees degrees of freedom, at least 1
+     * @return the quantile
+     */
+    public static double studentT(double p, int degrees) {
+        if (!(p > 0 && p < 1)) {
+            throw new IllegalArgumentException("Probability must be in (0, 1).");
+        }
+        if (degrees < 1) {
+            throw new IllegalArgumentException("Degrees of freedom must be at least 1.");
+        }
+        if (p == 0.5) {
+            return 0.0;
+        }
+        // Hill works with the two-tailed probability of exceeding |t|
+        double twoTailed = 2 * Math.min(p, 1 - p);
+        double t = upperTwoTailed(twoTailed, degrees);
+        double target = 1 - twoTailed / 2;
+        for (int i = 0; i < 3; i++) {
+            t -= (studentCdf(t, degrees) - target) / studentDensity(t, degrees);
+        }
+        return p > 0.5 ? t : -t;
+    }
+
+    // Distribution function for integer degrees of freedom (Abramowitz and Stegun 26.7.3/4)
+    private static double studentCdf(double t, int degrees) {
+        double theta = Math.atan(t / Math.sqrt(degrees));
+        double cos2 = Math.cos(theta) * Math.cos(theta);
+        double sum = 1;
+        double term = 1;
+        double within;
+        if (degrees % 2 == 1) {
+            for (int k = 3; k <= degrees - 2; k += 2) {
+                term *= cos2 * (k - 1) / k;
+                sum += term;
+            }
+            within = degrees == 1
+                    ? 2 * theta / Math.PI
+                    : 2 / Math.PI * (theta + Math.sin(theta) * Math.cos(theta) * sum);
+        } else {
+            for (int k = 2; k <= degrees - 2; k += 2) {
+                term *= cos2 * (k - 1) / k;
+                sum += term;
+            }
+            within = Math.sin(theta) * sum;
+        }
+        return 0.5 + within / 2;
+    }
+
+    private static double studentDensity(double t, int degrees) {
+        // gamma((n + 1) / 2) / gamma(n / 2) by recurrence over n
+        double ratio = degrees % 2 == 1 ? 1 / Math.sqrt(Math.PI) : Math.sqrt(Math.PI) / 2;
+        for (int n = degrees % 2 == 1 ? 1 : 2; n < degrees; n += 2) {
+            ratio *= (n + 1.0) / n;
+        }
+        return ratio / Math.sqrt(degrees * Math.PI) * Math.pow(1 + t * t / degrees, -(degrees + 1) / 2.0);
+    }
+
+    private static double upperTwoTailed(double pTwo, int degrees) {
+        double n = degrees;
+        if (degrees == 1) {
+            double angle = pTwo * Math.PI / 2;
+            return Math.cos(angle) / Math.sin(angle);
+        }
+        if (degrees == 2) {
+            return Math.sqrt(2 / (pTwo * (2 - pTwo)) - 2);
+        }
+        double a = 1 / (n - 0.5);
+        double b = 48 / (a * a);
+        double c = ((20700 * a / b - 98) * a - 16) * a + 96.36;
+        double d = ((94.5 / (b + c) - 3) / b + 1) * Math.sqrt(a * Math.PI / 2) * n;
+        double x = d * pTwo;
+        double y = Math.pow(x, 2 / n);
+        if (y > 0.05 + a) {
+            x = -normal(0.5 * pTwo);
+            y = x * x;
+            if (degrees < 5) {
+                c += 0.3 * (n - 4.5) * (x + 0.6);
+            }
+            c = (((0.05 * d * x - 5) * x - 7) * x - 2) * x + b + c;
+            y = (((((0.4 * y + 6.3) * y + 36) * y + 94.5) / c - y - 3) / b + 1) * x;
+            y = a * y * y;
+            y = y > 0.002 ? Math.exp(y) - 1 : 0.5 * y * y + y;
+        } else {
+            y = ((1 / (((n + 6) / (n * y) - 0.089 * d - 0.822) * (n + 2) * 3) + 0.5 / (n + 4)) * y - 1)
+                    * (n + 1) / (n + 2) + 1 / y;
+        }
+        return Math.sqrt(n * y);
+    }
+}
@@ -0,0 +1,86 @@
+package simulation.statistics;
+
+/**
+ * Streaming mean and variance of a series of observations (Welford's
+ * algorithm) with a Student-t confidence interval for the mean.
+ * <p>
+ * Memory use is constant regardless of the number of observations.
+ * </p>
+ */
+public class RunningStatistics {
+
+    private long count;
+    private double mean;
+    private double sumSquares;
+
+    /**
+     * Adds one observation.
+     *
+     * @param value the observation
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        sumSquares += delta * (value - mean);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Returns the sample variance.
+     *
+     * @return variance, or 0 for fewer than two observations
+     */
+    public double getVariance() {
+        return count < 2 ? 0.0 : sumSquares / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Returns the half-width of the confidence interval for the mean.
+     *
+     * @param confidence confidence level, e.g. 0.95
+     * @return half-width, or infinity for fewer than two observations
+     */
+    public double getHalfWidth(double confidence) {
+        if (count < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double t = Quantiles.studentT(0.5 + confidence / 2, (int) Math.min(count - 1, Integer.MAX_VALUE));
+        return t * Math.sqrt(getVariance() / count);
+    }
+
+    /**
+     * Returns the half-width relative to the magnitude of the mean.
+     *
+     * @param confidence confidence level, e.g. 0.95
+     * @return relative half-width; 0 if the interval is a single point and
+     *         infinity if the mean is zero but the interval is not
+     */
+    public double getRelativeHalfWidth(double confidence) {
+        double halfWidth = getHalfWidth(confidence);
+        if (halfWidth == 0) {
+            return 0.0;
+        }
+        return mean == 0 ? Double.POSITIVE_INFINITY : halfWidth / Math.abs(mean);
+    }
+
+    /**
+     * Discards all observations.
+     */
+    public void reset() {
+        count = 0;
+        mean = 0;
+        sumSquares = 0;
+    }
+}
@@ -14,8 +14,9 @@ public final class ServicePointStatistics {
     private final int arrivals;
     private final int completions;
     private final double totalServiceTime;
+    private final int servers;
     /**
-     * Constructs a snapshot of statistics for a service point.
+     * Constructs a snapshot of statistics for a single-server service point.
      *
      * @param servicePointName the name of the service point
      * @param arrivals         total number of customers that arrived
@@ -26,10 +27,27 @@ public final class ServicePointStatistics {
             int arrivals,
             int completions,
             double totalServiceTime) {
+        this(servicePointName, arrivals, completions, totalServiceTime, 1);
+    }
+    /**
+     * Constructs a snapshot of statistics for a service point.
+     *
+     * @param servicePointName the name of the service point
+     * @param arrivals         total number of customers that arrived
+     * @param completions      total number of customers that completed service
+     * @param totalServiceTime total cumulative service time for all completed customers
+     * @param servers          number of parallel servers at the service point
+     */
+    public ServicePointStatistics(String servicePointName,
+            int arrivals,
+            int completions,
+            double totalServiceTime,
+            int servers) {
         this.servicePointName = servicePointName;
         this.arrivals = arrivals;
         this.completions = completions;
         this.totalServiceTime = totalServiceTime;
+        this.servers = servers;
     }
     /**
      * Returns the name of the service point.
@@ -63,11 +81,19 @@ public final class ServicePointStatistics {
     public double getTotalServiceTime() {
         return totalServiceTime;
     }
+    /**
+     * Returns the number of parallel servers at this service point.
+     *
+     * @return number of servers
+     */
+    public int getServers() {
+        return servers;
+    }
     /**
      * Calculates the utilization of this service point.
      * <p>
-     * Utilization is defined as the proportion of simulation time spent serving customers.
-     * Returns 0.0 if the simulation time is non-positive.
+     * Utilization is defined as the proportion of simulation time spent serving customers,
+     * averaged over the servers. Returns 0.0 if the simulation time is non-positive.
      * </p>
      *
      * @param simulationTime total simulation time
@@ -77,7 +103,7 @@ public final class ServicePointStatistics {
         if (simulationTime <= 0) {
             return 0.0;
         }
-        return totalServiceTime / simulationTime;
+        return totalServiceTime / (simulationTime * servers);
     }
     /**
      * Calculates the throughput of this service point.
@@ -21,6 +21,9 @@ public final class SimulationStatistics {
     private final double totalServiceTime;
     private final double totalWaitTime;
     private final double totalResponseTime;
+    private final WaitingTimeHistogram waitingTimes;
+    private final int totalBalked;
+    private final int totalReneged;
 
     public SimulationStatistics(double simulationTime,
             List<ServicePointStatistics> servicePointStatistics,
@@ -29,6 +32,61 @@ public final class SimulationStatistics {
             double totalServiceTime,
             double totalWaitTime,
             double totalResponseTime) {
+        this(simulationTime, servicePointStatistics, totalArrivals, totalDepartures,
+                totalServiceTime, totalWaitTime, totalResponseTime, new WaitingTimeHistogram());
+    }
+
+    /**
+     * Creates a snapshot that also keeps a histogram of the waiting times of
+     * departed customers, so waiting-time percentiles can be reported.
+     *
+     * @param simulationTime         length of the observation period
+     * @param servicePointStatistics per service point statistics
+     * @param totalArrivals          customers that entered the system
+     * @param totalDepartures        customers that left the system
+     * @param totalServiceTime       total service time of departed customers
+     * @param totalWaitTime          total waiting time of departed customers
+     * @param totalResponseTime      total time in system of departed customers
+     * @param waitingTimes           histogram of the waiting times of departed customers; it is copied
+     */
+    public SimulationStatistics(double simulationTime,
+            List<ServicePointStatistics> servicePointStatistics,
+            int totalArrivals,
+            int totalDepartures,
+            double totalServiceTime,
+            double totalWaitTime,
+            double totalResponseTime,
+            WaitingTimeHistogram waitingTimes) {
+        this(simulationTime, servicePointStatistics, totalArrivals, totalDepartures,
+                totalServiceTime, totalWaitTime, totalResponseTime, waitingTimes, 0, 0);
+    }
+
+    /**
+     * Creates a snapshot that also counts the customers who abandoned the
+     * system.
+     *
+     * @param simulationTime         length of the observation period
+     * @param servicePointStatistics per service point statistics
+     * @param totalArrivals          customers that entered the system, including those who left early
+     * @param totalDepartures        customers that left the system after service
+     * @param totalServiceTime       total service time of departed customers
+     * @param totalWaitTime          total waiting time of departed customers
+     * @param totalResponseTime      total time in system of departed customers
+     * @param waitingTimes           histogram of the waiting times of departed customers; it is copied
+     * @param totalBalked            customers who left on arrival because the queue was too long
+     * @param totalReneged           customers who left the queue because they waited too long
+     */
+    public SimulationStatistics(double simulationTime,
+            List<ServicePointStatistics> servicePointStatistics,
+            int totalArrivals,
+            int totalDepartures,
+            double totalServiceTime,
+            double totalWaitTime,
+            double totalResponseTime,
+            WaitingTimeHistogram waitingTimes,
+            int totalBalked,
+            int totalReneged) {
+        this.waitingTimes = waitingTimes.copy();
         this.simulationTime = simulationTime;
         this.servicePointStatistics = List.copyOf(servicePointStatistics);
         this.totalArrivals = totalArrivals;
@@ -36,6 +94,8 @@ public final class SimulationStatistics {
         this.totalServiceTime = totalServiceTime;
         this.totalWaitTime = totalWaitTime;
         this.totalResponseTime = totalResponseTime;
+        this.totalBalked = totalBalked;
+        this.totalReneged = totalReneged;
     }
 
     public double getSimulationTime() {
@@ -54,6 +114,42 @@ public final class SimulationStatistics {
         return totalDepartures;
     }
 
+    public int getTotalBalked() {
+        return totalBalked;
+    }
+
+    public int getTotalReneged() {
+        return totalReneged;
+    }
+
+    /**
+     * Returns the fraction of arriving customers who balked.
+     *
+     * @return balked customers per arrival, or 0.0 without arrivals
+     */
+    public double getBalkingRate() {
+        return totalArrivals == 0 ? 0.0 : (double) totalBalked / totalArrivals;
+    }
+
+    /**
+     * Returns the fraction of arriving customers who reneged.
+     *
+     * @return reneged customers per arrival, or 0.0 without arrivals
+     */
+    public double getRenegingRate() {
+        return totalArrivals == 0 ? 0.0 : (double) totalReneged / totalArrivals;
+    }
+
+    /**
+     * Returns the fraction of arriving customers who left without being
+     * served, by balking or reneging.
+     *
+     * @return abandoning customers per arrival, or 0.0 without arrivals
+     */
+    public double getAbandonmentRate() {
+        return totalArrivals == 0 ? 0.0 : (double) (totalBalked + totalReneged) / totalArrivals;
+    }
+
     public double getTotalServiceTime() {
         return totalServiceTime;
     }
@@ -73,6 +169,21 @@ public final class SimulationStatistics {
         return totalWaitTime / totalDepartures;
     }
 
+    /**
+     * Returns a percentile of the waiting time of departed customers
+     * (nearest-rank method), estimated from a {@link WaitingTimeHistogram}
+     * with a relative error of about 1%.
+     *
+     * @param percentile percentile in {@code (0, 100]}, e.g. 90
+     * @return the waiting time, or 0.0 if no waiting times were recorded
+     */
+    public double getWaitingTimePercentile(double percentile) {
+        if (!(percentile > 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100].");
+        }
+        return waitingTimes.quantile(percentile / 100.0);
+    }
+
     public double getAverageResponseTime() {
         if (totalDepartures == 0) {
             return 0.0;
@@ -6,10 +6,14 @@ import simulation.model.Event;
 import simulation.model.ServicePoint;
 
 import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.List;
 import java.util.Set;
+import java.util.function.DoubleConsumer;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -33,9 +37,15 @@ public class StatisticsCollector implements SimulationListener {
 
     private int systemArrivals;
     private int systemDepartures;
+    private int systemBalked;
+    private int systemReneged;
     private double totalSystemServiceTime;
     private double totalSystemWaitTime;
     private double totalSystemResponseTime;
+    private double observationStart;
+    private final WaitingTimeHistogram waitingTimes = new WaitingTimeHistogram();
+    private DoubleConsumer waitObserver;
+    private LiveStatisticsPublisher livePublisher;
     /**
      * Registers a service point for statistics collection.
      *
@@ -43,7 +53,7 @@ public class StatisticsCollector implements SimulationListener {
      * @param terminal     whether this service point is a terminal/exit point for customers
      */
     public void registerServicePoint(ServicePoint servicePoint, boolean terminal) {
-        perServicePoint.computeIfAbsent(servicePoint, sp -> new MutableStats(servicePoint.getName()));
+        perServicePoint.computeIfAbsent(servicePoint, MutableStats::new);
         if (terminal) {
             terminalServicePoints.add(servicePoint);
         }
@@ -54,23 +64,116 @@ public class StatisticsCollector implements SimulationListener {
     public void reset() {
         systemArrivals = 0;
         systemDepartures = 0;
+        systemBalked = 0;
+        systemReneged = 0;
         totalSystemServiceTime = 0.0;
         totalSystemWaitTime = 0.0;
         totalSystemResponseTime = 0.0;
+        waitingTimes.clear();
         customerServiceTimes.clear();
         perServicePoint.values().forEach(MutableStats::reset);
+        observationStart = 0.0;
     }
     /**
-     * Called when a customer arrives at a service point.
+     * Discards everything collected so far, e.g. at the end of a warm-up
+     * period, while the run continues.
+     * <p>
+     * Unlike {@link #reset()}, customers still in the system keep the service
+     * time they have accumulated, and later snapshots cover only the time
+     * since {@code time}.
+     * </p>
+     *
+     * @param time current simulation time, the start of the new observation window
+     */
+    public void truncate(double time) {
+        systemArrivals = 0;
+        systemDepartures = 0;
+        systemBalked = 0;
+        systemReneged = 0;
+        totalSystemServiceTime = 0.0;
+        totalSystemWaitTime = 0.0;
+        totalSystemResponseTime = 0.0;
+        waitingTimes.clear();
+        perServicePoint.values().forEach(MutableStats::reset);
+        observationStart = time;
+        if (livePublisher != null) {
+            livePublisher.resetWaits();
+        }
+    }
+    /**
+     * Returns the start of the current observation window: 0, or the time
+     * of the last {@link #truncate(double)}.
+     *
+     * @return observation start time
+     */
+    public double getObservationStart() {
+        return observationStart;
+    }
+    /**
+     * Sets a callback that receives the total waiting time of every customer
+     * leaving the system, in departure order.
+     *
+     * @param observer the callback, or {@code null} to remove it
+     */
+    public void setWaitObserver(DoubleConsumer observer) {
+        this.waitObserver = observer;
+    }
+    /**
+     * Sets a publisher that receives live snapshots whenever a display asks
+     * for one. The check after each event is a single volatile read.
+     *
+     * @param publisher the publisher, or {@code null} to remove it
+     */
+    public void setLivePublisher(LiveStatisticsPublisher publisher) {
+        this.livePublisher = publisher;
+    }
+    /**
+     * Publishes a live snapshot if one has been requested.
+     *
+     * @param event the event being processed
+     */
+    @Override
+    public void onEvent(Event event) {
+        if (livePublisher != null && livePublisher.isRequested()) {
+            publishLive(event.getTime());
+        }
+    }
+
+    /**
+     * Publishes a live snapshot now, e.g. at the end of a run. Does nothing
+     * if no publisher is set.
+     *
+     * @param time current simulation time
+     */
+    public void publishLive(double time) {
+        if (livePublisher == null) {
+            return;
+        }
+        double elapsed = time - observationStart;
+        List<LiveStatistics.Station> stations = new ArrayList<>(perServicePoint.size());
+        for (Map.Entry<ServicePoint, MutableStats> entry : perServicePoint.entrySet()) {
+            ServicePoint point = entry.getKey();
+            MutableStats stats = entry.getValue();
+            double utilization = elapsed > 0 ? stats.totalServiceTime / (elapsed * stats.servers) : 0.0;
+            stations.add(new LiveStatistics.Station(stats.name,
+                    point.getQueueLength() + point.getBusyServers(), Math.min(1.0, utilization), stats.completions));
+        }
+        livePublisher.publish(elapsed, stations);
+    }
+    /**
+     * Called when a customer, or a group of customers, arrives at a service point.
      *
      * @param event the arrival event
      */
     @Override
     public void onArrival(Event event) {
-        perServicePoint.computeIfAbsent(event.getTarget(),
-                sp -> new MutableStats(sp.getName())).recordArrival();
-        customerServiceTimes.putIfAbsent(event.getCustomer(), 0.0);
-        systemArrivals++;
+        MutableStats stats = perServicePoint.computeIfAbsent(event.getTarget(),
+                MutableStats::new);
+        for (Customer customer : event.getCustomers()) {
+            stats.recordArrival();
+            customerServiceTimes.putIfAbsent(customer, 0.0);
+            systemArrivals++;
+        }
     }
     /**
      * Called when a customer is routed from one service point to another.
@@ -83,12 +186,15 @@ public class StatisticsCollector implements SimulationListener {
     public void onRouting(Customer customer, ServicePoint from, ServicePoint to) {
         if (to != null) {
             perServicePoint.computeIfAbsent(to,
-                    sp -> new MutableStats(sp.getName())).recordArrival();
+                    MutableStats::new).recordArrival();
         }
     }
     /**
-     * Called when a customer departs from a service point.
-     * Updates both per-service-point and system-wide statistics.
+     * Called when a customer, or a batch of customers served together,
+     * departs from a service point.
+     * Updates both per-service-point and system-wide statistics. A batch
+     * counts one completion per customer but occupies the server only once,
+     * so it adds its service time to the service point's busy time once.
      *
      * @param event       the departure event
      * @param waitTime    time spent waiting before service
@@ -98,32 +204,73 @@ public class StatisticsCollector implements SimulationListener {
     public void onDeparture(Event event, double waitTime, double serviceTime) {
         ServicePoint target = event.getTarget();
         MutableStats stats = perServicePoint.computeIfAbsent(target,
-                sp -> new MutableStats(sp.getName()));
-        stats.recordDeparture(serviceTime);
+                MutableStats::new);
+        stats.recordDeparture(serviceTime, event.getCount());
+        boolean terminal = terminalServicePoints.contains(target);
 
-        customerServiceTimes.merge(event.getCustomer(), serviceTime, Double::sum);
+        for (Customer customer : event.getCustomers()) {
+            customerServiceTimes.merge(customer, serviceTime, Double::sum);
+            if (terminal) {
+                recordExit(customer, serviceTime);
+            }
+        }
+    }
 
-        if (terminalServicePoints.contains(target)) {
-            double totalService = customerServiceTimes.getOrDefault(event.getCustomer(), serviceTime);
-            double response = event.getCustomer().getResponseTime();
-            double wait = Math.max(0.0, response - totalService);
+    private void recordExit(Customer customer, double serviceTime) {
+        double totalService = customerServiceTimes.getOrDefault(customer, serviceTime);
+        double response = customer.getResponseTime();
+        double wait = Math.max(0.0, response - totalService);
 
-            totalSystemServiceTime += totalService;
-            totalSystemResponseTime += response;
-            totalSystemWaitTime += wait;
-            systemDepartures++;
-            customerServiceTimes.remove(event.getCustomer());
+        totalSystemServiceTime += totalService;
+        totalSystemResponseTime += response;
+        totalSystemWaitTime += wait;
+        waitingTimes.record(wait);
+        systemDepartures++;
+        customerServiceTimes.remove(customer);
+        if (waitObserver != null) {
+            waitObserver.accept(wait);
+        }
+        if (livePublisher != null) {
+            livePublisher.recordWait(wait);
         }
     }
+    /**
+     * Called when an arriving customer balks; they count as an arrival but
+     * never as a departure.
+     *
+     * @param customer     the customer
+     * @param servicePoint the service point they would have queued at
+     */
+    @Override
+    public void onBalk(Customer customer, ServicePoint servicePoint) {
+        systemBalked++;
+        customerServiceTimes.remove(customer);
+    }
+    /**
+     * Called when a waiting customer reneges; the service they already had
+     * is kept in the per-service-point statistics.
+     *
+     * @param customer     the customer
+     * @param servicePoint the service point they were queued at
+     */
+    @Override
+    public void onRenege(Customer customer, ServicePoint servicePoint) {
+        systemReneged++;
+        customerServiceTimes.remove(customer);
+    }
     /**
      * Returns an immutable snapshot of the current simulation statistics.
+     * <p>
+     * After {@link #truncate(double)} the snapshot covers only the time since
+     * the truncation.
+     * </p>
      *
      * @param simulationTime the total simulation time
      * @return a {@link SimulationStatistics} object containing the current metrics
      */
     public SimulationStatistics snapshot(double simulationTime) {
         return new SimulationStatistics(
-                simulationTime,
+                simulationTime - observationStart,
                 perServicePoint.values()
                         .stream()
                         .map(MutableStats::toImmutable)
@@ -132,25 +279,118 @@ public class StatisticsCollector implements SimulationListener {
                 systemDepartures,
                 totalSystemServiceTime,
                 totalSystemWaitTime,
-                totalSystemResponseTime);
+                totalSystemResponseTime,
+                waitingTimes.copy(),
+                systemBalked,
+                systemReneged);
+    }
+
+    /**
+     * Copies all accumulators into a compact primitive form.
+     *
+     * @param customerIndex maps a customer still in the system to its index in the saved state
+     * @return the captured state
+     */
+    public State captureState(ToIntFunction<Customer> customerIndex) {
+        int points = perServicePoint.size();
+        int[] arrivals = new int[points];
+        int[] completions = new int[points];
+        double[] serviceTimes = new double[points];
+        int i = 0;
+        for (MutableStats stats : perServicePoint.values()) {
+            arrivals[i] = stats.arrivals;
+            completions[i] = stats.completions;
+            serviceTimes[i] = stats.totalServiceTime;
+            i++;
+        }
+        int[] inFlight = new int[customerServiceTimes.size()];
+        double[] inFlightService = new double[inFlight.length];
+        i = 0;
+        for (Map.Entry<Customer, Double> entry : customerServiceTimes.entrySet()) {
+            inFlight[i] = customerIndex.applyAsInt(entry.getKey());
+            inFlightService[i] = entry.getValue();
+            i++;
+        }
+        return new State(systemArrivals, systemDepartures, systemBalked, systemReneged, totalSystemServiceTime,
+                totalSystemWaitTime, totalSystemResponseTime, observationStart, waitingTimes.getState(),
+                arrivals, completions, serviceTimes, inFlight, inFlightService);
+    }
+    /**
+     * Restores accumulators captured by {@link #captureState(ToIntFunction)}.
+     * The same service points must be registered in the same order.
+     *
+     * @param state     the captured state
+     * @param customers restored customers, by their index in the saved state
+     */
+    public void restoreState(State state, List<Customer> customers) {
+        if (state.servicePointArrivals().length != perServicePoint.size()) {
+            throw new IllegalArgumentException("Saved statistics cover a different set of service points.");
+        }
+        systemArrivals = state.systemArrivals();
+        systemDepartures = state.systemDepartures();
+        systemBalked = state.systemBalked();
+        systemReneged = state.systemReneged();
+        totalSystemServiceTime = state.totalServiceTime();
+        totalSystemWaitTime = state.totalWaitTime();
+        totalSystemResponseTime = state.totalResponseTime();
+        observationStart = state.observationStart();
+        waitingTimes.setState(state.waitingTimeHistogram());
+        int i = 0;
+        for (MutableStats stats : perServicePoint.values()) {
+            stats.arrivals = state.servicePointArrivals()[i];
+            stats.completions = state.servicePointCompletions()[i];
+            stats.totalServiceTime = state.servicePointServiceTimes()[i];
+            i++;
+        }
+        customerServiceTimes.clear();
+        for (int c = 0; c < state.inFlightCustomers().length; c++) {
+            customerServiceTimes.put(customers.get(state.inFlightCustomers()[c]), state.inFlightServiceTimes()[c]);
+        }
+    }
+
+    /**
+     * Primitive copy of all accumulators, used to save and restore a run.
+     *
+     * @param systemArrivals           customers that entered the system
+     * @param systemDepartures         customers that left the system
+     * @param systemBalked             customers that balked on arrival
+     * @param systemReneged            customers that reneged while waiting
+     * @param totalServiceTime         total service time of departed customers
+     * @param totalWaitTime            total waiting time of departed customers
+     * @param totalResponseTime        total time in system of departed customers
+     * @param observationStart         start of the observation window
+     * @param waitingTimeHistogram     state of the waiting-time histogram of departed customers
+     * @param servicePointArrivals     arrivals per service point, in registration order
+     * @param servicePointCompletions  completions per service point
+     * @param servicePointServiceTimes total service time per service point
+     * @param inFlightCustomers        indices of customers still in the system
+     * @param inFlightServiceTimes     service time accumulated by each of them
+     */
+    public record State(int systemArrivals, int systemDepartures, int systemBalked, int systemReneged,
+            double totalServiceTime, double totalWaitTime, double totalResponseTime, double observationStart,
+            double[] waitingTimeHistogram,
+            int[] servicePointArrivals, int[] servicePointCompletions, double[] servicePointServiceTimes,
+            int[] inFlightCustomers, double[] inFlightServiceTimes) {
     }
 
     private static final class MutableStats {
         private final String name;
+        private final int servers;
         private int arrivals;
         private int completions;
         private double totalServiceTime;
 
-        private MutableStats(String name) {
-            this.name = name;
+        private MutableStats(ServicePoint servicePoint) {
+            this.name = servicePoint.getName();
+            this.servers = servicePoint.getServers();
         }
 
         private void recordArrival() {
             arrivals++;
         }
 
-        private void recordDeparture(double serviceTime) {
-            completions++;
+        private void recordDeparture(double serviceTime, int customers) {
+            completions += customers;
             totalServiceTime += serviceTime;
         }
 
@@ -161,7 +401,7 @@ public class StatisticsCollector implements SimulationListener {
         }
 
         private ServicePointStatistics toImmutable() {
-            return new ServicePointStatistics(name, arrivals, completions, totalServiceTime);
+            return new ServicePointStatistics(name, arrivals, completions, totalServiceTime, servers);
         }
     }
 }
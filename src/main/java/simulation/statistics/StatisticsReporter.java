@@ -18,6 +18,10 @@ public final class StatisticsReporter {
         printLine("Average response R = W / C", statistics.getAverageResponseTime());
         printLine("Average waiting W / C", statistics.getAverageWaitingTime());
         printLine("Average number N = W / T", statistics.getAverageNumberInSystem());
+        if (statistics.getTotalBalked() + statistics.getTotalReneged() > 0) {
+            printLine("Balking rate", statistics.getBalkingRate());
+            printLine("Reneging rate", statistics.getRenegingRate());
+        }
 
         System.out.println("\n=== Service point metrics ===");
         System.out.printf("%-20s %10s %10s %12s %12s %12s%n",
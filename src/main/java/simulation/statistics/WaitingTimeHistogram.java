@@ -0,0 +1,147 @@
+package simulation.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Log-scaled histogram of waiting times for estimating percentiles in
+ * bounded memory.
+ * <p>
+ * Waits are counted in bins of 32 per doubling from 0.001 up, so the
+ * histogram never holds more than about 1300 counts however many customers
+ * have been served, and a percentile costs the same at any point of a run.
+ * A percentile is reported as the geometric middle of its bin, clamped to
+ * the smallest and largest wait seen, which keeps the relative error at
+ * about 1%.
+ * </p>
+ */
+public final class WaitingTimeHistogram {
+
+    private static final double SMALLEST_WAIT = 1e-3;
+    private static final int BINS_PER_DOUBLING = 32;
+    private static final int BINS = 1 + 40 * BINS_PER_DOUBLING;
+
+    // grows up to BINS as longer waits are seen
+    private long[] bins = new long[64];
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Counts one waiting time.
+     *
+     * @param wait waiting time of a customer
+     */
+    public void record(double wait) {
+        int bin = bin(wait);
+        if (bin >= bins.length) {
+            bins = Arrays.copyOf(bins, Math.min(BINS, Math.max(bin + 1, 2 * bins.length)));
+        }
+        bins[bin]++;
+        count++;
+        min = Math.min(min, wait);
+        max = Math.max(max, wait);
+    }
+
+    /**
+     * Forgets all counted waiting times.
+     */
+    public void clear() {
+        Arrays.fill(bins, 0);
+        count = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Estimates a quantile of the counted waiting times (nearest rank).
+     *
+     * @param p quantile in {@code (0, 1]}, e.g. 0.9
+     * @return the estimate, or 0.0 if nothing was counted
+     */
+    public double quantile(double p) {
+        if (count == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p * count));
+        if (rank == 1) {
+            return min;
+        }
+        if (rank >= count) {
+            return max;
+        }
+        long seen = 0;
+        for (int bin = 0; bin < bins.length; bin++) {
+            seen += bins[bin];
+            if (seen >= rank) {
+                double middle = bin == 0 ? 0.0 : SMALLEST_WAIT * Math.pow(2, (bin - 0.5) / BINS_PER_DOUBLING);
+                return Math.min(max, Math.max(min, middle));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns an independent copy of this histogram.
+     *
+     * @return the copy
+     */
+    public WaitingTimeHistogram copy() {
+        WaitingTimeHistogram copy = new WaitingTimeHistogram();
+        copy.bins = bins.clone();
+        copy.count = count;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    /**
+     * Returns the smallest and largest wait followed by the bin counts up to
+     * the last non-empty bin, so the state can be saved.
+     *
+     * @return the state
+     */
+    public double[] getState() {
+        int used = bins.length;
+        while (used > 0 && bins[used - 1] == 0) {
+            used--;
+        }
+        double[] state = new double[2 + used];
+        state[0] = min;
+        state[1] = max;
+        for (int bin = 0; bin < used; bin++) {
+            state[2 + bin] = bins[bin];
+        }
+        return state;
+    }
+
+    /**
+     * Restores a state returned by {@link #getState()}.
+     *
+     * @param state the saved state
+     */
+    public void setState(double[] state) {
+        if (state.length < 2 || state.length > 2 + BINS) {
+            throw new IllegalArgumentException("Waiting time histogram state has the wrong size.");
+        }
+        bins = new long[Math.max(64, state.length - 2)];
+        count = 0;
+        for (int bin = 0; bin < state.length - 2; bin++) {
+            bins[bin] = (long) state[2 + bin];
+            count += bins[bin];
+        }
+        min = state[0];
+        max = state[1];
+    }
+
+    private static int bin(double wait) {
+        if (!(wait > SMALLEST_WAIT)) {
+            return 0;
+        }
+        int bin = 1 + (int) (Math.log(wait / SMALLEST_WAIT) / Math.log(2) * BINS_PER_DOUBLING);
+        return Math.min(bin, BINS - 1);
+    }
+}
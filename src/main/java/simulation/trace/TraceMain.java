@@ -0,0 +1,183 @@
+package simulation.trace;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+/**
+ * Command-line tool for inspecting trace files written by {@link TraceRecorder}.
+ * <p>
+ * Usage: {@code TraceMain <command> <trace file> [option=value ...]}
+ * <ul>
+ *     <li>{@code filter}: prints the matching records as text</li>
+ *     <li>{@code replay}: prints, after every matching record, the number of
+ *     customers queued and in service at each station</li>
+ *     <li>{@code gantt}: prints one row per customer visit, with the times it
+ *     joined the queue, started and ended service, ready for a Gantt chart</li>
+ * </ul>
+ * Options: {@code customer=<id>}, {@code station=<name>}, {@code from=<time>},
+ * {@code to=<time>} and {@code out=<file>} to write to a file instead of the
+ * console. The trace is streamed, so even very large traces need little memory;
+ * {@code gantt} only keeps the customers currently in the system.
+ * </p>
+ */
+public class TraceMain {
+
+    /**
+     * Main method of the tool.
+     *
+     * @param args command, trace file and options
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: TraceMain filter|replay|gantt <trace file> "
+                    + "[customer=<id>] [station=<name>] [from=<time>] [to=<time>] [out=<file>]");
+            return;
+        }
+        try {
+            Map<String, String> options = parseOptions(args);
+            String out = options.get("out");
+            try (TraceReader reader = new TraceReader(Path.of(args[1]))) {
+                if (out == null) {
+                    run(args[0], reader, options,
+                            new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+                } else {
+                    try (PrintWriter output = new PrintWriter(
+                            Files.newBufferedWriter(Path.of(out), StandardCharsets.UTF_8))) {
+                        run(args[0], reader, options, output);
+                    }
+                    System.out.println("Trace output written to " + Path.of(out).toAbsolutePath());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Trace failed: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Runs one command of the tool.
+     *
+     * @param command {@code filter}, {@code replay} or {@code gantt}
+     * @param reader  the trace
+     * @param options filter options
+     * @param output  destination of the text
+     * @throws IOException              if reading the trace fails
+     * @throws IllegalArgumentException if the command or an option is invalid
+     */
+    public static void run(String command, TraceReader reader, Map<String, String> options, PrintWriter output)
+            throws IOException {
+        Filter filter = new Filter(reader, options);
+        switch (command) {
+            case "filter" -> reader.forEach(record -> {
+                if (filter.test(record)) {
+                    output.println(String.format(Locale.US, "%.4f %-13s customer %d (%s) at %s", record.time(),
+                            record.type(), record.customerId(), reader.className(record.classId()),
+                            reader.stationName(record.stationId())));
+                }
+            });
+            case "replay" -> replay(reader, filter, output);
+            case "gantt" -> gantt(reader, filter, output);
+            default -> throw new IllegalArgumentException("Unknown trace command '" + command + "'");
+        }
+        output.flush();
+    }
+
+    private static void replay(TraceReader reader, Filter filter, PrintWriter output) throws IOException {
+        // the state is rebuilt from the start; only the printed records are filtered
+        int[] queued = new int[256];
+        int[] busy = new int[256];
+        int[] stations = {0};
+        reader.forEach(record -> {
+            int station = record.stationId();
+            stations[0] = Math.max(stations[0], station + 1);
+            switch (record.type()) {
+                case ARRIVAL, ROUTE -> queued[station]++;
+                case SERVICE_START -> {
+                    queued[station]--;
+                    busy[station]++;
+                }
+                case SERVICE_END -> busy[station]--;
+                case ABANDON -> queued[station]--;
+            }
+            if (filter.test(record)) {
+                StringBuilder line = new StringBuilder(String.format(Locale.US, "%.4f", record.time()));
+                for (int s = 0; s < stations[0]; s++) {
+                    line.append(String.format(Locale.US, "  %s %d/%d", reader.stationName(s), queued[s], busy[s]));
+                }
+                output.println(line);
+            }
+        });
+    }
+
+    private static void gantt(TraceReader reader, Filter filter, PrintWriter output) throws IOException {
+        output.println("Customer;Class;Station;QueueStart;ServiceStart;ServiceEnd");
+        // customer id -> {station, queue start, service start}
+        Map<Integer, double[]> open = new HashMap<>();
+        reader.forEach(record -> {
+            switch (record.type()) {
+                case ARRIVAL, ROUTE -> open.put(record.customerId(),
+                        new double[] {record.stationId(), record.time(), Double.NaN});
+                case SERVICE_START -> {
+                    double[] visit = open.get(record.customerId());
+                    if (visit != null) {
+                        visit[2] = record.time();
+                    }
+                }
+                case ABANDON -> open.remove(record.customerId());
+                case SERVICE_END -> {
+                    double[] visit = open.remove(record.customerId());
+                    if (visit != null && filter.test(record)) {
+                        output.println(String.format(Locale.US, "%d;%s;%s;%.4f;%.4f;%.4f", record.customerId(),
+                                reader.className(record.classId()), reader.stationName(record.stationId()),
+                                visit[1], visit[2], record.time()));
+                    }
+                }
+            }
+        });
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 2; i < args.length; i++) {
+            int separator = args[i].indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Options must look like name=value: " + args[i]);
+            }
+            options.put(args[i].substring(0, separator), args[i].substring(separator + 1));
+        }
+        return options;
+    }
+
+    // Record filter built from the customer, station, from and to options
+    private static final class Filter {
+        private final int customer;
+        private final int station;
+        private final double from;
+        private final double to;
+
+        Filter(TraceReader reader, Map<String, String> options) {
+            this.customer = options.containsKey("customer") ? Integer.parseInt(options.get("customer")) : -1;
+            String name = options.get("station");
+            this.station = name == null ? -1 : reader.getStationNames().indexOf(name);
+            if (name != null && station < 0) {
+                throw new IllegalArgumentException("Trace has no station '" + name + "'");
+            }
+            this.from = Double.parseDouble(options.getOrDefault("from", "-Infinity"));
+            this.to = Double.parseDouble(options.getOrDefault("to", "Infinity"));
+        }
+
+        boolean test(TraceRecord record) {
+            return (customer < 0 || record.customerId() == customer)
+                    && (station < 0 || record.stationId() == station)
+                    && record.time() >= from && record.time() <= to;
+        }
+    }
+}
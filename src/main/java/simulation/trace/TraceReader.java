@@ -0,0 +1,154 @@
+package simulation.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams the records of a trace written by {@link TraceRecorder}.
+ * <p>
+ * The records are memory-mapped a window at a time and decoded one by one,
+ * so traces far larger than the heap can be scanned. The reader holds only
+ * the class and station name tables.
+ * </p>
+ */
+public class TraceReader implements AutoCloseable {
+
+    private static final long WINDOW = 16L << 20;
+
+    private final FileChannel channel;
+    private final long recordsEnd;
+    private final List<String> classNames;
+    private final List<String> stationNames;
+
+    /**
+     * Opens a trace.
+     *
+     * @param path trace file
+     * @throws IOException if the file cannot be read or is not a trace
+     */
+    public TraceReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(TraceRecorder.HEADER_SIZE);
+            channel.read(header, 0);
+            if (size < TraceRecorder.HEADER_SIZE || header.getInt(0) != TraceRecorder.MAGIC
+                    || header.getInt(8) != TraceRecorder.RECORD_SIZE) {
+                throw new IOException("Not a trace file: " + path);
+            }
+            if (header.getInt(4) != TraceRecorder.VERSION) {
+                throw new IOException("Unsupported trace version " + header.getInt(4) + ".");
+            }
+            List<String> classes = new ArrayList<>();
+            List<String> stations = new ArrayList<>();
+            this.recordsEnd = readFooter(size, classes, stations);
+            this.classNames = List.copyOf(classes);
+            this.stationNames = List.copyOf(stations);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Returns where the records end; without a complete footer, after the last whole record
+    private long readFooter(long size, List<String> classes, List<String> stations) throws IOException {
+        long wholeRecords = TraceRecorder.HEADER_SIZE
+                + (size - TraceRecorder.HEADER_SIZE) / TraceRecorder.RECORD_SIZE * TraceRecorder.RECORD_SIZE;
+        if (size < TraceRecorder.HEADER_SIZE + Long.BYTES + Integer.BYTES) {
+            return wholeRecords;
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        channel.read(trailer, size - trailer.capacity());
+        long footer = trailer.getLong(0);
+        if (trailer.getInt(Long.BYTES) != TraceRecorder.MAGIC || footer < TraceRecorder.HEADER_SIZE
+                || footer > size - trailer.capacity()
+                || (footer - TraceRecorder.HEADER_SIZE) % TraceRecorder.RECORD_SIZE != 0) {
+            return wholeRecords;
+        }
+        ByteBuffer names = ByteBuffer.allocate((int) (size - trailer.capacity() - footer));
+        channel.read(names, footer);
+        names.flip();
+        readNames(names, classes);
+        readNames(names, stations);
+        return footer;
+    }
+
+    private static void readNames(ByteBuffer buffer, List<String> names) {
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(bytes);
+            names.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    public long getRecordCount() {
+        return (recordsEnd - TraceRecorder.HEADER_SIZE) / TraceRecorder.RECORD_SIZE;
+    }
+
+    public List<String> getClassNames() {
+        return classNames;
+    }
+
+    public List<String> getStationNames() {
+        return stationNames;
+    }
+
+    /**
+     * Returns the name of a customer class, or {@code #id} if the trace has
+     * no name table.
+     *
+     * @param classId class id of a record
+     * @return the name
+     */
+    public String className(int classId) {
+        return classId < classNames.size() ? classNames.get(classId) : "#" + classId;
+    }
+
+    /**
+     * Returns the name of a station, or {@code #id} if the trace has no name
+     * table.
+     *
+     * @param stationId station id of a record
+     * @return the name
+     */
+    public String stationName(int stationId) {
+        return stationId < stationNames.size() ? stationNames.get(stationId) : "#" + stationId;
+    }
+
+    /**
+     * Passes every record, in recording order, to {@code action}.
+     *
+     * @param action receives each record
+     * @throws IOException if reading fails
+     */
+    public void forEach(Consumer<TraceRecord> action) throws IOException {
+        TraceRecord.Type[] types = TraceRecord.Type.values();
+        long window = WINDOW / TraceRecorder.RECORD_SIZE * TraceRecorder.RECORD_SIZE;
+        for (long start = TraceRecorder.HEADER_SIZE; start < recordsEnd; start += window) {
+            MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(window, recordsEnd - start));
+            while (records.hasRemaining()) {
+                double time = records.getDouble();
+                int customerId = records.getInt();
+                int classId = Short.toUnsignedInt(records.getShort());
+                int stationId = Byte.toUnsignedInt(records.get());
+                TraceRecord.Type type = types[records.get()];
+                action.accept(new TraceRecord(time, customerId, classId, stationId, type));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,29 @@
+package simulation.trace;
+
+/**
+ * One step of a customer's journey, as stored in a trace file.
+ *
+ * @param time       simulation time of the step
+ * @param customerId customer id
+ * @param classId    index of the customer type in the trace's class names
+ * @param stationId  index of the service point in the trace's station names
+ * @param type       what happened
+ */
+public record TraceRecord(double time, int customerId, int classId, int stationId, Type type) {
+
+    /**
+     * Kinds of trace records.
+     */
+    public enum Type {
+        /** The customer entered the system and joined the station's queue. */
+        ARRIVAL,
+        /** The customer was routed to the station and joined its queue. */
+        ROUTE,
+        /** Service of the customer started at the station. */
+        SERVICE_START,
+        /** Service of the customer ended at the station. */
+        SERVICE_END,
+        /** The customer left the station's queue without being served. */
+        ABANDON
+    }
+}
@@ -0,0 +1,271 @@
+package simulation.trace;
+
+import simulation.logic.SimulationListener;
+import simulation.model.Customer;
+import simulation.model.Event;
+import simulation.model.ServicePoint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Listener that records every step of every customer's journey to a binary
+ * trace file.
+ * <p>
+ * Each step is one fixed-width record of {@value #RECORD_SIZE} bytes: time,
+ * customer id, class id, station id and record type. Records are put into
+ * large off-heap blocks; a full block is handed to a background thread that
+ * writes it to disk while the simulation fills the next one. With all blocks
+ * in flight the simulation waits, so memory use stays bounded however long
+ * the run is.
+ * </p>
+ * <p>
+ * The class and station names are written after the records when the
+ * recorder is closed. A trace cut short by a crash still holds every
+ * complete block; {@link TraceReader} then shows numeric ids instead of
+ * names.
+ * </p>
+ */
+public class TraceRecorder implements SimulationListener, AutoCloseable {
+
+    static final int MAGIC = 0x43535452; // "CSTR"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 16;
+
+    private static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+    private static final int BLOCKS = 4;
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final FileChannel channel;
+    private final BlockingQueue<ByteBuffer> free;
+    private final BlockingQueue<ByteBuffer> full;
+    private final Thread writer;
+    private final Map<String, Integer> classes = new HashMap<>();
+    private final List<String> classNames = new ArrayList<>();
+    private final Map<ServicePoint, Integer> stations = new IdentityHashMap<>();
+    private final List<String> stationNames = new ArrayList<>();
+    private ByteBuffer block;
+    private double time;
+    private long records;
+    private volatile IOException failure;
+    private boolean closed;
+
+    /**
+     * Creates a recorder with 1 MB blocks.
+     *
+     * @param path trace file; replaced if it exists
+     * @throws IOException if the file cannot be created
+     */
+    public TraceRecorder(Path path) throws IOException {
+        this(path, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a recorder.
+     *
+     * @param path      trace file; replaced if it exists
+     * @param blockSize bytes per block, rounded down to whole records
+     * @throws IOException if the file cannot be created
+     */
+    public TraceRecorder(Path path, int blockSize) throws IOException {
+        if (blockSize < RECORD_SIZE) {
+            throw new IllegalArgumentException("A block must hold at least one record.");
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).clear());
+
+        int size = blockSize / RECORD_SIZE * RECORD_SIZE;
+        this.free = new ArrayBlockingQueue<>(BLOCKS);
+        this.full = new ArrayBlockingQueue<>(BLOCKS + 1);
+        for (int i = 1; i < BLOCKS; i++) {
+            free.add(ByteBuffer.allocateDirect(size));
+        }
+        this.block = ByteBuffer.allocateDirect(size);
+        this.writer = new Thread(this::writeBlocks, "trace-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Returns the number of records written so far.
+     *
+     * @return record count
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        time = event.getTime();
+    }
+
+    @Override
+    public void onArrival(Event event) {
+        for (Customer customer : event.getCustomers()) {
+            record(customer, event.getTarget(), TraceRecord.Type.ARRIVAL);
+        }
+    }
+
+    @Override
+    public void onServiceStart(Customer customer, ServicePoint servicePoint) {
+        // a batch may start when no customer event happens, e.g. at a forming timeout
+        record(customer.getServiceStartTime(), customer, servicePoint, TraceRecord.Type.SERVICE_START);
+    }
+
+    @Override
+    public void onDeparture(Event event, double waitTime, double serviceTime) {
+        for (Customer customer : event.getCustomers()) {
+            record(customer, event.getTarget(), TraceRecord.Type.SERVICE_END);
+        }
+    }
+
+    @Override
+    public void onRouting(Customer customer, ServicePoint from, ServicePoint to) {
+        if (to != null) {
+            record(customer, to, TraceRecord.Type.ROUTE);
+        }
+    }
+
+    @Override
+    public void onBalk(Customer customer, ServicePoint servicePoint) {
+        record(customer, servicePoint, TraceRecord.Type.ABANDON);
+    }
+
+    @Override
+    public void onRenege(Customer customer, ServicePoint servicePoint) {
+        record(customer, servicePoint, TraceRecord.Type.ABANDON);
+    }
+
+    private void record(Customer customer, ServicePoint station, TraceRecord.Type type) {
+        record(time, customer, station, type);
+    }
+
+    private void record(double recordTime, Customer customer, ServicePoint station, TraceRecord.Type type) {
+        if (closed) {
+            throw new IllegalStateException("Trace recorder is closed.");
+        }
+        int classId = classes.computeIfAbsent(customer.getType(), name -> {
+            classNames.add(name);
+            return classNames.size() - 1;
+        });
+        int stationId = stations.computeIfAbsent(station, point -> {
+            stationNames.add(point.getName());
+            return stationNames.size() - 1;
+        });
+        block.putDouble(recordTime)
+                .putInt(customer.getId())
+                .putShort((short) classId)
+                .put((byte) stationId)
+                .put((byte) type.ordinal());
+        records++;
+        if (!block.hasRemaining()) {
+            handOver();
+        }
+    }
+
+    // Passes the current block to the writer and continues in a free one
+    private void handOver() {
+        checkFailure();
+        try {
+            full.put(block.flip());
+            block = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing over a trace block", e);
+        }
+    }
+
+    private void writeBlocks() {
+        try {
+            while (true) {
+                ByteBuffer next = full.take();
+                if (next == END) {
+                    return;
+                }
+                try {
+                    while (next.hasRemaining()) {
+                        channel.write(next);
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                }
+                free.put(next.clear());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException("Writing the trace failed", failure);
+        }
+    }
+
+    /**
+     * Writes the remaining records and the name tables, and closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (block.position() > 0) {
+                full.put(block.flip());
+            }
+            full.put(END);
+            writer.join();
+            if (failure != null) {
+                throw failure;
+            }
+            long footer = channel.position();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(bytes);
+            writeNames(data, classNames);
+            writeNames(data, stationNames);
+            data.writeLong(footer);
+            data.writeInt(MAGIC);
+            ByteBuffer names = ByteBuffer.wrap(bytes.toByteArray());
+            while (names.hasRemaining()) {
+                channel.write(names);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the trace", e);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static void writeNames(DataOutputStream data, List<String> names) throws IOException {
+        data.writeInt(names.size());
+        for (String name : names) {
+            data.writeUTF(name);
+        }
+    }
+}
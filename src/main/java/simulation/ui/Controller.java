@@ -1,25 +1,37 @@
 package simulation.ui;
 
 import javafx.application.Platform;
-import simu.framework.Clock;
 import simu.framework.IEngine;
 import simulation.model.Customer;
 import simu.model.MyEngine;
+import simulation.statistics.SimulationStatistics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 /**
  * Controller class for the simulation UI, implementing communication
  * between the view (UI) and the model (simulation engine).
  * <p>
- * Acts as both a view-to-model (VtoM) and model-to-view (MtoV) controller.
- * Responsible for starting, pausing, resuming, stepping the simulation,
- * visualizing customers, and summarizing simulation results.
+ * Acts as the view-to-model (VtoM) controller. Responsible for starting,
+ * pausing, resuming, stepping the simulation, visualizing customers, and
+ * summarizing simulation results.
+ * </p>
+ * <p>
+ * Every start begins a new run next to the ones already going. Each run has
+ * its own engine, model-to-view (MtoV) controller and update buffer, and is
+ * shown in its own display; the speed, pause and step controls act on the
+ * selected run.
  * </p>
  */
-public class Controller implements IControllerVtoM, IControllerMtoV {
-    private IEngine engine;
+public class Controller implements IControllerVtoM {
     private final ISimulatorUI ui;
-    private int totalCustomersServed;
-    private double cumulativeWaitingTime;
+    private final Executor uiThread;
+    // runs that have not finished yet, by run number
+    private final Map<Integer, Run> runs = new ConcurrentHashMap<>();
+    private int startedRuns;
+    private volatile int selectedRun;
 
     /**
      * Constructs a Controller for a given simulation UI.
@@ -27,30 +39,47 @@ public class Controller implements IControllerVtoM, IControllerMtoV {
      * @param ui the UI interface to be controlled
      */
     public Controller(ISimulatorUI ui) {
+        this(ui, Platform::runLater);
+    }
+
+    /**
+     * Constructs a Controller that hands view updates to the given executor.
+     *
+     * @param ui       the UI interface to be controlled
+     * @param uiThread runs view updates on the UI thread
+     */
+    Controller(ISimulatorUI ui, Executor uiThread) {
         this.ui = ui;
+        this.uiThread = uiThread;
     }
     /**
-     * Starts the simulation. Initializes the engine and simulation parameters.
-     * If a simulation is already running, this method does nothing.
+     * Starts a new run with the current simulation parameters and selects
+     * it. Runs already going are not affected.
      */
     @Override
     public void startSimulation() {
+        Run run = new Run(++startedRuns);
+        run.engine.setSimulationTime(ui.getTime());
+        run.engine.setDelay(ui.getDelay());
+        runs.put(run.number, run);
+        ui.addRun(run.number);
+        selectRun(run.number);
+        ui.showLiveStatistics(run.number, run.engine.getLiveStatistics());
+        run.engine.start();
+    }
+
+    @Override
+    public void selectRun(int run) {
+        selectedRun = run;
+        IEngine engine = selectedEngine();
         if (engine != null) {
-            return;
+            ui.showCurrentDelay(engine.getDelay());
         }
-        Clock.getInstance().setTime(0); // ensure every run starts from time zero
-        engine = new MyEngine(this);
-        engine.setSimulationTime(ui.getTime());
-        engine.setDelay(ui.getDelay());
-        ui.showCurrentDelay(engine.getDelay());
-        ui.getVisualisation().clearDisplay();
-        totalCustomersServed = 0;
-        cumulativeWaitingTime = 0.0;
-        ((Thread) engine).start();
     }
 
     @Override
     public void decreaseSpeed() {
+        IEngine engine = selectedEngine();
         if (engine == null) {
             return;
         }
@@ -61,6 +90,7 @@ public class Controller implements IControllerVtoM, IControllerMtoV {
 
     @Override
     public void increaseSpeed() {
+        IEngine engine = selectedEngine();
         if (engine == null) {
             return;
         }
@@ -69,28 +99,9 @@ public class Controller implements IControllerVtoM, IControllerMtoV {
         ui.showCurrentDelay(updatedDelay);
     }
 
-    @Override
-    public void showEndTime(double time) {
-        double averageWaiting = totalCustomersServed == 0 ? 0.0 : cumulativeWaitingTime / totalCustomersServed;
-        SimulationSummary summary = new SimulationSummary(time, totalCustomersServed, averageWaiting);
-        Platform.runLater(() -> ui.showSummary(summary));
-        engine = null;
-    }
-
-    @Override
-    public void visualiseCustomer(Customer c, int servicePointIndex) {
-        Platform.runLater(() -> ui.getVisualisation().moveCustomer(c, servicePointIndex));
-    }
-
-    @Override
-    public void removeCustomer(Customer c) {
-        totalCustomersServed++;
-        cumulativeWaitingTime += c.getTotalWaitingTime();
-        Platform.runLater(() -> ui.getVisualisation().removeCustomer(c));
-    }
-
     @Override
     public void pauseSimulation() {
+        IEngine engine = selectedEngine();
         if (engine != null) {
             engine.pauseSimulation();
         }
@@ -98,6 +109,7 @@ public class Controller implements IControllerVtoM, IControllerMtoV {
 
     @Override
     public void resumeSimulation() {
+        IEngine engine = selectedEngine();
         if (engine != null) {
             engine.resumeSimulation();
         }
@@ -105,6 +117,7 @@ public class Controller implements IControllerVtoM, IControllerMtoV {
 
     @Override
     public void stepSimulation() {
+        IEngine engine = selectedEngine();
         if (engine != null) {
             engine.stepOnce();
         }
@@ -112,15 +125,75 @@ public class Controller implements IControllerVtoM, IControllerMtoV {
 
     @Override
     public boolean isSimulationRunning() {
-        return engine != null;
+        return selectedEngine() != null;
+    }
+
+    @Override
+    public boolean isSimulationPaused() {
+        IEngine engine = selectedEngine();
+        return engine != null && engine.isPaused();
     }
 
     @Override
     public void setDelay(long delay) {
+        IEngine engine = selectedEngine();
         if (engine == null) {
             return;
         }
         engine.setDelay(Math.max(1, delay));
         ui.showCurrentDelay(engine.getDelay());
     }
+
+    private IEngine selectedEngine() {
+        Run run = runs.get(selectedRun);
+        return run == null ? null : run.engine;
+    }
+
+    // Model-to-view side of one run: its engine reports here, and customer
+    // movements reach the run's display through the run's own buffer
+    private final class Run implements IControllerMtoV {
+        private final int number;
+        private final IEngine engine;
+        private final CustomerUpdateBuffer updates;
+
+        Run(int number) {
+            this.number = number;
+            this.updates = new CustomerUpdateBuffer(() -> ui.getVisualisation(number), uiThread,
+                    CustomerUpdateBuffer.FRAME_NANOS);
+            this.engine = new MyEngine(this);
+        }
+
+        @Override
+        public void showResults(SimulationStatistics statistics) {
+            try {
+                SimulationSummary summary = new SimulationSummary(statistics.getSimulationTime(),
+                        statistics.getTotalDepartures(), statistics.getAverageWaitingTime());
+                updates.flush();
+                uiThread.execute(() -> ui.showSummary(number, summary));
+            } finally {
+                runs.remove(number);
+            }
+        }
+
+        @Override
+        public void showFailure(Throwable cause) {
+            try {
+                String message = cause.getMessage() == null ? cause.toString() : cause.getMessage();
+                updates.flush();
+                uiThread.execute(() -> ui.showFailure(number, message));
+            } finally {
+                runs.remove(number);
+            }
+        }
+
+        @Override
+        public void visualiseCustomer(Customer c, int servicePointIndex) {
+            updates.move(c, servicePointIndex);
+        }
+
+        @Override
+        public void removeCustomer(Customer c) {
+            updates.remove(c);
+        }
+    }
 }
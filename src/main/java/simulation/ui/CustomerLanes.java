@@ -0,0 +1,178 @@
+package simulation.ui;
+
+import simulation.model.Customer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lane membership of the customers shown by {@link Visualisation}, with the
+ * changes not yet drawn.
+ * <p>
+ * Each lane keeps its customers in joining order in a hash-linked set, so
+ * moving or removing a customer takes constant time. A lane becomes dirty
+ * when it changes. If customers only joined it, the renderer can draw just
+ * the newcomers at the end of the queue; once a customer has left, the
+ * positions behind it have shifted and the lane needs a reflow.
+ * </p>
+ * <p>
+ * The number of customers of each type in every lane is kept up to date as
+ * customers move, so a long queue can be summarised without walking it.
+ * </p>
+ */
+final class CustomerLanes {
+
+    private final Map<Customer, Integer> laneOf = new HashMap<>();
+    private final List<LinkedHashSet<Customer>> lanes = new ArrayList<>();
+    private final List<List<Customer>> joined = new ArrayList<>();
+    private final List<Map<String, Integer>> typeCounts = new ArrayList<>();
+    private final boolean[] reflow;
+
+    /**
+     * Creates empty lanes.
+     *
+     * @param laneCount number of lanes
+     */
+    CustomerLanes(int laneCount) {
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new LinkedHashSet<>());
+            joined.add(new ArrayList<>());
+            typeCounts.add(new HashMap<>());
+        }
+        this.reflow = new boolean[laneCount];
+    }
+
+    int getLaneCount() {
+        return lanes.size();
+    }
+
+    /**
+     * Moves a customer to the end of a lane, taking it out of its previous
+     * lane if it had one. A customer already in the lane stays where it is.
+     *
+     * @param customer the customer
+     * @param lane     index of the target lane
+     */
+    void move(Customer customer, int lane) {
+        Integer current = laneOf.put(customer, lane);
+        if (current != null) {
+            if (current == lane) {
+                return;
+            }
+            leave(customer, current);
+        }
+        lanes.get(lane).add(customer);
+        typeCounts.get(lane).merge(customer.getType(), 1, Integer::sum);
+        if (!reflow[lane]) {
+            joined.get(lane).add(customer);
+        }
+    }
+
+    /**
+     * Removes a customer from its lane.
+     *
+     * @param customer the customer
+     */
+    void remove(Customer customer) {
+        Integer current = laneOf.remove(customer);
+        if (current != null) {
+            leave(customer, current);
+        }
+    }
+
+    private void leave(Customer customer, int lane) {
+        lanes.get(lane).remove(customer);
+        typeCounts.get(lane).merge(customer.getType(), -1, Integer::sum);
+        reflow[lane] = true;
+        joined.get(lane).clear();
+    }
+
+    /**
+     * Removes every customer and marks all lanes for a reflow.
+     */
+    void clear() {
+        laneOf.clear();
+        for (int i = 0; i < lanes.size(); i++) {
+            lanes.get(i).clear();
+            joined.get(i).clear();
+            typeCounts.get(i).clear();
+            reflow[i] = true;
+        }
+    }
+
+    /**
+     * Returns the customers of a lane in queue order.
+     *
+     * @param lane lane index
+     * @return unmodifiable view of the lane
+     */
+    Collection<Customer> customers(int lane) {
+        return Collections.unmodifiableCollection(lanes.get(lane));
+    }
+
+    int size(int lane) {
+        return lanes.get(lane).size();
+    }
+
+    /**
+     * Returns how many customers of a type are in a lane.
+     *
+     * @param lane lane index
+     * @param type customer type
+     * @return customer count
+     */
+    int count(int lane, String type) {
+        return typeCounts.get(lane).getOrDefault(type, 0);
+    }
+
+    boolean isDirty(int lane) {
+        return reflow[lane] || !joined.get(lane).isEmpty();
+    }
+
+    /**
+     * Tells whether customers left the lane since it was last drawn, so that
+     * the whole lane has to be drawn again.
+     *
+     * @param lane lane index
+     * @return true if the lane needs a reflow
+     */
+    boolean needsReflow(int lane) {
+        return reflow[lane];
+    }
+
+    /**
+     * Returns the customers that joined the end of the lane since it was last
+     * drawn. Only meaningful when the lane needs no reflow.
+     *
+     * @param lane lane index
+     * @return newcomers in joining order
+     */
+    List<Customer> joinedSinceDrawn(int lane) {
+        return Collections.unmodifiableList(joined.get(lane));
+    }
+
+    /**
+     * Records that a lane has been drawn as it is now.
+     *
+     * @param lane lane index
+     */
+    void markDrawn(int lane) {
+        reflow[lane] = false;
+        joined.get(lane).clear();
+    }
+
+    /**
+     * Marks every lane as needing a reflow, for example after a resize.
+     */
+    void markAllForReflow() {
+        for (int i = 0; i < lanes.size(); i++) {
+            reflow[i] = true;
+            joined.get(i).clear();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package simulation.ui;
+
+import javafx.application.Platform;
+import simulation.model.Customer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Collects customer movements reported by the engine thread and hands them
+ * to the visualisation at most once per frame.
+ * <p>
+ * Only the latest lane of each customer is kept, so a customer that moves
+ * several times between two frames costs one update. A frame is published
+ * through a single task on the UI thread; while one is pending, further
+ * movements only change the pending delta. The display work per second is
+ * therefore bounded by the frame rate and the number of customers on screen,
+ * however fast the engine runs.
+ * </p>
+ */
+final class CustomerUpdateBuffer {
+
+    /** Lane value of a customer that has left the system. */
+    static final int REMOVED = -1;
+    /** Default frame interval, 60 frames per second. */
+    static final long FRAME_NANOS = 1_000_000_000L / 60;
+
+    // shared by the buffers of all runs; it only hands frames to the UI thread
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "ui-frame-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Supplier<IVisualisation> view;
+    private final Executor uiThread;
+    private final long frameNanos;
+    private Map<Customer, Integer> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+    private long lastPublish;
+
+    /**
+     * Creates a buffer that publishes on the JavaFX application thread at
+     * 60 frames per second.
+     *
+     * @param view supplies the visualisation to update
+     */
+    CustomerUpdateBuffer(Supplier<IVisualisation> view) {
+        this(view, Platform::runLater, FRAME_NANOS);
+    }
+
+    /**
+     * Creates a buffer.
+     *
+     * @param view       supplies the visualisation to update
+     * @param uiThread   runs the publishing task on the UI thread
+     * @param frameNanos minimum time between two published frames
+     */
+    CustomerUpdateBuffer(Supplier<IVisualisation> view, Executor uiThread, long frameNanos) {
+        if (frameNanos <= 0) {
+            throw new IllegalArgumentException("Frame interval must be positive.");
+        }
+        this.view = view;
+        this.uiThread = uiThread;
+        this.frameNanos = frameNanos;
+        this.lastPublish = System.nanoTime() - frameNanos;
+    }
+
+    /**
+     * Records that a customer moved to a lane.
+     *
+     * @param customer the customer
+     * @param lane     index of the service point lane
+     */
+    void move(Customer customer, int lane) {
+        post(customer, lane);
+    }
+
+    /**
+     * Records that a customer left the system.
+     *
+     * @param customer the customer
+     */
+    void remove(Customer customer) {
+        post(customer, REMOVED);
+    }
+
+    private void post(Customer customer, int lane) {
+        long delay;
+        synchronized (this) {
+            // re-inserting keeps the delta in the order of the latest movements
+            pending.remove(customer);
+            pending.put(customer, lane);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+            delay = lastPublish + frameNanos - System.nanoTime();
+        }
+        if (delay <= 0) {
+            uiThread.execute(this::publish);
+        } else {
+            TIMER.schedule(() -> uiThread.execute(this::publish), delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Publishes the pending movements without waiting for the next frame,
+     * for example when the run has ended.
+     */
+    void flush() {
+        synchronized (this) {
+            scheduled = true;
+        }
+        uiThread.execute(this::publish);
+    }
+
+    /**
+     * Drops the movements not yet published. Called on the UI thread when
+     * the display is cleared for a new run.
+     */
+    synchronized void discard() {
+        pending.clear();
+    }
+
+    // Runs on the UI thread: applies everything posted since the last frame
+    private void publish() {
+        Map<Customer, Integer> delta;
+        synchronized (this) {
+            delta = pending;
+            pending = new LinkedHashMap<>();
+            scheduled = false;
+            lastPublish = System.nanoTime();
+        }
+        if (!delta.isEmpty()) {
+            view.get().updateCustomers(delta);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package simulation.ui;
 
 import simulation.model.Customer;
+import simulation.statistics.SimulationStatistics;
 
 /**
  * Interface for Model-to-View communication in the simulation.
@@ -12,11 +13,18 @@ import simulation.model.Customer;
 public interface IControllerMtoV {
     /**
      * Informs the view that the simulation has ended and provides
-     * the final simulation time.
+     * the statistics of the run.
      *
-     * @param time the time at which the simulation ended
+     * @param statistics the final statistics, ending at the simulation end time
      */
-    void showEndTime(double time);
+    void showResults(SimulationStatistics statistics);
+    /**
+     * Informs the view that the simulation has stopped because of an error
+     * and will not report results.
+     *
+     * @param cause the error that ended the run
+     */
+    void showFailure(Throwable cause);
     /**
      * Requests the view to visualize a customer at a specific service point.
      *
@@ -25,8 +33,8 @@ public interface IControllerMtoV {
      */
     void visualiseCustomer(Customer c, int servicePointIndex);
     /**
-     * Requests the view to remove a customer from the visualization
-     * and update statistics if necessary.
+     * Requests the view to remove a customer that has left the system
+     * from the visualization.
      *
      * @param c the customer to remove
      */
@@ -8,9 +8,16 @@ package simulation.ui;
  */
 public interface IControllerVtoM {
     /**
-     * Starts the simulation engine with the configured parameters.
+     * Starts a new run with the configured parameters and selects it. Runs
+     * already going continue side by side.
      */
     void startSimulation();
+    /**
+     * Selects the run that the other controls act on.
+     *
+     * @param run run number given to {@link ISimulatorUI#addRun(int)}
+     */
+    void selectRun(int run);
     /**
      * Increases the speed of the simulation by reducing the delay between simulation steps.
      */
@@ -33,11 +40,17 @@ public interface IControllerVtoM {
      */
     void stepSimulation();
     /**
-     * Checks whether the simulation is currently running.
+     * Checks whether the selected run is still going.
      *
-     * @return true if the simulation engine is running, false otherwise
+     * @return true if the selected run has not finished, false otherwise
      */
     boolean isSimulationRunning();
+    /**
+     * Checks whether the selected run is going but paused.
+     *
+     * @return true if the selected run is paused, false otherwise
+     */
+    boolean isSimulationPaused();
     /**
      * Sets the delay (in milliseconds) between simulation steps.
      * This affects the simulation speed.
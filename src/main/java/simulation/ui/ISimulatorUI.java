@@ -1,4 +1,6 @@
 package simulation.ui;
+
+import simulation.statistics.LiveStatisticsPublisher;
 /**
  * Interface representing the Simulator User Interface (UI).
  * <p>
@@ -6,6 +8,10 @@ package simulation.ui;
  * including retrieving user-configured simulation parameters, displaying
  * simulation progress, and showing the simulation summary.
  * </p>
+ * <p>
+ * Several runs can be going at once. Each has its own display, identified
+ * by the run number the controller passes to {@link #addRun(int)}.
+ * </p>
  */
 public interface ISimulatorUI {
     double getTime();
@@ -14,9 +20,20 @@ public interface ISimulatorUI {
 
     void setEndingTime(double time);
 
-    IVisualisation getVisualisation();
+    /**
+     * Adds and selects the display of a new run.
+     *
+     * @param run run number, counting from 1 in the order runs are started
+     */
+    void addRun(int run);
+
+    IVisualisation getVisualisation(int run);
 
     void showCurrentDelay(long delay);
 
-    void showSummary(SimulationSummary summary);
+    void showSummary(int run, SimulationSummary summary);
+
+    void showFailure(int run, String message);
+
+    void showLiveStatistics(int run, LiveStatisticsPublisher source);
 }
@@ -1,6 +1,8 @@
 package simulation.ui;
 
 import simulation.model.Customer;
+
+import java.util.Map;
 /**
  * Interface representing the visualisation component of the simulator.
  * <p>
@@ -16,4 +18,20 @@ public interface IVisualisation {
     void moveCustomer(Customer customer, int servicePointIndex);
 
     void removeCustomer(Customer customer);
+
+    /**
+     * Applies a batch of customer movements. Each customer is moved to the
+     * lane it maps to, or removed if the lane is negative.
+     *
+     * @param lanes latest lane of each customer, in the order of the movements
+     */
+    default void updateCustomers(Map<Customer, Integer> lanes) {
+        lanes.forEach((customer, lane) -> {
+            if (lane < 0) {
+                removeCustomer(customer);
+            } else {
+                moveCustomer(customer, lane);
+            }
+        });
+    }
 }
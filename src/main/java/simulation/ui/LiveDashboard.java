@@ -0,0 +1,163 @@
+package simulation.ui;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.util.Duration;
+import simulation.statistics.LiveStatistics;
+import simulation.statistics.LiveStatisticsPublisher;
+
+import java.text.DecimalFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * Live charts of a running simulation: customers at each service point over
+ * time, utilization, throughput and waiting-time percentiles.
+ * <p>
+ * The dashboard samples a {@link LiveStatisticsPublisher} on the JavaFX
+ * thread at a fixed wall-clock rate, independent of how fast the engine
+ * runs. Sampling only reads the snapshot the engine last published, so the
+ * engine thread never waits for the display.
+ * </p>
+ */
+public class LiveDashboard extends VBox {
+
+    private static final int HISTORY_POINTS = 120;
+    private static final DecimalFormat VALUE_FORMAT = new DecimalFormat("#0.00");
+
+    private final Timeline sampler;
+    private final LineChart<Number, Number> queueChart;
+    private final XYChart.Series<String, Number> utilizationSeries = new XYChart.Series<>();
+    private final Map<String, XYChart.Series<Number, Number>> queueSeries = new LinkedHashMap<>();
+    private final Label throughputValue = new Label("-");
+    private final Label waitValue = new Label("-");
+    private LiveStatisticsPublisher source;
+    private long shownSequence;
+
+    /**
+     * Creates an idle dashboard.
+     *
+     * @param samplesPerSecond how often the dashboard is refreshed
+     */
+    public LiveDashboard(double samplesPerSecond) {
+        super(8);
+        setPadding(new Insets(10, 0, 0, 0));
+
+        NumberAxis timeAxis = new NumberAxis();
+        timeAxis.setLabel("Time (min)");
+        timeAxis.setForceZeroInRange(false);
+        NumberAxis customersAxis = new NumberAxis();
+        customersAxis.setLabel("Customers");
+        queueChart = new LineChart<>(timeAxis, customersAxis);
+        queueChart.setTitle("Customers at each station");
+        queueChart.setAnimated(false);
+        queueChart.setCreateSymbols(false);
+        queueChart.setPrefHeight(240);
+
+        NumberAxis percentAxis = new NumberAxis(0, 100, 25);
+        percentAxis.setLabel("%");
+        BarChart<String, Number> utilizationChart = new BarChart<>(new CategoryAxis(), percentAxis);
+        utilizationChart.setTitle("Utilization");
+        utilizationChart.setAnimated(false);
+        utilizationChart.setLegendVisible(false);
+        utilizationChart.setPrefHeight(240);
+        utilizationChart.getData().add(utilizationSeries);
+
+        HBox charts = new HBox(10, queueChart, utilizationChart);
+        HBox.setHgrow(queueChart, Priority.ALWAYS);
+        HBox.setHgrow(utilizationChart, Priority.ALWAYS);
+
+        Label throughputLabel = new Label("Throughput (customers/min):");
+        throughputLabel.setFont(Font.font("Tahoma", FontWeight.NORMAL, 14));
+        Label waitLabel = new Label("Waiting time p50 / p90 / p99 (min):");
+        waitLabel.setFont(Font.font("Tahoma", FontWeight.NORMAL, 14));
+        HBox figures = new HBox(10, throughputLabel, throughputValue, waitLabel, waitValue);
+
+        getChildren().addAll(charts, figures);
+
+        sampler = new Timeline(new KeyFrame(Duration.seconds(1), event -> refresh()));
+        sampler.setCycleCount(Animation.INDEFINITE);
+        setSampleRate(samplesPerSecond);
+    }
+    /**
+     * Changes how often the dashboard is refreshed.
+     *
+     * @param samplesPerSecond refreshes per wall-clock second
+     */
+    public void setSampleRate(double samplesPerSecond) {
+        if (!(samplesPerSecond > 0)) {
+            throw new IllegalArgumentException("Sample rate must be positive.");
+        }
+        sampler.setRate(samplesPerSecond);
+    }
+    /**
+     * Clears the charts and starts following a new run.
+     *
+     * @param source publisher of the run's snapshots
+     */
+    public void watch(LiveStatisticsPublisher source) {
+        this.source = source;
+        shownSequence = 0;
+        queueSeries.clear();
+        queueChart.getData().clear();
+        utilizationSeries.getData().clear();
+        throughputValue.setText("-");
+        waitValue.setText("-");
+        sampler.play();
+    }
+    /**
+     * Shows the last snapshot of the run and stops sampling.
+     */
+    public void stop() {
+        sampler.stop();
+        refresh();
+    }
+
+    private void refresh() {
+        if (source == null) {
+            return;
+        }
+        LiveStatistics statistics = source.sample();
+        if (statistics == null || statistics.sequence() == shownSequence) {
+            return;
+        }
+        shownSequence = statistics.sequence();
+        List<LiveStatistics.Station> stations = statistics.stations();
+        if (utilizationSeries.getData().size() != stations.size()) {
+            utilizationSeries.getData().clear();
+            for (LiveStatistics.Station station : stations) {
+                utilizationSeries.getData().add(new XYChart.Data<>(station.name(), 0));
+            }
+        }
+        for (int i = 0; i < stations.size(); i++) {
+            LiveStatistics.Station station = stations.get(i);
+            utilizationSeries.getData().get(i).setYValue(100 * station.utilization());
+            XYChart.Series<Number, Number> series = queueSeries.computeIfAbsent(station.name(), name -> {
+                XYChart.Series<Number, Number> created = new XYChart.Series<>();
+                created.setName(name);
+                queueChart.getData().add(created);
+                return created;
+            });
+            series.getData().add(new XYChart.Data<>(statistics.time(), station.customers()));
+            if (series.getData().size() > HISTORY_POINTS) {
+                series.getData().remove(0);
+            }
+        }
+        throughputValue.setText(VALUE_FORMAT.format(statistics.throughput()));
+        waitValue.setText(VALUE_FORMAT.format(statistics.waitP50()) + " / "
+                + VALUE_FORMAT.format(statistics.waitP90()) + " / " + VALUE_FORMAT.format(statistics.waitP99()));
+    }
+}
@@ -1,6 +1,7 @@
 package simulation.ui;
 
 import javafx.application.Application;
+import javafx.beans.binding.Bindings;
 import javafx.application.Platform;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
@@ -13,6 +14,8 @@ import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.Slider;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Tooltip;
 import javafx.scene.layout.ColumnConstraints;
@@ -28,10 +31,14 @@ import simu.framework.Trace;
 import simu.framework.Trace.Level;
 
 import simulation.data.SimulationHistoryRepository;
+import simulation.model.Customer;
+import simulation.statistics.LiveStatisticsPublisher;
 
 import java.io.IOException;
 import java.text.DecimalFormat;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 /**
@@ -39,13 +46,20 @@ import java.util.stream.Collectors;
  * <p>
  * Implements the {@link ISimulatorUI} interface and provides a user interface
  * for configuring, running, and visualising a coffee shop simulation where
- * customers move through cashier, barista, finishing, and pickup stages.
+ * customers move through the cashier and barista to the pickup shelf or,
+ * for mobile orders, the delivery window. The GUI runs the same simulation
+ * core as the command line.
  * </p>
  * <p>
  * Supports controls for simulation speed, pausing, resuming, and stepping
  * through individual events. Displays simulation results, history, and
  * summary statistics.
  * </p>
+ * <p>
+ * Every start opens a new run in its own tab with its own visualisation and
+ * live charts, while earlier runs keep going. The controls and the results
+ * panel follow the selected tab.
+ * </p>
  */
 public class MainApp extends Application implements ISimulatorUI {
 
@@ -54,6 +68,27 @@ public class MainApp extends Application implements ISimulatorUI {
     private static final String ERROR_BORDER_STYLE = "-fx-border-color: #d32f2f; -fx-border-width: 2;";
     private static final double MIN_WINDOW_WIDTH = 1100;
     private static final double MIN_WINDOW_HEIGHT = 600;
+    private static final int HISTORY_ENTRIES_SHOWN = 100;
+    private static final double DASHBOARD_SAMPLES_PER_SECOND = 4;
+    private static final double VISUALISATION_HEIGHT = 500;
+    // receives the last movements of a run whose tab is already closed
+    private static final IVisualisation CLOSED_RUN = new IVisualisation() {
+        @Override
+        public void clearDisplay() {
+        }
+
+        @Override
+        public void addCustomer(Customer customer, int servicePointIndex) {
+        }
+
+        @Override
+        public void moveCustomer(Customer customer, int servicePointIndex) {
+        }
+
+        @Override
+        public void removeCustomer(Customer customer) {
+        }
+    };
 
     private IControllerVtoM controller;
     private TextField time;
@@ -74,7 +109,9 @@ public class MainApp extends Application implements ISimulatorUI {
     private Button pauseButton;
     private Button resumeButton;
     private Button stepButton;
-    private IVisualisation display;
+    private TabPane runTabs;
+    // displays of the runs whose tabs are open, by run number
+    private final Map<Integer, RunView> runViews = new HashMap<>();
 
     @Override
     public void init() {
@@ -96,12 +133,10 @@ public class MainApp extends Application implements ISimulatorUI {
             System.exit(0);
         });
 
-        startButton = new Button("Start / Restart");
-        startButton.setTooltip(new Tooltip("Begin a new simulation run with the entered settings."));
+        startButton = new Button("Start new run");
+        startButton.setTooltip(new Tooltip(
+                "Begin a new simulation run with the entered settings; runs already going keep running."));
         startButton.setOnAction(event -> {
-            if (controller.isSimulationRunning()) {
-                return;
-            }
             if (validateInputs()) {
                 controller.startSimulation();
                 onSimulationStarted();
@@ -207,20 +242,24 @@ public class MainApp extends Application implements ISimulatorUI {
         historyListView.setFocusTraversable(false);
         historyListView.setPlaceholder(new Label("No previous runs yet."));
 
-        Visualisation visualCanvas = new Visualisation(450, 250);
-        display = visualCanvas;
-        StackPane visualisationContainer = new StackPane(visualCanvas);
-        visualisationContainer.setMinWidth(400);
-        visualisationContainer.setMinHeight(500);
-        visualisationContainer.setPrefHeight(500);
-        visualisationContainer.setMaxHeight(500);
-        visualisationContainer.widthProperty().addListener(
-                (obs, oldV, newV) -> visualCanvas.resizeCanvas(newV.doubleValue(), 500));
-        visualisationContainer.heightProperty().addListener(
-                (obs, oldV, newV) -> visualCanvas.resizeCanvas(visualisationContainer.getWidth(), 500));
+        runTabs = new TabPane();
+        runTabs.setTabClosingPolicy(TabPane.TabClosingPolicy.ALL_TABS);
+        runTabs.getSelectionModel().selectedItemProperty().addListener((obs, oldTab, newTab) -> {
+            if (newTab != null) {
+                showRun((RunView) newTab.getUserData());
+            }
+        });
+        Label noRuns = new Label("Start a simulation to watch it here. Every start opens a new tab,"
+                + " and earlier runs keep going side by side.");
+        noRuns.setWrapText(true);
+        noRuns.visibleProperty().bind(Bindings.isEmpty(runTabs.getTabs()));
+        StackPane rightPane = new StackPane(noRuns, runTabs);
+        rightPane.setAlignment(Pos.TOP_LEFT);
+        rightPane.setMinWidth(400);
 
         Label description = new Label(
-                "Simulates a single coffee shop where customers move through cashier, barista, finishing, and pickup stages.");
+                "Simulates a single coffee shop where customers move through the cashier and barista to the pickup shelf, "
+                        + "or straight to the barista and the delivery window for mobile orders.");
         description.setWrapText(true);
         description.setMaxWidth(260);
 
@@ -318,8 +357,8 @@ public class MainApp extends Application implements ISimulatorUI {
         HBox hBox = new HBox();
         hBox.setPadding(new Insets(15));
         hBox.setSpacing(10);
-        hBox.getChildren().addAll(leftPane, visualisationContainer);
-        HBox.setHgrow(visualisationContainer, Priority.ALWAYS);
+        hBox.getChildren().addAll(leftPane, rightPane);
+        HBox.setHgrow(rightPane, Priority.ALWAYS);
 
         ScrollPane scrollPane = new ScrollPane(hBox);
         scrollPane.setFitToWidth(true);
@@ -374,13 +413,31 @@ public class MainApp extends Application implements ISimulatorUI {
     }
 
     /**
-     * Returns the visualisation component used to render customers and service points.
+     * Opens a tab with a fresh visualisation and live charts for a new run
+     * and selects it.
      *
-     * @return the visualisation instance
+     * @param run run number
      */
     @Override
-    public IVisualisation getVisualisation() {
-        return display;
+    public void addRun(int run) {
+        RunView view = new RunView(run);
+        runViews.put(run, view);
+        view.tab.setOnClosed(event -> runViews.remove(run));
+        runTabs.getTabs().add(view.tab);
+        runTabs.getSelectionModel().select(view.tab);
+    }
+
+    /**
+     * Returns the visualisation component used to render the customers and
+     * service points of a run.
+     *
+     * @param run run number
+     * @return the visualisation instance, or a detached one if the run's tab was closed
+     */
+    @Override
+    public IVisualisation getVisualisation(int run) {
+        RunView view = runViews.get(run);
+        return view == null ? CLOSED_RUN : view.visualisation;
     }
 
     /**
@@ -393,18 +450,50 @@ public class MainApp extends Application implements ISimulatorUI {
         Platform.runLater(() -> updateDelayControls(delayValue));
     }
     /**
-     * Displays the simulation summary, including total customers served,
-     * average waiting time, and a textual summary of the simulation.
+     * Displays the simulation summary of a run, including total customers
+     * served, average waiting time, and a textual summary of the simulation,
+     * and saves it to the history.
      *
+     * @param run     run number
      * @param summary the {@link SimulationSummary} object containing results
      */
     @Override
-    public void showSummary(SimulationSummary summary) {
-        setEndingTime(summary.simulationTime());
-        totalServedValue.setText(String.valueOf(summary.totalCustomersServed()));
-        avgWaitValue.setText(summary.formattedAverageWaitingTime());
-        summaryValue.setText(summary.toSummaryLine());
+    public void showSummary(int run, SimulationSummary summary) {
         appendSummaryAsync(summary);
+        RunView view = runViews.get(run);
+        if (view == null) {
+            return;
+        }
+        view.summary = summary;
+        view.finish("Finished");
+    }
+    /**
+     * Reports a run that stopped because of an error; no summary is saved.
+     *
+     * @param run     run number
+     * @param message description of the error
+     */
+    @Override
+    public void showFailure(int run, String message) {
+        RunView view = runViews.get(run);
+        if (view == null) {
+            return;
+        }
+        view.failure = message;
+        view.finish("Failed");
+    }
+    /**
+     * Shows live charts of a run.
+     *
+     * @param run    run number
+     * @param source publisher of the run's snapshots
+     */
+    @Override
+    public void showLiveStatistics(int run, LiveStatisticsPublisher source) {
+        RunView view = runViews.get(run);
+        if (view != null) {
+            view.dashboard.watch(source);
+        }
     }
     /**
      * Launches the JavaFX application.
@@ -415,8 +504,38 @@ public class MainApp extends Application implements ISimulatorUI {
         launch(args);
     }
 
+    // Shows the results and controls of the selected run
+    private void showRun(RunView view) {
+        controller.selectRun(view.run);
+        if (view.summary != null) {
+            setEndingTime(view.summary.simulationTime());
+            totalServedValue.setText(String.valueOf(view.summary.totalCustomersServed()));
+            avgWaitValue.setText(view.summary.formattedAverageWaitingTime());
+            summaryValue.setText(view.summary.toSummaryLine());
+            return;
+        }
+        results.setText("-");
+        totalServedValue.setText("-");
+        avgWaitValue.setText("-");
+        if (view.failure != null) {
+            summaryValue.setText("Simulation failed: " + view.failure);
+            updateStatus("Failed");
+            onSimulationStopped();
+        } else if (controller.isSimulationPaused()) {
+            summaryValue.setText("Run in progress.");
+            onSimulationPaused();
+        } else {
+            summaryValue.setText("Run in progress.");
+            onSimulationResumed();
+        }
+    }
+
+    private boolean isSelected(RunView view) {
+        return runTabs.getSelectionModel().getSelectedItem() == view.tab;
+    }
+
     private void onSimulationStarted() {
-        startButton.setDisable(true);
+        startButton.setDisable(false);
         slowButton.setDisable(false);
         speedUpButton.setDisable(false);
         pauseButton.setDisable(false);
@@ -498,7 +617,7 @@ public class MainApp extends Application implements ISimulatorUI {
     private void refreshHistoryViewAsync() {
         CompletableFuture.supplyAsync(() -> {
             try {
-                return historyRepository.readAll();
+                return historyRepository.readLatest(HISTORY_ENTRIES_SHOWN);
             } catch (IOException e) {
                 return List.<SimulationHistoryRepository.SimulationHistoryEntry>of();
             }
@@ -628,4 +747,38 @@ public class MainApp extends Application implements ISimulatorUI {
         } catch (NumberFormatException ignored) {
         }
     }
+
+    // Tab of one run: its visualisation, live charts and outcome
+    private final class RunView {
+        private final int run;
+        private final Tab tab;
+        private final Visualisation visualisation = new Visualisation(450, 250);
+        private final LiveDashboard dashboard = new LiveDashboard(DASHBOARD_SAMPLES_PER_SECOND);
+        private SimulationSummary summary;
+        private String failure;
+
+        RunView(int run) {
+            this.run = run;
+            StackPane visualisationContainer = new StackPane(visualisation);
+            visualisationContainer.setMinWidth(400);
+            visualisationContainer.setMinHeight(VISUALISATION_HEIGHT);
+            visualisationContainer.setPrefHeight(VISUALISATION_HEIGHT);
+            visualisationContainer.setMaxHeight(VISUALISATION_HEIGHT);
+            visualisationContainer.widthProperty().addListener(
+                    (obs, oldV, newV) -> visualisation.resizeCanvas(newV.doubleValue(), VISUALISATION_HEIGHT));
+            this.tab = new Tab("Run " + run, new VBox(visualisationContainer, dashboard));
+            tab.setUserData(this);
+            // a run's tab can be closed once the run is over
+            tab.setClosable(false);
+        }
+
+        void finish(String status) {
+            dashboard.stop();
+            tab.setText("Run " + run + " (" + status + ")");
+            tab.setClosable(true);
+            if (isSelected(this)) {
+                showRun(this);
+            }
+        }
+    }
 }
@@ -5,15 +5,13 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Tooltip;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.stage.Window;
 import javafx.util.Duration;
 import simulation.model.Customer;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -24,6 +22,19 @@ import java.util.Objects;
  * for both in-store and mobile orders, and provides a legend.
  * Supports interactive tooltips when hovering over service points.
  * </p>
+ * <p>
+ * Rendering is layered. The background, flow guides, icons and legend
+ * rarely change, so they are drawn once and kept as a snapshot image. When
+ * customers move, only the lanes they left or joined are drawn again: the
+ * lane's strip is restored from the snapshot and its customers are drawn on
+ * top. A lane that customers only joined just gets the newcomers drawn.
+ * </p>
+ * <p>
+ * A lane draws only as many customers as fit above the flow arrows. The
+ * rest of a longer queue is shown as one bar in the last slot, split by
+ * order type and labelled with the hidden count, so drawing a lane costs
+ * the same whether its queue holds fifty customers or fifty thousand.
+ * </p>
  */
 public class Visualisation extends Canvas implements IVisualisation {
 
@@ -38,6 +49,12 @@ public class Visualisation extends Canvas implements IVisualisation {
 
     private static final double CUSTOMER_WIDTH = 34;
     private static final double CUSTOMER_HEIGHT = 18;
+    private static final double LANE_BASELINE = ICON_Y + 100;
+    // strip around a lane's queue that is restored before the lane is drawn again
+    private static final double LANE_HALF_WIDTH = CUSTOMER_WIDTH / 2 + 3;
+    private static final double LANE_TOP = LANE_BASELINE - CUSTOMER_HEIGHT / 2 - 3;
+    private static final double LANE_BOTTOM_MARGIN = 60;
+    private static final String INSTORE = "INSTORE";
 
     private static final Color BACKGROUND = Color.web("#FFF5E9");
     private static final Color GUIDE_COLOR = Color.web("#BCAAA4");
@@ -48,8 +65,8 @@ public class Visualisation extends Canvas implements IVisualisation {
     private static final Color LEGEND_BORDER = Color.web("#8D6E63");
 
     private final GraphicsContext gc;
-    private final Map<Customer, Integer> customerLaneIndex = new HashMap<>();
-    private final List<List<Customer>> laneQueues = new ArrayList<>();
+    private final CustomerLanes lanes = new CustomerLanes(ServiceLane.values().length);
+    private WritableImage staticLayer;
     private final Tooltip laneTooltip;
     private ServiceLane highlightedLane;
     private final Image cashierIcon;
@@ -65,9 +82,6 @@ public class Visualisation extends Canvas implements IVisualisation {
     public Visualisation(int w, int h) {
         super(Math.max(w, 680), Math.max(h, 200));
         gc = getGraphicsContext2D();
-        for (int i = 0; i < ServiceLane.values().length; i++) {
-            laneQueues.add(new ArrayList<>());
-        }
         laneTooltip = new Tooltip();
         laneTooltip.setShowDelay(Duration.millis(120));
         laneTooltip.setHideDelay(Duration.millis(80));
@@ -88,8 +102,7 @@ public class Visualisation extends Canvas implements IVisualisation {
 
     @Override
     public void clearDisplay() {
-        customerLaneIndex.clear();
-        laneQueues.forEach(List::clear);
+        lanes.clear();
         drawScene();
     }
     /**
@@ -119,28 +132,79 @@ public class Visualisation extends Canvas implements IVisualisation {
      */
     @Override
     public void removeCustomer(Customer c) {
-        Integer lane = customerLaneIndex.remove(c);
-        if (lane != null) {
-            laneQueues.get(lane).remove(c);
+        lanes.remove(c);
+        drawDirtyLanes();
+    }
+    /**
+     * Applies a batch of customer movements and redraws the lanes they touched.
+     *
+     * @param moves latest lane of each customer; negative to remove
+     */
+    @Override
+    public void updateCustomers(Map<Customer, Integer> moves) {
+        for (Map.Entry<Customer, Integer> entry : moves.entrySet()) {
+            if (entry.getValue() < 0) {
+                lanes.remove(entry.getKey());
+            } else {
+                lanes.move(entry.getKey(), entry.getValue());
+            }
         }
-        drawScene();
+        drawDirtyLanes();
     }
 
     private void moveToLane(Customer c, int laneIndex) {
-        Integer current = customerLaneIndex.put(c, laneIndex);
-        if (current != null) {
-            laneQueues.get(current).remove(c);
-        }
-        laneQueues.get(laneIndex).add(c);
-        drawScene();
+        lanes.move(c, laneIndex);
+        drawDirtyLanes();
     }
 
+    // Redraws everything, rebuilding the static layer if it is missing
     private void drawScene() {
-        drawBackground();
-        drawFlowGuides();
-        drawServicePoints();
-        drawCustomers();
-        drawLegend();
+        if (staticLayer == null) {
+            drawBackground();
+            drawFlowGuides();
+            drawServicePoints();
+            drawLegend();
+            staticLayer = snapshot(null, null);
+        } else {
+            gc.drawImage(staticLayer, 0, 0);
+        }
+        lanes.markAllForReflow();
+        drawDirtyLanes();
+    }
+
+    private void drawDirtyLanes() {
+        boolean drawn = false;
+        for (int lane = 0; lane < lanes.getLaneCount(); lane++) {
+            if (!lanes.isDirty(lane)) {
+                continue;
+            }
+            if (lanes.needsReflow(lane)) {
+                restoreStatic(laneX(lane) - LANE_HALF_WIDTH, LANE_TOP, 2 * LANE_HALF_WIDTH, getHeight() - LANE_TOP);
+                drawLane(lane);
+            } else {
+                int visible = visibleCount(lane);
+                int position = lanes.size(lane) - lanes.joinedSinceDrawn(lane).size();
+                for (Customer customer : lanes.joinedSinceDrawn(lane)) {
+                    if (position >= visible) {
+                        break;
+                    }
+                    drawCustomerSprite(customer, laneX(lane), customerY(position++));
+                }
+                if (visible < lanes.size(lane)) {
+                    drawOverflow(lane, visible);
+                }
+            }
+            lanes.markDrawn(lane);
+            drawn = true;
+        }
+        if (drawn) {
+            // the legend stays on top of any customers drawn under it
+            restoreStatic(legendX(), legendY(), LEGEND_WIDTH, LEGEND_HEIGHT);
+        }
+    }
+
+    private void restoreStatic(double x, double y, double w, double h) {
+        gc.drawImage(staticLayer, x, y, w, h, x, y, w, h);
     }
 
     private void drawBackground() {
@@ -186,8 +250,8 @@ public class Visualisation extends Canvas implements IVisualisation {
         Image icon = switch (lane) {
             case CASHIER -> cashierIcon;
             case BARISTA -> baristaIcon;
-            case FINISHING -> finishingIcon;
-            case PICKUP -> pickupIcon;
+            case SHELF -> pickupIcon;
+            case DELIVERY -> finishingIcon;
         };
         if (icon != null) {
             double x = cx - ICON_SIZE / 2;
@@ -199,8 +263,8 @@ public class Visualisation extends Canvas implements IVisualisation {
             switch (lane) {
                 case CASHIER -> drawFallbackCashier(cx, cy);
                 case BARISTA -> drawFallbackBarista(cx, cy);
-                case FINISHING -> drawFallbackFinishing(cx, cy);
-                case PICKUP -> drawFallbackPickup(cx, cy);
+                case SHELF -> drawFallbackPickup(cx, cy);
+                case DELIVERY -> drawFallbackFinishing(cx, cy);
             }
         }
     }
@@ -251,21 +315,70 @@ public class Visualisation extends Canvas implements IVisualisation {
         }
     }
 
-    private void drawCustomers() {
-        for (int laneIndex = 0; laneIndex < laneQueues.size(); laneIndex++) {
-            List<Customer> queue = laneQueues.get(laneIndex);
-            double baseX = laneX(laneIndex);
-            double laneBaseline = ICON_Y + 100;
-            for (int position = 0; position < queue.size(); position++) {
-                Customer customer = queue.get(position);
-                double y = laneBaseline + position * QUEUE_SPACING;
-                drawCustomerSprite(customer, baseX, y);
+    private void drawLane(int laneIndex) {
+        double baseX = laneX(laneIndex);
+        int visible = visibleCount(laneIndex);
+        int position = 0;
+        for (Customer customer : lanes.customers(laneIndex)) {
+            if (position >= visible) {
+                break;
+            }
+            drawCustomerSprite(customer, baseX, customerY(position++));
+        }
+        if (visible < lanes.size(laneIndex)) {
+            drawOverflow(laneIndex, visible);
+        }
+    }
+
+    // Number of customers drawn individually; a longer queue gives its last slot to the overflow bar
+    private int visibleCount(int laneIndex) {
+        int slots = Math.max(2, (int) ((getHeight() - LANE_BOTTOM_MARGIN - LANE_BASELINE) / QUEUE_SPACING) + 1);
+        int size = lanes.size(laneIndex);
+        return size <= slots ? size : slots - 1;
+    }
+
+    // Draws the customers behind the visible ones as a bar split by order type
+    private void drawOverflow(int laneIndex, int visible) {
+        int hiddenInstore = lanes.count(laneIndex, INSTORE);
+        int position = 0;
+        for (Customer customer : lanes.customers(laneIndex)) {
+            if (position++ >= visible) {
+                break;
+            }
+            if (INSTORE.equals(customer.getType())) {
+                hiddenInstore--;
             }
         }
+        int hidden = lanes.size(laneIndex) - visible;
+        double centerX = laneX(laneIndex);
+        double centerY = customerY(visible);
+        restoreStatic(centerX - LANE_HALF_WIDTH, centerY - QUEUE_SPACING / 2, 2 * LANE_HALF_WIDTH, QUEUE_SPACING);
+
+        double x = centerX - CUSTOMER_WIDTH / 2.0;
+        double y = centerY - CUSTOMER_HEIGHT / 2.0;
+        double split = CUSTOMER_WIDTH * hiddenInstore / hidden;
+        if (hiddenInstore > 0) {
+            gc.setFill(INSTORE_COLOR);
+            gc.fillRoundRect(x, y, CUSTOMER_WIDTH, CUSTOMER_HEIGHT, 6, 6);
+        }
+        if (hiddenInstore < hidden) {
+            gc.setFill(MOBILE_COLOR);
+            gc.fillRoundRect(x + split, y, CUSTOMER_WIDTH - split, CUSTOMER_HEIGHT, 6, 6);
+        }
+        gc.setStroke(Color.WHITE);
+        gc.strokeRoundRect(x, y, CUSTOMER_WIDTH, CUSTOMER_HEIGHT, 6, 6);
+
+        gc.setFill(Color.WHITE);
+        gc.setFont(Font.font("Inter", 9));
+        gc.fillText("+" + hidden, x + 3, centerY + 3);
+    }
+
+    private static double customerY(int position) {
+        return LANE_BASELINE + position * QUEUE_SPACING;
     }
 
     private void drawCustomerSprite(Customer customer, double centerX, double centerY) {
-        boolean instore = "INSTORE".equalsIgnoreCase(customer.getType());
+        boolean instore = INSTORE.equalsIgnoreCase(customer.getType());
         Color fill = instore ? INSTORE_COLOR : MOBILE_COLOR;
         String badge = instore ? "IN" : "MB";
 
@@ -283,8 +396,8 @@ public class Visualisation extends Canvas implements IVisualisation {
     }
 
     private void drawLegend() {
-        double boxX = getWidth() - LEGEND_WIDTH - LEGEND_PADDING;
-        double boxY = getHeight() - LEGEND_HEIGHT - LEGEND_PADDING;
+        double boxX = legendX();
+        double boxY = legendY();
 
         gc.setFill(LEGEND_BACKGROUND);
         gc.fillRoundRect(boxX, boxY, LEGEND_WIDTH, LEGEND_HEIGHT, 12, 12);
@@ -300,6 +413,14 @@ public class Visualisation extends Canvas implements IVisualisation {
         drawLegendEntry(boxX + 12, boxY + 50, MOBILE_COLOR, "MB = Mobile order");
     }
 
+    private double legendX() {
+        return getWidth() - LEGEND_WIDTH - LEGEND_PADDING;
+    }
+
+    private double legendY() {
+        return getHeight() - LEGEND_HEIGHT - LEGEND_PADDING;
+    }
+
     private void drawLegendEntry(double x, double y, Color color, String text) {
         gc.setFill(color);
         gc.fillRoundRect(x, y - 10, 22, 14, 7, 7);
@@ -350,8 +471,8 @@ public class Visualisation extends Canvas implements IVisualisation {
     private enum ServiceLane {
         CASHIER("Cashier", "Cashier – greets customers, takes new orders, and handles payment."),
         BARISTA("Barista", "Barista – prepares espresso shots and steams milk for every drink."),
-        FINISHING("Finishing", "Finishing – adds toppings, checks accuracy, and bags food items."),
-        PICKUP("Pickup", "Pickup – calls out names and hands drinks to waiting guests.");
+        SHELF("Pickup Shelf", "Pickup shelf – in-store orders wait here until the guest collects them."),
+        DELIVERY("Delivery", "Delivery window – hands mobile orders to couriers and guests.");
 
         private final String label;
         private final String description;
@@ -390,6 +511,7 @@ public class Visualisation extends Canvas implements IVisualisation {
             changed = true;
         }
         if (changed) {
+            staticLayer = null;
             drawScene();
         }
     }
@@ -0,0 +1,48 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link Alias}.
+ * <p>
+ * Verifies that outcome frequencies follow the configured weights,
+ * that zero-weight outcomes never occur and that invalid weights are
+ * rejected.
+ * </p>
+ */
+class AliasTest {
+
+    @Test
+    void frequenciesFollowWeights() {
+        double[] weights = {45, 35, 20, 0, 7.5};
+        double total = 107.5;
+        Alias alias = new Alias(weights, 321L);
+        int draws = 200_000;
+        int[] counts = new int[weights.length];
+        for (int i = 0; i < draws; i++) {
+            counts[(int) alias.sample()]++;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            double p = weights[i] / total;
+            double tolerance = 5.0 * Math.sqrt(p * (1 - p) / draws) + 1e-9;
+            assertEquals(p, (double) counts[i] / draws, tolerance, "outcome " + i);
+        }
+        assertEquals(0, counts[3]);
+    }
+
+    @Test
+    void singleOutcomeIsAlwaysChosen() {
+        Alias alias = new Alias(new double[] {3.0}, 8L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0L, alias.sample());
+        }
+    }
+
+    @Test
+    void rejectsInvalidWeights() {
+        assertThrows(ParameterException.class, () -> new Alias(new double[] {0.0, 0.0}));
+        assertThrows(ParameterException.class, () -> new Alias(new double[] {1.0, -2.0}));
+        assertThrows(ParameterException.class, () -> new Alias(new double[0]));
+    }
+}
@@ -0,0 +1,68 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link Empirical}.
+ * <p>
+ * Verifies that samples stay within the recorded range, that the sample
+ * quantiles follow the recorded data (including a bimodal mix) and that
+ * equal seeds replay equal sequences.
+ * </p>
+ */
+class EmpiricalTest {
+
+    @Test
+    void samplesStayWithinRecordedRange() {
+        Empirical empirical = new Empirical(new double[] {4.0, 1.0, 3.0, 2.0}, 11L);
+        assertEquals(1.0, empirical.getMin(), 0.0);
+        assertEquals(4.0, empirical.getMax(), 0.0);
+        for (int i = 0; i < 10_000; i++) {
+            double value = empirical.sample();
+            assertTrue(value >= 1.0 && value <= 4.0);
+        }
+    }
+
+    @Test
+    void reproducesQuantilesOfBimodalData() {
+        double[] recorded = new double[2000];
+        Normal espresso = new Normal(2.0, 0.1, 1L);
+        Normal blended = new Normal(6.5, 0.5, 2L);
+        for (int i = 0; i < recorded.length; i++) {
+            recorded[i] = (i % 4 == 0) ? blended.sample() : espresso.sample();
+        }
+        double[] sortedRecorded = recorded.clone();
+        Arrays.sort(sortedRecorded);
+
+        Empirical empirical = new Empirical(recorded, 99L);
+        double[] drawn = new double[100_000];
+        for (int i = 0; i < drawn.length; i++) {
+            drawn[i] = empirical.sample();
+        }
+        Arrays.sort(drawn);
+
+        for (double q : new double[] {0.1, 0.5, 0.7, 0.8, 0.95}) {
+            double expected = sortedRecorded[(int) (q * (sortedRecorded.length - 1))];
+            double actual = drawn[(int) (q * (drawn.length - 1))];
+            assertEquals(expected, actual, 0.1, "quantile " + q);
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameSequence() {
+        double[] recorded = {1.5, 2.5, 2.0, 7.0, 3.25};
+        Empirical a = new Empirical(recorded, 5L);
+        Empirical b = new Empirical(recorded, 5L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a.sample(), b.sample(), 0.0);
+        }
+    }
+
+    @Test
+    void rejectsTooFewSamples() {
+        assertThrows(ParameterException.class, () -> new Empirical(new double[] {1.0}));
+    }
+}
@@ -0,0 +1,168 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Statistical correctness tests for the constant expected time samplers
+ * in {@link Distributions}.
+ * <p>
+ * Each sampler is checked against the theoretical mean and variance of
+ * its distribution; Poisson and binomial samples are also checked with a
+ * chi-square goodness-of-fit test against the exact probability mass
+ * function. Fixed seeds keep the tests repeatable.
+ * </p>
+ */
+class FastDistributionsTest {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void poissonMatchesMomentsForSmallAndLargeMeans() {
+        for (double mean : new double[] {3.0, 10.0, 75.5, 4000.0}) {
+            FastPoisson poisson = new FastPoisson(mean, 12345L);
+            double[] values = new double[SAMPLES];
+            for (int i = 0; i < SAMPLES; i++) {
+                values[i] = poisson.sample();
+            }
+            assertMoments(values, mean, mean);
+        }
+    }
+
+    @Test
+    void poissonPassesChiSquareGoodnessOfFit() {
+        double mean = 50.0;
+        FastPoisson poisson = new FastPoisson(mean, 98765L);
+        long[] draws = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            draws[i] = poisson.sample();
+        }
+        assertGoodnessOfFit(draws, k -> Math.exp(-mean + k * Math.log(mean) - Distributions.logFactorial(k)));
+    }
+
+    @Test
+    void binomialMatchesMomentsInBothBranches() {
+        int[] trials = {20, 1000, 5000};
+        double[] probs = {0.3, 0.05, 0.8};
+        for (int i = 0; i < trials.length; i++) {
+            FastBinomial binomial = new FastBinomial(probs[i], trials[i], 4242L);
+            double[] values = new double[SAMPLES];
+            for (int j = 0; j < SAMPLES; j++) {
+                values[j] = binomial.sample();
+            }
+            double n = trials[i];
+            double p = probs[i];
+            assertMoments(values, n * p, n * p * (1 - p));
+        }
+    }
+
+    @Test
+    void binomialPassesChiSquareGoodnessOfFit() {
+        int n = 400;
+        double p = 0.35;
+        FastBinomial binomial = new FastBinomial(p, n, 2024L);
+        long[] draws = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            draws[i] = binomial.sample();
+        }
+        double logBinomial = Distributions.logFactorial(n);
+        assertGoodnessOfFit(draws, k -> k > n ? 0.0 : Math.exp(logBinomial
+                - Distributions.logFactorial(k) - Distributions.logFactorial(n - k)
+                + k * Math.log(p) + (n - k) * Math.log(1 - p)));
+    }
+
+    @Test
+    void pascalMatchesMomentsOfLegacyDefinition() {
+        double p = 0.2;
+        int successes = 40;
+        FastPascal pascal = new FastPascal(p, successes, 777L);
+        double[] values = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            values[i] = pascal.sample();
+        }
+        // number of trials until the given number of successes
+        assertMoments(values, successes / p, successes * (1 - p) / (p * p));
+    }
+
+    @Test
+    void gammaMatchesMomentsForSmallIntegerAndLargeShapes() {
+        double scale = 1.5;
+        for (double shape : new double[] {0.4, 1.0, 3.0, 27.5}) {
+            FastGamma gamma = new FastGamma(scale, shape, 31337L);
+            double[] values = new double[SAMPLES];
+            for (int i = 0; i < SAMPLES; i++) {
+                values[i] = gamma.sample();
+                assertTrue(values[i] > 0.0);
+            }
+            assertMoments(values, shape * scale, shape * scale * scale);
+        }
+    }
+
+    @Test
+    void chisquareMatchesMoments() {
+        Distributions distributions = new Distributions(555L);
+        long degrees = 12;
+        double[] values = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            values[i] = distributions.fastChisquare(degrees);
+        }
+        assertMoments(values, degrees, 2.0 * degrees);
+    }
+
+    @Test
+    void logFactorialMatchesExactProduct() {
+        double exact = 0.0;
+        for (int k = 1; k <= 60; k++) {
+            exact += Math.log(k);
+            assertEquals(exact, Distributions.logFactorial(k), 1e-10 * Math.max(1.0, exact));
+        }
+    }
+
+    private static void assertMoments(double[] values, double expectedMean, double expectedVariance) {
+        double sum = 0.0;
+        for (double v : values) {
+            sum += v;
+        }
+        double mean = sum / values.length;
+        double squares = 0.0;
+        for (double v : values) {
+            squares += (v - mean) * (v - mean);
+        }
+        double variance = squares / (values.length - 1);
+
+        double meanTolerance = 5.0 * Math.sqrt(expectedVariance / values.length);
+        assertEquals(expectedMean, mean, meanTolerance, "sample mean");
+        assertEquals(expectedVariance, variance, 0.03 * expectedVariance, "sample variance");
+    }
+
+    private static void assertGoodnessOfFit(long[] draws, java.util.function.LongToDoubleFunction pmf) {
+        long max = 0;
+        for (long d : draws) {
+            max = Math.max(max, d);
+        }
+        long[] counts = new long[(int) max + 1];
+        for (long d : draws) {
+            counts[(int) d]++;
+        }
+        // pool neighbouring values until every bin expects at least 5 draws
+        double statistic = 0.0;
+        int bins = 0;
+        double expected = 0.0;
+        long observed = 0;
+        for (int k = 0; k <= max; k++) {
+            expected += pmf.applyAsDouble(k) * draws.length;
+            observed += counts[k];
+            if (expected >= 5.0) {
+                statistic += (observed - expected) * (observed - expected) / expected;
+                bins++;
+                expected = 0.0;
+                observed = 0;
+            }
+        }
+        int degrees = bins - 1;
+        // roughly the 0.9999 quantile of the chi-square distribution
+        double critical = degrees + 4.0 * Math.sqrt(2.0 * degrees) + 10.0;
+        assertTrue(statistic < critical,
+                "chi-square statistic " + statistic + " exceeds " + critical + " for " + degrees + " dof");
+    }
+}
@@ -0,0 +1,38 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link SeedGenerator}.
+ * <p>
+ * Verifies that seeds are spaced exactly as many numbers of the source
+ * generator apart as the spacing says.
+ * </p>
+ */
+class SeedGeneratorTest {
+
+    @Test
+    void seedsAreSpacedBySourceNumbers() {
+        SeedGenerator seeds = new SeedGenerator(4851L, 100000);
+        RandomGenerator source = new RandomGenerator(4851L);
+
+        assertEquals(4851L, seeds.sample());
+        for (int seed = 0; seed < 5; seed++) {
+            for (int i = 0; i < 100000; i++) {
+                source.nextLong();
+            }
+            assertEquals(source.getSeed(), seeds.sample());
+        }
+    }
+
+    @Test
+    void jumpOfOneStepIsTheMultiplier() {
+        RandomGenerator stepped = new RandomGenerator(123L);
+        RandomGenerator skipped = new RandomGenerator(123L);
+        stepped.nextLong();
+        skipped.skip(RandomGenerator.jump(1));
+        assertEquals(stepped.getSeed(), skipped.getSeed());
+        assertEquals(1L, RandomGenerator.jump(0));
+    }
+}
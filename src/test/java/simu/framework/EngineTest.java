@@ -0,0 +1,171 @@
+package simu.framework;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import simu.model.MyEngine;
+import simulation.config.SimulationParameters;
+import simulation.logic.SimulationListener;
+import simulation.logic.Simulator;
+import simulation.model.Customer;
+import simulation.model.Event;
+import simulation.statistics.SimulationStatistics;
+import simulation.ui.IControllerMtoV;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link Engine}.
+ * <p>
+ * Verifies that engines run as executor tasks side by side with their own
+ * clocks, that a GUI run reports the same statistics as a batch run of the
+ * simulation core, that pause, step and resume control a running engine, and
+ * that a run that fails tells its controller.
+ * </p>
+ */
+class EngineTest {
+
+    private static final SimulationParameters PARAMETERS = SimulationParameters.builder().baristaServers(3).build();
+
+    @BeforeAll
+    static void quietTrace() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+    }
+
+    @Test
+    void enginesRunSideBySide() throws Exception {
+        RecordingController shortRun = new RecordingController();
+        RecordingController longRun = new RecordingController();
+        IEngine first = engine(shortRun, 2_000);
+        IEngine second = engine(longRun, 8_000);
+
+        Future<?> firstDone = first.start();
+        Future<?> secondDone = second.start();
+        firstDone.get(30, TimeUnit.SECONDS);
+        secondDone.get(30, TimeUnit.SECONDS);
+
+        assertTrue(first.isFinished() && second.isFinished());
+        assertEquals(2_000, shortRun.results.getSimulationTime(), 1e-9);
+        assertEquals(8_000, longRun.results.getSimulationTime(), 1e-9);
+        assertTrue(longRun.moves.get() > shortRun.moves.get());
+        assertEquals(shortRun.results.getTotalDepartures(), shortRun.exits.get());
+        assertThrows(IllegalStateException.class, first::start);
+    }
+
+    @Test
+    void pauseStepAndResume() throws Exception {
+        RecordingController controller = new RecordingController();
+        IEngine engine = engine(controller, 100_000);
+        engine.setDelay(1);
+        Future<?> done = engine.start();
+
+        engine.pauseSimulation();
+        assertTrue(engine.isPaused());
+        awaitTrue(engine::isSuspended); // the event in progress has finished
+        int paused = controller.moves.get();
+
+        // every event of the model moves a customer
+        engine.stepOnce();
+        awaitTrue(() -> controller.moves.get() > paused);
+        awaitTrue(engine::isSuspended);
+        int stepped = controller.moves.get();
+        assertTrue(engine.isPaused());
+        assertFalse(engine.isFinished());
+        engine.stepOnce();
+        awaitTrue(() -> controller.moves.get() > stepped);
+        awaitTrue(engine::isSuspended);
+
+        engine.setDelay(0);
+        engine.resumeSimulation();
+        done.get(60, TimeUnit.SECONDS);
+        assertEquals(100_000, controller.results.getSimulationTime(), 1e-9);
+    }
+
+    @Test
+    void guiRunMatchesBatchRun() throws Exception {
+        RecordingController controller = new RecordingController();
+        IEngine engine = new MyEngine(controller, PARAMETERS, 21);
+        engine.setSimulationTime(3_000);
+        engine.start().get(30, TimeUnit.SECONDS);
+
+        Simulator batch = new Simulator(PARAMETERS, false);
+        batch.setSeed(21);
+        batch.initialize();
+        batch.run(3_000);
+        SimulationStatistics expected = batch.getStatistics();
+        assertEquals(expected.getTotalArrivals(), controller.results.getTotalArrivals());
+        assertEquals(expected.getTotalDepartures(), controller.results.getTotalDepartures());
+        assertEquals(expected.getAverageWaitingTime(), controller.results.getAverageWaitingTime(), 1e-9);
+    }
+
+    @Test
+    void failedRunTellsController() throws Exception {
+        RecordingController controller = new RecordingController();
+        IEngine engine = new MyEngine(controller, PARAMETERS) {
+            @Override
+            protected Simulator createSimulator() {
+                Simulator simulator = super.createSimulator();
+                simulator.addListener(new SimulationListener() {
+                    @Override
+                    public void onArrival(Event event) {
+                        throw new IllegalStateException("broken model");
+                    }
+                });
+                return simulator;
+            }
+        };
+        engine.setSimulationTime(1_000);
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> engine.start().get(30, TimeUnit.SECONDS));
+        assertSame(failure.getCause(), controller.failure);
+        assertNull(controller.results);
+        assertTrue(engine.isFinished());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "engine did not reach the expected state");
+            Thread.sleep(1);
+        }
+    }
+
+    private static IEngine engine(IControllerMtoV controller, double simulationTime) {
+        IEngine engine = new MyEngine(controller, PARAMETERS);
+        engine.setSimulationTime(simulationTime);
+        return engine;
+    }
+
+    private static final class RecordingController implements IControllerMtoV {
+        private final AtomicInteger moves = new AtomicInteger();
+        private final AtomicInteger exits = new AtomicInteger();
+        private volatile SimulationStatistics results;
+        private volatile Throwable failure;
+
+        @Override
+        public void showResults(SimulationStatistics statistics) {
+            results = statistics;
+        }
+
+        @Override
+        public void showFailure(Throwable cause) {
+            failure = cause;
+        }
+
+        @Override
+        public void visualiseCustomer(Customer customer, int servicePointIndex) {
+            moves.incrementAndGet();
+        }
+
+        @Override
+        public void removeCustomer(Customer customer) {
+            moves.incrementAndGet();
+            exits.incrementAndGet();
+        }
+    }
+}
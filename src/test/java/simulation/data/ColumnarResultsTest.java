@@ -0,0 +1,109 @@
+package simulation.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link ColumnarResultsWriter} and {@link ColumnarResultsReader}.
+ * <p>
+ * Verifies that every column type round-trips across several blocks, that
+ * delta and dictionary encoding keep typical columns small, and that
+ * misuse and foreign files are rejected.
+ * </p>
+ */
+class ColumnarResultsTest {
+
+    private static final List<ResultColumn> COLUMNS = List.of(
+            ResultColumn.longColumn("Run"),
+            ResultColumn.longColumn("Seed"),
+            ResultColumn.doubleColumn("Wait"),
+            ResultColumn.stringColumn("Design"));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void roundTripsAllColumnsAcrossBlocks() throws IOException {
+        Path file = tempDir.resolve("results.cols");
+        int rows = 10_000;
+        Random random = new Random(1);
+        long[] seeds = new long[rows];
+        double[] waits = new double[rows];
+        String[] designs = new String[rows];
+
+        try (ColumnarResultsWriter writer = new ColumnarResultsWriter(file, "test sweep", COLUMNS, 4096)) {
+            for (int i = 0; i < rows; i++) {
+                seeds[i] = random.nextLong();
+                waits[i] = random.nextDouble() * 10;
+                designs[i] = i % 3 == 0 ? "lhs" : "sobol";
+                writer.setLong(0, i);
+                writer.setLong(1, seeds[i]);
+                writer.setDouble(2, waits[i]);
+                writer.setString(3, designs[i]);
+                writer.endRow();
+            }
+        }
+
+        try (ColumnarResultsReader reader = new ColumnarResultsReader(file)) {
+            assertEquals("test sweep", reader.getDescription());
+            assertEquals(COLUMNS, reader.getColumns());
+            assertEquals(rows, reader.getRowCount());
+            assertEquals(3, reader.getBlockCount());
+            long[] runs = reader.readLongs("Run");
+            for (int i = 0; i < rows; i++) {
+                assertEquals(i, runs[i]);
+            }
+            assertArrayEquals(seeds, reader.readLongs("Seed"));
+            assertArrayEquals(waits, reader.readDoubles("Wait"));
+            assertArrayEquals(designs, reader.readStrings("Design"));
+        }
+    }
+
+    @Test
+    void encodesCountersAndLabelsCompactly() throws IOException {
+        Path file = tempDir.resolve("compact.cols");
+        List<ResultColumn> columns = List.of(ResultColumn.longColumn("Run"), ResultColumn.stringColumn("Design"));
+        try (ColumnarResultsWriter writer = new ColumnarResultsWriter(file, "", columns)) {
+            for (int i = 0; i < 100_000; i++) {
+                writer.setLong(0, 1_000_000L + i);
+                writer.setString(1, "factorial");
+                writer.endRow();
+            }
+        }
+
+        // a run counter needs no bytes per row, a repeated label one byte per row
+        assertTrue(Files.size(file) < 120_000, "size " + Files.size(file));
+    }
+
+    @Test
+    void rejectsMisuse() throws IOException {
+        Path file = tempDir.resolve("misuse.cols");
+        try (ColumnarResultsWriter writer = new ColumnarResultsWriter(file, "", COLUMNS)) {
+            assertThrows(IllegalArgumentException.class, () -> writer.setDouble(0, 1.0));
+            writer.setLong(0, 1);
+            assertThrows(IllegalStateException.class, writer::endRow);
+        }
+        try (ColumnarResultsReader reader = new ColumnarResultsReader(file)) {
+            assertEquals(0, reader.getRowCount());
+            assertThrows(IllegalArgumentException.class, () -> reader.readLongs("Wait"));
+            assertThrows(IllegalArgumentException.class, () -> reader.readLongs("Missing"));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ColumnarResultsWriter(tempDir.resolve("dup.cols"), "",
+                List.of(ResultColumn.longColumn("A"), ResultColumn.doubleColumn("A"))));
+    }
+
+    @Test
+    void rejectsForeignFiles() throws IOException {
+        Path file = tempDir.resolve("results.csv");
+        Files.writeString(file, "Point;Replication;Seed\n0;0;1\n");
+
+        assertThrows(IOException.class, () -> new ColumnarResultsReader(file));
+    }
+}
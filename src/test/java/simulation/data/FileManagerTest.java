@@ -0,0 +1,77 @@
+package simulation.data;
+
+import eduni.distributions.Empirical;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simulation.random.CategoricalGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for the distribution loaders of {@link FileManager}.
+ * <p>
+ * Verifies that sample and weight files are read with their comments
+ * skipped, that the drink mix keeps the outcome names, and that empty or
+ * malformed files are rejected.
+ * </p>
+ */
+class FileManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path write(String... lines) throws IOException {
+        return Files.write(tempDir.resolve("data.txt"), List.of(lines));
+    }
+
+    @Test
+    void loadsEmpiricalSamples() throws IOException {
+        Empirical empirical = FileManager.loadEmpirical(write("# service times", "2.5", "", "3.5"));
+        for (int i = 0; i < 100; i++) {
+            double sample = empirical.sample();
+            assertTrue(sample >= 2.5 && sample <= 3.5, "sample " + sample + " outside the data");
+        }
+    }
+
+    @Test
+    void rejectsEmptyOrMalformedSamples() throws IOException {
+        assertThrows(IOException.class, () -> FileManager.loadEmpirical(write("# nothing recorded")));
+        assertThrows(IOException.class, () -> FileManager.loadEmpirical(write("2.5", "fast")));
+    }
+
+    @Test
+    void drinkMixKeepsNames() throws IOException {
+        CategoricalGenerator drinks = FileManager.loadAlias(Path.of("config/drink-mix.csv"));
+        assertEquals(List.of("espresso", "filter", "blended"), drinks.getNames());
+
+        drinks.setSeed(3);
+        Set<String> drawn = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            drawn.add(drinks.sampleName());
+        }
+        assertEquals(Set.of("espresso", "filter", "blended"), drawn);
+    }
+
+    @Test
+    void zeroWeightOutcomeIsNeverDrawn() throws IOException {
+        CategoricalGenerator drinks = FileManager.loadAlias(write("tea;0", "latte;1"));
+        for (int i = 0; i < 100; i++) {
+            assertEquals("latte", drinks.sampleName());
+        }
+    }
+
+    @Test
+    void rejectsEmptyOrMalformedWeights() throws IOException {
+        assertThrows(IOException.class, () -> FileManager.loadAlias(write("# no drinks")));
+        assertThrows(IOException.class, () -> FileManager.loadAlias(write("espresso 45")));
+        assertThrows(IOException.class, () -> FileManager.loadAlias(write("espresso;many")));
+        assertThrows(IOException.class, () -> FileManager.loadAlias(write("espresso;-1")));
+        assertThrows(IOException.class, () -> FileManager.loadAlias(write("espresso;0", "filter;0")));
+    }
+}
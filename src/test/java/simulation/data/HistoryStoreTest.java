@@ -0,0 +1,99 @@
+package simulation.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simulation.ui.SimulationSummary;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link HistoryStore} and the paged reads of
+ * {@link SimulationHistoryRepository}.
+ * <p>
+ * Verifies latest-N and time-range reads across index intervals, recovery
+ * from a torn record and a lost index, and the import of an existing CSV
+ * history.
+ * </p>
+ */
+class HistoryStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @TempDir
+    Path tempDir;
+
+    private HistoryStore open() throws IOException {
+        return new HistoryStore(tempDir.resolve("history.bin"), tempDir.resolve("history.idx"));
+    }
+
+    private static void fill(HistoryStore store, int entries) throws IOException {
+        for (int i = 0; i < entries; i++) {
+            store.append(START.plusMinutes(i), new SimulationSummary(i, i, i / 10.0));
+        }
+    }
+
+    @Test
+    void readsLatestEntriesAndTimeRanges() throws IOException {
+        HistoryStore store = open();
+        fill(store, 300);
+
+        List<SimulationHistoryRepository.SimulationHistoryEntry> latest = store.readLatest(10);
+        assertEquals(10, latest.size());
+        assertEquals(290, latest.get(0).summary().totalCustomersServed());
+        assertEquals(299, latest.get(9).summary().totalCustomersServed());
+        assertEquals(START.plusMinutes(299), latest.get(9).timestamp());
+        assertEquals(29.9, latest.get(9).summary().averageWaitingTime(), 1e-12);
+        assertEquals(300, store.readLatest(1000).size());
+
+        // spans several index intervals and starts inside one
+        List<SimulationHistoryRepository.SimulationHistoryEntry> range =
+                store.readRange(START.plusMinutes(60), START.plusMinutes(200));
+        assertEquals(140, range.size());
+        assertEquals(60, range.get(0).summary().totalCustomersServed());
+        assertEquals(199, range.get(139).summary().totalCustomersServed());
+        assertTrue(store.readRange(START.minusDays(1), START).isEmpty());
+        assertEquals(300, store.readRange(START.minusDays(1), START.plusDays(1)).size());
+    }
+
+    @Test
+    void recoversFromTornRecordAndLostIndex() throws IOException {
+        fill(open(), 130);
+        try (FileChannel channel = FileChannel.open(tempDir.resolve("history.bin"), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+        Files.delete(tempDir.resolve("history.idx"));
+
+        HistoryStore store = open();
+        assertEquals(129, store.size());
+        assertEquals(64, store.readRange(START.plusMinutes(64), START.plusMinutes(128)).size());
+        fill(store, 1);
+        assertEquals(130, store.size());
+    }
+
+    @Test
+    void repositoryImportsCsvHistoryOnce() throws IOException {
+        Path csv = tempDir.resolve("simulation-history.csv");
+        Files.writeString(csv, "timestamp;simulationTime;totalCustomers;averageWaiting\n"
+                + "2025-12-09 16:52;200.523;33;5.568\n"
+                + "INVALID DATA LINE\n"
+                + "2025-12-09 17:23;2000.420;376;23.938\n");
+        SimulationHistoryRepository repository = new SimulationHistoryRepository(csv);
+
+        repository.append(new SimulationSummary(100.0, 20, 1.5));
+
+        List<SimulationHistoryRepository.SimulationHistoryEntry> latest = repository.readLatest(10);
+        assertEquals(3, latest.size());
+        assertEquals(33, latest.get(0).summary().totalCustomersServed());
+        assertEquals(20, latest.get(2).summary().totalCustomersServed());
+        assertEquals(1, repository.readRange(LocalDateTime.of(2025, 12, 9, 17, 0),
+                LocalDateTime.of(2025, 12, 9, 18, 0)).size());
+        assertEquals(3, new SimulationHistoryRepository(csv).readLatest(10).size());
+    }
+}
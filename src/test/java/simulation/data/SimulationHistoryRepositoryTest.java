@@ -1,6 +1,7 @@
 package simulation.data;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import simulation.ui.SimulationSummary;
 
 import java.io.IOException;
@@ -14,25 +15,24 @@ import static org.junit.jupiter.api.Assertions.*;
  * <p>
  * These tests verify that simulation summaries can be correctly appended
  * to and read from the CSV history file, including handling of empty
- * or invalid files.
+ * or invalid files, and that the paged reads follow the CSV file when it
+ * changes.
  */
 class SimulationHistoryRepositoryTest {
 
+    @TempDir
+    Path tempDir;
+
     private SimulationHistoryRepository repo;
-    private static final Path TEST_FILE = Path.of("output", "simulation-history.csv");
+    private Path historyFile;
     /**
-     * Sets up a fresh {@link SimulationHistoryRepository} before each test
-     * and deletes any existing test CSV file to ensure tests start clean.
-     *
-     * @throws IOException if the test file cannot be deleted
+     * Sets up a fresh {@link SimulationHistoryRepository} on a CSV file in a
+     * temporary directory, so the tests never touch the real history.
      */
     @BeforeEach
-    void setup() throws IOException {
-        repo = new SimulationHistoryRepository();
-        // Delete any existing test file before running each test
-        if (Files.exists(TEST_FILE)) {
-            Files.delete(TEST_FILE);
-        }
+    void setup() {
+        historyFile = tempDir.resolve("output").resolve("simulation-history.csv");
+        repo = new SimulationHistoryRepository(historyFile);
     }
     /**
      * Tests that a single {@link SimulationSummary} can be appended to the
@@ -63,8 +63,7 @@ class SimulationHistoryRepositoryTest {
      */
     @Test
     void readEmptyWhenFileMissing() throws IOException {
-        // Ensure file does not exist
-        if (Files.exists(TEST_FILE)) Files.delete(TEST_FILE);
+        assertFalse(Files.exists(historyFile));
 
         List<SimulationHistoryRepository.SimulationHistoryEntry> entries = repo.readAll();
 
@@ -79,8 +78,8 @@ class SimulationHistoryRepositoryTest {
     @Test
     void parseInvalidLineReturnsEmpty() throws IOException {
         // Create corrupted file manually
-        Files.createDirectories(TEST_FILE.getParent());
-        Files.writeString(TEST_FILE,
+        Files.createDirectories(historyFile.getParent());
+        Files.writeString(historyFile,
                 "timestamp;simulationTime;totalCustomers;averageWaiting\n" + // header
                         "INVALID DATA LINE\n",
                 StandardOpenOption.CREATE);
@@ -90,5 +89,44 @@ class SimulationHistoryRepositoryTest {
         assertEquals(1, entries.size());
         assertTrue(entries.get(0).isEmpty(), "Invalid CSV line should produce empty entry");
     }
+    /**
+     * Tests that the paged reads agree with the CSV file after it was
+     * deleted or edited outside the repository.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void pagedReadsFollowCsvChanges() throws IOException {
+        repo.append(new SimulationSummary(5.5, 12, 1.75));
+        repo.append(new SimulationSummary(6.5, 13, 2.25));
+        assertEquals(2, repo.readLatest(10).size());
+
+        Files.delete(historyFile);
+        assertTrue(repo.readLatest(10).isEmpty());
+
+        Files.writeString(historyFile, "timestamp;simulationTime;totalCustomers;averageWaiting\n"
+                + "2025-12-09 16:52;200.523;33;5.568\n");
+        List<SimulationHistoryRepository.SimulationHistoryEntry> latest = repo.readLatest(10);
+        assertEquals(repo.readAll(), latest);
+        assertEquals(33, latest.get(0).summary().totalCustomersServed());
 
+        repo.append(new SimulationSummary(7.5, 14, 2.75));
+        assertEquals(repo.readAll().size(), new SimulationHistoryRepository(historyFile).readLatest(10).size());
+    }
+    /**
+     * Tests that the paged reads return exactly the entries of the CSV file,
+     * with the same rounding, after several appends.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void latestEntriesEqualTailOfCsv() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            repo.append(new SimulationSummary(100.0 / 3 + i, 10 + i, 2.0 / 3 + i));
+        }
+
+        List<SimulationHistoryRepository.SimulationHistoryEntry> all = repo.readAll();
+        assertEquals(all.subList(2, 5), repo.readLatest(3));
+        assertEquals(all, new SimulationHistoryRepository(historyFile).readLatest(10));
+    }
 }
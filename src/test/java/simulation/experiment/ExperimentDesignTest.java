@@ -0,0 +1,84 @@
+package simulation.experiment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for the {@link ExperimentDesign} implementations and {@link Factor}.
+ * <p>
+ * Verifies that full-factorial designs enumerate every combination, that
+ * Latin-hypercube designs hit every stratum once and that Sobol points are
+ * evenly spread.
+ * </p>
+ */
+class ExperimentDesignTest {
+
+    @Test
+    void factorParsesRangeSpecification() {
+        Factor factor = Factor.parse("barista.servers", "1:3:3:int");
+
+        assertTrue(factor.integer());
+        assertEquals(2.0, factor.level(1), 0.0);
+        assertEquals("2", factor.format(factor.level(1)));
+        assertEquals(3.0, factor.scale(0.999), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> Factor.parse("x", "1:2"));
+    }
+
+    @Test
+    void fullFactorialEnumeratesEveryCombination() {
+        List<Factor> factors = List.of(new Factor("a", 0, 1, 2, false), new Factor("b", 10, 30, 3, false));
+
+        double[][] points = new FullFactorialDesign().points(factors);
+
+        assertEquals(6, points.length);
+        assertArrayEquals(new double[] {0, 10}, points[0], 0.0);
+        assertArrayEquals(new double[] {0, 20}, points[1], 0.0);
+        assertArrayEquals(new double[] {1, 30}, points[5], 0.0);
+    }
+
+    @Test
+    void latinHypercubeHitsEveryStratumOnce() {
+        int size = 20;
+        List<Factor> factors = List.of(new Factor("a", 0, 1, 1, false), new Factor("b", 0, 1, 1, false));
+
+        double[][] points = new LatinHypercubeDesign(size, 7).points(factors);
+
+        for (int f = 0; f < factors.size(); f++) {
+            boolean[] hit = new boolean[size];
+            for (double[] point : points) {
+                hit[(int) (point[f] * size)] = true;
+            }
+            for (boolean stratum : hit) {
+                assertTrue(stratum);
+            }
+        }
+        assertArrayEquals(points[3], new LatinHypercubeDesign(size, 7).points(factors)[3], 0.0);
+    }
+
+    @Test
+    void sobolPointsAreEvenlySpread() {
+        // the first 2^k - 1 points plus the skipped origin form a (0, k, 2) net in the first two
+        // dimensions: every elementary 4 x 4 box contains exactly one point
+        double[][] points = SobolDesign.unitPoints(15, 2);
+        int[] boxes = new int[16];
+        boxes[0] = 1;
+        for (double[] point : points) {
+            boxes[(int) (point[0] * 4) * 4 + (int) (point[1] * 4)]++;
+        }
+        int[] expected = new int[16];
+        Arrays.fill(expected, 1);
+        assertArrayEquals(expected, boxes);
+
+        double[][] wide = SobolDesign.unitPoints(1024, SobolDesign.MAX_DIMENSIONS);
+        for (int d = 0; d < SobolDesign.MAX_DIMENSIONS; d++) {
+            double mean = 0;
+            for (double[] point : wide) {
+                mean += point[d] / wide.length;
+            }
+            assertEquals(0.5, mean, 0.01);
+        }
+    }
+}
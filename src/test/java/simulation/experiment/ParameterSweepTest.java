@@ -0,0 +1,110 @@
+package simulation.experiment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simulation.data.ColumnarResultsReader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link ParameterSweep}.
+ * <p>
+ * Verifies that every point and replication is written once, that runs
+ * are reproducible, and that an interrupted sweep resumes without
+ * repeating finished runs.
+ * </p>
+ */
+class ParameterSweepTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ParameterSweep sweep() {
+        Properties base = new Properties();
+        base.setProperty("simulation.duration", "120");
+        List<Factor> factors = List.of(
+                Factor.parse("cashier.service.mean", "2:4:2"),
+                Factor.parse("barista.servers", "1:2:2:int"));
+        return new ParameterSweep(base, factors, new FullFactorialDesign(), 3, 99L);
+    }
+
+    private static List<String> rows(Path file) throws Exception {
+        return Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.startsWith("#") && !line.startsWith("Point;"))
+                .sorted()
+                .toList();
+    }
+
+    @Test
+    void writesEveryRunOnceAndIsReproducible() throws Exception {
+        Path first = tempDir.resolve("first.csv");
+        Path second = tempDir.resolve("second.csv");
+
+        assertEquals(12, sweep().run(first, 4));
+        sweep().run(second, 1);
+
+        assertEquals(12, rows(first).size());
+        assertEquals(rows(first), rows(second));
+        assertEquals(sweep().parametersAt(sweep().getPoint(3)).getBaristaServers(), 2);
+    }
+
+    @Test
+    void resumesAfterInterruptedRun() throws Exception {
+        Path complete = tempDir.resolve("complete.csv");
+        sweep().run(complete, 2);
+        List<String> lines = Files.readAllLines(complete, StandardCharsets.UTF_8);
+
+        // keep the header and five rows, then half a row as if the process died mid-write
+        Path partial = tempDir.resolve("partial.csv");
+        Files.write(partial, lines.subList(0, 7), StandardCharsets.UTF_8);
+        Files.writeString(partial, lines.get(7).substring(0, 10), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertEquals(7, sweep().run(partial, 2));
+        assertEquals(rows(complete), rows(partial));
+        assertEquals(0, sweep().run(partial, 2));
+    }
+
+    @Test
+    void rejectsResultsOfDifferentExperiment() throws Exception {
+        Path file = tempDir.resolve("other.csv");
+        Files.writeString(file, "# sweep something else\n", StandardCharsets.UTF_8);
+
+        assertThrows(IllegalStateException.class, () -> sweep().run(file, 1));
+    }
+
+    @Test
+    void columnarOutputMatchesCsv() throws Exception {
+        Path csv = tempDir.resolve("results.csv");
+        Path columnar = tempDir.resolve("results.cols");
+        sweep().run(csv, 2);
+
+        assertEquals(12, sweep().runColumnar(columnar, 2));
+
+        try (ColumnarResultsReader reader = new ColumnarResultsReader(columnar)) {
+            assertEquals(sweep().describe(), reader.getDescription());
+            assertEquals(12, reader.getRowCount());
+            long[] points = reader.readLongs("Point");
+            long[] replications = reader.readLongs("Replication");
+            double[] waits = reader.readDoubles("AvgWaitingTime");
+            for (String row : rows(csv)) {
+                String[] fields = row.split(";");
+                int match = -1;
+                for (int i = 0; i < points.length; i++) {
+                    if (points[i] == Long.parseLong(fields[0]) && replications[i] == Long.parseLong(fields[1])) {
+                        match = i;
+                    }
+                }
+                assertTrue(match >= 0, row);
+                assertEquals(Double.parseDouble(fields[8]), waits[match], 1e-6);
+            }
+            assertEquals(12, Arrays.stream(reader.readDoubles("barista.servers")).filter(v -> v >= 1).count());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package simulation.experiment;
+
+import org.junit.jupiter.api.Test;
+import simulation.config.SimulationParameters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link RankingAndSelection}.
+ * <p>
+ * Verifies that the best staffing is selected and that clearly worse
+ * configurations are eliminated early, using far fewer replications than
+ * running every configuration to the limit.
+ * </p>
+ */
+class RankingAndSelectionTest {
+
+    @Test
+    void selectsBestStaffingWithFewReplications() throws Exception {
+        List<SimulationParameters> configurations = new ArrayList<>();
+        for (int baristas = 1; baristas <= 3; baristas++) {
+            for (double cashierMean : new double[] {2.0, 3.0}) {
+                configurations.add(SimulationParameters.builder()
+                        .simulationDuration(240)
+                        .baristaServers(baristas)
+                        .cashierServiceMean(cashierMean)
+                        .build());
+            }
+        }
+
+        RankingAndSelection.Result result = RankingAndSelection.builder(configurations)
+                .metric(Metric.AVERAGE_WAITING_TIME)
+                .indifferenceZone(0.5)
+                .maxReplications(200)
+                .threads(4)
+                .seed(21)
+                .build()
+                .run();
+
+        SimulationParameters best = configurations.get(result.getBest());
+        assertEquals(3, best.getBaristaServers());
+        assertEquals(2.0, best.getCashierServiceMean(), 0.0);
+        // one barista is hopeless and must be dropped soon after the first stage
+        assertTrue(result.getReplications(0) < 20, result.toString());
+        assertTrue(result.getTotalReplications() < configurations.size() * 200 / 2,
+                result.toString());
+    }
+
+    @Test
+    void maximizeSelectsHighestThroughput() throws Exception {
+        List<SimulationParameters> configurations = List.of(
+                SimulationParameters.builder().simulationDuration(240).instoreArrivalMean(8).build(),
+                SimulationParameters.builder().simulationDuration(240).instoreArrivalMean(2).build());
+
+        RankingAndSelection.Result result = RankingAndSelection.builder(configurations)
+                .metric(Metric.THROUGHPUT)
+                .maximize()
+                .indifferenceZone(0.01)
+                .threads(2)
+                .build()
+                .run();
+
+        assertEquals(1, result.getBest());
+        assertTrue(result.getMean(1) > result.getMean(0));
+    }
+}
@@ -0,0 +1,60 @@
+package simulation.experiment;
+
+import org.junit.jupiter.api.Test;
+import simulation.config.SimulationParameters;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link SequentialReplication}.
+ * <p>
+ * Verifies that replications stop once the target precision is met, that
+ * the replication limit is respected and that results are reproducible.
+ * </p>
+ */
+class SequentialReplicationTest {
+
+    private static final SimulationParameters PARAMETERS =
+            SimulationParameters.builder().simulationDuration(240).build();
+
+    @Test
+    void stopsWhenPrecisionIsReached() throws Exception {
+        SequentialReplication.Result result = SequentialReplication.builder(PARAMETERS)
+                .metrics(Metric.AVERAGE_RESPONSE_TIME, Metric.THROUGHPUT)
+                .relativePrecision(0.1)
+                .threads(4)
+                .seed(7)
+                .build()
+                .run();
+
+        assertEquals(SequentialReplication.StopReason.PRECISION_REACHED, result.getStopReason());
+        assertTrue(result.getReplications() >= 10);
+        assertTrue(result.getRelativeHalfWidth(Metric.AVERAGE_RESPONSE_TIME) <= 0.1);
+        assertTrue(result.getRelativeHalfWidth(Metric.THROUGHPUT) <= 0.1);
+
+        SequentialReplication.Result again = SequentialReplication.builder(PARAMETERS)
+                .metrics(Metric.AVERAGE_RESPONSE_TIME, Metric.THROUGHPUT)
+                .relativePrecision(0.1)
+                .threads(1)
+                .waveSize(4)
+                .seed(7)
+                .build()
+                .run();
+        assertEquals(result.getReplications(), again.getReplications());
+        assertEquals(result.getMean(Metric.AVERAGE_RESPONSE_TIME), again.getMean(Metric.AVERAGE_RESPONSE_TIME), 0.0);
+    }
+
+    @Test
+    void respectsReplicationLimit() throws Exception {
+        SequentialReplication.Result result = SequentialReplication.builder(PARAMETERS)
+                .relativePrecision(1e-6)
+                .minReplications(5)
+                .maxReplications(12)
+                .threads(2)
+                .build()
+                .run();
+
+        assertEquals(SequentialReplication.StopReason.REPLICATION_LIMIT, result.getStopReason());
+        assertEquals(12, result.getReplications());
+        assertThrows(IllegalArgumentException.class, () -> result.getMean(Metric.THROUGHPUT));
+    }
+}
@@ -0,0 +1,52 @@
+package simulation.experiment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link StaffingOptimizer}.
+ * <p>
+ * Verifies that the search ends at a feasible configuration that no cheaper
+ * neighbour improves on and that configurations are never simulated twice.
+ * </p>
+ */
+class StaffingOptimizerTest {
+
+    private static StaffingOptimizer.Builder builder() {
+        Properties base = new Properties();
+        base.setProperty("simulation.duration", "240");
+        return StaffingOptimizer.builder(base)
+                .variable("cashier.servers", 1, 3, 1.0)
+                .variable("barista.servers", 1, 4, 1.2)
+                .constraint(Metric.P90_WAITING_TIME, 7.0)
+                .replications(10)
+                .threads(4)
+                .seed(3);
+    }
+
+    @Test
+    void findsCheapestFeasibleStaffing() throws Exception {
+        StaffingOptimizer.Result result = builder().build().optimize();
+
+        StaffingOptimizer.Evaluation best = result.getBest();
+        assertTrue(best.feasible(), result.toString());
+        assertTrue(best.mean() <= 7.0);
+        // a single barista cannot keep up with the default demand
+        assertTrue(best.values().get(1) >= 2);
+        assertEquals(List.of(3, 4), result.getPath().get(0).values());
+        assertTrue(result.getCacheHits() > 0);
+        assertTrue(result.getEvaluations() < 12, result.toString());
+        assertEquals(result.getEvaluations() * 10, result.getReplications());
+    }
+
+    @Test
+    void repairsInfeasibleStart() throws Exception {
+        StaffingOptimizer.Result result = builder().start(1, 1).build().optimize();
+
+        assertFalse(result.getPath().get(0).feasible());
+        assertTrue(result.getBest().feasible(), result.toString());
+    }
+}
@@ -0,0 +1,48 @@
+package simulation.experiment;
+
+import org.junit.jupiter.api.Test;
+import simulation.config.SimulationParameters;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link SteadyStateRun}.
+ * <p>
+ * Verifies that a stable model leaves its warm-up, that statistics only
+ * cover the time after truncation and that the batch-means interval meets
+ * the requested precision.
+ * </p>
+ */
+class SteadyStateRunTest {
+
+    @Test
+    void estimatesSteadyStateWaitAfterWarmUp() {
+        // three baristas keep the model stable so a steady state exists
+        SimulationParameters parameters = SimulationParameters.builder().baristaServers(3).build();
+
+        SteadyStateRun.Result result = SteadyStateRun.builder(parameters)
+                .relativePrecision(0.1)
+                .seed(5)
+                .build()
+                .run();
+
+        assertTrue(result.isWarmUpDetected());
+        assertTrue(result.getTruncatedCustomers() > 0);
+        assertTrue(result.isPrecisionReached(), result.toString());
+        assertTrue(result.getWaitHalfWidth() <= 0.1 * result.getWaitMean());
+        assertEquals(result.getEndTime() - result.getTruncationTime(),
+                result.getStatistics().getSimulationTime(), 1e-9);
+        assertTrue(result.getStatistics().getTotalDepartures() > 0);
+    }
+
+    @Test
+    void stopsAtTimeLimit() {
+        SteadyStateRun.Result result = SteadyStateRun.builder(SimulationParameters.defaults())
+                .relativePrecision(1e-6)
+                .maxTime(600)
+                .build()
+                .run();
+
+        assertFalse(result.isPrecisionReached());
+        assertEquals(600.0, result.getEndTime(), 1e-9);
+    }
+}
@@ -0,0 +1,65 @@
+package simulation.experiment;
+
+import org.junit.jupiter.api.Test;
+import simulation.config.SimulationParameters;
+import simulation.statistics.SimulationStatistics;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link WarmStart}.
+ * <p>
+ * Verifies that forks start from the captured customers, only observe the
+ * time after the fork, are reproducible per seed and differ between seeds.
+ * </p>
+ */
+class WarmStartTest {
+
+    private static final SimulationParameters PARAMETERS = SimulationParameters.builder()
+            .baristaServers(3)
+            .simulationDuration(200)
+            .build();
+
+    @Test
+    void forksStartFromWarmState() {
+        WarmStart warmStart = WarmStart.warmUp(PARAMETERS, 3, 2000);
+
+        assertEquals(2000.0, warmStart.getState().getTime(), 1e-9);
+        assertTrue(warmStart.getState().getCustomerCount() > 0);
+        assertEquals(2000.0, warmStart.fork(1).getTime(), 1e-9);
+
+        SimulationStatistics statistics = warmStart.runReplication(1);
+        assertEquals(200.0, statistics.getSimulationTime(), 1e-9);
+        // customers already in the shop leave without having arrived in the window
+        assertTrue(statistics.getTotalDepartures() > 0);
+    }
+
+    @Test
+    void forksAreReproducibleAndIndependent() {
+        WarmStart warmStart = WarmStart.warmUp(PARAMETERS, 3, 1000);
+
+        SimulationStatistics first = warmStart.runReplication(11);
+        SimulationStatistics again = warmStart.runReplication(11);
+        SimulationStatistics other = warmStart.runReplication(12);
+
+        assertEquals(first.getTotalWaitTime(), again.getTotalWaitTime());
+        assertEquals(first.getTotalDepartures(), again.getTotalDepartures());
+        assertNotEquals(first.getTotalWaitTime(), other.getTotalWaitTime());
+    }
+
+    @Test
+    void runnerForksManyReplications() throws InterruptedException {
+        WarmStart warmStart = WarmStart.warmUp(PARAMETERS, 3, 1000);
+
+        try (ReplicationRunner runner = new ReplicationRunner(4, 99)) {
+            List<SimulationStatistics> results = runner.run(warmStart, 0, 200);
+            assertEquals(200, results.size());
+            for (SimulationStatistics statistics : results) {
+                assertEquals(200.0, statistics.getSimulationTime(), 1e-9);
+            }
+            assertEquals(results.get(7).getTotalWaitTime(),
+                    runner.run(warmStart, 7, 1).get(0).getTotalWaitTime());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package simulation.logic;
+
+import org.junit.jupiter.api.Test;
+import simulation.config.SimulationParameters;
+import simulation.model.Customer;
+import simulation.model.ServicePoint;
+import simulation.statistics.SimulationStatistics;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for balking and reneging in {@link Simulator}.
+ * <p>
+ * Verifies that every arriving customer is accounted for as departed,
+ * abandoned or still in the system, that nobody is served after reneging,
+ * and that the default model loses no customers.
+ * </p>
+ */
+class AbandonmentTest {
+
+    @Test
+    void everyCustomerIsAccountedFor() {
+        Simulator simulator = new Simulator(SimulationParameters.builder()
+                .instoreBalkThreshold(4)
+                .instorePatienceMean(5.0)
+                .mobilePatienceMean(8.0)
+                .build(), false);
+        Set<Customer> abandoned = new HashSet<>();
+        simulator.addListener(new SimulationListener() {
+            @Override
+            public void onBalk(Customer customer, ServicePoint servicePoint) {
+                assertTrue(servicePoint.getQueueLength() >= 4);
+                abandoned.add(customer);
+            }
+
+            @Override
+            public void onRenege(Customer customer, ServicePoint servicePoint) {
+                abandoned.add(customer);
+            }
+
+            @Override
+            public void onServiceStart(Customer customer, ServicePoint servicePoint) {
+                assertFalse(abandoned.contains(customer), "served after abandoning");
+            }
+        });
+        simulator.setSeed(3);
+        simulator.initialize();
+        simulator.run(2000);
+
+        SimulationStatistics statistics = simulator.getStatistics();
+        int inSystem = 0;
+        for (ServicePoint point : simulator.getServicePoints()) {
+            inSystem += point.getQueueLength() + point.getBusyServers();
+        }
+        assertTrue(statistics.getTotalBalked() > 0);
+        assertTrue(statistics.getTotalReneged() > 0);
+        assertEquals(statistics.getTotalBalked() + statistics.getTotalReneged(), abandoned.size());
+        assertEquals(statistics.getTotalArrivals(), statistics.getTotalDepartures()
+                + statistics.getTotalBalked() + statistics.getTotalReneged() + inSystem);
+        assertEquals((double) abandoned.size() / statistics.getTotalArrivals(),
+                statistics.getAbandonmentRate(), 1e-12);
+    }
+
+    @Test
+    void patientCustomersNeverAbandon() {
+        Simulator simulator = new Simulator(SimulationParameters.defaults(), false);
+        simulator.setSeed(3);
+        simulator.initialize();
+        simulator.run(500);
+
+        SimulationStatistics statistics = simulator.getStatistics();
+        assertEquals(0, statistics.getTotalBalked());
+        assertEquals(0, statistics.getTotalReneged());
+        assertEquals(0.0, statistics.getAbandonmentRate());
+    }
+
+    @Test
+    void rejectsInvalidAbandonmentParameters() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SimulationParameters.builder().instoreBalkThreshold(0).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> SimulationParameters.builder().mobilePatienceMean(0.0).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> SimulationParameters.builder().instorePatienceMean(Double.NaN).build());
+    }
+}
@@ -0,0 +1,154 @@
+package simulation.logic;
+
+import org.junit.jupiter.api.Test;
+import simulation.config.SimulationParameters;
+import simulation.data.FileManager;
+import simulation.model.BatchPolicy;
+import simulation.model.Customer;
+import simulation.model.Event;
+import simulation.model.ServicePoint;
+import simulation.statistics.ServicePointStatistics;
+import simulation.statistics.SimulationStatistics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for batch service in {@link Simulator}.
+ * <p>
+ * Verifies that a batch station serves compatible customers together with
+ * one departure event, that every customer is still accounted for, that
+ * the forming timeout starts an incomplete batch, and that batches can be
+ * formed by the drink customers ordered from the drink mix.
+ * </p>
+ */
+class BatchServiceTest {
+
+    @Test
+    void batchesShareOneDeparture() {
+        Simulator simulator = new Simulator(SimulationParameters.builder()
+                .baristaBatchPolicy(new BatchPolicy(1, 4, 0.0))
+                .build(), false);
+        ServicePoint barista = simulator.getServicePoints().get(1);
+        List<Event> batches = new ArrayList<>();
+        Set<Customer> served = new HashSet<>();
+        simulator.addListener(new SimulationListener() {
+            @Override
+            public void onDeparture(Event event, double waitTime, double serviceTime) {
+                if (event.getTarget() == barista) {
+                    batches.add(event);
+                    for (Customer customer : event.getCustomers()) {
+                        assertEquals(event.getCustomer().getType(), customer.getType());
+                        assertEquals(event.getTime(), customer.getServiceEndTime());
+                        assertTrue(served.add(customer), "served twice");
+                    }
+                }
+            }
+        });
+        simulator.setSeed(4);
+        simulator.initialize();
+        simulator.run(2000);
+
+        assertTrue(batches.stream().anyMatch(event -> event.getCount() > 1));
+        assertTrue(batches.stream().allMatch(event -> event.getCount() <= 4));
+        SimulationStatistics statistics = simulator.getStatistics();
+        ServicePointStatistics baristaStatistics = statistics.getServicePointStatistics().stream()
+                .filter(point -> point.getServicePointName().equals(barista.getName()))
+                .findFirst().orElseThrow();
+        assertEquals(served.size(), baristaStatistics.getCompletions());
+        assertTrue(batches.size() < served.size());
+        assertTrue(baristaStatistics.getUtilization(statistics.getSimulationTime()) <= 1.0);
+
+        int inSystem = 0;
+        for (ServicePoint point : simulator.getServicePoints()) {
+            inSystem += point.getQueueLength() + point.getBusyServers();
+        }
+        assertTrue(statistics.getTotalDepartures() + inSystem <= statistics.getTotalArrivals());
+    }
+
+    @Test
+    void timeoutStartsIncompleteBatch() {
+        // batches of three can never fill within the timeout on a quiet day
+        Simulator simulator = new Simulator(SimulationParameters.builder()
+                .instoreArrivalMean(30.0)
+                .mobileArrivalMean(30.0)
+                .baristaBatchPolicy(new BatchPolicy(3, 3, 2.0))
+                .build(), false);
+        ServicePoint barista = simulator.getServicePoints().get(1);
+        Map<Customer, Double> joined = new HashMap<>();
+        List<Event> incomplete = new ArrayList<>();
+        simulator.addListener(new SimulationListener() {
+            @Override
+            public void onArrival(Event event) {
+                // mobile orders skip the cashier and arrive at the barista
+                for (Customer customer : event.getCustomers()) {
+                    joined.put(customer, event.getTime());
+                }
+            }
+
+            @Override
+            public void onRouting(Customer customer, ServicePoint from, ServicePoint to) {
+                if (to == barista) {
+                    joined.put(customer, simulator.getTime());
+                }
+            }
+
+            @Override
+            public void onDeparture(Event event, double waitTime, double serviceTime) {
+                if (event.getTarget() == barista && event.getCount() < 3) {
+                    incomplete.add(event);
+                    Customer first = event.getCustomer();
+                    assertTrue(first.getServiceStartTime() >= joined.get(first) + 2.0 - 1e-9,
+                            "incomplete batch started before the timeout");
+                }
+            }
+        });
+        simulator.setSeed(6);
+        simulator.initialize();
+        simulator.run(1000);
+
+        assertFalse(incomplete.isEmpty());
+        assertTrue(simulator.getStatistics().getTotalDepartures() > 0);
+    }
+
+    @Test
+    void batchesByDrinkShareTheDrink() {
+        Simulator simulator = new Simulator(SimulationParameters.builder()
+                .drinkMix("config/drink-mix.csv")
+                .baristaBatchPolicy(FileManager.parseBatchPolicy("1", "4", "0.0", "drink"))
+                .build(), false);
+        ServicePoint barista = simulator.getServicePoints().get(1);
+        Set<String> drinks = new HashSet<>();
+        List<Event> batches = new ArrayList<>();
+        simulator.addListener(new SimulationListener() {
+            @Override
+            public void onDeparture(Event event, double waitTime, double serviceTime) {
+                if (event.getTarget() == barista) {
+                    batches.add(event);
+                    for (Customer customer : event.getCustomers()) {
+                        assertEquals(event.getCustomer().getDrink(), customer.getDrink());
+                        drinks.add(customer.getDrink());
+                    }
+                }
+            }
+        });
+        simulator.setSeed(8);
+        simulator.initialize();
+        simulator.run(2000);
+
+        assertEquals(Set.of("espresso", "filter", "blended"), drinks);
+        assertTrue(batches.stream().anyMatch(event -> event.getCount() > 1));
+    }
+
+    @Test
+    void rejectsInvalidBatchPolicy() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchPolicy(0, 2, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new BatchPolicy(3, 2, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new BatchPolicy(1, 2, -1.0));
+    }
+}
@@ -0,0 +1,133 @@
+package simulation.logic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simulation.config.SimulationParameters;
+import simulation.data.CheckpointStore;
+import simulation.data.FileManager;
+import simulation.model.BatchPolicy;
+import simulation.statistics.ServicePointStatistics;
+import simulation.statistics.SimulationStatistics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link SimulatorState}.
+ * <p>
+ * Verifies that a run continued from a checkpoint, restored into a fresh
+ * simulator, is bit-identical to the uninterrupted run, also with customers
+ * reneging, a round-robin barista queue, batch service and a drink mix, and that
+ * checkpoints survive a round trip through a file.
+ * </p>
+ */
+class SimulatorStateTest {
+
+    private static final SimulationParameters PARAMETERS = SimulationParameters.builder()
+            .baristaServers(3)
+            .mobileBatchMean(2.0)
+            .build();
+
+    @Test
+    void restoredRunContinuesIdentically() throws IOException {
+        assertContinuesIdentically(PARAMETERS, 42);
+    }
+
+    @Test
+    void restoredRunWithAbandonmentContinuesIdentically() throws IOException {
+        Simulator original = assertContinuesIdentically(SimulationParameters.builder()
+                .instorePatienceMean(4.0).mobilePatienceMean(6.0).instoreBalkThreshold(3).build(), 11);
+        assertTrue(original.getStatistics().getTotalReneged() > 0);
+    }
+
+    @Test
+    void restoredRunWithRoundRobinQueueContinuesIdentically() throws IOException {
+        assertContinuesIdentically(SimulationParameters.builder().baristaServers(2)
+                .baristaQueueDiscipline(FileManager.parseQueueDiscipline("drr", null, "INSTORE:1, MOBILE:2", "0.7"))
+                .build(), 5);
+    }
+
+    @Test
+    void restoredRunWithBatchServiceContinuesIdentically() throws IOException {
+        assertContinuesIdentically(SimulationParameters.builder().baristaServers(2)
+                .baristaBatchPolicy(new BatchPolicy(2, 4, 1.5)).build(), 9);
+    }
+
+    @Test
+    void restoredRunWithDrinkBatchesContinuesIdentically() throws IOException {
+        assertContinuesIdentically(SimulationParameters.builder().drinkMix("config/drink-mix.csv")
+                .baristaBatchPolicy(FileManager.parseBatchPolicy("2", "4", "1.5", "drink")).build(), 13);
+    }
+
+    // Checkpoints a run at t=400 through the binary format, continues both
+    // copies to t=800 and compares them; returns the uninterrupted run
+    private static Simulator assertContinuesIdentically(SimulationParameters parameters, long seed)
+            throws IOException {
+        Simulator original = new Simulator(parameters, false);
+        original.setSeed(seed);
+        original.initialize();
+        original.run(400);
+        SimulatorState state = original.snapshot();
+        assertTrue(state.getPendingEventCount() > 0);
+        original.run(800);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        state.writeTo(bytes);
+        Simulator restored = new Simulator(parameters, false);
+        restored.restore(SimulatorState.readFrom(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(400.0, restored.getTime());
+        restored.run(800);
+
+        assertSameStatistics(original.getStatistics(), restored.getStatistics());
+        return original;
+    }
+
+    @Test
+    void checkpointFileRoundTrip(@TempDir Path dir) throws Exception {
+        Simulator simulator = new Simulator(PARAMETERS, false);
+        simulator.setSeed(7);
+        simulator.initialize();
+        simulator.run(300);
+        SimulatorState state = simulator.snapshot();
+
+        Path file = dir.resolve("run.ckpt");
+        try (CheckpointStore store = new CheckpointStore()) {
+            assertEquals(file, store.saveAsync(state, file).get());
+        }
+        SimulatorState loaded = CheckpointStore.load(file);
+
+        assertEquals(state.getTime(), loaded.getTime());
+        assertEquals(state.getCustomerCount(), loaded.getCustomerCount());
+        assertEquals(state.getPendingEventCount(), loaded.getPendingEventCount());
+    }
+
+    @Test
+    void rejectsForeignData() {
+        byte[] garbage = {1, 2, 3, 4, 5, 6, 7, 8};
+        assertThrows(IOException.class, () -> SimulatorState.readFrom(new ByteArrayInputStream(garbage)));
+    }
+
+    private static void assertSameStatistics(SimulationStatistics expected, SimulationStatistics actual) {
+        assertEquals(expected.getSimulationTime(), actual.getSimulationTime());
+        assertEquals(expected.getTotalArrivals(), actual.getTotalArrivals());
+        assertEquals(expected.getTotalDepartures(), actual.getTotalDepartures());
+        assertEquals(expected.getTotalBalked(), actual.getTotalBalked());
+        assertEquals(expected.getTotalReneged(), actual.getTotalReneged());
+        assertEquals(expected.getTotalServiceTime(), actual.getTotalServiceTime());
+        assertEquals(expected.getTotalWaitTime(), actual.getTotalWaitTime());
+        assertEquals(expected.getTotalResponseTime(), actual.getTotalResponseTime());
+        assertEquals(expected.getWaitingTimePercentile(90), actual.getWaitingTimePercentile(90));
+        assertEquals(expected.getServicePointStatistics().size(), actual.getServicePointStatistics().size());
+        for (int i = 0; i < expected.getServicePointStatistics().size(); i++) {
+            ServicePointStatistics e = expected.getServicePointStatistics().get(i);
+            ServicePointStatistics a = actual.getServicePointStatistics().get(i);
+            assertEquals(e.getServicePointName(), a.getServicePointName());
+            assertEquals(e.getArrivals(), a.getArrivals());
+            assertEquals(e.getCompletions(), a.getCompletions());
+            assertEquals(e.getTotalServiceTime(), a.getTotalServiceTime());
+        }
+    }
+}
@@ -4,12 +4,18 @@ import eduni.distributions.ContinuousGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 /**
  * Unit tests for {@link EventList}.
  *
  * <p>Ensures events are ordered correctly by time
- * and retrieved in priority order.</p>
+ * and retrieved in priority order, that cancelled
+ * events are never handed out, and that events with
+ * equal times keep their order across a restore.</p>
  */
 class EventListTest {
 
@@ -52,4 +58,64 @@ class EventListTest {
         assertSame(e2, list.removeNext());
         assertTrue(list.isEmpty());
     }
+
+    @Test
+    void cancelledEventsAreSkipped() {
+        ServicePoint sp = new ServicePoint("SP1", new simulation.random.DeterministicGenerator(1.0));
+        Event[] events = new Event[200];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(i, Event.RENEGE, new Customer("INSTORE", 0.0), sp);
+            list.add(events[i]);
+        }
+        // cancel every event but each fourth, enough to trigger a purge
+        for (int i = 0; i < events.length; i++) {
+            if (i % 4 != 0) {
+                list.cancel(events[i]);
+                list.cancel(events[i]);
+            }
+        }
+        assertEquals(50, list.size());
+        assertEquals(50, list.toList().size());
+
+        for (int i = 0; i < events.length; i += 4) {
+            assertSame(events[i], list.peekNext());
+            assertSame(events[i], list.removeNext());
+        }
+        assertTrue(list.isEmpty());
+        assertNull(list.removeNext());
+    }
+
+    @Test
+    void equalTimesLeaveInInsertionOrderAfterRestore() {
+        ServicePoint sp = new ServicePoint("SP1", new simulation.random.DeterministicGenerator(1.0));
+        Event[] events = new Event[100];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(i % 3, Event.RENEGE, new Customer("INSTORE", 0.0), sp);
+            list.add(events[i]);
+        }
+        for (int i = 0; i < events.length; i += 4) {
+            list.cancel(events[i]);
+        }
+
+        // rebuild from the pending events in reverse, as a restore would in any order
+        EventList restored = new EventList();
+        List<Event> pending = new ArrayList<>(list.toList());
+        Collections.reverse(pending);
+        for (Event e : pending) {
+            restored.restore(new Event(e.getTime(), e.getType(), e.getCustomer(), sp), e.getSequence());
+        }
+        restored.setNextSequence(list.getNextSequence());
+
+        Event previous = null;
+        while (!list.isEmpty()) {
+            Event expected = list.removeNext();
+            Event actual = restored.removeNext();
+            assertSame(expected.getCustomer(), actual.getCustomer());
+            if (previous != null && previous.getTime() == expected.getTime()) {
+                assertTrue(previous.getSequence() < expected.getSequence());
+            }
+            previous = expected;
+        }
+        assertTrue(restored.isEmpty());
+    }
 }
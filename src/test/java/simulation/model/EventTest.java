@@ -2,13 +2,16 @@ package simulation.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 /**
  * Unit tests for {@link Event}.
  *
  * <p>
- * Verifies that events are comparable based on time
- * and that string representations contain meaningful information.
+ * Verifies that events are comparable based on time,
+ * that string representations contain meaningful information,
+ * and that restored events and customers keep their identity.
  * </p>
  *
  * <p>
@@ -34,4 +37,26 @@ class EventTest {
         assertTrue(s.contains("ARRIVAL") || s.contains("DEPARTURE"));
         assertTrue(s.contains(sp.getName()));
     }
+
+    @Test
+    void restoredEventKeepsTypeAndCustomers() {
+        ServicePoint sp = new ServicePoint("T1", new eduni.distributions.Negexp(1.0));
+        Event arrival = Event.arrival(3.0, "MOBILE", 3, sp);
+        Event restored = Event.withCustomers(3.0, arrival.getType(), arrival.getCustomers(), sp);
+
+        assertEquals(Event.ARRIVAL, restored.getType());
+        assertEquals(3, restored.getCount());
+        assertEquals(arrival.getCustomers(), restored.getCustomers());
+        assertThrows(IllegalArgumentException.class,
+                () -> Event.withCustomers(1.0, Event.DEPARTURE, List.of(), sp));
+    }
+
+    @Test
+    void restoredCustomerIdsAreNotReused() {
+        int saved = new Customer("INSTORE", 0.0).getId() + 1000;
+        Customer restored = Customer.restore(saved, "INSTORE", 0.0, 0.0, 0.0, 0.0);
+
+        assertEquals(saved, restored.getId());
+        assertTrue(new Customer("INSTORE", 0.0).getId() > saved);
+    }
 }
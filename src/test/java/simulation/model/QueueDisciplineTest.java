@@ -0,0 +1,139 @@
+package simulation.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for the {@link QueueDiscipline} implementations.
+ *
+ * <p>Verifies the order of service of each discipline, removal
+ * from the middle of the line, and that a saved round-robin
+ * continues where it stopped.</p>
+ */
+class QueueDisciplineTest {
+
+    private static Customer customer(String type, double plannedServiceTime) {
+        Customer customer = new Customer(type, 0.0);
+        customer.setPlannedServiceTime(plannedServiceTime);
+        return customer;
+    }
+
+    @Test
+    void priorityServesClassesInOrder() {
+        QueueDiscipline queue = new PriorityClassQueue(List.of("MOBILE", "INSTORE"));
+        Customer instore1 = customer("INSTORE", Double.NaN);
+        Customer mobile1 = customer("MOBILE", Double.NaN);
+        Customer instore2 = customer("INSTORE", Double.NaN);
+        Customer mobile2 = customer("MOBILE", Double.NaN);
+        Customer other = customer("STAFF", Double.NaN);
+        for (Customer c : List.of(other, instore1, mobile1, instore2, mobile2)) {
+            queue.add(c);
+        }
+        assertTrue(queue.remove(mobile2));
+        assertEquals(4, queue.size());
+
+        assertSame(mobile1, queue.poll());
+        assertSame(instore1, queue.poll());
+        assertSame(instore2, queue.poll());
+        assertSame(other, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void shortestProcessingTimeKeepsHeapOrderAfterRemovals() {
+        QueueDiscipline queue = new ShortestProcessingTimeQueue();
+        Random random = new Random(4);
+        List<Customer> added = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            // few distinct times, so ties must be served in arrival order
+            Customer c = customer("INSTORE", random.nextInt(20));
+            added.add(c);
+            queue.add(c);
+        }
+        List<Customer> reneging = new ArrayList<>(added);
+        Collections.shuffle(reneging, random);
+        for (Customer c : reneging.subList(0, 150)) {
+            assertTrue(queue.remove(c));
+            assertFalse(queue.remove(c));
+        }
+        added.removeAll(reneging.subList(0, 150));
+
+        List<Customer> expected = new ArrayList<>(added);
+        expected.sort((a, b) -> Double.compare(a.getPlannedServiceTime(), b.getPlannedServiceTime()));
+        assertEquals(expected, queue.toList());
+        List<Customer> served = new ArrayList<>();
+        for (Customer c = queue.poll(); c != null; c = queue.poll()) {
+            served.add(c);
+        }
+        assertEquals(expected, served);
+    }
+
+    @Test
+    void roundRobinSharesServiceByWeight() {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        weights.put("INSTORE", 1.0);
+        weights.put("MOBILE", 3.0);
+        QueueDiscipline queue = new DeficitRoundRobinQueue(weights, 1.0);
+        for (int i = 0; i < 100; i++) {
+            queue.add(customer("INSTORE", 1.0));
+            queue.add(customer("MOBILE", 1.0));
+        }
+        int mobile = 0;
+        for (int i = 0; i < 40; i++) {
+            if (queue.poll().getType().equals("MOBILE")) {
+                mobile++;
+            }
+        }
+        assertEquals(30, mobile);
+    }
+
+    @Test
+    void roundRobinSharesServerTimeWithLongServices() {
+        // services far longer than the quantum: the idle rounds are skipped
+        Map<String, Double> weights = new LinkedHashMap<>();
+        weights.put("INSTORE", 1.0);
+        weights.put("MOBILE", 1.0);
+        QueueDiscipline queue = new DeficitRoundRobinQueue(weights, 1e-6);
+        for (int i = 0; i < 100; i++) {
+            queue.add(customer("INSTORE", 4.0));
+            queue.add(customer("MOBILE", 2.0));
+        }
+        double[] time = new double[2];
+        for (int i = 0; i < 60; i++) {
+            Customer next = queue.poll();
+            time[next.getType().equals("INSTORE") ? 0 : 1] += next.getPlannedServiceTime();
+        }
+        assertEquals(time[0], time[1], 4.0);
+        assertThrows(IllegalArgumentException.class, () -> queue.add(customer("STAFF", 1.0)));
+    }
+
+    @Test
+    void restoredRoundRobinContinuesIdentically() {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        weights.put("INSTORE", 2.0);
+        weights.put("MOBILE", 1.0);
+        Random random = new Random(9);
+        QueueDiscipline original = new DeficitRoundRobinQueue(weights, 0.5);
+        for (int i = 0; i < 50; i++) {
+            original.add(customer(random.nextBoolean() ? "INSTORE" : "MOBILE", 0.1 + random.nextDouble() * 3));
+        }
+        for (int i = 0; i < 7; i++) {
+            original.poll();
+        }
+        QueueDiscipline restored = new DeficitRoundRobinQueue(weights, 0.5);
+        original.toList().forEach(restored::add);
+        restored.setState(original.getState());
+
+        for (int i = 0; i < 43; i++) {
+            assertSame(original.poll(), restored.poll());
+        }
+        assertEquals(0, restored.size());
+    }
+}
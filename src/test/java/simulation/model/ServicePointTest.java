@@ -4,11 +4,14 @@ import eduni.distributions.ContinuousGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 /**
  * Unit tests for {@link simulation.model.ServicePoint}.
  *
- * <p>Tests queue management, busy state handling, and
+ * <p>Tests queue management, including removal from the
+ * middle of the queue, busy state handling, batch forming and
  * deterministic service time generation.</p>
  */
 class ServicePointTest {
@@ -53,6 +56,64 @@ class ServicePointTest {
         assertFalse(sp.isBusy());
     }
 
+    @Test
+    void testRemoveWaitingCustomer() {
+        Customer first = new Customer("INSTORE", 0.0);
+        Customer middle = new Customer("INSTORE", 0.0);
+        Customer last = new Customer("INSTORE", 0.0);
+        sp.addCustomer(first);
+        sp.addCustomer(middle);
+        sp.addCustomer(last);
+
+        assertTrue(sp.removeCustomer(middle));
+        assertFalse(sp.removeCustomer(middle));
+        assertEquals(2, sp.getQueueLength());
+        assertSame(first, sp.getNextCustomer());
+        assertSame(last, sp.getNextCustomer());
+        assertNull(sp.getNextCustomer());
+    }
+
+    @Test
+    void testMultipleServersBecomeBusyTogether() {
+        ServicePoint station = new ServicePoint("SP-multi", sp.getServiceTimeGenerator(), 2);
+        station.acquireServer();
+        assertFalse(station.isBusy());
+        station.acquireServer();
+        assertTrue(station.isBusy());
+        assertThrows(IllegalStateException.class, station::acquireServer);
+
+        station.releaseServer();
+        assertFalse(station.isBusy());
+        assertEquals(1, station.getBusyServers());
+    }
+
+    @Test
+    void testTakeBatchOfCompatibleCustomers() {
+        ServicePoint station = new ServicePoint("SP-batch", sp.getServiceTimeGenerator(), 1, new FifoQueue(),
+                new BatchPolicy(2, 3, 1.0));
+        Customer instore = new Customer("INSTORE", 0.0);
+        Customer mobile1 = new Customer("MOBILE", 0.0);
+        station.addCustomer(instore);
+        station.addCustomer(mobile1);
+        // the head has no partner yet, so the batch is still forming
+        assertTrue(station.takeBatch(false).isEmpty());
+
+        Customer instore2 = new Customer("INSTORE", 0.0);
+        Customer instore3 = new Customer("INSTORE", 0.0);
+        Customer instore4 = new Customer("INSTORE", 0.0);
+        station.addCustomer(instore2);
+        station.addCustomer(instore3);
+        station.addCustomer(instore4);
+        assertEquals(List.of(instore, instore2, instore3), station.takeBatch(false));
+        assertEquals(2, station.getQueueLength());
+
+        // forcing starts an incomplete batch
+        assertTrue(station.takeBatch(false).isEmpty());
+        assertEquals(List.of(mobile1), station.takeBatch(true));
+        assertTrue(station.removeCustomer(instore4));
+        assertTrue(station.takeBatch(true).isEmpty());
+    }
+
     @Test
     void testGenerateServiceTime() {
         double s = sp.generateServiceTime();
@@ -0,0 +1,153 @@
+package simulation.process;
+
+import eduni.distributions.Negexp;
+import org.junit.jupiter.api.Test;
+import simulation.model.ServicePoint;
+import simulation.random.DeterministicGenerator;
+import simulation.statistics.SimulationStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link ProcessSimulation}.
+ * <p>
+ * Verifies that processes queue and hold in simulation-time order, that
+ * they are recorded like customers of the event-scheduling simulator, that
+ * seeded runs repeat exactly, that a million processes can be suspended at
+ * once and that a failing process step stops the run.
+ * </p>
+ */
+class ProcessSimulationTest {
+
+    @Test
+    void servesQueuedProcessesInArrivalOrder() {
+        ProcessSimulation simulation = new ProcessSimulation();
+        ServicePoint cashier = simulation.station("Cashier", new DeterministicGenerator(2.0), 1, true);
+        List<String> log = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String name = "c" + i;
+            simulation.startAt(i, "INSTORE", ProcessBody.of(
+                    p -> p.serve(cashier),
+                    p -> log.add(name + "@" + p.now())));
+        }
+        simulation.run(100);
+        assertEquals(List.of("c0@2.0", "c1@4.0", "c2@6.0"), log);
+        assertEquals(0, simulation.getLiveProcesses());
+        assertEquals(100.0, simulation.now());
+
+        SimulationStatistics statistics = simulation.getStatistics();
+        assertEquals(3, statistics.getTotalArrivals());
+        assertEquals(3, statistics.getTotalDepartures());
+        // waits of 0, 1 and 2
+        assertEquals(1.0, statistics.getAverageWaitingTime(), 1e-9);
+    }
+
+    @Test
+    void requestedServerIsHeldUntilReleased() {
+        ProcessSimulation simulation = new ProcessSimulation();
+        ServicePoint table = simulation.station("Table", new DeterministicGenerator(1.0), 1, true);
+        List<String> log = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String name = "c" + i;
+            simulation.start("INSTORE", ProcessBody.of(
+                    p -> p.request(table),
+                    p -> p.hold(5.0),
+                    p -> {
+                        p.release(table);
+                        log.add(name + "@" + p.now());
+                    }));
+        }
+        simulation.run(Double.POSITIVE_INFINITY);
+        assertEquals(List.of("c0@5.0", "c1@10.0", "c2@15.0"), log);
+        assertEquals(3, simulation.getStatistics().getTotalDepartures());
+        assertEquals(0, table.getBusyServers());
+    }
+
+    @Test
+    void customersBalkAndRenege() {
+        ProcessSimulation simulation = new ProcessSimulation();
+        ServicePoint cashier = simulation.station("Cashier", new DeterministicGenerator(10.0), 1, true);
+        ProcessBody customer = ProcessBody.of(p -> {
+            if (cashier.getQueueLength() >= 2) {
+                p.balk(cashier);
+            } else {
+                p.serve(cashier, 5.0);
+            }
+        });
+        for (int i = 0; i < 4; i++) {
+            simulation.start("INSTORE", customer);
+        }
+        simulation.run(Double.POSITIVE_INFINITY);
+
+        SimulationStatistics statistics = simulation.getStatistics();
+        assertEquals(4, statistics.getTotalArrivals());
+        assertEquals(1, statistics.getTotalDepartures());
+        assertEquals(1, statistics.getTotalBalked());
+        assertEquals(2, statistics.getTotalReneged());
+        assertEquals(0, simulation.getLiveProcesses());
+        assertEquals(10.0, simulation.now());
+    }
+
+    @Test
+    void seededRunsAreIdentical() {
+        assertEquals(coffeeShop(5), coffeeShop(5));
+    }
+
+    // Customers arrive, pay at the cashier and wait for one of two baristas
+    private static List<Double> coffeeShop(long seed) {
+        Negexp arrivals = new Negexp(1.0, seed);
+        ProcessSimulation simulation = new ProcessSimulation();
+        ServicePoint cashier = simulation.station("Cashier", new Negexp(0.8, seed + 1), 1, false);
+        ServicePoint barista = simulation.station("Barista", new Negexp(1.5, seed + 2), 2, true);
+        List<Double> departures = new ArrayList<>();
+        ProcessBody customer = ProcessBody.of(
+                p -> p.serve(cashier),
+                p -> p.serve(barista),
+                p -> departures.add(p.now()));
+        simulation.start("SOURCE", ProcessBody.of(
+                p -> {
+                    simulation.start("INSTORE", customer);
+                    p.hold(arrivals.sample());
+                },
+                p -> p.goTo(0)));
+        simulation.run(200);
+        assertFalse(departures.isEmpty());
+        assertEquals(departures.size(), simulation.getStatistics().getTotalDepartures());
+        return departures;
+    }
+
+    @Test
+    void holdsAMillionSuspendedProcesses() {
+        int customers = 1_000_000;
+        ProcessBenchmark.Result result = ProcessBenchmark.run(customers);
+        assertEquals(customers, result.peakSuspended());
+    }
+
+    @Test
+    void failingProcessStopsTheRun() {
+        ProcessSimulation simulation = new ProcessSimulation();
+        simulation.start("INSTORE", ProcessBody.of(
+                p -> p.hold(3.0),
+                p -> {
+                    throw new ArithmeticException("boom");
+                }));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> simulation.run(10));
+        assertInstanceOf(ArithmeticException.class, e.getCause());
+        assertEquals(3.0, simulation.now());
+        assertThrows(IllegalArgumentException.class,
+                () -> simulation.startAt(1.0, "INSTORE", ProcessBody.of(p -> p.end())));
+    }
+
+    @Test
+    void stepWaitsAtMostOnce() {
+        ProcessSimulation simulation = new ProcessSimulation();
+        simulation.start("INSTORE", ProcessBody.of(p -> {
+            p.hold(1.0);
+            p.hold(1.0);
+        }));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> simulation.run(10));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+}
@@ -40,5 +40,24 @@ class ArrivalProcessTest {
         assertEquals("INSTORE", c.getType());
         assertEquals(now + 2.0, c.getArrivalTime(), 1e-9);
     }
-}
 
+    @Test
+    void batchArrivalCarriesGroupInSingleEvent() {
+        EventList eventList = new EventList();
+        ServicePoint sp = new ServicePoint("Entry", new DeterministicGenerator(1.0));
+        ArrivalProcess process = new ArrivalProcess("INSTORE", sp, new DeterministicGenerator(2.0),
+                new ShiftedDiscreteGenerator(new eduni.distributions.Poisson(0.5, 3L), 3L));
+
+        process.scheduleNext(0.0, eventList);
+
+        Event next = eventList.removeNext();
+        assertTrue(eventList.isEmpty());
+        assertTrue(next.getCount() >= 3);
+        assertEquals(next.getCount(), next.getCustomers().size());
+        assertSame(next.getCustomer(), next.getCustomers().get(0));
+        for (Customer c : next.getCustomers()) {
+            assertEquals("INSTORE", c.getType());
+            assertEquals(2.0, c.getArrivalTime(), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package simulation.random;
+
+import eduni.distributions.Negexp;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link BufferedGenerator}.
+ * <p>
+ * Verifies that buffering, in both synchronous and background mode,
+ * reproduces exactly the sequence of the wrapped generator, that
+ * reseeding replays the stream deterministically, and that blocks are only
+ * generated once they are sampled.
+ * </p>
+ */
+class BufferedGeneratorTest {
+
+    @Test
+    void synchronousBufferMatchesDelegateSequence() {
+        Negexp direct = new Negexp(4.0, 12345L);
+        BufferedGenerator buffered = new BufferedGenerator(new Negexp(4.0, 12345L), 16, false);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(direct.sample(), buffered.sample(), 0.0);
+        }
+    }
+
+    @Test
+    void backgroundBufferMatchesDelegateSequence() {
+        Negexp direct = new Negexp(4.0, 777L);
+        BufferedGenerator buffered = new BufferedGenerator(new Negexp(4.0, 777L), 8, true);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(direct.sample(), buffered.sample(), 0.0);
+        }
+    }
+
+    @Test
+    void setSeedReplaysSameSequence() {
+        BufferedGenerator buffered = new BufferedGenerator(new Negexp(2.0, 1L), 10, true);
+        buffered.setSeed(4242L);
+        double[] first = new double[25];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = buffered.sample();
+        }
+
+        buffered.setSeed(4242L);
+        for (double expected : first) {
+            assertEquals(expected, buffered.sample(), 0.0);
+        }
+    }
+
+    @Test
+    void blocksAreGeneratedWhenFirstSampled() {
+        Negexp direct = new Negexp(3.0, 99L);
+        for (int i = 0; i < 20; i++) {
+            direct.sample();
+        }
+        double expected = direct.sample();
+
+        Negexp delegate = new Negexp(3.0, 1L);
+        BufferedGenerator buffered = new BufferedGenerator(delegate, 16, false);
+        buffered.setSeed(5L);
+        buffered.restore(99L, 4);
+        // neither creating, reseeding nor restoring draws from the delegate
+        assertEquals(99L, delegate.getSeed());
+        assertEquals(99L, buffered.getSeed());
+        assertEquals(4, buffered.getPosition());
+
+        for (int i = 4; i < 16; i++) {
+            buffered.sample();
+        }
+        // restoring at the end of a block continues with the next block
+        buffered.restore(buffered.getSeed(), 16);
+        for (int i = 16; i < 20; i++) {
+            buffered.sample();
+        }
+        assertEquals(expected, buffered.sample(), 0.0);
+    }
+
+    @Test
+    void rejectsNonPositiveBlockSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BufferedGenerator(new DeterministicGenerator(1.0), 0, false));
+    }
+}
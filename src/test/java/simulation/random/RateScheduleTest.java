@@ -0,0 +1,102 @@
+package simulation.random;
+
+import eduni.distributions.Negexp;
+import org.junit.jupiter.api.Test;
+import simulation.model.EventList;
+import simulation.model.ServicePoint;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link RateSchedule} and {@link NonStationaryArrivalProcess}.
+ * <p>
+ * Verifies the cumulative intensity of step, linear and periodic schedules,
+ * that its inverse round-trips, and that a morning rush produces
+ * proportionally more arrivals than the afternoon.
+ * </p>
+ */
+class RateScheduleTest {
+
+    @Test
+    void stepScheduleIntegratesAndInverts() {
+        RateSchedule schedule = RateSchedule.piecewiseConstant(
+                new double[] {0, 10, 20}, new double[] {2.0, 0.0, 0.5});
+
+        assertEquals(20.0, schedule.cumulative(10), 1e-12);
+        assertEquals(20.0, schedule.cumulative(20), 1e-12);
+        assertEquals(25.0, schedule.cumulative(30), 1e-12);
+        assertEquals(0.0, schedule.rateAt(15), 0.0);
+
+        // the zero-rate gap is skipped
+        assertEquals(20.0, schedule.inverseCumulative(20.0), 1e-12);
+        assertEquals(22.0, schedule.inverseCumulative(21.0), 1e-12);
+        assertEquals(5.0, schedule.inverseCumulative(10.0), 1e-12);
+    }
+
+    @Test
+    void linearScheduleRoundTrips() {
+        RateSchedule schedule = RateSchedule.piecewiseLinear(
+                new double[] {0, 60, 180}, new double[] {0.2, 1.0, 0.1});
+
+        assertEquals(0.6, schedule.rateAt(30), 1e-12);
+        assertEquals(0.5 * (0.2 + 1.0) * 60, schedule.cumulative(60), 1e-9);
+        for (double t = 0; t < 300; t += 7.3) {
+            assertEquals(t, schedule.inverseCumulative(schedule.cumulative(t)), 1e-9);
+        }
+    }
+
+    @Test
+    void periodicScheduleRepeats() {
+        RateSchedule schedule = RateSchedule.piecewiseConstant(
+                new double[] {0, 60}, new double[] {1.0, 0.5}).periodic(120);
+
+        assertEquals(90.0, schedule.cumulative(120), 1e-12);
+        assertEquals(180.0 + 30.0, schedule.cumulative(270), 1e-12);
+        assertEquals(270.0, schedule.inverseCumulative(210.0), 1e-9);
+        assertThrows(IllegalArgumentException.class,
+                () -> RateSchedule.piecewiseConstant(new double[] {0, 60}, new double[] {1, 1}).periodic(60));
+    }
+
+    @Test
+    void morningRushProducesMoreArrivals() {
+        // five times the afternoon rate during the first 100 minutes
+        RateSchedule schedule = RateSchedule.piecewiseConstant(
+                new double[] {0, 100}, new double[] {5.0, 1.0});
+        ServicePoint entry = new ServicePoint("Entry", new DeterministicGenerator(1.0));
+        NonStationaryArrivalProcess process =
+                new NonStationaryArrivalProcess("INSTORE", entry, schedule, new Negexp(1.0, 2024L));
+        EventList eventList = new EventList();
+
+        int morning = 0;
+        int afternoon = 0;
+        double now = 0.0;
+        process.scheduleNext(now, eventList);
+        while (true) {
+            double time = eventList.removeNext().getTime();
+            assertTrue(time >= now);
+            if (time >= 200) {
+                break;
+            }
+            if (time < 100) {
+                morning++;
+            } else {
+                afternoon++;
+            }
+            now = time;
+            process.scheduleNext(now, eventList);
+        }
+        assertEquals(500, morning, 5 * Math.sqrt(500));
+        assertEquals(100, afternoon, 5 * Math.sqrt(100));
+    }
+
+    @Test
+    void noArrivalIsScheduledOnceTheRateStaysZero() {
+        RateSchedule schedule = RateSchedule.piecewiseConstant(new double[] {0, 1}, new double[] {1.0, 0.0});
+        ServicePoint entry = new ServicePoint("Entry", new DeterministicGenerator(1.0));
+        NonStationaryArrivalProcess process =
+                new NonStationaryArrivalProcess("INSTORE", entry, schedule, new DeterministicGenerator(5.0));
+        EventList eventList = new EventList();
+
+        process.scheduleNext(0.0, eventList);
+        assertTrue(eventList.isEmpty());
+    }
+}
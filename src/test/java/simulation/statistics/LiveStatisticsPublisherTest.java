@@ -0,0 +1,79 @@
+package simulation.statistics;
+
+import org.junit.jupiter.api.Test;
+import simulation.config.SimulationParameters;
+import simulation.logic.Simulator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link LiveStatisticsPublisher}.
+ * <p>
+ * Verifies the request handshake between display and engine, the accuracy
+ * of the histogram percentiles, and the snapshots a running
+ * {@link StatisticsCollector} publishes.
+ * </p>
+ */
+class LiveStatisticsPublisherTest {
+
+    @Test
+    void publishesOnlyWhenAsked() {
+        LiveStatisticsPublisher publisher = new LiveStatisticsPublisher();
+        assertNull(publisher.getLatest());
+        assertTrue(publisher.isRequested());
+
+        publisher.publish(1.0, List.of(new LiveStatistics.Station("A", 2, 0.5, 3)));
+        assertFalse(publisher.isRequested());
+        LiveStatistics first = publisher.sample();
+        assertEquals(1, first.sequence());
+        assertEquals(2, first.stations().get(0).customers());
+        assertTrue(publisher.isRequested());
+
+        publisher.publish(2.0, List.of());
+        assertEquals(2, publisher.getLatest().sequence());
+    }
+
+    @Test
+    void percentilesAreWithinOnePercent() {
+        LiveStatisticsPublisher publisher = new LiveStatisticsPublisher();
+        Random random = new Random(3);
+        double[] waits = new double[20_000];
+        for (int i = 0; i < waits.length; i++) {
+            waits[i] = -5 * Math.log(1 - random.nextDouble());
+            publisher.recordWait(waits[i]);
+        }
+        publisher.publish(100.0, List.of());
+        Arrays.sort(waits);
+        LiveStatistics statistics = publisher.getLatest();
+
+        assertEquals(waits.length, statistics.departures());
+        assertEquals(Arrays.stream(waits).average().orElseThrow(), statistics.meanWait(), 1e-9);
+        assertEquals(waits[waits.length / 2 - 1], statistics.waitP50(), 0.012 * waits[waits.length / 2 - 1]);
+        assertEquals(waits[waits.length * 9 / 10 - 1], statistics.waitP90(), 0.012 * waits[waits.length * 9 / 10 - 1]);
+        assertEquals(waits[waits.length * 99 / 100 - 1], statistics.waitP99(), 0.012 * waits[waits.length * 99 / 100 - 1]);
+    }
+
+    @Test
+    void collectorPublishesRunningState() {
+        Simulator simulator = new Simulator(SimulationParameters.builder().baristaServers(3).build(), false);
+        simulator.setSeed(5);
+        LiveStatisticsPublisher publisher = new LiveStatisticsPublisher();
+        simulator.getStatisticsCollector().setLivePublisher(publisher);
+        simulator.initialize();
+        simulator.run(200);
+
+        LiveStatistics mid = publisher.sample();
+        assertNotNull(mid);
+        assertEquals(4, mid.stations().size());
+        simulator.run(400);
+        LiveStatistics end = publisher.getLatest();
+        assertTrue(end.sequence() > mid.sequence());
+        assertTrue(end.time() > 200 && end.time() <= 400);
+        assertTrue(end.stations().stream().allMatch(s -> s.utilization() >= 0 && s.utilization() <= 1));
+        assertTrue(end.departures() <= simulator.getStatistics().getTotalDepartures());
+        assertTrue(end.departures() > mid.departures());
+    }
+}
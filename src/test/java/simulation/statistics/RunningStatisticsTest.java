@@ -0,0 +1,42 @@
+package simulation.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link RunningStatistics} and {@link Quantiles}.
+ * <p>
+ * Verifies the streaming mean and variance and the confidence interval
+ * against textbook t and normal quantiles.
+ * </p>
+ */
+class RunningStatisticsTest {
+
+    @Test
+    void quantilesMatchTables() {
+        assertEquals(1.959964, Quantiles.normal(0.975), 1e-6);
+        assertEquals(12.706205, Quantiles.studentT(0.975, 1), 1e-5);
+        assertEquals(4.302653, Quantiles.studentT(0.975, 2), 1e-6);
+        assertEquals(2.776445, Quantiles.studentT(0.975, 4), 1e-6);
+        assertEquals(2.262157, Quantiles.studentT(0.975, 9), 1e-6);
+        assertEquals(-1.697261, Quantiles.studentT(0.05, 30), 1e-6);
+    }
+
+    @Test
+    void streamingMomentsAndHalfWidth() {
+        RunningStatistics statistics = new RunningStatistics();
+        assertEquals(Double.POSITIVE_INFINITY, statistics.getHalfWidth(0.95));
+        for (int i = 1; i <= 10; i++) {
+            statistics.add(i);
+        }
+
+        assertEquals(5.5, statistics.getMean(), 1e-12);
+        assertEquals(55.0 / 6.0, statistics.getVariance(), 1e-12);
+        assertEquals(2.262157 * Math.sqrt(55.0 / 60.0), statistics.getHalfWidth(0.95), 1e-6);
+
+        statistics.reset();
+        statistics.add(3.0);
+        statistics.add(3.0);
+        assertEquals(0.0, statistics.getRelativeHalfWidth(0.95), 0.0);
+    }
+}
@@ -6,6 +6,9 @@ import simulation.model.Customer;
 import simulation.model.Event;
 import simulation.model.ServicePoint;
 
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 /**
  * Unit test for {@link StatisticsCollector}.
@@ -89,5 +92,47 @@ class StatisticsCollectorTest {
         assertEquals(0.1, bStats.getThroughput(10.0), 1e-9);
         assertEquals(0.3, bStats.getUtilization(10.0), 1e-9);
     }
-}
 
+    @Test
+    void reportsWaitingTimePercentiles() {
+        for (int i = 1; i <= 10; i++) {
+            Customer c = new Customer("INSTORE", 0.0);
+            c.setServiceStartTime(i);
+            c.setServiceEndTime(i + 1.0); // wait = i
+            stats.onArrival(new Event(0.0, Event.ARRIVAL, c, terminalA));
+            stats.onDeparture(new Event(i + 1.0, Event.DEPARTURE, c, terminalA), c.getWaitingTime(), 1.0);
+        }
+
+        SimulationStatistics snapshot = stats.snapshot(20.0);
+
+        // percentiles come from a histogram, exact only at the extremes
+        assertEquals(9.0, snapshot.getWaitingTimePercentile(90), 9.0 * 0.02);
+        assertEquals(5.0, snapshot.getWaitingTimePercentile(50), 5.0 * 0.02);
+        assertEquals(10.0, snapshot.getWaitingTimePercentile(100), 1e-9);
+        assertEquals(1.0, snapshot.getWaitingTimePercentile(1), 1e-9);
+        assertEquals(0.0, new StatisticsCollector().snapshot(1.0).getWaitingTimePercentile(90), 0.0);
+    }
+
+    @Test
+    void savedWaitingTimesStayBounded() {
+        Random random = new Random(1);
+        for (int i = 0; i < 50_000; i++) {
+            double wait = -5.0 * Math.log(1.0 - random.nextDouble());
+            Customer c = new Customer("INSTORE", 0.0);
+            c.setServiceStartTime(wait);
+            c.setServiceEndTime(wait + 1.0);
+            stats.onDeparture(new Event(wait + 1.0, Event.DEPARTURE, c, terminalA), wait, 1.0);
+        }
+        StatisticsCollector.State state = stats.captureState(customer -> 0);
+        assertTrue(state.waitingTimeHistogram().length < 1_000, "state grows with the run");
+
+        StatisticsCollector restored = new StatisticsCollector();
+        restored.registerServicePoint(terminalA, true);
+        restored.registerServicePoint(terminalB, true);
+        restored.restoreState(state, List.of());
+        assertEquals(stats.snapshot(1.0).getWaitingTimePercentile(90),
+                restored.snapshot(1.0).getWaitingTimePercentile(90));
+        // exponential waits with mean 5: the 90th percentile is 5 ln 10
+        assertEquals(5.0 * Math.log(10.0), restored.snapshot(1.0).getWaitingTimePercentile(90), 0.5);
+    }
+}
@@ -0,0 +1,55 @@
+package simulation.statistics;
+
+import eduni.distributions.Normal;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link Mser5} and {@link BatchMeans}.
+ * <p>
+ * Verifies that MSER-5 finds the end of an artificial transient and that
+ * batch means keep a bounded number of batches while covering the true mean.
+ * </p>
+ */
+class SteadyStateEstimatorsTest {
+
+    @Test
+    void mserFindsEndOfTransient() {
+        Normal noise = new Normal(0.0, 1.0, 11L);
+        Mser5 detector = new Mser5();
+        for (int i = 0; i < 10; i++) {
+            detector.add(i);
+        }
+        assertEquals(-1, detector.truncationPoint());
+
+        for (int i = 10; i < 4000; i++) {
+            detector.add(20.0 * Math.exp(-i / 100.0) + noise.sample());
+        }
+        long truncation = detector.truncationPoint();
+        assertTrue(truncation >= 150 && truncation <= 800, "truncation at " + truncation);
+        assertEquals(4000, detector.getObservations());
+    }
+
+    @Test
+    void mserKeepsMemoryBounded() {
+        Mser5 detector = new Mser5(8);
+        for (int i = 0; i < 1000; i++) {
+            detector.add(i < 100 ? 10.0 : 0.0);
+        }
+        assertEquals(1000, detector.getObservations());
+        assertTrue(detector.truncationPoint() >= 0);
+    }
+
+    @Test
+    void batchMeansCoverTrueMean() {
+        Normal noise = new Normal(5.0, 4.0, 3L);
+        BatchMeans batchMeans = new BatchMeans(10, 4);
+        for (int i = 0; i < 100_000; i++) {
+            batchMeans.add(noise.sample());
+            assertTrue(batchMeans.getBatches() < 20);
+        }
+        assertTrue(batchMeans.getBatches() >= 10);
+        assertEquals(5.0, batchMeans.getMean(), 3 * batchMeans.getHalfWidth(0.95));
+        assertTrue(batchMeans.getHalfWidth(0.95) < 0.05);
+    }
+}
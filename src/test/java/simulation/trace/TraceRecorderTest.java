@@ -0,0 +1,171 @@
+package simulation.trace;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simulation.config.SimulationParameters;
+import simulation.logic.SimulationListener;
+import simulation.logic.Simulator;
+import simulation.model.BatchPolicy;
+import simulation.model.Customer;
+import simulation.model.ServicePoint;
+import simulation.statistics.SimulationStatistics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link TraceRecorder}, {@link TraceReader} and {@link TraceMain}.
+ * <p>
+ * Verifies that a recorded run matches the simulation statistics, that the
+ * tool's views are consistent with the records, that batch service starts
+ * carry their own times, and that a trace without its name tables is still
+ * readable.
+ * </p>
+ */
+class TraceRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SimulationStatistics record(Path trace) throws IOException {
+        Simulator simulator = new Simulator(SimulationParameters.builder().baristaServers(3).build(), false);
+        simulator.setSeed(8);
+        // tiny blocks make the writer thread hand blocks back and forth
+        try (TraceRecorder recorder = new TraceRecorder(trace, 256)) {
+            simulator.addListener(recorder);
+            simulator.initialize();
+            simulator.run(300);
+        }
+        return simulator.getStatistics();
+    }
+
+    @Test
+    void recordsEveryCustomerStep() throws IOException {
+        Path trace = tempDir.resolve("run.trace");
+        SimulationStatistics statistics = record(trace);
+
+        List<TraceRecord> records = new ArrayList<>();
+        try (TraceReader reader = new TraceReader(trace)) {
+            reader.forEach(records::add);
+            assertEquals(reader.getRecordCount(), records.size());
+            assertEquals(List.of("INSTORE", "MOBILE"), reader.getClassNames().stream().sorted().toList());
+            assertTrue(reader.getStationNames().contains("Cashier"));
+            int shelf = reader.getStationNames().indexOf("Pickup Shelf");
+            int delivery = reader.getStationNames().indexOf("Delivery Window");
+
+            assertEquals(statistics.getTotalArrivals(),
+                    records.stream().filter(r -> r.type() == TraceRecord.Type.ARRIVAL).count());
+            assertEquals(statistics.getTotalDepartures(), records.stream()
+                    .filter(r -> r.type() == TraceRecord.Type.SERVICE_END)
+                    .filter(r -> r.stationId() == shelf || r.stationId() == delivery)
+                    .count());
+        }
+        for (int i = 1; i < records.size(); i++) {
+            assertTrue(records.get(i).time() >= records.get(i - 1).time());
+        }
+    }
+
+    @Test
+    void toolViewsAgreeWithRecords() throws IOException {
+        Path trace = tempDir.resolve("run.trace");
+        record(trace);
+
+        try (TraceReader reader = new TraceReader(trace)) {
+            long visits = countType(reader, TraceRecord.Type.SERVICE_END);
+            String gantt = run("gantt", reader, Map.of());
+            assertEquals(visits + 1, gantt.lines().count());
+            assertTrue(gantt.lines().skip(1).allMatch(line -> line.split(";").length == 6));
+
+            // customer ids are global, so follow whoever arrived first in this run
+            int[] first = {-1};
+            reader.forEach(record -> {
+                if (first[0] < 0) {
+                    first[0] = record.customerId();
+                }
+            });
+            String journey = run("filter", reader, Map.of("customer", String.valueOf(first[0])));
+            assertTrue(journey.lines().count() >= 4, journey);
+            assertTrue(journey.lines().allMatch(line -> line.contains("customer " + first[0] + " ")));
+
+            String replay = run("replay", reader, Map.of("station", "Cashier", "to", "50"));
+            assertTrue(replay.lines().allMatch(line -> line.contains("Cashier")));
+            assertThrows(IllegalArgumentException.class, () -> run("replay", reader, Map.of("station", "Oven")));
+        }
+    }
+
+    @Test
+    void batchServiceStartsCarryTheirTime() throws IOException {
+        Simulator simulator = new Simulator(SimulationParameters.builder()
+                .baristaServers(2)
+                .baristaBatchPolicy(new BatchPolicy(2, 4, 1.5))
+                .build(), false);
+        simulator.setSeed(9);
+        List<Double> starts = new ArrayList<>();
+        simulator.addListener(new SimulationListener() {
+            @Override
+            public void onServiceStart(Customer customer, ServicePoint servicePoint) {
+                starts.add(simulator.getTime());
+            }
+        });
+        Path trace = tempDir.resolve("batch.trace");
+        try (TraceRecorder recorder = new TraceRecorder(trace)) {
+            simulator.addListener(recorder);
+            simulator.initialize();
+            simulator.run(2000);
+        }
+
+        List<Double> recorded = new ArrayList<>();
+        try (TraceReader reader = new TraceReader(trace)) {
+            reader.forEach(record -> {
+                if (record.type() == TraceRecord.Type.SERVICE_START) {
+                    recorded.add(record.time());
+                }
+            });
+        }
+        assertEquals(starts, recorded);
+    }
+
+    @Test
+    void readsTraceWithoutNameTables() throws IOException {
+        Path trace = tempDir.resolve("run.trace");
+        record(trace);
+        long count;
+        try (TraceReader reader = new TraceReader(trace)) {
+            count = reader.getRecordCount();
+        }
+        // cut into the name tables as if the process died while closing
+        try (FileChannel channel = FileChannel.open(trace, StandardOpenOption.WRITE)) {
+            channel.truncate(TraceRecorder.HEADER_SIZE + count * TraceRecorder.RECORD_SIZE + 3);
+        }
+
+        try (TraceReader reader = new TraceReader(trace)) {
+            assertEquals(count, reader.getRecordCount());
+            assertTrue(reader.getStationNames().isEmpty());
+            assertEquals("#0", reader.stationName(0));
+        }
+    }
+
+    private static long countType(TraceReader reader, TraceRecord.Type type) throws IOException {
+        long[] count = {0};
+        reader.forEach(record -> {
+            if (record.type() == type) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    private static String run(String command, TraceReader reader, Map<String, String> options) throws IOException {
+        StringWriter text = new StringWriter();
+        TraceMain.run(command, reader, options, new PrintWriter(text));
+        return text.toString();
+    }
+}
@@ -0,0 +1,147 @@
+package simulation.ui;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import simu.framework.Trace;
+import simulation.model.Customer;
+import simulation.statistics.LiveStatisticsPublisher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link Controller}.
+ * <p>
+ * Verifies that every start opens a new run next to the ones already going,
+ * that each run reports to its own display, and that the controls act on
+ * the selected run only.
+ * </p>
+ */
+class ControllerTest {
+
+    private final RecordingUI ui = new RecordingUI();
+    private final Controller controller = new Controller(ui, Runnable::run);
+
+    @BeforeAll
+    static void quietTrace() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+    }
+
+    @Test
+    void runsGoSideBySide() throws Exception {
+        ui.time = 200_000;
+        controller.startSimulation();
+        controller.pauseSimulation();
+        assertTrue(controller.isSimulationPaused());
+
+        ui.time = 2_000;
+        controller.startSimulation();
+        assertEquals(List.of(1, 2), ui.runs);
+        assertTrue(controller.isSimulationRunning());
+        assertFalse(controller.isSimulationPaused());
+        awaitTrue(() -> ui.summaries.containsKey(2));
+        assertFalse(controller.isSimulationRunning());
+        assertEquals(2_000, ui.summaries.get(2).simulationTime(), 1e-9);
+        assertTrue(ui.moves(2) > 0);
+
+        controller.selectRun(1);
+        assertTrue(controller.isSimulationRunning());
+        assertTrue(controller.isSimulationPaused());
+        assertFalse(ui.summaries.containsKey(1));
+        controller.resumeSimulation();
+        awaitTrue(() -> ui.summaries.containsKey(1));
+        assertFalse(controller.isSimulationRunning());
+        assertEquals(200_000, ui.summaries.get(1).simulationTime(), 1e-9);
+        assertTrue(ui.moves(1) > ui.moves(2));
+        assertTrue(ui.failures.isEmpty());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "run did not finish");
+            Thread.sleep(1);
+        }
+    }
+
+    private static final class RecordingUI implements ISimulatorUI {
+        private final List<Integer> runs = new CopyOnWriteArrayList<>();
+        private final Map<Integer, AtomicInteger> moves = new ConcurrentHashMap<>();
+        private final Map<Integer, SimulationSummary> summaries = new ConcurrentHashMap<>();
+        private final Map<Integer, String> failures = new ConcurrentHashMap<>();
+        private volatile double time;
+
+        int moves(int run) {
+            return moves.get(run).get();
+        }
+
+        @Override
+        public double getTime() {
+            return time;
+        }
+
+        @Override
+        public long getDelay() {
+            return 0;
+        }
+
+        @Override
+        public void setEndingTime(double time) {
+        }
+
+        @Override
+        public void addRun(int run) {
+            runs.add(run);
+            moves.put(run, new AtomicInteger());
+        }
+
+        @Override
+        public IVisualisation getVisualisation(int run) {
+            AtomicInteger count = moves.get(run);
+            return new IVisualisation() {
+                @Override
+                public void clearDisplay() {
+                }
+
+                @Override
+                public void addCustomer(Customer customer, int servicePointIndex) {
+                    count.incrementAndGet();
+                }
+
+                @Override
+                public void moveCustomer(Customer customer, int servicePointIndex) {
+                    count.incrementAndGet();
+                }
+
+                @Override
+                public void removeCustomer(Customer customer) {
+                    count.incrementAndGet();
+                }
+            };
+        }
+
+        @Override
+        public void showCurrentDelay(long delay) {
+        }
+
+        @Override
+        public void showSummary(int run, SimulationSummary summary) {
+            summaries.put(run, summary);
+        }
+
+        @Override
+        public void showFailure(int run, String message) {
+            failures.put(run, message);
+        }
+
+        @Override
+        public void showLiveStatistics(int run, LiveStatisticsPublisher source) {
+        }
+    }
+}
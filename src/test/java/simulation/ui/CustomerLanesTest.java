@@ -0,0 +1,87 @@
+package simulation.ui;
+
+import org.junit.jupiter.api.Test;
+import simulation.model.Customer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link CustomerLanes}.
+ * <p>
+ * Verifies queue order within lanes, the per-type counts, and the dirty
+ * state that tells the renderer whether to draw only newcomers or the
+ * whole lane.
+ * </p>
+ */
+class CustomerLanesTest {
+
+    @Test
+    void keepsCustomersInJoiningOrder() {
+        CustomerLanes lanes = new CustomerLanes(2);
+        Customer a = new Customer("INSTORE", 0);
+        Customer b = new Customer("INSTORE", 0);
+        Customer c = new Customer("MOBILE", 0);
+        lanes.move(a, 0);
+        lanes.move(b, 0);
+        lanes.move(c, 0);
+        lanes.move(a, 1);
+        lanes.move(a, 0);
+
+        assertEquals(List.of(b, c, a), List.copyOf(lanes.customers(0)));
+        assertEquals(0, lanes.size(1));
+        lanes.remove(b);
+        lanes.remove(b);
+        assertEquals(List.of(c, a), List.copyOf(lanes.customers(0)));
+    }
+
+    @Test
+    void tracksWhatNeedsDrawing() {
+        CustomerLanes lanes = new CustomerLanes(2);
+        Customer a = new Customer("INSTORE", 0);
+        Customer b = new Customer("INSTORE", 0);
+        lanes.markAllForReflow();
+        lanes.markDrawn(0);
+        lanes.markDrawn(1);
+
+        lanes.move(a, 0);
+        lanes.move(b, 0);
+        assertTrue(lanes.isDirty(0));
+        assertFalse(lanes.needsReflow(0));
+        assertEquals(List.of(a, b), lanes.joinedSinceDrawn(0));
+        assertFalse(lanes.isDirty(1));
+
+        lanes.markDrawn(0);
+        assertFalse(lanes.isDirty(0));
+        lanes.move(b, 0);
+        assertFalse(lanes.isDirty(0), "staying in the same lane changes nothing");
+
+        lanes.move(a, 1);
+        assertTrue(lanes.needsReflow(0));
+        assertTrue(lanes.joinedSinceDrawn(0).isEmpty());
+        assertEquals(List.of(a), lanes.joinedSinceDrawn(1));
+    }
+
+    @Test
+    void countsCustomersByType() {
+        CustomerLanes lanes = new CustomerLanes(2);
+        Customer[] customers = new Customer[10];
+        for (int i = 0; i < customers.length; i++) {
+            customers[i] = new Customer(i % 3 == 0 ? "MOBILE" : "INSTORE", 0);
+            lanes.move(customers[i], 0);
+        }
+        assertEquals(6, lanes.count(0, "INSTORE"));
+        assertEquals(4, lanes.count(0, "MOBILE"));
+
+        lanes.move(customers[0], 1);
+        lanes.move(customers[1], 1);
+        lanes.remove(customers[2]);
+        assertEquals(4, lanes.count(0, "INSTORE"));
+        assertEquals(3, lanes.count(0, "MOBILE"));
+        assertEquals(1, lanes.count(1, "INSTORE"));
+        assertEquals(1, lanes.count(1, "MOBILE"));
+
+        lanes.clear();
+        assertEquals(0, lanes.count(0, "INSTORE"));
+    }
+}
@@ -0,0 +1,108 @@
+package simulation.ui;
+
+import org.junit.jupiter.api.Test;
+import simulation.model.Customer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+/**
+ * Unit tests for {@link CustomerUpdateBuffer}.
+ * <p>
+ * Verifies that movements between frames are conflated into one delta,
+ * that at most one frame is pending at a time, and that discarded
+ * movements never reach the visualisation.
+ * </p>
+ */
+class CustomerUpdateBufferTest {
+
+    private final List<Map<Customer, Integer>> frames = new ArrayList<>();
+    private final Map<Customer, Integer> shown = new LinkedHashMap<>();
+    private final BlockingQueue<Runnable> uiTasks = new LinkedBlockingQueue<>();
+
+    private final IVisualisation view = new IVisualisation() {
+        @Override
+        public void clearDisplay() {
+            shown.clear();
+        }
+
+        @Override
+        public void addCustomer(Customer customer, int servicePointIndex) {
+            shown.put(customer, servicePointIndex);
+        }
+
+        @Override
+        public void moveCustomer(Customer customer, int servicePointIndex) {
+            shown.put(customer, servicePointIndex);
+        }
+
+        @Override
+        public void removeCustomer(Customer customer) {
+            shown.remove(customer);
+        }
+
+        @Override
+        public void updateCustomers(Map<Customer, Integer> lanes) {
+            frames.add(Map.copyOf(lanes));
+            IVisualisation.super.updateCustomers(lanes);
+        }
+    };
+
+    @Test
+    void conflatesMovementsIntoOneFrame() {
+        CustomerUpdateBuffer buffer = new CustomerUpdateBuffer(() -> view, uiTasks::add,
+                TimeUnit.HOURS.toNanos(1));
+        Customer first = new Customer("INSTORE", 0);
+        Customer second = new Customer("MOBILE", 0);
+        for (int lane = 0; lane < 4; lane++) {
+            buffer.move(first, lane);
+            buffer.move(second, lane);
+        }
+        buffer.remove(second);
+
+        assertEquals(1, uiTasks.size());
+        uiTasks.poll().run();
+        assertEquals(List.of(Map.of(first, 3, second, CustomerUpdateBuffer.REMOVED)), frames);
+        assertEquals(Map.of(first, 3), shown);
+    }
+
+    @Test
+    void waitsForTheNextFrame() throws InterruptedException {
+        CustomerUpdateBuffer buffer = new CustomerUpdateBuffer(() -> view, uiTasks::add,
+                TimeUnit.MILLISECONDS.toNanos(50));
+        Customer customer = new Customer("INSTORE", 0);
+        buffer.move(customer, 0);
+        uiTasks.take().run();
+
+        buffer.move(customer, 1);
+        buffer.move(customer, 2);
+        assertTrue(uiTasks.isEmpty(), "a second frame must wait for the frame interval");
+        Runnable next = uiTasks.poll(5, TimeUnit.SECONDS);
+        assertNotNull(next);
+        next.run();
+        assertEquals(2, frames.size());
+        assertEquals(Map.of(customer, 2), shown);
+    }
+
+    @Test
+    void discardedMovementsAreNotShown() {
+        CustomerUpdateBuffer buffer = new CustomerUpdateBuffer(() -> view, uiTasks::add,
+                TimeUnit.HOURS.toNanos(1));
+        buffer.move(new Customer("INSTORE", 0), 0);
+        buffer.discard();
+        uiTasks.poll().run();
+        assertTrue(frames.isEmpty());
+
+        Customer later = new Customer("MOBILE", 0);
+        buffer.move(later, 1);
+        buffer.flush();
+        uiTasks.poll().run();
+        assertEquals(Map.of(later, 1), shown);
+    }
+}